@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.benchmark;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.functions.FilterFunctionLibrary;
+import io.sapl.functions.StandardFunctionLibrary;
+import io.sapl.functions.TemporalFunctionLibrary;
+import io.sapl.grammar.sapl.CombiningAlgorithm;
+import io.sapl.grammar.sapl.SAPL;
+import io.sapl.interpreter.DefaultSAPLInterpreter;
+import io.sapl.interpreter.InitializationException;
+import io.sapl.interpreter.SAPLInterpreter;
+import io.sapl.interpreter.combinators.CombiningAlgorithmFactory;
+import io.sapl.interpreter.combinators.PolicyDocumentCombiningAlgorithm;
+import io.sapl.interpreter.context.AuthorizationContext;
+import io.sapl.interpreter.functions.AnnotationFunctionContext;
+import io.sapl.interpreter.functions.FunctionContext;
+import io.sapl.interpreter.pip.AnnotationAttributeContext;
+import io.sapl.interpreter.pip.AttributeContext;
+import io.sapl.pdp.config.VariablesAndCombinatorSource;
+import io.sapl.pip.TimePolicyInformationPoint;
+import io.sapl.prp.PrpUpdateEvent;
+import io.sapl.prp.PrpUpdateEvent.Type;
+import io.sapl.prp.PrpUpdateEvent.Update;
+import io.sapl.prp.PrpUpdateEventSource;
+import io.sapl.prp.index.ImmutableParsedDocumentIndex;
+import io.sapl.prp.index.canonical.CanonicalImmutableParsedDocumentIndex;
+import io.sapl.prp.index.naive.NaiveImmutableParsedDocumentIndex;
+import lombok.experimental.UtilityClass;
+import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
+
+/**
+ * Shared setup code of the benchmarks. Everything in here is executed outside
+ * of the measured code.
+ */
+@UtilityClass
+class BenchmarkFixtures {
+
+    static final SAPLInterpreter INTERPRETER = new DefaultSAPLInterpreter();
+
+    static FunctionContext functionContext() throws InitializationException {
+        var functionCtx = new AnnotationFunctionContext();
+        functionCtx.loadLibrary(FilterFunctionLibrary.class);
+        functionCtx.loadLibrary(StandardFunctionLibrary.class);
+        functionCtx.loadLibrary(TemporalFunctionLibrary.class);
+        return functionCtx;
+    }
+
+    static AttributeContext attributeContext() throws InitializationException {
+        var attributeCtx = new AnnotationAttributeContext();
+        attributeCtx.loadPolicyInformationPoint(new TimePolicyInformationPoint(Clock.systemUTC()));
+        return attributeCtx;
+    }
+
+    static List<SAPL> parsedPolicies(int numberOfDocuments) {
+        return GeneratedPolicies.policies(numberOfDocuments).stream().map(INTERPRETER::parse).toList();
+    }
+
+    static PrpUpdateEvent publishAll(List<SAPL> documents) {
+        return new PrpUpdateEvent(
+                documents.stream().map(document -> new Update(Type.PUBLISH, document, null)).toList());
+    }
+
+    static ImmutableParsedDocumentIndex emptyIndex(IndexType indexType, AttributeContext attributeCtx,
+            FunctionContext functionCtx) {
+        if (indexType == IndexType.CANONICAL)
+            return new CanonicalImmutableParsedDocumentIndex(attributeCtx, functionCtx);
+        return new NaiveImmutableParsedDocumentIndex();
+    }
+
+    static Context subscriptionScopedContext(Context ctx, AttributeContext attributeCtx, FunctionContext functionCtx,
+            AuthorizationSubscription authorizationSubscription) {
+        ctx = AuthorizationContext.setAttributeContext(ctx, attributeCtx);
+        ctx = AuthorizationContext.setFunctionContext(ctx, functionCtx);
+        ctx = AuthorizationContext.setVariables(ctx, Map.of());
+        return AuthorizationContext.setSubscriptionVariables(ctx, authorizationSubscription);
+    }
+
+    /**
+     * Publishes a fixed set of documents once and never changes afterwards.
+     */
+    static class FixedPrpUpdateEventSource implements PrpUpdateEventSource {
+
+        private final PrpUpdateEvent event;
+
+        FixedPrpUpdateEventSource(List<SAPL> documents) {
+            event = publishAll(documents);
+        }
+
+        @Override
+        public Flux<PrpUpdateEvent> getUpdates() {
+            return Flux.just(event);
+        }
+
+        @Override
+        public void dispose() {
+            // NOOP
+        }
+
+    }
+
+    /**
+     * Deny-overrides without any PDP-level variables.
+     */
+    static class FixedVariablesAndCombinatorSource implements VariablesAndCombinatorSource {
+
+        private static final CombiningAlgorithm ALGORITHM = CombiningAlgorithmFactory
+                .getCombiningAlgorithm(PolicyDocumentCombiningAlgorithm.DENY_OVERRIDES);
+
+        @Override
+        public Flux<Optional<CombiningAlgorithm>> getCombiningAlgorithm() {
+            return Flux.just(Optional.of(ALGORITHM));
+        }
+
+        @Override
+        public Flux<Optional<Map<String, Val>>> getVariables() {
+            return Flux.just(Optional.of(Map.<String, Val>of()));
+        }
+
+    }
+
+}
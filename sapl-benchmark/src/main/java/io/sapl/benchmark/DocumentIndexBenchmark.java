@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.sapl.interpreter.InitializationException;
+import io.sapl.prp.PolicyRetrievalResult;
+import io.sapl.prp.index.ImmutableParsedDocumentIndex;
+import reactor.util.context.Context;
+
+/**
+ * Policy retrieval of the canonical index, i.e., CanonicalIndexAlgorithm.match,
+ * compared to the naive index, which evaluates the target expression of every
+ * document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DocumentIndexBenchmark {
+
+    private static final int NUMBER_OF_SUBSCRIPTIONS = 64;
+
+    @Param({ "10", "100", "1000", "10000", "100000" })
+    int numberOfDocuments;
+
+    @Param({ "NAIVE", "CANONICAL" })
+    IndexType indexType;
+
+    private ImmutableParsedDocumentIndex index;
+
+    private Context[] subscriptionContexts;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InitializationException {
+        var attributeCtx = BenchmarkFixtures.attributeContext();
+        var functionCtx  = BenchmarkFixtures.functionContext();
+        var documents    = BenchmarkFixtures.parsedPolicies(numberOfDocuments);
+        index                = BenchmarkFixtures.emptyIndex(indexType, attributeCtx, functionCtx)
+                .apply(BenchmarkFixtures.publishAll(documents));
+        subscriptionContexts = new Context[NUMBER_OF_SUBSCRIPTIONS];
+        for (var i = 0; i < NUMBER_OF_SUBSCRIPTIONS; i++) {
+            var subscription = GeneratedPolicies.subscription(i * numberOfDocuments / NUMBER_OF_SUBSCRIPTIONS);
+            subscriptionContexts[i] = BenchmarkFixtures.subscriptionScopedContext(Context.empty(), attributeCtx,
+                    functionCtx, subscription);
+        }
+    }
+
+    @Benchmark
+    public PolicyRetrievalResult retrievePolicies() {
+        var subscriptionContext = subscriptionContexts[ThreadLocalRandom.current().nextInt(NUMBER_OF_SUBSCRIPTIONS)];
+        return index.retrievePolicies().contextWrite(subscriptionContext).block();
+    }
+
+}
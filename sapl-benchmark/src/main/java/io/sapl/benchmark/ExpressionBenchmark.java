@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.Condition;
+import io.sapl.grammar.sapl.Expression;
+import io.sapl.grammar.sapl.Policy;
+import io.sapl.interpreter.InitializationException;
+import reactor.util.context.Context;
+
+/**
+ * Evaluation of a single expression against an authorization subscription. The
+ * expressions are taken from the body of a policy, so that lazy operators are
+ * permitted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ExpressionBenchmark {
+
+    // @formatter:off
+    @Param({
+        "subject.role == \"role_3\" & action == \"action_3\"",
+        "subject.role == \"role_3\" && (action == \"action_3\" || action == \"manage\")",
+        "resource.id > 1 && resource.id < 1000",
+        "subject.department in [\"department_1\", \"department_3\"]",
+        "subject.name =~ \"^user_[0-9]+$\"",
+        "standard.length(subject.name) > 3",
+        "subject |- { @.name : filter.blacken }"
+    })
+    // @formatter:on
+    String expression;
+
+    private Expression parsedExpression;
+
+    private Context subscriptionContext;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InitializationException {
+        var policy    = (Policy) BenchmarkFixtures.INTERPRETER
+                .parse("policy \"expression\" permit where " + expression + ";").getPolicyElement();
+        var condition = (Condition) policy.getBody().getStatements().get(0);
+        parsedExpression    = condition.getExpression();
+        subscriptionContext = BenchmarkFixtures.subscriptionScopedContext(Context.empty(),
+                BenchmarkFixtures.attributeContext(), BenchmarkFixtures.functionContext(),
+                GeneratedPolicies.subscription(3));
+    }
+
+    @Benchmark
+    public Val evaluate() {
+        return parsedExpression.evaluate().contextWrite(subscriptionContext).blockFirst();
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.functions.StandardFunctionLibrary;
+import io.sapl.interpreter.InitializationException;
+import io.sapl.interpreter.functions.FunctionContext.FunctionHandle;
+import io.sapl.interpreter.pip.LibraryMethodInvokers;
+
+/**
+ * Invocation of a library function via reflection compared to the method
+ * handles created at library load time. The bound handle additionally includes
+ * the parameter validation of the function context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FunctionInvocationBenchmark {
+
+    private Val[] parameters;
+
+    private Method method;
+
+    private MethodHandle invoker;
+
+    private FunctionHandle boundFunction;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InitializationException, NoSuchMethodException {
+        parameters    = new Val[] { Val.of("user_42") };
+        method        = StandardFunctionLibrary.class.getMethod("length", Val.class);
+        invoker       = LibraryMethodInvokers.functionInvoker(MethodHandles.lookup(), null, method, false);
+        boundFunction = BenchmarkFixtures.functionContext().bind("standard.length");
+    }
+
+    @Benchmark
+    public Val reflective() throws IllegalAccessException, InvocationTargetException {
+        return (Val) method.invoke(null, (Object[]) parameters);
+    }
+
+    @Benchmark
+    public Val methodHandle() throws Throwable {
+        return (Val) invoker.invokeExact(parameters);
+    }
+
+    @Benchmark
+    public Val boundFunction() {
+        return boundFunction.evaluate(parameters);
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.benchmark;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import io.sapl.api.pdp.AuthorizationSubscription;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Deterministic generator for policy sets and matching authorization
+ * subscriptions. The n-th subscription matches the n-th policy and, depending
+ * on the size of the policy set, a small number of further policies sharing the
+ * same role, action and resource type.
+ */
+@UtilityClass
+public class GeneratedPolicies {
+
+    static final int NUMBER_OF_ROLES          = 50;
+    static final int NUMBER_OF_ACTIONS        = 10;
+    static final int NUMBER_OF_DEPARTMENTS    = 7;
+    static final int NUMBER_OF_RESOURCE_TYPES = 1000;
+
+    private static final String POLICY_TEMPLATE = """
+            policy "policy_%d"
+            %s subject.role == "role_%d" & (action == "action_%d" | action == "manage") & resource.type == "type_%d"
+            where
+                subject.department == "department_%d";
+            """;
+
+    private static final JsonNodeFactory JSON = JsonNodeFactory.instance;
+
+    /**
+     * @param numberOfDocuments the size of the policy set
+     * @return the source code of numberOfDocuments distinct policies.
+     */
+    public static List<String> policies(int numberOfDocuments) {
+        return IntStream.range(0, numberOfDocuments).mapToObj(GeneratedPolicies::policy).toList();
+    }
+
+    /**
+     * @param index the number of the policy
+     * @return the source code of the policy with the given number.
+     */
+    public static String policy(int index) {
+        var entitlement = index % 3 == 0 ? "deny" : "permit";
+        return String.format(POLICY_TEMPLATE, index, entitlement, index % NUMBER_OF_ROLES, index % NUMBER_OF_ACTIONS,
+                index % NUMBER_OF_RESOURCE_TYPES, index % NUMBER_OF_DEPARTMENTS);
+    }
+
+    /**
+     * @param index the number of the policy the subscription should match
+     * @return an authorization subscription matching the policy with the given
+     *         number.
+     */
+    public static AuthorizationSubscription subscription(int index) {
+        var subject = JSON.objectNode();
+        subject.put("name", "user_" + index);
+        subject.put("role", "role_" + index % NUMBER_OF_ROLES);
+        subject.put("department", "department_" + index % NUMBER_OF_DEPARTMENTS);
+        var resource = JSON.objectNode();
+        resource.put("id", index);
+        resource.put("type", "type_" + index % NUMBER_OF_RESOURCE_TYPES);
+        return AuthorizationSubscription.of(subject, "action_" + index % NUMBER_OF_ACTIONS, resource);
+    }
+
+}
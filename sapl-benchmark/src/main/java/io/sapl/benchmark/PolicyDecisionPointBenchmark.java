@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.benchmark.BenchmarkFixtures.FixedPrpUpdateEventSource;
+import io.sapl.benchmark.BenchmarkFixtures.FixedVariablesAndCombinatorSource;
+import io.sapl.interpreter.InitializationException;
+import io.sapl.pdp.EmbeddedPolicyDecisionPoint;
+import io.sapl.pdp.config.fixed.FixedFunctionsAndAttributesPDPConfigurationProvider;
+import io.sapl.prp.GenericInMemoryIndexedPolicyRetrievalPoint;
+
+/**
+ * End-to-end latency of the embedded PDP from the authorization subscription to
+ * the first decision.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PolicyDecisionPointBenchmark {
+
+    private static final int NUMBER_OF_SUBSCRIPTIONS = 64;
+
+    @Param({ "10", "100", "1000", "10000", "100000" })
+    int numberOfDocuments;
+
+    @Param({ "NAIVE", "CANONICAL" })
+    IndexType indexType;
+
+    private GenericInMemoryIndexedPolicyRetrievalPoint prp;
+
+    private EmbeddedPolicyDecisionPoint pdp;
+
+    private AuthorizationSubscription[] subscriptions;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InitializationException {
+        var attributeCtx          = BenchmarkFixtures.attributeContext();
+        var functionCtx           = BenchmarkFixtures.functionContext();
+        var documents             = BenchmarkFixtures.parsedPolicies(numberOfDocuments);
+        var configurationProvider = new FixedFunctionsAndAttributesPDPConfigurationProvider(attributeCtx, functionCtx,
+                new FixedVariablesAndCombinatorSource(), List.of(), List.of());
+        prp           = new GenericInMemoryIndexedPolicyRetrievalPoint(
+                BenchmarkFixtures.emptyIndex(indexType, attributeCtx, functionCtx),
+                new FixedPrpUpdateEventSource(documents));
+        pdp           = new EmbeddedPolicyDecisionPoint(configurationProvider, prp);
+        subscriptions = new AuthorizationSubscription[NUMBER_OF_SUBSCRIPTIONS];
+        for (var i = 0; i < NUMBER_OF_SUBSCRIPTIONS; i++)
+            subscriptions[i] = GeneratedPolicies.subscription(i * numberOfDocuments / NUMBER_OF_SUBSCRIPTIONS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pdp.destroy();
+        prp.dispose();
+    }
+
+    @Benchmark
+    public AuthorizationDecision decide() {
+        return pdp.decide(nextSubscription()).blockFirst();
+    }
+
+    @Benchmark
+    public AuthorizationDecision decideOnce() {
+        return pdp.decideOnce(nextSubscription()).block();
+    }
+
+    private AuthorizationSubscription nextSubscription() {
+        return subscriptions[ThreadLocalRandom.current().nextInt(NUMBER_OF_SUBSCRIPTIONS)];
+    }
+
+}
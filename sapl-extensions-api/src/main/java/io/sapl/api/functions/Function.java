@@ -53,4 +53,13 @@
      */
     String pathToSchema() default "";
 
+    /**
+     * Marks the function as pure, i.e., its result only depends on its parameters,
+     * and it has no side effects. The results of pure functions may be memoized and
+     * reused across evaluations.
+     *
+     * @return true, if the function is pure.
+     */
+    boolean pure() default false;
+
 }
@@ -93,6 +93,9 @@ public class Val implements Traced {
 
     private static final NumericAwareComparator NUMERIC_AWARE_COMPARATOR = new NumericAwareComparator();
 
+    /* marks values which do not record traces, never serialized */
+    private static final Trace UNTRACED = new Trace(Val.class);
+
     private final JsonNode value;
     private final String   errorMessage;
     /**
@@ -143,7 +146,99 @@ private Val(JsonNode value) {
      * @return marks a value to be a secret.
      */
     public Val asSecret() {
-        return new Val(value, errorMessage, true);
+        return new Val(value, errorMessage, true, isTraced() ? null : UNTRACED);
+    }
+
+    /**
+     * Marks the value to not record evaluation traces. The withTrace methods of an
+     * untraced value, or of a value with an untraced argument, return the value
+     * itself, i.e., neither a new value nor a trace is created. Only the secret
+     * status is still propagated. Thus, all values computed from an untraced value
+     * are untraced as well.
+     * <p>
+     * Values should only be untraced if no component, e.g., a reporting decision
+     * interceptor, consumes the traces of decisions.
+     *
+     * @return the value without trace and marked as untraced.
+     */
+    public Val untraced() {
+        if (!isTraced())
+            return this;
+        return new Val(value, errorMessage, secret, UNTRACED);
+    }
+
+    /**
+     * Objects and arrays are mutable. The copy of a value holding one of them does
+     * not share any JSON node with the value. Values holding no object or array are
+     * immutable and returned as they are.
+     *
+     * @return a copy of the value with the same secret status and trace.
+     */
+    public Val deepCopy() {
+        if (value == null || !value.isContainerNode())
+            return this;
+        return new Val(value.deepCopy(), errorMessage, secret, trace);
+    }
+
+    /**
+     * @return true, if the value records traces, see {@link #untraced()}.
+     */
+    public boolean isTraced() {
+        return trace != UNTRACED;
+    }
+
+    private Val untraced(boolean becomesSecret) {
+        if (!isTraced() && (secret || !becomesSecret))
+            return this;
+        return new Val(value, errorMessage, secret || becomesSecret, UNTRACED);
+    }
+
+    private static boolean anyIsUntraced(Val... values) {
+        for (var value : values) {
+            if (!value.isTraced())
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean anyIsUntraced(Iterable<Val> values) {
+        for (var value : values) {
+            if (!value.isTraced())
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean anyArgumentIsUntraced(ExpressionArgument... arguments) {
+        for (var argument : arguments) {
+            if (!argument.value().isTraced())
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean anyIsSecret(Val... values) {
+        for (var value : values) {
+            if (value.isSecret())
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean anyIsSecret(Iterable<Val> values) {
+        for (var value : values) {
+            if (value.isSecret())
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean anyArgumentIsSecret(ExpressionArgument... arguments) {
+        for (var argument : arguments) {
+            if (argument.value().isSecret())
+                return true;
+        }
+        return false;
     }
 
     /**
@@ -161,6 +256,8 @@ private Val withTrace(Trace trace) {
      * @return the Val with attached trace
      */
     public Val withTrace(Class<?> operation) {
+        if (!isTraced())
+            return this;
         return withTrace(new Trace(operation));
     }
 
@@ -174,6 +271,9 @@ public Val withTrace(Class<?> operation) {
      * @return the Val with attached trace
      */
     public Val withTrace(Class<?> operation, boolean inheritsSecretStatusOfTrace, Val... arguments) {
+        if (!isTraced() || anyIsUntraced(arguments))
+            return untraced(inheritsSecretStatusOfTrace && anyIsSecret(arguments));
+
         var newVal = withTrace(new Trace(operation, arguments));
 
         if (!inheritsSecretStatusOfTrace)
@@ -198,6 +298,9 @@ public Val withTrace(Class<?> operation, boolean inheritsSecretStatusOfTrace, Va
      * @return the Val with attached trace
      */
     public Val withTrace(Class<?> operation, boolean inheritsSecretStatusOfTrace, Map<String, Val> arguments) {
+        if (!isTraced() || anyIsUntraced(arguments.values()))
+            return untraced(inheritsSecretStatusOfTrace && anyIsSecret(arguments.values()));
+
         var newVal = withTrace(new Trace(operation, arguments));
 
         if (!inheritsSecretStatusOfTrace)
@@ -222,6 +325,9 @@ public Val withTrace(Class<?> operation, boolean inheritsSecretStatusOfTrace, Ma
      * @return the Val with attached trace
      */
     public Val withParentTrace(Class<?> operation, boolean inheritsSecretStatusOfTrace, Val parentValue) {
+        if (!isTraced() || !parentValue.isTraced())
+            return untraced(inheritsSecretStatusOfTrace && parentValue.isSecret());
+
         var newVal = withTrace(new Trace(operation, new ExpressionArgument(Trace.PARENT_VALUE, parentValue)));
         if (inheritsSecretStatusOfTrace && parentValue.isSecret()) {
             return newVal.asSecret();
@@ -239,6 +345,9 @@ public Val withParentTrace(Class<?> operation, boolean inheritsSecretStatusOfTra
      * @return the Val with attached trace
      */
     public Val withTrace(Class<?> operation, boolean inheritsSecretStatusOfTrace, ExpressionArgument... arguments) {
+        if (!isTraced() || anyArgumentIsUntraced(arguments))
+            return untraced(inheritsSecretStatusOfTrace && anyArgumentIsSecret(arguments));
+
         var newVal = withTrace(new Trace(operation, arguments));
 
         if (!inheritsSecretStatusOfTrace)
@@ -264,6 +373,9 @@ public Val withTrace(Class<?> operation, boolean inheritsSecretStatusOfTrace, Ex
      * @return the Val with attached trace
      */
     public Val withTrace(Val leftHandValue, Class<?> operation, boolean inheritsSecretStatusOfTrace, Val... arguments) {
+        if (!isTraced() || !leftHandValue.isTraced() || anyIsUntraced(arguments))
+            return untraced(inheritsSecretStatusOfTrace && (leftHandValue.isSecret() || anyIsSecret(arguments)));
+
         var newVal = this.withTrace(new Trace(leftHandValue, operation, arguments));
         if (!inheritsSecretStatusOfTrace)
             return newVal;
@@ -1202,7 +1314,7 @@ else if (isError()) {
 
         var traceJson = JSON.objectNode();
         traceJson.set(Trace.VALUE, val);
-        if (trace != null) {
+        if (trace != null && isTraced()) {
             traceJson.set(Trace.TRACE_KEY, trace.getTrace());
         }
         return traceJson;
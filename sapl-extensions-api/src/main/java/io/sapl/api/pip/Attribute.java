@@ -45,4 +45,26 @@
     String schema() default "";
 
     String pathToSchema() default "";
+
+    /**
+     * @return time in milliseconds a value of the attribute is answered from the
+     *         cache to new subscriptions. Subscriptions which only need this value,
+     *         e.g., of head attributes, do not ask the PIP again within this time.
+     *         Streaming subscriptions receive the cached value first and then share
+     *         one invocation of the PIP. Zero disables caching.
+     */
+    long cacheTimeToLiveMillis() default 0L;
+
+    /**
+     * @return time in milliseconds after the time to live, during which an expired
+     *         value is still answered to new subscriptions, while the value is
+     *         refreshed in the background.
+     */
+    long cacheStaleWhileRevalidateMillis() default 0L;
+
+    /**
+     * @return maximum number of cached values, i.e., distinct combinations of
+     *         left-hand value and arguments.
+     */
+    long cacheMaximumSize() default 1_000L;
 }
@@ -33,6 +33,7 @@
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import reactor.test.StepVerifier;
 
@@ -1023,4 +1024,69 @@ void filter() {
         sa.assertAll();
     }
 
+    @Test
+    void untracedValuesAreNotCopiedAndCarryNoTrace() {
+        var value = Val.of(123).untraced();
+        var sa    = new SoftAssertions();
+        sa.assertThat(value.isTraced()).isFalse();
+        sa.assertThat(value.untraced()).isSameAs(value);
+        sa.assertThat(value.withTrace(getClass())).isSameAs(value);
+        sa.assertThat(value.withTrace(getClass(), true, Val.of(1), Val.of(2))).isSameAs(value);
+        sa.assertThat(value.withTrace(getClass(), true, Map.of(Trace.LEFT, Val.of(1)))).isSameAs(value);
+        sa.assertThat(value.withParentTrace(getClass(), true, Val.of(1))).isSameAs(value);
+        sa.assertThat(value.withTrace(getClass(), true, new ExpressionArgument(Trace.KEY, Val.of(1)))).isSameAs(value);
+        sa.assertThat(value.withTrace(Val.of(1), getClass(), true, Val.of(2))).isSameAs(value);
+        sa.assertThat(value.asSecret().isTraced()).isFalse();
+        sa.assertAll();
+        assertThatJson(value.withTrace(getClass(), true, Val.of(1)).getTrace()).isObject()
+                .doesNotContainKey(Trace.TRACE_KEY);
+    }
+
+    @Test
+    void valuesComputedFromUntracedArgumentsAreUntraced() {
+        var untraced = Val.of(1).untraced();
+        var sa       = new SoftAssertions();
+        sa.assertThat(Val.of(2).withTrace(getClass(), false, Val.of(1), untraced).isTraced()).isFalse();
+        sa.assertThat(Val.of(2).withTrace(getClass(), false, Map.of(Trace.LEFT, untraced)).isTraced()).isFalse();
+        sa.assertThat(Val.of(2).withParentTrace(getClass(), false, untraced).isTraced()).isFalse();
+        sa.assertThat(Val.of(2).withTrace(getClass(), false, new ExpressionArgument(Trace.KEY, untraced)).isTraced())
+                .isFalse();
+        sa.assertThat(Val.of(2).withTrace(untraced, getClass(), false).isTraced()).isFalse();
+        sa.assertThat(Val.of(2).withTrace(getClass(), false, Val.of(1)).isTraced()).isTrue();
+        sa.assertAll();
+        assertThatJson(Val.of(2).withTrace(getClass(), false, untraced).getTrace()).isObject()
+                .doesNotContainKey(Trace.TRACE_KEY);
+    }
+
+    @Test
+    void deepCopiesShareNoMutableNodes() {
+        var object = Val.of(JSON.objectNode().put("key", "value")).withTrace(getClass());
+        var copy   = object.deepCopy();
+        ((ObjectNode) copy.get()).put("key", "modified");
+        var number = Val.of(1);
+
+        var sa = new SoftAssertions();
+        sa.assertThat(object.get().get("key").asText()).isEqualTo("value");
+        sa.assertThat(copy.getTrace()).isEqualTo(object.getTrace());
+        sa.assertThat(Val.ofEmptyArray().asSecret().deepCopy().isSecret()).isTrue();
+        sa.assertThat(number.deepCopy()).isSameAs(number);
+        sa.assertAll();
+    }
+
+    @Test
+    void withoutTracingSecretStatusIsStillInherited() {
+        var secret = Val.of("secret").asSecret();
+        var value  = Val.of(123).untraced();
+        var sa     = new SoftAssertions();
+        sa.assertThat(value.withTrace(getClass(), true, secret).isSecret()).isTrue();
+        sa.assertThat(value.withTrace(getClass(), false, secret).isSecret()).isFalse();
+        sa.assertThat(value.withTrace(getClass(), true, Map.of(Trace.LEFT, secret)).isSecret()).isTrue();
+        sa.assertThat(value.withParentTrace(getClass(), true, secret).isSecret()).isTrue();
+        sa.assertThat(value.withTrace(getClass(), true, new ExpressionArgument(Trace.KEY, secret)).isSecret()).isTrue();
+        sa.assertThat(value.withTrace(secret, getClass(), true).isSecret()).isTrue();
+        sa.assertThat(secret.untraced().withTrace(getClass(), false, value).isSecret()).isTrue();
+        sa.assertThat(value.withTrace(getClass(), true, secret).isTraced()).isFalse();
+        sa.assertAll();
+    }
+
 }
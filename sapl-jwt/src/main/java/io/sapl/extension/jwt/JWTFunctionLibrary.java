@@ -63,7 +63,7 @@ public class JWTFunctionLibrary {
      * @param rawToken a raw JWT token.
      * @return the contents of the JWT token as a Val.
      */
-    @Function
+    @Function(pure = true)
     public Val parseJwt(@Text Val rawToken) {
         try {
             var signedJwt = SignedJWT.parse(rawToken.getText());
@@ -19,15 +19,13 @@
 
 import java.util.HashMap;
 
-import com.networknt.schema.JsonMetaSchema;
 import com.networknt.schema.JsonSchemaException;
-import com.networknt.schema.JsonSchemaFactory;
-import com.networknt.schema.resource.MapSchemaLoader;
 
 import io.sapl.api.functions.Function;
 import io.sapl.api.functions.FunctionLibrary;
 import io.sapl.api.interpreter.Val;
 import io.sapl.api.validation.JsonObject;
+import io.sapl.interpreter.validation.JsonSchemaValidators;
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
@@ -54,12 +52,12 @@ public class SchemaValidationLibrary {
 
     private static final String ID = "$id";
 
-    @Function(docs = IS_COMPLIANT_WITH_SCHEMA_VAL_DOC, schema = RETURNS_BOOLEAN)
+    @Function(docs = IS_COMPLIANT_WITH_SCHEMA_VAL_DOC, schema = RETURNS_BOOLEAN, pure = true)
     public static Val isCompliant(Val validationSubject, @JsonObject Val jsonSchema) {
         return isCompliantWithExternalSchemas(validationSubject, jsonSchema, Val.ofEmptyArray());
     }
 
-    @Function(docs = IS_COMPLIANT_WITH_SCHEMA_VAL_EXTERNAL_DOC, schema = RETURNS_BOOLEAN)
+    @Function(docs = IS_COMPLIANT_WITH_SCHEMA_VAL_EXTERNAL_DOC, schema = RETURNS_BOOLEAN, pure = true)
     public static Val isCompliantWithExternalSchemas(Val validationSubject, @JsonObject Val jsonSchema, Val externals) {
         if (validationSubject.isError()) {
             return validationSubject;
@@ -78,13 +76,8 @@ public static Val isCompliantWithExternalSchemas(Val validationSubject, @JsonObj
             }
         }
 
-        var schemaLoader  = new MapSchemaLoader(schemaMap);
-        var schemaFactory = JsonSchemaFactory.builder().schemaLoaders(schemaLoaders -> schemaLoaders.add(schemaLoader))
-                .addMetaSchema(JsonMetaSchema.getV202012()).defaultMetaSchemaURI(JsonMetaSchema.getV202012().getUri())
-                .build();
-
         try {
-            var validator = schemaFactory.getSchema(jsonSchema.getJsonNode());
+            var validator = JsonSchemaValidators.schema(jsonSchema.getJsonNode(), schemaMap);
             var messages  = validator.validate(validationSubject.get());
             return Val.of(messages.isEmpty());
         } catch (JsonSchemaException e) {
@@ -86,7 +86,7 @@ public static Val onErrorMap(Val guardedExpression, Val fallbackValue) {
     }
 
     @SneakyThrows
-    @Function(docs = XML_TO_JSON_DOC)
+    @Function(docs = XML_TO_JSON_DOC, pure = true)
     public Val xmlToJson(@Text Val xml) {
         return Val.of(XML_MAPPER.readTree(xml.getText()));
     }
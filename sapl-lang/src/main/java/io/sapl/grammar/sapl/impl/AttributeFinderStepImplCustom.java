@@ -28,9 +28,13 @@
 import io.sapl.grammar.sapl.AttributeFinderStep;
 import io.sapl.grammar.sapl.FilterStatement;
 import io.sapl.grammar.sapl.impl.util.FunctionUtil;
+import io.sapl.grammar.sapl.impl.util.HandleBinding;
 import io.sapl.grammar.sapl.impl.util.TargetExpressionUtil;
+import io.sapl.interpreter.pip.AttributeContext;
+import io.sapl.interpreter.pip.AttributeContext.AttributeHandle;
 import lombok.NonNull;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Implements the application of an attribute finder step to a previous value.
@@ -44,35 +48,35 @@ public class AttributeFinderStepImplCustom extends AttributeFinderStepImpl {
     private static final String UNDEFINED_VALUE_ERROR                     = "Undefined value handed over as left-hand parameter to policy information point";
     private static final String EXTERNAL_ATTRIBUTE_IN_TARGET_ERROR        = "Attribute resolution error. Attributes are not allowed in target.";
 
+    private final HandleBinding<AttributeContext, AttributeHandle> attribute = new HandleBinding<>(
+            (attributeContext, name) -> attributeContext.bindAttribute(name, getArguments()));
+
     @Override
     public Flux<Val> apply(@NonNull Val parentValue) {
 
         return Flux.deferContextual(ctxView -> {
-            var attributeName = FunctionUtil.resolveAbsoluteFunctionName(getIdSteps(), getImports(ctxView));
-
             if (parentValue.isError()) {
                 return Flux.just(parentValue.withTrace(AttributeFinderStep.class, false,
-                        Map.of(Trace.PARENT_VALUE, parentValue, Trace.ATTRIBUTE, Val.of(attributeName))));
+                        Map.of(Trace.PARENT_VALUE, parentValue, Trace.ATTRIBUTE, attributeName(ctxView))));
             }
             if (TargetExpressionUtil.isInTargetExpression(this)) {
                 return Flux.just(Val.error(EXTERNAL_ATTRIBUTE_IN_TARGET_ERROR).withTrace(AttributeFinderStep.class,
-                        false, Map.of(Trace.PARENT_VALUE, parentValue, Trace.ATTRIBUTE, Val.of(attributeName))));
+                        false, Map.of(Trace.PARENT_VALUE, parentValue, Trace.ATTRIBUTE, attributeName(ctxView))));
             }
             if (parentValue.isUndefined()) {
                 return Flux.just(Val.error(UNDEFINED_VALUE_ERROR).withTrace(AttributeFinderStep.class, false,
-                        Map.of(Trace.PARENT_VALUE, parentValue, Trace.ATTRIBUTE, Val.of(attributeName))));
+                        Map.of(Trace.PARENT_VALUE, parentValue, Trace.ATTRIBUTE, attributeName(ctxView))));
             }
 
-            var attributeContext = getAttributeContext(ctxView);
-            var variables        = getVariables(ctxView);
-            // @formatter:off
-			return attributeContext
-					.evaluateAttribute(attributeName, parentValue, getArguments(), variables)
-					.distinctUntilChanged();
-			// @formatter:on
+            var handle = attribute.bind(getAttributeContext(ctxView), getIdSteps(), ctxView).getHandle();
+            return handle.evaluate(parentValue, getVariables(ctxView)).distinctUntilChanged();
         });
     }
 
+    private Val attributeName(ContextView ctxView) {
+        return Val.of(FunctionUtil.resolveAbsoluteFunctionName(getIdSteps(), getImports(ctxView)));
+    }
+
     @Override
     public Flux<Val> applyFilterStatement(@NonNull Val parentValue, int stepId, @NonNull FilterStatement statement) {
         return Val.errorFlux(ATTRIBUTE_FINDER_STEP_NOT_PERMITTED_ERROR);
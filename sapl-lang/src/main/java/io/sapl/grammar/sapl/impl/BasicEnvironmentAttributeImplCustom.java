@@ -23,8 +23,11 @@
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.AttributeFinderStep;
 import io.sapl.grammar.sapl.impl.util.FunctionUtil;
+import io.sapl.grammar.sapl.impl.util.HandleBinding;
 import io.sapl.grammar.sapl.impl.util.TargetExpressionUtil;
 import io.sapl.interpreter.context.AuthorizationContext;
+import io.sapl.interpreter.pip.AttributeContext;
+import io.sapl.interpreter.pip.AttributeContext.EnvironmentAttributeHandle;
 import reactor.core.publisher.Flux;
 
 /**
@@ -34,18 +37,22 @@ public class BasicEnvironmentAttributeImplCustom extends BasicEnvironmentAttribu
 
     private static final String EXTERNAL_ATTRIBUTE_IN_TARGET_ERROR = "Attribute resolution error. Attributes not allowed in target.";
 
+    private final HandleBinding<AttributeContext, EnvironmentAttributeHandle> attribute = new HandleBinding<>(
+            (attributeContext, name) -> attributeContext.bindEnvironmentAttribute(name, getArguments()));
+
     @Override
     public Flux<Val> evaluate() {
         return Flux.deferContextual(ctxView -> {
-            var attributeName = FunctionUtil.resolveAbsoluteFunctionName(getIdSteps(),
-                    AuthorizationContext.getImports(ctxView));
-
-            if (TargetExpressionUtil.isInTargetExpression(this))
+            if (TargetExpressionUtil.isInTargetExpression(this)) {
+                var attributeName = FunctionUtil.resolveAbsoluteFunctionName(getIdSteps(),
+                        AuthorizationContext.getImports(ctxView));
                 return Flux.just(Val.error(EXTERNAL_ATTRIBUTE_IN_TARGET_ERROR).withTrace(AttributeFinderStep.class,
                         false, Map.of(Trace.ATTRIBUTE, Val.of(attributeName))));
+            }
 
-            return AuthorizationContext.getAttributeContext(ctxView).evaluateEnvironmentAttribute(attributeName,
-                    getArguments(), AuthorizationContext.getVariables(ctxView)).distinctUntilChanged();
+            var handle = attribute.bind(AuthorizationContext.getAttributeContext(ctxView), getIdSteps(), ctxView)
+                    .getHandle();
+            return handle.evaluate(AuthorizationContext.getVariables(ctxView)).distinctUntilChanged();
         });
     }
 
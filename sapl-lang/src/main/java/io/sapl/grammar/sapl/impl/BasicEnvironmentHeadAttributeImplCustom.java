@@ -23,8 +23,11 @@
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.AttributeFinderStep;
 import io.sapl.grammar.sapl.impl.util.FunctionUtil;
+import io.sapl.grammar.sapl.impl.util.HandleBinding;
 import io.sapl.grammar.sapl.impl.util.TargetExpressionUtil;
 import io.sapl.interpreter.context.AuthorizationContext;
+import io.sapl.interpreter.pip.AttributeContext;
+import io.sapl.interpreter.pip.AttributeContext.EnvironmentAttributeHandle;
 import reactor.core.publisher.Flux;
 
 /**
@@ -34,18 +37,21 @@ public class BasicEnvironmentHeadAttributeImplCustom extends BasicEnvironmentHea
 
     private static final String EXTERNAL_ATTRIBUTE_IN_TARGET_ERROR = "Attribute resolution error. Attribute '%s' is not allowed in target.";
 
+    private final HandleBinding<AttributeContext, EnvironmentAttributeHandle> attribute = new HandleBinding<>(
+            (attributeContext, name) -> attributeContext.bindEnvironmentAttribute(name, getArguments()));
+
     @Override
     public Flux<Val> evaluate() {
         return Flux.deferContextual(ctx -> {
-            var fullyQualifiedName = FunctionUtil.resolveAbsoluteFunctionName(idSteps,
-                    AuthorizationContext.getImports(ctx));
-
-            if (TargetExpressionUtil.isInTargetExpression(this))
+            if (TargetExpressionUtil.isInTargetExpression(this)) {
+                var fullyQualifiedName = FunctionUtil.resolveAbsoluteFunctionName(idSteps,
+                        AuthorizationContext.getImports(ctx));
                 return Flux.just(Val.error(EXTERNAL_ATTRIBUTE_IN_TARGET_ERROR, fullyQualifiedName).withTrace(
                         AttributeFinderStep.class, false, Map.of(Trace.ATTRIBUTE, Val.of(fullyQualifiedName))));
+            }
 
-            return AuthorizationContext.getAttributeContext(ctx).evaluateEnvironmentAttribute(fullyQualifiedName,
-                    getArguments(), AuthorizationContext.getVariables(ctx)).next();
+            var handle = attribute.bind(AuthorizationContext.getAttributeContext(ctx), idSteps, ctx).getHandle();
+            return handle.evaluate(AuthorizationContext.getVariables(ctx)).next();
         });
     }
 
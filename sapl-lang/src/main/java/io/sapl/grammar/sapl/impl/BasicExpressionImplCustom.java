@@ -18,13 +18,18 @@
 package io.sapl.grammar.sapl.impl;
 
 import java.util.ArrayList;
+import java.util.Map;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 import org.eclipse.emf.common.util.EList;
 import org.reactivestreams.Publisher;
 
+import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.BasicExpression;
+import io.sapl.grammar.sapl.EscapedKeyStep;
+import io.sapl.grammar.sapl.KeyStep;
 import io.sapl.grammar.sapl.Step;
 import io.sapl.grammar.sapl.impl.util.RepackageUtil;
 import io.sapl.interpreter.context.AuthorizationContext;
@@ -51,6 +56,43 @@ protected Function<Val, Publisher<Val>> resolveStepsFiltersAndSubTemplates(EList
         return resolveSteps(steps, 0);
     }
 
+    /**
+     * Compiles the steps of the expression, if these are key steps only and there
+     * is no filter or sub template.
+     *
+     * @param steps the steps of the expression
+     * @return a function applying the steps to a value, or null if the steps cannot
+     *         be compiled.
+     */
+    protected UnaryOperator<Val> compileSteps(EList<Step> steps) {
+        if (filter != null || subtemplate != null)
+            return null;
+        if (steps == null || steps.isEmpty())
+            return UnaryOperator.identity();
+
+        var stepTypes = new ArrayList<Class<?>>(steps.size());
+        var keys      = new ArrayList<String>(steps.size());
+        for (var step : steps) {
+            if (step instanceof KeyStep keyStep) {
+                stepTypes.add(KeyStep.class);
+                keys.add(keyStep.getId());
+            } else if (step instanceof EscapedKeyStep escapedKeyStep) {
+                stepTypes.add(EscapedKeyStep.class);
+                keys.add(escapedKeyStep.getId());
+            } else {
+                return null;
+            }
+        }
+        return value -> {
+            for (int i = 0; i < keys.size(); i++) {
+                var key = keys.get(i);
+                value = KeyStepImplCustom.applyToValue(value, key).withTrace(stepTypes.get(i), true,
+                        Map.of(Trace.PARENT_VALUE, value, Trace.IDENTIFIER, Val.of(key)));
+            }
+            return value;
+        };
+    }
+
     private Function<Val, Publisher<Val>> resolveSteps(EList<Step> steps, int stepId) {
         if (steps == null || stepId == steps.size()) {
             return this::resolveFilterOrSubTemplate;
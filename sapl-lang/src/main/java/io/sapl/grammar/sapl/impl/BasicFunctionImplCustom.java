@@ -19,6 +19,10 @@
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.impl.util.FunctionUtil;
+import io.sapl.grammar.sapl.impl.util.HandleBinding;
+import io.sapl.interpreter.context.AuthorizationContext;
+import io.sapl.interpreter.functions.FunctionContext;
+import io.sapl.interpreter.functions.FunctionContext.FunctionHandle;
 import reactor.core.publisher.Flux;
 
 /**
@@ -30,11 +34,15 @@
  */
 public class BasicFunctionImplCustom extends BasicFunctionImpl {
 
+    private final HandleBinding<FunctionContext, FunctionHandle> function = new HandleBinding<>(FunctionContext::bind);
+
     @Override
     public Flux<Val> evaluate() {
-        return FunctionUtil.combineArgumentFluxes(arguments)
-                .concatMap(parameters -> FunctionUtil.evaluateFunctionMono(fsteps, parameters))
-                .switchMap(v -> resolveStepsFiltersAndSubTemplates(steps).apply(v));
+        return Flux.deferContextual(ctx -> {
+            var handle = function.bind(AuthorizationContext.functionContext(ctx), fsteps, ctx).getHandle();
+            return FunctionUtil.combineArgumentFluxes(arguments).map(handle::evaluate)
+                    .switchMap(v -> resolveStepsFiltersAndSubTemplates(steps).apply(v));
+        });
     }
 
 }
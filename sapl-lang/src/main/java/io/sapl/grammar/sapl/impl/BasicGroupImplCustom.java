@@ -19,6 +19,9 @@
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.BasicGroup;
+import io.sapl.grammar.sapl.impl.util.CompilableExpression;
+import io.sapl.grammar.sapl.impl.util.CompiledExpression;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler;
 import reactor.core.publisher.Flux;
 
 /**
@@ -26,13 +29,28 @@
  * <p>
  * Grammar: {BasicGroup} '(' expression=Expression ')' steps+=Step*;
  */
-public class BasicGroupImplCustom extends BasicGroupImpl {
+public class BasicGroupImplCustom extends BasicGroupImpl implements CompilableExpression {
 
     @Override
     public Flux<Val> evaluate() {
+        var compiled = ExpressionCompiler.compiledFormOf(this);
+        if (compiled != null)
+            return compiled.toFlux();
         final Flux<Val> evaluatedExpressions = getExpression().evaluate();
         return evaluatedExpressions.switchMap(v -> resolveStepsFiltersAndSubTemplates(steps).apply(v))
                 .map(val -> val.withTrace(BasicGroup.class, true, val));
     }
 
+    @Override
+    public CompiledExpression compile() {
+        var compiledExpression = ExpressionCompiler.compiledFormOf(getExpression());
+        var compiledSteps      = compileSteps(steps);
+        if (compiledExpression == null || compiledSteps == null)
+            return null;
+        return ctx -> {
+            var val = compiledSteps.apply(compiledExpression.evaluate(ctx));
+            return val.withTrace(BasicGroup.class, true, val);
+        };
+    }
+
 }
@@ -22,7 +22,11 @@
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.BasicIdentifier;
+import io.sapl.grammar.sapl.impl.util.CompilableExpression;
+import io.sapl.grammar.sapl.impl.util.CompiledExpression;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler;
 import io.sapl.interpreter.context.AuthorizationContext;
+import io.sapl.interpreter.context.VariableSlots;
 import reactor.core.publisher.Flux;
 
 /**
@@ -30,16 +34,44 @@
  * <p>
  * Grammar: {BasicIdentifier} identifier=ID steps+=Step*;
  */
-public class BasicIdentifierImplCustom extends BasicIdentifierImpl {
+public class BasicIdentifierImplCustom extends BasicIdentifierImpl implements CompilableExpression {
+
+    private static final int UNRESOLVED = -1;
+
+    private int slot = UNRESOLVED;
 
     @Override
     public Flux<Val> evaluate() {
+        var compiled = ExpressionCompiler.compiledFormOf(this);
+        if (compiled != null)
+            return compiled.toFlux();
         return Flux.deferContextual(ctx -> {
-            var identifierFlux = Flux.just(AuthorizationContext.getVariable(ctx, getIdentifier()));
+            var identifierFlux = Flux.just(AuthorizationContext.getVariable(ctx, slot(), getIdentifier()));
             return identifierFlux.switchMap(v -> resolveStepsFiltersAndSubTemplates(steps).apply(v))
                     .map(val -> val.withTrace(BasicIdentifier.class, true,
                             Map.of(Trace.IDENTIFIER, Val.of(getIdentifier()), Trace.VALUE, val)));
         });
     }
 
+    @Override
+    public CompiledExpression compile() {
+        var identifierSlot = slot();
+        var compiledSteps  = compileSteps(steps);
+        if (compiledSteps == null)
+            return null;
+        var identifier      = getIdentifier();
+        var identifierValue = Val.of(identifier);
+        return ctx -> {
+            var val = compiledSteps.apply(AuthorizationContext.getVariable(ctx, identifierSlot, identifier));
+            return val.withTrace(BasicIdentifier.class, true,
+                    Map.of(Trace.IDENTIFIER, identifierValue, Trace.VALUE, val));
+        };
+    }
+
+    private int slot() {
+        if (slot == UNRESOLVED)
+            slot = VariableSlots.of(this).slotOf(getIdentifier());
+        return slot;
+    }
+
 }
@@ -18,6 +18,7 @@
 package io.sapl.grammar.sapl.impl;
 
 import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler;
 import reactor.core.publisher.Flux;
 
 /**
@@ -32,6 +33,9 @@ public class BasicValueImplCustom extends BasicValueImpl {
 
     @Override
     public Flux<Val> evaluate() {
+        var compiled = ExpressionCompiler.compiledFormOf(this);
+        if (compiled != null)
+            return compiled.toFlux();
         return getValue().evaluate().switchMap(v -> resolveStepsFiltersAndSubTemplates(steps).apply(v));
     }
 
@@ -18,6 +18,7 @@
 package io.sapl.grammar.sapl.impl;
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
+import static io.sapl.grammar.sapl.impl.util.OperatorUtil.compiledArithmeticOperator;
 
 import java.math.BigDecimal;
 import java.util.Map;
@@ -25,6 +26,8 @@
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Div;
+import io.sapl.grammar.sapl.impl.util.CompilableExpression;
+import io.sapl.grammar.sapl.impl.util.CompiledExpression;
 import reactor.core.publisher.Flux;
 
 /**
@@ -34,7 +37,7 @@
  * '*' | {Div.left=current} '/' | {And.left=current} '&amp;&amp;' | '&amp;'
  * {EagerAnd.left=current}) right=Comparison)* ;
  */
-public class DivImplCustom extends DivImpl {
+public class DivImplCustom extends DivImpl implements CompilableExpression {
 
     private static final String DIVISION_BY_ZERO_ERROR = "Division by zero";
 
@@ -43,6 +46,11 @@ public Flux<Val> evaluate() {
         return arithmeticOperator(this, this::divide);
     }
 
+    @Override
+    public CompiledExpression compile() {
+        return compiledArithmeticOperator(this, this::divide);
+    }
+
     private Val divide(Val dividend, Val divisor) {
         var trace = Map.<String, Val>of(Trace.DIVIDEND, dividend, Trace.DIVISOR, divisor);
         if (divisor.decimalValue().compareTo(BigDecimal.ZERO) == 0)
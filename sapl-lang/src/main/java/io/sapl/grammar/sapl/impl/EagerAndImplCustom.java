@@ -17,26 +17,43 @@
  */
 package io.sapl.grammar.sapl.impl;
 
-import static io.sapl.grammar.sapl.impl.util.OperatorUtil.booleanOperator;
+import static io.sapl.grammar.sapl.impl.util.OperatorUtil.compiledShortCircuitBooleanOperator;
+import static io.sapl.grammar.sapl.impl.util.OperatorUtil.shortCircuitBooleanOperator;
 
 import java.util.Map;
 
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.EagerAnd;
+import io.sapl.grammar.sapl.impl.util.CompilableExpression;
+import io.sapl.grammar.sapl.impl.util.CompiledExpression;
 import reactor.core.publisher.Flux;
 
 /**
  * Implements the eager boolean AND operator, written as '&amp;' in Expressions.
  * <p>
+ * If the left operand is false, the result is false and the right operand is not
+ * evaluated, i.e., errors or non-boolean values of the right operand do not
+ * affect the result. The right operand is only subscribed to while the left
+ * operand is true. A false result decided by a secret left operand is a secret.
+ * <p>
  * Grammar: Multiplication returns Expression: Comparison (('&amp;'
  * {EagerAnd.left=current}) right=Comparison)* ;
  */
-public class EagerAndImplCustom extends EagerAndImpl {
+public class EagerAndImplCustom extends EagerAndImpl implements CompilableExpression {
 
     @Override
     public Flux<Val> evaluate() {
-        return booleanOperator(this, this::and);
+        return shortCircuitBooleanOperator(this, Val.FALSE, this::decided, this::and);
+    }
+
+    @Override
+    public CompiledExpression compile() {
+        return compiledShortCircuitBooleanOperator(this, Val.FALSE, this::decided, this::and);
+    }
+
+    private Val decided(Val left) {
+        return Val.FALSE.withTrace(EagerAnd.class, true, Map.of(Trace.LEFT, left));
     }
 
     private Val and(Val left, Val right) {
@@ -17,26 +17,43 @@
  */
 package io.sapl.grammar.sapl.impl;
 
-import static io.sapl.grammar.sapl.impl.util.OperatorUtil.booleanOperator;
+import static io.sapl.grammar.sapl.impl.util.OperatorUtil.compiledShortCircuitBooleanOperator;
+import static io.sapl.grammar.sapl.impl.util.OperatorUtil.shortCircuitBooleanOperator;
 
 import java.util.Map;
 
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.EagerOr;
+import io.sapl.grammar.sapl.impl.util.CompilableExpression;
+import io.sapl.grammar.sapl.impl.util.CompiledExpression;
 import reactor.core.publisher.Flux;
 
 /**
  * Implements the eager logical OR operation, noted as '|' in the grammar.
  * <p>
+ * If the left operand is true, the result is true and the right operand is not
+ * evaluated, i.e., errors or non-boolean values of the right operand do not
+ * affect the result. The right operand is only subscribed to while the left
+ * operand is false. A true result decided by a secret left operand is a secret.
+ * <p>
  * Grammar: Addition returns Expression: Multiplication (('|'
  * {EagerOr.left=current}) right=Multiplication)* ;
  */
-public class EagerOrImplCustom extends EagerOrImpl {
+public class EagerOrImplCustom extends EagerOrImpl implements CompilableExpression {
 
     @Override
     public Flux<Val> evaluate() {
-        return booleanOperator(this, this::or);
+        return shortCircuitBooleanOperator(this, Val.TRUE, this::decided, this::or);
+    }
+
+    @Override
+    public CompiledExpression compile() {
+        return compiledShortCircuitBooleanOperator(this, Val.TRUE, this::decided, this::or);
+    }
+
+    private Val decided(Val left) {
+        return Val.TRUE.withTrace(EagerOr.class, true, Map.of(Trace.LEFT, left));
     }
 
     private Val or(Val left, Val right) {
@@ -17,6 +17,7 @@
  */
 package io.sapl.grammar.sapl.impl;
 
+import static io.sapl.grammar.sapl.impl.util.OperatorUtil.compiledOperator;
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.operator;
 
 import java.util.Map;
@@ -26,6 +27,8 @@
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.ElementOf;
+import io.sapl.grammar.sapl.impl.util.CompilableExpression;
+import io.sapl.grammar.sapl.impl.util.CompiledExpression;
 import reactor.core.publisher.Flux;
 
 /**
@@ -35,13 +38,18 @@
  * Grammar: {@code Comparison returns Expression: Prefixed
  * (({ElementOf.left=current} 'in') right=Prefixed)? ;}
  */
-public class ElementOfImplCustom extends ElementOfImpl {
+public class ElementOfImplCustom extends ElementOfImpl implements CompilableExpression {
 
     @Override
     public Flux<Val> evaluate() {
         return operator(this, this::tracedElementOf);
     }
 
+    @Override
+    public CompiledExpression compile() {
+        return compiledOperator(this, this::tracedElementOf);
+    }
+
     private Val tracedElementOf(Val needle, Val haystack) {
         return elementOf(needle, haystack).withTrace(ElementOf.class, false,
                 Map.of(Trace.NEEDLE, needle, Trace.HAYSTACK, haystack));
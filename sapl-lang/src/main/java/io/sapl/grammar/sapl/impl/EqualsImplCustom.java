@@ -17,6 +17,7 @@
  */
 package io.sapl.grammar.sapl.impl;
 
+import static io.sapl.grammar.sapl.impl.util.OperatorUtil.compiledOperator;
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.operator;
 
 import java.util.Map;
@@ -24,6 +25,8 @@
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Equals;
+import io.sapl.grammar.sapl.impl.util.CompilableExpression;
+import io.sapl.grammar.sapl.impl.util.CompiledExpression;
 import reactor.core.publisher.Flux;
 
 /**
@@ -32,13 +35,18 @@
  * Grammar: Comparison returns Expression: Prefixed (({Equals.left=current}
  * '==') right=Prefixed)? ;
  */
-public class EqualsImplCustom extends EqualsImpl {
+public class EqualsImplCustom extends EqualsImpl implements CompilableExpression {
 
     @Override
     public Flux<Val> evaluate() {
         return operator(this, this::tracedEquals);
     }
 
+    @Override
+    public CompiledExpression compile() {
+        return compiledOperator(this, this::tracedEquals);
+    }
+
     private Val tracedEquals(Val left, Val right) {
         return equals(left, right).withTrace(Equals.class, false, Map.of(Trace.LEFT, left, Trace.RIGHT, right));
     }
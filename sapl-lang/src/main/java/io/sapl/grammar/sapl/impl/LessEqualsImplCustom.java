@@ -18,12 +18,15 @@
 package io.sapl.grammar.sapl.impl;
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
+import static io.sapl.grammar.sapl.impl.util.OperatorUtil.compiledArithmeticOperator;
 
 import java.util.Map;
 
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.LessEquals;
+import io.sapl.grammar.sapl.impl.util.CompilableExpression;
+import io.sapl.grammar.sapl.impl.util.CompiledExpression;
 import reactor.core.publisher.Flux;
 
 /**
@@ -32,13 +35,18 @@
  * Grammar: {@code Comparison returns Expression: Prefixed
  * (({LessEquals.left=current} '&lt;=') right=Prefixed)? ;}
  */
-public class LessEqualsImplCustom extends LessEqualsImpl {
+public class LessEqualsImplCustom extends LessEqualsImpl implements CompilableExpression {
 
     @Override
     public Flux<Val> evaluate() {
         return arithmeticOperator(this, this::lessOrEqual);
     }
 
+    @Override
+    public CompiledExpression compile() {
+        return compiledArithmeticOperator(this, this::lessOrEqual);
+    }
+
     private Val lessOrEqual(Val left, Val right) {
         return Val.of(left.decimalValue().compareTo(right.decimalValue()) <= 0).withTrace(LessEquals.class, false,
                 Map.of(Trace.LEFT, left, Trace.RIGHT, right));
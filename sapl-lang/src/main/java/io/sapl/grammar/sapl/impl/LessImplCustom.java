@@ -18,12 +18,15 @@
 package io.sapl.grammar.sapl.impl;
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
+import static io.sapl.grammar.sapl.impl.util.OperatorUtil.compiledArithmeticOperator;
 
 import java.util.Map;
 
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Less;
+import io.sapl.grammar.sapl.impl.util.CompilableExpression;
+import io.sapl.grammar.sapl.impl.util.CompiledExpression;
 import reactor.core.publisher.Flux;
 
 /**
@@ -32,13 +35,18 @@
  * Grammar: {@code Comparison returns Expression: Prefixed (({Less.left=current}
  * '&lt;') right=Prefixed)? ;}
  */
-public class LessImplCustom extends LessImpl {
+public class LessImplCustom extends LessImpl implements CompilableExpression {
 
     @Override
     public Flux<Val> evaluate() {
         return arithmeticOperator(this, this::lessThan);
     }
 
+    @Override
+    public CompiledExpression compile() {
+        return compiledArithmeticOperator(this, this::lessThan);
+    }
+
     private Val lessThan(Val left, Val right) {
         return Val.of(left.decimalValue().compareTo(right.decimalValue()) < 0).withTrace(Less.class, false,
                 Map.of(Trace.LEFT, left, Trace.RIGHT, right));
@@ -18,21 +18,29 @@
 package io.sapl.grammar.sapl.impl;
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
+import static io.sapl.grammar.sapl.impl.util.OperatorUtil.compiledArithmeticOperator;
 
 import java.util.Map;
 
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Minus;
+import io.sapl.grammar.sapl.impl.util.CompilableExpression;
+import io.sapl.grammar.sapl.impl.util.CompiledExpression;
 import reactor.core.publisher.Flux;
 
-public class MinusImplCustom extends MinusImpl {
+public class MinusImplCustom extends MinusImpl implements CompilableExpression {
 
     @Override
     public Flux<Val> evaluate() {
         return arithmeticOperator(this, this::subtract);
     }
 
+    @Override
+    public CompiledExpression compile() {
+        return compiledArithmeticOperator(this, this::subtract);
+    }
+
     private Val subtract(Val minuend, Val subtrahend) {
         return Val.of(minuend.decimalValue().subtract(subtrahend.decimalValue())).withTrace(Minus.class, false,
                 Map.of(Trace.MINUEND, minuend, Trace.SUBTRAHEND, subtrahend));
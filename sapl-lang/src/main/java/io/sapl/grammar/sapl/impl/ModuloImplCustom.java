@@ -18,6 +18,7 @@
 package io.sapl.grammar.sapl.impl;
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
+import static io.sapl.grammar.sapl.impl.util.OperatorUtil.compiledArithmeticOperator;
 
 import java.math.BigDecimal;
 import java.util.Map;
@@ -25,12 +26,14 @@
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Modulo;
+import io.sapl.grammar.sapl.impl.util.CompilableExpression;
+import io.sapl.grammar.sapl.impl.util.CompiledExpression;
 import reactor.core.publisher.Flux;
 
 /**
  * Implements the numerical remainder operator, written as '%' in Expressions.
  */
-public class ModuloImplCustom extends ModuloImpl {
+public class ModuloImplCustom extends ModuloImpl implements CompilableExpression {
 
     private static final String DIVISION_BY_ZERO_ERROR = "Division by zero";
 
@@ -39,6 +42,11 @@ public Flux<Val> evaluate() {
         return arithmeticOperator(this, this::divide);
     }
 
+    @Override
+    public CompiledExpression compile() {
+        return compiledArithmeticOperator(this, this::divide);
+    }
+
     private Val divide(Val dividend, Val divisor) {
         if (divisor.decimalValue().compareTo(BigDecimal.ZERO) == 0)
             return Val.error(DIVISION_BY_ZERO_ERROR).withTrace(Modulo.class, false,
@@ -18,12 +18,15 @@
 package io.sapl.grammar.sapl.impl;
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
+import static io.sapl.grammar.sapl.impl.util.OperatorUtil.compiledArithmeticOperator;
 
 import java.util.Map;
 
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.More;
+import io.sapl.grammar.sapl.impl.util.CompilableExpression;
+import io.sapl.grammar.sapl.impl.util.CompiledExpression;
 import reactor.core.publisher.Flux;
 
 /**
@@ -32,7 +35,7 @@
  * Grammar: {@code Comparison returns Expression: Prefixed (({More.left=current}
  * '&gt;') right=Prefixed)? ;}
  */
-public class MoreImplCustom extends MoreImpl {
+public class MoreImplCustom extends MoreImpl implements CompilableExpression {
 
     @Override
     public Flux<Val> evaluate() {
@@ -40,6 +43,11 @@ public Flux<Val> evaluate() {
 
     }
 
+    @Override
+    public CompiledExpression compile() {
+        return compiledArithmeticOperator(this, this::moreThan);
+    }
+
     private Val moreThan(Val left, Val right) {
         return Val.of(left.decimalValue().compareTo(right.decimalValue()) > 0).withTrace(More.class, false,
                 Map.of(Trace.LEFT, left, Trace.RIGHT, right));
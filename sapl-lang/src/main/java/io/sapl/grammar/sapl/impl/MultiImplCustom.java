@@ -18,21 +18,29 @@
 package io.sapl.grammar.sapl.impl;
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
+import static io.sapl.grammar.sapl.impl.util.OperatorUtil.compiledArithmeticOperator;
 
 import java.util.Map;
 
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Multi;
+import io.sapl.grammar.sapl.impl.util.CompilableExpression;
+import io.sapl.grammar.sapl.impl.util.CompiledExpression;
 import reactor.core.publisher.Flux;
 
-public class MultiImplCustom extends MultiImpl {
+public class MultiImplCustom extends MultiImpl implements CompilableExpression {
 
     @Override
     public Flux<Val> evaluate() {
         return arithmeticOperator(this, this::multiply);
     }
 
+    @Override
+    public CompiledExpression compile() {
+        return compiledArithmeticOperator(this, this::multiply);
+    }
+
     private Val multiply(Val left, Val right) {
         return Val.of(left.decimalValue().multiply(right.decimalValue())).withTrace(Multi.class, false,
                 Map.of(Trace.LEFT, left, Trace.RIGHT, right));
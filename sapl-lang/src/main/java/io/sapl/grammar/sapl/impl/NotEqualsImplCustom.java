@@ -17,6 +17,7 @@
  */
 package io.sapl.grammar.sapl.impl;
 
+import static io.sapl.grammar.sapl.impl.util.OperatorUtil.compiledOperator;
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.operator;
 
 import java.util.Map;
@@ -24,6 +25,8 @@
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.NotEquals;
+import io.sapl.grammar.sapl.impl.util.CompilableExpression;
+import io.sapl.grammar.sapl.impl.util.CompiledExpression;
 import reactor.core.publisher.Flux;
 
 /**
@@ -32,13 +35,18 @@
  * Grammar: {@code Comparison returns Expression: Prefixed
  * (({NotEquals.left=current} '!=') * right=Prefixed)? ;}
  */
-public class NotEqualsImplCustom extends NotEqualsImpl {
+public class NotEqualsImplCustom extends NotEqualsImpl implements CompilableExpression {
 
     @Override
     public Flux<Val> evaluate() {
         return operator(this, this::notEqual);
     }
 
+    @Override
+    public CompiledExpression compile() {
+        return compiledOperator(this, this::notEqual);
+    }
+
     private Val notEqual(Val left, Val right) {
         return Val.notEqual(left, right).withTrace(NotEquals.class, false,
                 Map.of(Trace.LEFT, left, Trace.RIGHT, right));
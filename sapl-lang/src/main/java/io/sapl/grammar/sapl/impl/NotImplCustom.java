@@ -17,17 +17,29 @@
  */
 package io.sapl.grammar.sapl.impl;
 
+import static io.sapl.grammar.sapl.impl.util.OperatorUtil.compiledOperator;
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.operator;
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Not;
+import io.sapl.grammar.sapl.impl.util.CompilableExpression;
+import io.sapl.grammar.sapl.impl.util.CompiledExpression;
 import reactor.core.publisher.Flux;
 
-public class NotImplCustom extends NotImpl {
+public class NotImplCustom extends NotImpl implements CompilableExpression {
 
     @Override
     public Flux<Val> evaluate() {
-        return operator(this, Val::requireBoolean, x -> Val.of(!x.get().asBoolean()).withTrace(Not.class, false, x));
+        return operator(this, Val::requireBoolean, this::not);
+    }
+
+    @Override
+    public CompiledExpression compile() {
+        return compiledOperator(this, Val::requireBoolean, this::not);
+    }
+
+    private Val not(Val value) {
+        return Val.of(!value.get().asBoolean()).withTrace(Not.class, false, value);
     }
 
 }
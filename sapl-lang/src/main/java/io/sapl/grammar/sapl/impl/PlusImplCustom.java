@@ -17,6 +17,7 @@
  */
 package io.sapl.grammar.sapl.impl;
 
+import static io.sapl.grammar.sapl.impl.util.OperatorUtil.compiledOperator;
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.operator;
 
 import java.util.Map;
@@ -26,9 +27,11 @@
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Plus;
+import io.sapl.grammar.sapl.impl.util.CompilableExpression;
+import io.sapl.grammar.sapl.impl.util.CompiledExpression;
 import reactor.core.publisher.Flux;
 
-public class PlusImplCustom extends PlusImpl {
+public class PlusImplCustom extends PlusImpl implements CompilableExpression {
 
     private static final TextNode UNDEFINED = Val.JSON.textNode("undefined");
 
@@ -37,6 +40,11 @@ public Flux<Val> evaluate() {
         return operator(this, this::plus);
     }
 
+    @Override
+    public CompiledExpression compile() {
+        return compiledOperator(this, this::plus);
+    }
+
     private Val plus(Val left, Val right) {
         if (left.isNumber() && right.isNumber())
             return Val.of(left.get().decimalValue().add(right.get().decimalValue())).withTrace(Plus.class, false,
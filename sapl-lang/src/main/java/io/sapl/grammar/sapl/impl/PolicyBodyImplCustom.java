@@ -63,12 +63,13 @@ protected Flux<Val> evaluateStatements(Val previousResult, int statementId) {
     private Flux<Val> evaluateValueStatement(Val previousResult, int statementId, ValueDefinition valueDefinition) {
         var valueStream = valueDefinition.getEval().evaluate().map(val -> val.withTrace(PolicyBody.class, true,
                 Map.of(Trace.VARIABLE_NAME, Val.of(valueDefinition.getName()))));
+        var slot        = ValueDefinitionImplCustom.slotOf(valueDefinition);
         return valueStream.switchMap(value -> evaluateStatements(previousResult, statementId + 1)
-                .contextWrite(setVariable(valueDefinition.getName(), value)));
+                .contextWrite(setVariable(slot, valueDefinition.getName(), value)));
     }
 
-    private Function<Context, Context> setVariable(String name, Val value) {
-        return ctx -> AuthorizationContext.setVariable(ctx, name, value);
+    private Function<Context, Context> setVariable(int slot, String name, Val value) {
+        return ctx -> AuthorizationContext.setVariable(ctx, slot, name, value);
     }
 
     // protected to provide hook for test coverage calculations
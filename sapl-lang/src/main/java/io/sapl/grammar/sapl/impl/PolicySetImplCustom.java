@@ -91,8 +91,9 @@ private Flux<CombinedDecision> evaluateValueDefinitionsAndPolicies(int valueDefi
 
         var valueDefinition           = valueDefinitions.get(valueDefinitionId);
         var evaluatedValueDefinitions = valueDefinition.getEval().evaluate();
+        var slot                      = ValueDefinitionImplCustom.slotOf(valueDefinition);
         return evaluatedValueDefinitions.switchMap(value -> evaluateValueDefinitionsAndPolicies(valueDefinitionId + 1)
-                .contextWrite(ctx -> AuthorizationContext.setVariable(ctx, valueDefinition.getName(),
+                .contextWrite(ctx -> AuthorizationContext.setVariable(ctx, slot, valueDefinition.getName(),
                         value.withTrace(PolicySet.class, true, Map.of(Trace.POLICY_SET, Val.of(saplName),
                                 Trace.VARIABLE_NAME, Val.of(valueDefinition.getName()), Trace.VALUE, value)))));
     }
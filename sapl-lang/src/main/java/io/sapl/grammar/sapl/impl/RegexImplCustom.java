@@ -24,26 +24,100 @@
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Regex;
+import io.sapl.grammar.sapl.impl.util.CompilableExpression;
+import io.sapl.grammar.sapl.impl.util.CompiledExpression;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler;
+import io.sapl.grammar.sapl.impl.util.RegexUtil;
+import io.sapl.grammar.sapl.impl.util.RegexUtil.MatchLimits;
+import io.sapl.interpreter.context.AuthorizationContext;
 import reactor.core.publisher.Flux;
 
 /**
  * Checks for a value matching a regular expression.
  * <p>
+ * If the regular expression is a constant, e.g., a string literal, the pattern
+ * is compiled once when the document is compiled. An invalid constant pattern
+ * is only compiled once as well and evaluates to an error without being
+ * compiled again. Otherwise, the compiled pattern is looked up in the pattern
+ * cache of {@link RegexUtil}.
+ * <p>
  * Grammar: {@code Comparison returns Expression: Prefixed
  * (({Regex.left=current} '=~') right=Prefixed)? ;}
  */
-public class RegexImplCustom extends RegexImpl {
+public class RegexImplCustom extends RegexImpl implements CompilableExpression {
 
     private static final String REGEX_SYNTAX_ERROR = "Syntax error in regular expression '%s'.";
 
+    private Val     constantRegex;
+    private Pattern constantPattern;
+    private boolean constantPatternInvalid;
+
     @Override
     public Flux<Val> evaluate() {
-        var leftFlux  = getLeft().evaluate();
-        var rightFlux = getRight().evaluate().map(Val::requireText);
-        return Flux.combineLatest(leftFlux, rightFlux, this::matchRegexp);
+        var compiled = ExpressionCompiler.compiledFormOf(this);
+        if (compiled != null)
+            return compiled.toFlux();
+        return Flux.deferContextual(ctx -> {
+            var limits = AuthorizationContext.getRegexMatchLimits(ctx);
+            if (constantPattern != null)
+                return getLeft().evaluate().map(left -> matchPattern(left, constantRegex, constantPattern, limits));
+            if (constantPatternInvalid)
+                return getLeft().evaluate().map(left -> matchInvalidPattern(left, constantRegex));
+            var leftFlux  = getLeft().evaluate();
+            var rightFlux = getRight().evaluate().map(Val::requireText);
+            return Flux.combineLatest(leftFlux, rightFlux, (left, right) -> matchRegexp(left, right, limits));
+        });
+    }
+
+    @Override
+    public CompiledExpression compile() {
+        precompileConstantPattern();
+        var left = ExpressionCompiler.compiledFormOf(getLeft());
+        if (left == null)
+            return null;
+        if (constantPatternInvalid) {
+            var regex = constantRegex;
+            return ctx -> matchInvalidPattern(left.evaluate(ctx), regex);
+        }
+        if (constantPattern == null) {
+            var right = ExpressionCompiler.compiledFormOf(getRight());
+            if (right == null)
+                return null;
+            return ctx -> matchRegexp(left.evaluate(ctx), Val.requireText(right.evaluate(ctx)),
+                    AuthorizationContext.getRegexMatchLimits(ctx));
+        }
+        var regex   = constantRegex;
+        var pattern = constantPattern;
+        return ctx -> matchPattern(left.evaluate(ctx), regex, pattern, AuthorizationContext.getRegexMatchLimits(ctx));
+    }
+
+    private void precompileConstantPattern() {
+        if (!(ExpressionCompiler.compiledFormOf(getRight()) instanceof CompiledExpression.Constant constant))
+            return;
+        var regex = constant.getValue();
+        if (!regex.isTextual())
+            return;
+        constantRegex = regex;
+        try {
+            constantPattern = RegexUtil.compile(regex.getText());
+        } catch (PatternSyntaxException e) {
+            // reported on evaluation
+            constantPatternInvalid = true;
+        }
+    }
+
+    private Val matchPattern(Val left, Val right, Pattern pattern, MatchLimits limits) {
+        if (left.isError()) {
+            return left;
+        }
+        if (!left.isTextual()) {
+            return Val.FALSE.withTrace(Regex.class, false, Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+        }
+        return RegexUtil.matches(pattern, left.getText(), limits).withTrace(Regex.class, false,
+                Map.of(Trace.LEFT, left, Trace.RIGHT, right));
     }
 
-    private Val matchRegexp(Val left, Val right) {
+    private Val matchRegexp(Val left, Val right, MatchLimits limits) {
         if (left.isError()) {
             return left;
         }
@@ -54,12 +128,25 @@ private Val matchRegexp(Val left, Val right) {
             return Val.FALSE.withTrace(Regex.class, false, Map.of(Trace.LEFT, left, Trace.RIGHT, right));
         }
         try {
-            return Val.of(Pattern.matches(right.getText(), left.getText())).withTrace(Regex.class, false,
-                    Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+            return matchPattern(left, right, RegexUtil.compile(right.getText()), limits);
         } catch (PatternSyntaxException e) {
-            return Val.error(REGEX_SYNTAX_ERROR, right).withTrace(Regex.class, false,
-                    Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+            return syntaxError(left, right);
         }
     }
 
+    private Val matchInvalidPattern(Val left, Val right) {
+        if (left.isError()) {
+            return left;
+        }
+        if (!left.isTextual()) {
+            return Val.FALSE.withTrace(Regex.class, false, Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+        }
+        return syntaxError(left, right);
+    }
+
+    private static Val syntaxError(Val left, Val right) {
+        return Val.error(REGEX_SYNTAX_ERROR, right).withTrace(Regex.class, false,
+                Map.of(Trace.LEFT, left, Trace.RIGHT, right));
+    }
+
 }
@@ -18,18 +18,26 @@
 package io.sapl.grammar.sapl.impl;
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
+import static io.sapl.grammar.sapl.impl.util.OperatorUtil.compiledArithmeticOperator;
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.UnaryMinus;
+import io.sapl.grammar.sapl.impl.util.CompilableExpression;
+import io.sapl.grammar.sapl.impl.util.CompiledExpression;
 import reactor.core.publisher.Flux;
 
-public class UnaryMinusImplCustom extends UnaryMinusImpl {
+public class UnaryMinusImplCustom extends UnaryMinusImpl implements CompilableExpression {
 
     @Override
     public Flux<Val> evaluate() {
         return arithmeticOperator(this, this::negate);
     }
 
+    @Override
+    public CompiledExpression compile() {
+        return compiledArithmeticOperator(this, this::negate);
+    }
+
     private Val negate(Val value) {
         return Val.of(value.decimalValue().negate()).withTrace(UnaryMinus.class, true, value);
     }
@@ -18,16 +18,24 @@
 package io.sapl.grammar.sapl.impl;
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.arithmeticOperator;
+import static io.sapl.grammar.sapl.impl.util.OperatorUtil.compiledArithmeticOperator;
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.UnaryPlus;
+import io.sapl.grammar.sapl.impl.util.CompilableExpression;
+import io.sapl.grammar.sapl.impl.util.CompiledExpression;
 import reactor.core.publisher.Flux;
 
-public class UnaryPlusImplCustom extends UnaryPlusImpl {
+public class UnaryPlusImplCustom extends UnaryPlusImpl implements CompilableExpression {
 
     @Override
     public Flux<Val> evaluate() {
         return arithmeticOperator(this, val -> val.withTrace(UnaryPlus.class, true, val));
     }
 
+    @Override
+    public CompiledExpression compile() {
+        return compiledArithmeticOperator(this, val -> val.withTrace(UnaryPlus.class, true, val));
+    }
+
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl;
+
+import io.sapl.grammar.sapl.ValueDefinition;
+import io.sapl.interpreter.context.VariableSlots;
+
+/**
+ * Resolves the slot of a value definition once instead of on each evaluation.
+ * <p>
+ * Grammar: 'var' name=ID '=' eval=Expression ('schema'
+ * schemaVarExpression+=Expression (',' schemaVarExpression+=Expression)*)?;
+ */
+public class ValueDefinitionImplCustom extends ValueDefinitionImpl {
+
+    private static final int UNRESOLVED = -1;
+
+    private int slot = UNRESOLVED;
+
+    /**
+     * @param valueDefinition a value definition
+     * @return the slot of the defined variable
+     */
+    static int slotOf(ValueDefinition valueDefinition) {
+        if (valueDefinition instanceof ValueDefinitionImplCustom custom)
+            return custom.slot();
+        return VariableSlots.of(valueDefinition).slotOf(valueDefinition.getName());
+    }
+
+    private int slot() {
+        if (slot == UNRESOLVED)
+            slot = VariableSlots.of(this).slotOf(getName());
+        return slot;
+    }
+
+}
@@ -18,12 +18,15 @@
 package io.sapl.grammar.sapl.impl;
 
 import static io.sapl.grammar.sapl.impl.util.OperatorUtil.booleanOperator;
+import static io.sapl.grammar.sapl.impl.util.OperatorUtil.compiledBooleanOperator;
 
 import java.util.Map;
 
 import io.sapl.api.interpreter.Trace;
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.XOr;
+import io.sapl.grammar.sapl.impl.util.CompilableExpression;
+import io.sapl.grammar.sapl.impl.util.CompiledExpression;
 import reactor.core.publisher.Flux;
 
 /**
@@ -32,13 +35,18 @@
  * Grammar: Addition returns Expression: Multiplication (('|'
  * {EagerOr.left=current}) right=Multiplication)* ;
  */
-public class XOrImplCustom extends XOrImpl {
+public class XOrImplCustom extends XOrImpl implements CompilableExpression {
 
     @Override
     public Flux<Val> evaluate() {
         return booleanOperator(this, this::xor);
     }
 
+    @Override
+    public CompiledExpression compile() {
+        return compiledBooleanOperator(this, this::xor);
+    }
+
     private Val xor(Val left, Val right) {
         return Val.of(left.getBoolean() ^ right.getBoolean()).withTrace(XOr.class, true,
                 Map.of(Trace.LEFT, left, Trace.RIGHT, right));
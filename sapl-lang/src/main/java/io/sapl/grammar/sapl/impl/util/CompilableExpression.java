@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+/**
+ * Implemented by expressions which can be compiled into a closure, if their
+ * operands are compiled.
+ */
+public interface CompilableExpression {
+
+    /**
+     * Compiles the expression. The operands of the expression have already been
+     * compiled, if possible.
+     *
+     * @return the compiled expression, or null if the expression cannot be
+     *         compiled, e.g., because one of its operands is a stream.
+     */
+    CompiledExpression compile();
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import io.sapl.api.interpreter.Val;
+import lombok.Value;
+import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
+
+/**
+ * An expression compiled into a closure. A compiled expression evaluates
+ * synchronously to exactly one value, i.e., it contains no attribute finders or
+ * other sources of streams.
+ */
+@FunctionalInterface
+public interface CompiledExpression {
+
+    /**
+     * @param ctx the subscription scoped context, e.g., containing the variables.
+     * @return the value of the expression
+     */
+    Val evaluate(ContextView ctx);
+
+    /**
+     * @return a flux emitting the value of the expression
+     */
+    default Flux<Val> toFlux() {
+        return Flux.deferContextual(ctx -> Flux.just(evaluate(ctx)));
+    }
+
+    /**
+     * @param value a value
+     * @return a compiled expression always evaluating to the value
+     */
+    static CompiledExpression constant(Val value) {
+        return new Constant(value);
+    }
+
+    /**
+     * A compiled expression with a value known at compile time. Each evaluation
+     * returns its own copy of a constant object or array, so that modifications of
+     * the result do not affect later evaluations.
+     */
+    @Value
+    class Constant implements CompiledExpression {
+
+        Val value;
+
+        @Override
+        public Val evaluate(ContextView ctx) {
+            return value.deepCopy();
+        }
+
+        @Override
+        public Flux<Val> toFlux() {
+            return Flux.defer(() -> Flux.just(value.deepCopy()));
+        }
+
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EObject;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.AttributeFinderStep;
+import io.sapl.grammar.sapl.BasicEnvironmentAttribute;
+import io.sapl.grammar.sapl.BasicEnvironmentHeadAttribute;
+import io.sapl.grammar.sapl.BasicFunction;
+import io.sapl.grammar.sapl.BasicIdentifier;
+import io.sapl.grammar.sapl.BasicRelative;
+import io.sapl.grammar.sapl.Expression;
+import io.sapl.grammar.sapl.FilterComponent;
+import io.sapl.grammar.sapl.HeadAttributeFinderStep;
+import io.sapl.grammar.sapl.Regex;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Compilation pass for parsed documents.
+ * <p>
+ * Sub-expressions are classified bottom up:
+ * <ul>
+ * <li>Constant expressions only consist of literals and operators, except the
+ * regex operator. They are evaluated once during compilation and their value is
+ * reused.</li>
+ * <li>Pure expressions read variables, but contain no attribute finders,
+ * functions, filters, or relative expressions. They are compiled into closures
+ * over {@link Val} which are evaluated without building Reactor operator
+ * chains.</li>
+ * <li>All other expressions, e.g., expressions containing attribute finders,
+ * are evaluated as streams.</li>
+ * </ul>
+ * The compiled form is attached to the expression. Expressions use it in their
+ * evaluate method, if present.
+ */
+@UtilityClass
+public class ExpressionCompiler {
+
+    /**
+     * Compiles all expressions contained in a document or expression. Already
+     * compiled expressions are left unchanged.
+     *
+     * @param root the root of an abstract syntax tree, e.g., a SAPL document.
+     */
+    public static void compile(EObject root) {
+        var nodes = new ArrayList<EObject>();
+        nodes.add(root);
+        root.eAllContents().forEachRemaining(nodes::add);
+        // in reverse pre-order, all children are visited before their parent
+        Collections.reverse(nodes);
+
+        Set<EObject> nonConstantNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (var node : nodes) {
+            if (!isConstant(node, nonConstantNodes))
+                nonConstantNodes.add(node);
+
+            if (node instanceof Expression expression && compiledFormOf(expression) == null) {
+                var compiled = nonConstantNodes.contains(node) ? compileNode(expression) : fold(expression);
+                if (compiled != null)
+                    expression.eAdapters().add(new CompiledExpressionAdapter(compiled));
+            }
+        }
+    }
+
+    /**
+     * @param expression an expression
+     * @return the compiled form of the expression, or null if the expression has
+     *         not been compiled.
+     */
+    public static CompiledExpression compiledFormOf(EObject expression) {
+        if (expression == null || expression.eAdapters() == null)
+            return null;
+        for (var adapter : expression.eAdapters()) {
+            if (adapter instanceof CompiledExpressionAdapter compiledExpressionAdapter)
+                return compiledExpressionAdapter.compiledExpression;
+        }
+        return null;
+    }
+
+    /**
+     * @param expression an expression
+     * @return true, if the expression was evaluated during compilation.
+     */
+    public static boolean isConstant(EObject expression) {
+        return compiledFormOf(expression) instanceof CompiledExpression.Constant;
+    }
+
+    private static boolean isAttribute(EObject node) {
+        return node instanceof BasicEnvironmentAttribute || node instanceof BasicEnvironmentHeadAttribute
+                || node instanceof AttributeFinderStep || node instanceof HeadAttributeFinderStep;
+    }
+
+    private static boolean isConstant(EObject node, Set<EObject> nonConstantNodes) {
+        if (node instanceof BasicIdentifier || node instanceof BasicRelative || node instanceof BasicFunction
+                || isAttribute(node) || node instanceof FilterComponent)
+            return false;
+
+        // regex matches depend on the match limits in the subscription context
+        if (node instanceof Regex)
+            return false;
+
+        for (var child : node.eContents()) {
+            if (nonConstantNodes.contains(child))
+                return false;
+        }
+        return true;
+    }
+
+    private static CompiledExpression compileNode(Expression expression) {
+        if (expression instanceof CompilableExpression compilable)
+            return compilable.compile();
+        return null;
+    }
+
+    private static CompiledExpression fold(Expression expression) {
+        try {
+            var values = expression.evaluate().take(2).collectList().block();
+            if (values == null || values.size() != 1)
+                return null;
+            return CompiledExpression.constant(values.get(0));
+        } catch (RuntimeException e) {
+            // leave the evaluation to runtime, where errors are reported as usual
+            return null;
+        }
+    }
+
+    private static class CompiledExpressionAdapter extends AdapterImpl {
+
+        private final CompiledExpression compiledExpression;
+
+        CompiledExpressionAdapter(CompiledExpression compiledExpression) {
+            this.compiledExpression = compiledExpression;
+        }
+
+        @Override
+        public boolean isAdapterForType(Object type) {
+            return type == CompiledExpression.class;
+        }
+
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import java.util.function.BiFunction;
+
+import io.sapl.interpreter.context.AuthorizationContext;
+import lombok.Value;
+import reactor.util.context.ContextView;
+
+/**
+ * Binds the function or attribute name of an expression to a handle resolved in
+ * a function or attribute context.
+ * <p>
+ * The name is resolved against the imports of the document and looked up in the
+ * context only once. The binding is reused for all evaluations in the same
+ * context. It is rebound, if the context changes, e.g., after the configuration
+ * of the PDP was updated.
+ *
+ * @param <C> the type of the context, i.e., a function or attribute context
+ * @param <H> the type of the handle
+ */
+public class HandleBinding<C, H> {
+
+    private final BiFunction<C, String, H> binder;
+
+    private volatile Binding<C, H> binding;
+
+    /**
+     * @param binder looks up the handle of a fully qualified name in a context
+     */
+    public HandleBinding(BiFunction<C, String, H> binder) {
+        this.binder = binder;
+    }
+
+    /**
+     * @param context the function or attribute context of the evaluation
+     * @param steps   the steps of the name as written in the document
+     * @param ctx     the subscription scoped context containing the imports
+     * @return the binding of the name in the context
+     */
+    public Binding<C, H> bind(C context, Iterable<String> steps, ContextView ctx) {
+        var current = binding;
+        if (current != null && current.getContext() == context)
+            return current;
+
+        var name = FunctionUtil.resolveAbsoluteFunctionName(steps, AuthorizationContext.getImports(ctx));
+        current = new Binding<>(context, name, binder.apply(context, name));
+        binding = current;
+        return current;
+    }
+
+    /**
+     * A name bound to a handle in a context.
+     *
+     * @param <C> the type of the context
+     * @param <H> the type of the handle
+     */
+    @Value
+    public static class Binding<C, H> {
+        C      context;
+        String name;
+        H      handle;
+    }
+
+}
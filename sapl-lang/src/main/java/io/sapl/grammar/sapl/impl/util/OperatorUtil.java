@@ -29,6 +29,9 @@ public class OperatorUtil {
     public static Flux<Val> operator(BinaryOperator operator, java.util.function.UnaryOperator<Val> leftTypeRequirement,
             java.util.function.UnaryOperator<Val> rightTypeRequirement,
             java.util.function.BinaryOperator<Val> transformation) {
+        var compiled = ExpressionCompiler.compiledFormOf(operator);
+        if (compiled != null)
+            return compiled.toFlux();
         var left  = operator.getLeft().evaluate().map(leftTypeRequirement);
         var right = operator.getRight().evaluate().map(rightTypeRequirement);
         return Flux.combineLatest(left, right, errorOrDo(transformation));
@@ -49,6 +52,41 @@ public static Flux<Val> booleanOperator(BinaryOperator operator,
         return operator(operator, Val::requireBoolean, Val::requireBoolean, transformation);
     }
 
+    /**
+     * Evaluates a boolean operator, which may be decided by its left operand alone.
+     * If the left operand decides the result, the right operand is not evaluated
+     * at all, i.e., neither its value nor its errors affect the result. Otherwise,
+     * the right operand is subscribed to until the left operand decides the
+     * result. Thus, attribute streams of the right operand are only opened when
+     * needed.
+     *
+     * @param operator       the operator
+     * @param decidingValue  the value of the left operand deciding the result
+     * @param decided        creates the result from a deciding left operand
+     * @param transformation the operation if the left operand does not decide the
+     *                       result
+     * @return the result of the operator
+     */
+    public static Flux<Val> shortCircuitBooleanOperator(BinaryOperator operator, Val decidingValue,
+            java.util.function.UnaryOperator<Val> decided, java.util.function.BinaryOperator<Val> transformation) {
+        var compiled = ExpressionCompiler.compiledFormOf(operator);
+        if (compiled != null)
+            return compiled.toFlux();
+        var operation = errorOrDo(transformation);
+        var right     = operator.getRight();
+        return operator.getLeft().evaluate().map(Val::requireBoolean)
+                .distinctUntilChanged(java.util.function.Function.identity(),
+                        (previous, next) -> previous.equals(next) && previous.isSecret() == next.isSecret())
+                .switchMap(left -> {
+                    if (left.isError())
+                        return Flux.just(left);
+                    if (decidingValue.equals(left))
+                        return Flux.just(decided.apply(left));
+                    return right.evaluate().map(Val::requireBoolean)
+                            .map(rightValue -> operation.apply(left, rightValue));
+                });
+    }
+
     public static Flux<Val> operator(BinaryOperator operator, java.util.function.BinaryOperator<Val> transformation) {
         return operator(operator, java.util.function.UnaryOperator.identity(),
                 java.util.function.UnaryOperator.identity(), transformation);
@@ -56,9 +94,89 @@ public static Flux<Val> operator(BinaryOperator operator, java.util.function.Bin
 
     public static Flux<Val> operator(UnaryOperator unaryOperator, java.util.function.UnaryOperator<Val> typeRequirement,
             java.util.function.UnaryOperator<Val> transformation) {
+        var compiled = ExpressionCompiler.compiledFormOf(unaryOperator);
+        if (compiled != null)
+            return compiled.toFlux();
         return unaryOperator.getExpression().evaluate().map(typeRequirement).map(errorOrDo(transformation));
     }
 
+    /**
+     * Compiles a binary operator, if both operands are compiled.
+     *
+     * @return the compiled operator or null
+     */
+    public static CompiledExpression compiledOperator(BinaryOperator operator,
+            java.util.function.UnaryOperator<Val> leftTypeRequirement,
+            java.util.function.UnaryOperator<Val> rightTypeRequirement,
+            java.util.function.BinaryOperator<Val> transformation) {
+        var left  = ExpressionCompiler.compiledFormOf(operator.getLeft());
+        var right = ExpressionCompiler.compiledFormOf(operator.getRight());
+        if (left == null || right == null)
+            return null;
+        var operation = errorOrDo(transformation);
+        return ctx -> operation.apply(leftTypeRequirement.apply(left.evaluate(ctx)),
+                rightTypeRequirement.apply(right.evaluate(ctx)));
+    }
+
+    public static CompiledExpression compiledArithmeticOperator(BinaryOperator operator,
+            java.util.function.BinaryOperator<Val> transformation) {
+        return compiledOperator(operator, Val::requireBigDecimal, Val::requireBigDecimal, transformation);
+    }
+
+    public static CompiledExpression compiledArithmeticOperator(UnaryOperator unaryOperator,
+            java.util.function.UnaryOperator<Val> transformation) {
+        return compiledOperator(unaryOperator, Val::requireBigDecimal, transformation);
+    }
+
+    public static CompiledExpression compiledBooleanOperator(BinaryOperator operator,
+            java.util.function.BinaryOperator<Val> transformation) {
+        return compiledOperator(operator, Val::requireBoolean, Val::requireBoolean, transformation);
+    }
+
+    /**
+     * Compiles a boolean operator with the semantics of
+     * {@link #shortCircuitBooleanOperator}, if both operands are compiled.
+     *
+     * @return the compiled operator or null
+     */
+    public static CompiledExpression compiledShortCircuitBooleanOperator(BinaryOperator operator, Val decidingValue,
+            java.util.function.UnaryOperator<Val> decided, java.util.function.BinaryOperator<Val> transformation) {
+        var left  = ExpressionCompiler.compiledFormOf(operator.getLeft());
+        var right = ExpressionCompiler.compiledFormOf(operator.getRight());
+        if (left == null || right == null)
+            return null;
+        var operation = errorOrDo(transformation);
+        return ctx -> {
+            var leftValue = Val.requireBoolean(left.evaluate(ctx));
+            if (leftValue.isError())
+                return leftValue;
+            if (decidingValue.equals(leftValue))
+                return decided.apply(leftValue);
+            return operation.apply(leftValue, Val.requireBoolean(right.evaluate(ctx)));
+        };
+    }
+
+    public static CompiledExpression compiledOperator(BinaryOperator operator,
+            java.util.function.BinaryOperator<Val> transformation) {
+        return compiledOperator(operator, java.util.function.UnaryOperator.identity(),
+                java.util.function.UnaryOperator.identity(), transformation);
+    }
+
+    /**
+     * Compiles a unary operator, if its operand is compiled.
+     *
+     * @return the compiled operator or null
+     */
+    public static CompiledExpression compiledOperator(UnaryOperator unaryOperator,
+            java.util.function.UnaryOperator<Val> typeRequirement,
+            java.util.function.UnaryOperator<Val> transformation) {
+        var operand = ExpressionCompiler.compiledFormOf(unaryOperator.getExpression());
+        if (operand == null)
+            return null;
+        var operation = errorOrDo(transformation);
+        return ctx -> operation.apply(typeRequirement.apply(operand.evaluate(ctx)));
+    }
+
     public static java.util.function.BinaryOperator<Val> errorOrDo(
             java.util.function.BinaryOperator<Val> transformation) {
         return (left, right) -> {
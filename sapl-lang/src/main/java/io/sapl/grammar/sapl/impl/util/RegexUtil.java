@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import java.time.Duration;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import io.sapl.api.interpreter.Val;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Compiles and matches regular expressions for the regex operator.
+ * <p>
+ * Compiled patterns are kept in a bounded cache shared by all documents, so
+ * that a pattern is only compiled once and not on every evaluation.
+ * <p>
+ * To limit the impact of catastrophic backtracking, matching can be guarded by
+ * a maximum input length and a match timeout. If the input exceeds the maximum
+ * length, or if the match does not complete in time, the match evaluates to an
+ * error. By default, matching is not limited.
+ */
+@UtilityClass
+public class RegexUtil {
+
+    /**
+     * Maximum number of compiled patterns kept in the cache.
+     */
+    public static final long PATTERN_CACHE_MAXIMUM_SIZE = 1_000L;
+
+    private static final String INPUT_TOO_LONG_ERROR = "Input of regular expression match has %d characters. Maximum is %d.";
+    private static final String TIMEOUT_ERROR        = "Matching regular expression '%s' timed out after %d ms.";
+
+    private static final Cache<String, Pattern> PATTERN_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(PATTERN_CACHE_MAXIMUM_SIZE).build();
+
+    /**
+     * Limits applied to matching an input against a regular expression. A PDP hands
+     * its limits to the evaluation through the subscription scoped context, see
+     * {@link io.sapl.interpreter.context.AuthorizationContext#setRegexMatchLimits}.
+     *
+     * @param matchTimeout       the timeout for matching a regular expression. A
+     *                           zero timeout disables the timeout.
+     * @param maximumInputLength the maximum number of characters of inputs. Longer
+     *                           inputs evaluate to an error without being matched.
+     */
+    public record MatchLimits(@NonNull Duration matchTimeout, int maximumInputLength) {
+
+        /**
+         * The limits applied if none are set in the context, i.e., no limits.
+         */
+        public static final MatchLimits DEFAULT = new MatchLimits(Duration.ZERO, Integer.MAX_VALUE);
+
+        public MatchLimits {
+            if (matchTimeout.isNegative())
+                throw new IllegalArgumentException("The match timeout must not be negative.");
+            if (maximumInputLength < 0)
+                throw new IllegalArgumentException("The maximum input length must not be negative.");
+        }
+
+    }
+
+    /**
+     * Looks up the compiled pattern of a regular expression, compiling it on the
+     * first use.
+     *
+     * @param regex a regular expression
+     * @return the compiled pattern
+     * @throws PatternSyntaxException if the expression is invalid
+     */
+    public static Pattern compile(String regex) {
+        var pattern = PATTERN_CACHE.getIfPresent(regex);
+        if (pattern == null) {
+            pattern = Pattern.compile(regex);
+            PATTERN_CACHE.put(regex, pattern);
+        }
+        return pattern;
+    }
+
+    /**
+     * Matches an input against a pattern, applying the input length limit and the
+     * match timeout.
+     *
+     * @param pattern a compiled pattern
+     * @param input   the input
+     * @param limits  the input length limit and match timeout
+     * @return TRUE if the entire input matches the pattern, FALSE if not, or an
+     *         error if the input is too long or the match timed out.
+     */
+    public static Val matches(Pattern pattern, String input, MatchLimits limits) {
+        var limit = limits.maximumInputLength();
+        if (input.length() > limit)
+            return Val.error(INPUT_TOO_LONG_ERROR, input.length(), limit);
+
+        var timeout = limits.matchTimeout();
+        if (timeout.isZero())
+            return Val.of(pattern.matcher(input).matches());
+
+        try {
+            var deadline = System.nanoTime() + timeout.toNanos();
+            return Val.of(pattern.matcher(new DeadlineCharSequence(input, deadline)).matches());
+        } catch (MatchTimeoutException e) {
+            return Val.error(TIMEOUT_ERROR, pattern.pattern(), timeout.toMillis());
+        }
+    }
+
+    /**
+     * Clears the pattern cache.
+     */
+    static void clearCache() {
+        PATTERN_CACHE.invalidateAll();
+    }
+
+    /**
+     * @return the number of cached patterns
+     */
+    static long cacheSize() {
+        return PATTERN_CACHE.size();
+    }
+
+    private static class MatchTimeoutException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        MatchTimeoutException() {
+            super(null, null, false, false);
+        }
+
+    }
+
+    /**
+     * Checks the deadline while the matcher reads characters. As the matcher reads
+     * characters on every backtracking step, a match cannot outlive the deadline by
+     * much. The clock is only read every few accesses.
+     */
+    private static class DeadlineCharSequence implements CharSequence {
+
+        private static final int CHECK_INTERVAL = 1024;
+
+        private final CharSequence sequence;
+        private final long         deadline;
+        private int                accessesUntilCheck = CHECK_INTERVAL;
+
+        DeadlineCharSequence(CharSequence sequence, long deadline) {
+            this.sequence = sequence;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (--accessesUntilCheck == 0) {
+                accessesUntilCheck = CHECK_INTERVAL;
+                if (System.nanoTime() - deadline > 0)
+                    throw new MatchTimeoutException();
+            }
+            return sequence.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return sequence.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new DeadlineCharSequence(sequence.subSequence(start, end), deadline);
+        }
+
+        @Override
+        public String toString() {
+            return sequence.toString();
+        }
+
+    }
+
+}
@@ -43,6 +43,7 @@
 import io.sapl.grammar.SAPLStandaloneSetup;
 import io.sapl.grammar.sapl.PolicySet;
 import io.sapl.grammar.sapl.SAPL;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler;
 import io.sapl.interpreter.context.AuthorizationContext;
 import io.sapl.interpreter.functions.FunctionContext;
 import io.sapl.interpreter.pip.AttributeContext;
@@ -80,8 +81,10 @@ public SAPL parse(InputStream saplInputStream) {
 
         var sapl       = loadAsResource(saplInputStream);
         var diagnostic = Diagnostician.INSTANCE.validate(sapl);
-        if (diagnostic.getSeverity() == Diagnostic.OK)
+        if (diagnostic.getSeverity() == Diagnostic.OK) {
+            ExpressionCompiler.compile(sapl);
             return sapl;
+        }
 
         throw new PolicyEvaluationException(composeReason(diagnostic));
     }
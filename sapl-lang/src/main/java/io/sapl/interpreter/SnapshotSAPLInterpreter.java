@@ -0,0 +1,311 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.grammar.sapl.SAPL;
+import io.sapl.grammar.sapl.SaplPackage;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler;
+import io.sapl.interpreter.functions.FunctionContext;
+import io.sapl.interpreter.pip.AttributeContext;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * A SAPLInterpreter which reuses parsed documents from an on-disk snapshot.
+ * <p>
+ * The snapshot stores the abstract syntax trees of documents in the EMF binary
+ * format, keyed by the SHA-256 hash of the document source. When a document is
+ * parsed whose source matches a document in the snapshot, the stored syntax
+ * tree is returned and the Xtext parser is skipped. All other documents are
+ * parsed by the delegate interpreter. The snapshot file is memory-mapped when
+ * it is loaded.
+ * <p>
+ * Each call of {@link #parse(String)} returns a new copy of the stored syntax
+ * tree, as evaluation state such as compiled expressions and variable slots is
+ * attached to the nodes of a document.
+ * <p>
+ * A missing, outdated, or corrupted snapshot file is ignored, i.e., all
+ * documents are parsed again. Documents loaded from a snapshot differ from
+ * parsed documents:
+ * <ul>
+ * <li>They have no node model and are contained in no resource, i.e., they
+ * carry no information about the source text of their elements. Features
+ * relying on it, e.g., error messages quoting the source text, are not
+ * available.</li>
+ * <li>{@link #parse(InputStream)} bypasses the snapshot and always uses the
+ * delegate interpreter, as the document source is only hashed for
+ * {@link #parse(String)}.</li>
+ * </ul>
+ */
+@Slf4j
+public class SnapshotSAPLInterpreter implements SAPLInterpreter {
+
+    private static final int MAGIC = 0x5341504C;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int HASH_LENGTH = 32;
+
+    private static final String SNAPSHOT_URI = "snapshot:/documents.saplbin";
+
+    private final SAPLInterpreter delegate;
+
+    private final Map<String, SAPL> documentsByHash;
+
+    /**
+     * Creates an interpreter using the documents stored in a snapshot file.
+     *
+     * @param delegate     interpreter for documents not contained in the snapshot
+     * @param snapshotFile the snapshot file. If it does not exist, the snapshot is
+     *                     empty.
+     */
+    public SnapshotSAPLInterpreter(@NonNull SAPLInterpreter delegate, @NonNull Path snapshotFile) {
+        this.delegate        = delegate;
+        this.documentsByHash = loadSnapshot(snapshotFile);
+    }
+
+    /**
+     * @return the number of documents available in the snapshot
+     */
+    public int getNumberOfSnapshotDocuments() {
+        return documentsByHash.size();
+    }
+
+    /**
+     * @return the content hashes of the documents available in the snapshot
+     */
+    public Set<String> getSnapshotDocumentHashes() {
+        return documentsByHash.keySet();
+    }
+
+    /**
+     * Computes the keys under which documents are stored in a snapshot. Two
+     * document sets have the same snapshot, if their content hashes are equal.
+     *
+     * @param documentSources the document sources
+     * @return the content hashes of the documents
+     */
+    public static Set<String> contentHashes(@NonNull Collection<String> documentSources) {
+        var hashes = new HashSet<String>(documentSources.size());
+        for (var source : documentSources)
+            hashes.add(contentHash(source));
+        return hashes;
+    }
+
+    @Override
+    public SAPL parse(String saplDefinition) {
+        var document = documentsByHash.get(contentHash(saplDefinition));
+        if (document == null)
+            return delegate.parse(saplDefinition);
+        var copy = EcoreUtil.copy(document);
+        ExpressionCompiler.compile(copy);
+        return copy;
+    }
+
+    @Override
+    public SAPL parse(InputStream saplInputStream) {
+        return delegate.parse(saplInputStream);
+    }
+
+    @Override
+    public Flux<AuthorizationDecision> evaluate(AuthorizationSubscription authzSubscription, String saplDocumentSource,
+            AttributeContext attributeContext, FunctionContext functionContext, Map<String, Val> environmentVariables) {
+        return delegate.evaluate(authzSubscription, saplDocumentSource, attributeContext, functionContext,
+                environmentVariables);
+    }
+
+    @Override
+    public DocumentAnalysisResult analyze(String saplDefinition) {
+        return delegate.analyze(saplDefinition);
+    }
+
+    /**
+     * Writes a snapshot of parsed documents. The file is replaced atomically, if
+     * the file system supports it.
+     *
+     * @param snapshotFile      the snapshot file
+     * @param documentsBySource the parsed documents by their source
+     * @throws UncheckedIOException if the snapshot cannot be written
+     */
+    public static void writeSnapshot(@NonNull Path snapshotFile, @NonNull Map<String, SAPL> documentsBySource) {
+        var hashes   = new ArrayList<byte[]>(documentsBySource.size());
+        var resource = new BinaryResourceImpl(URI.createURI(SNAPSHOT_URI));
+        for (var entry : documentsBySource.entrySet()) {
+            hashes.add(sha256(entry.getKey()));
+            resource.getContents().add(EcoreUtil.copy(entry.getValue()));
+        }
+
+        try {
+            var directory = snapshotFile.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            var temporaryFile = Files.createTempFile(directory, snapshotFile.getFileName().toString(), ".tmp");
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(SaplPackage.eNS_URI);
+                out.writeInt(hashes.size());
+                for (var hash : hashes)
+                    out.write(hash);
+                resource.save(out, null);
+            } catch (IOException e) {
+                Files.deleteIfExists(temporaryFile);
+                throw e;
+            }
+            moveIntoPlace(temporaryFile, snapshotFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the document snapshot " + snapshotFile, e);
+        }
+    }
+
+    private static void moveIntoPlace(Path temporaryFile, Path snapshotFile) throws IOException {
+        try {
+            Files.move(temporaryFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(temporaryFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static Map<String, SAPL> loadSnapshot(Path snapshotFile) {
+        if (!Files.isRegularFile(snapshotFile)) {
+            log.info("No document snapshot found at {}. All documents will be parsed.", snapshotFile);
+            return Map.of();
+        }
+        try (var channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            var documents = readSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            log.info("Loaded {} parsed documents from the snapshot {}.", documents.size(), snapshotFile);
+            return documents;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable document snapshot {}: {}", snapshotFile, e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private static Map<String, SAPL> readSnapshot(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION)
+            throw new IOException("Unknown snapshot format.");
+
+        var packageUri = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(packageUri);
+        if (!SaplPackage.eNS_URI.equals(new String(packageUri, StandardCharsets.UTF_8)))
+            throw new IOException("Snapshot of a different SAPL version.");
+
+        var numberOfDocuments = buffer.getInt();
+        var hashes            = new ArrayList<String>(numberOfDocuments);
+        var hash              = new byte[HASH_LENGTH];
+        for (int i = 0; i < numberOfDocuments; i++) {
+            buffer.get(hash);
+            hashes.add(HexFormat.of().formatHex(hash));
+        }
+
+        // the SAPL package must be registered before its classes can be resolved
+        EPackage.Registry.INSTANCE.computeIfAbsent(SaplPackage.eNS_URI, key -> SaplPackage.eINSTANCE);
+        var resource = new BinaryResourceImpl(URI.createURI(SNAPSHOT_URI));
+        resource.load(new ByteBufferInputStream(buffer), null);
+
+        // the stored documents are only copied, compiling them is left to parse
+        List<SAPL> documents = new ArrayList<>(numberOfDocuments);
+        for (var content : resource.getContents())
+            documents.add((SAPL) content);
+        if (documents.size() != numberOfDocuments)
+            throw new IOException("Inconsistent number of documents in snapshot.");
+
+        var documentsByHash = new HashMap<String, SAPL>(numberOfDocuments);
+        for (int i = 0; i < numberOfDocuments; i++)
+            documentsByHash.put(hashes.get(i), documents.get(i));
+        return Collections.unmodifiableMap(documentsByHash);
+    }
+
+    private static String contentHash(String saplDefinition) {
+        return HexFormat.of().formatHex(sha256(saplDefinition));
+    }
+
+    private static byte[] sha256(String saplDefinition) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(saplDefinition.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? Byte.toUnsignedInt(buffer.get()) : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0)
+                return 0;
+            if (!buffer.hasRemaining())
+                return -1;
+            var numberOfBytes = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, numberOfBytes);
+            return numberOfBytes;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+    }
+
+}
@@ -20,12 +20,11 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.NoSuchElementException;
-import java.util.Objects;
 
 import io.sapl.api.interpreter.PolicyEvaluationException;
 import io.sapl.api.interpreter.Val;
 import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.grammar.sapl.impl.util.RegexUtil.MatchLimits;
 import io.sapl.interpreter.functions.FunctionContext;
 import io.sapl.interpreter.pip.AttributeContext;
 import lombok.NonNull;
@@ -44,11 +43,9 @@ public class AuthorizationContext {
     private static final String FUNCTION_CTX  = "functionCtx";
     private static final String VARIABLES     = "variables";
     private static final String IMPORTS       = "imports";
-    private static final String SUBJECT       = "subject";
-    private static final String ACTION        = "action";
-    private static final String RESOURCE      = "resource";
-    private static final String ENVIRONMENT   = "environment";
     private static final String RELATIVE_NODE = "relativeNode";
+    private static final String TRACING       = "tracing";
+    private static final String REGEX_LIMITS  = "regexLimits";
 
     public static Map<String, String> getImports(ContextView ctx) {
         return ctx.getOrDefault(IMPORTS, Collections.emptyMap());
@@ -86,66 +83,175 @@ public Context setAttributeContext(Context ctx, AttributeContext attributeContex
         return ctx.put(ATTRIBUTE_CTX, attributeContext);
     }
 
+    /**
+     * Enables or disables the recording of evaluation traces. If tracing is
+     * disabled, the subscription and environment variables set afterwards are
+     * untraced values, see {@link Val#untraced()}. Thus, no traces are recorded for
+     * values computed from them.
+     *
+     * @param ctx     the context
+     * @param enabled true, if traces are recorded
+     * @return the context with tracing enabled or disabled
+     */
+    public Context setTracingEnabled(@NonNull Context ctx, boolean enabled) {
+        return ctx.put(TRACING, enabled);
+    }
+
+    /**
+     * @param ctx the context
+     * @return true, if traces are recorded. Tracing is enabled by default.
+     */
+    public static boolean isTracingEnabled(ContextView ctx) {
+        return ctx.getOrDefault(TRACING, Boolean.TRUE);
+    }
+
+    /**
+     * @param ctx the context
+     * @return true, if tracing has been explicitly enabled or disabled, e.g., by a
+     *         subscriber requiring traces.
+     */
+    public static boolean isTracingConfigured(ContextView ctx) {
+        return ctx.hasKey(TRACING);
+    }
+
+    /**
+     * Sets the limits for matching regular expressions with the regex operator.
+     *
+     * @param ctx    the context
+     * @param limits the limits
+     * @return the context with the limits set
+     */
+    public Context setRegexMatchLimits(@NonNull Context ctx, @NonNull MatchLimits limits) {
+        return ctx.put(REGEX_LIMITS, limits);
+    }
+
+    /**
+     * @param ctx the context
+     * @return the limits for matching regular expressions, or
+     *         {@link MatchLimits#DEFAULT} if none are set
+     */
+    public static MatchLimits getRegexMatchLimits(ContextView ctx) {
+        return ctx.getOrDefault(REGEX_LIMITS, MatchLimits.DEFAULT);
+    }
+
+    /**
+     * @param ctx the context
+     * @return true, if the context carries settings which change how policies are
+     *         evaluated, i.e., tracing or regex match limits.
+     */
+    public static boolean hasEvaluationSettings(ContextView ctx) {
+        return ctx.hasKey(TRACING) || ctx.hasKey(REGEX_LIMITS);
+    }
+
+    private static Val traced(ContextView ctx, Val value) {
+        return isTracingEnabled(ctx) ? value : value.untraced();
+    }
+
+    /**
+     * Sets the environment variables, e.g., the variables of the PDP configuration.
+     * The variables are kept by name, as they are not part of any document.
+     *
+     * @param ctx                  the context
+     * @param environmentVariables the variables by name
+     * @return the context with the variables set
+     */
     public static Context setVariables(@NonNull Context ctx, Map<String, Val> environmentVariables) {
-        Map<String, Val> variables = new HashMap<>(ctx.getOrDefault(VARIABLES, new HashMap<>()));
+        var variables = new HashMap<String, Val>(environmentVariables.size() * 2);
         for (var variable : environmentVariables.entrySet()) {
-            var name = variable.getKey();
-            assertVariableNameNotReserved(name);
-            variables.put(name, variable.getValue());
+            assertVariableNotReserved(variable.getKey());
+            variables.put(variable.getKey(), traced(ctx, variable.getValue()));
         }
-        return ctx.put(VARIABLES, variables);
+        return ctx.put(VARIABLES, getVariableFrame(ctx).withEnvironment(variables));
     }
 
+    /**
+     * Sets an environment variable by its name.
+     *
+     * @param ctx   the context
+     * @param name  the name of the variable
+     * @param value the value of the variable, undefined removes the variable
+     * @return the context with the variable set
+     */
     public Context setVariable(@NonNull Context ctx, String name, Val value) {
-        assertVariableNameNotReserved(name);
+        assertVariableNotReserved(name);
 
         if (value.isError())
             throw new PolicyEvaluationException(value.getMessage());
 
-        Map<String, Val> variables = new HashMap<>(ctx.getOrDefault(VARIABLES, new HashMap<>()));
+        return ctx.put(VARIABLES, getVariableFrame(ctx).withEnvironment(Map.of(name, value)));
+    }
+
+    /**
+     * Sets a variable by its slot. The variables not set are shared with the
+     * variable frame of the enclosing context.
+     *
+     * @param ctx   the context
+     * @param slot  the slot of the variable, see {@link VariableSlots}
+     * @param name  the name of the variable
+     * @param value the value of the variable, undefined removes the variable
+     * @return the context with the variable set
+     */
+    public Context setVariable(@NonNull Context ctx, int slot, String name, Val value) {
+        if (VariableSlots.isSubscriptionVariable(slot))
+            throw new PolicyEvaluationException(CANNOT_OVERWRITE_REQUEST_VARIABLE_S_ERROR, name);
 
+        if (value.isError())
+            throw new PolicyEvaluationException(value.getMessage());
+
+        var frame = getVariableFrame(ctx);
         if (value.isUndefined())
-            variables.remove(name);
-        else
-            variables.put(name, value);
-        return ctx.put(VARIABLES, variables);
+            return ctx.put(VARIABLES, frame.without(slot, name));
+        return ctx.put(VARIABLES, frame.with(slot, name, value));
     }
 
-    private void assertVariableNameNotReserved(String name) {
-        if (SUBJECT.equals(name) || RESOURCE.equals(name) || ACTION.equals(name) || ENVIRONMENT.equals(name)) {
+    private void assertVariableNotReserved(String name) {
+        if (VariableSlots.isSubscriptionVariable(name)) {
             throw new PolicyEvaluationException(CANNOT_OVERWRITE_REQUEST_VARIABLE_S_ERROR, name);
         }
     }
 
     public Context setSubscriptionVariables(@NonNull Context ctx, AuthorizationSubscription authorizationSubscription) {
+        var frame = getVariableFrame(ctx)
+                .with(VariableSlots.SUBJECT, "subject", traced(ctx, Val.of(authorizationSubscription.getSubject())))
+                .with(VariableSlots.ACTION, "action", traced(ctx, Val.of(authorizationSubscription.getAction())))
+                .with(VariableSlots.RESOURCE, "resource", traced(ctx, Val.of(authorizationSubscription.getResource())))
+                .with(VariableSlots.ENVIRONMENT, "environment",
+                        traced(ctx, Val.of(authorizationSubscription.getEnvironment())));
+        return ctx.put(VARIABLES, frame);
+    }
 
-        Map<String, Val> variables = new HashMap<>(
-                Objects.requireNonNull(ctx.getOrDefault(VARIABLES, new HashMap<>())));
-
-        variables.put(SUBJECT, Val.of(authorizationSubscription.getSubject()));
-        variables.put(ACTION, Val.of(authorizationSubscription.getAction()));
-        variables.put(RESOURCE, Val.of(authorizationSubscription.getResource()));
-        variables.put(ENVIRONMENT, Val.of(authorizationSubscription.getEnvironment()));
-        return ctx.put(VARIABLES, variables);
+    public static VariableFrame getVariableFrame(ContextView ctx) {
+        return ctx.getOrDefault(VARIABLES, VariableFrame.EMPTY);
     }
 
-    @SuppressWarnings("unchecked")
-    // In this case the catch clause takes care of making it fail-safe and solves
-    // the runtime type erasure problem for this case.
     public static Map<String, Val> getVariables(ContextView ctx) {
-        Map<String, Val> result = null;
-        try {
-            result = (Map<String, Val>) ctx.get(VARIABLES);
-        } catch (ClassCastException | NoSuchElementException e) {
-            // NOOP continue with result == null
-        }
-        if (result == null)
-            result = new HashMap<>();
-        return result;
+        return getVariableFrame(ctx).asMap();
     }
 
+    /**
+     * Looks up a variable by its name.
+     *
+     * @param ctx  the context
+     * @param name the name of the variable
+     * @return the value of the variable, or undefined if the variable is not set
+     */
     public static Val getVariable(ContextView ctx, String name) {
-        var value = getVariables(ctx).get(name);
+        var value = getVariableFrame(ctx).get(name);
+        if (value == null)
+            return Val.UNDEFINED;
+        return value;
+    }
+
+    /**
+     * Looks up a variable by its slot.
+     *
+     * @param ctx  the context
+     * @param slot the slot of the variable, see {@link VariableSlots}
+     * @param name the name of the variable
+     * @return the value of the variable, or undefined if the variable is not set
+     */
+    public static Val getVariable(ContextView ctx, int slot, String name) {
+        var value = getVariableFrame(ctx).get(slot, name);
         if (value == null)
             return Val.UNDEFINED;
         return value;
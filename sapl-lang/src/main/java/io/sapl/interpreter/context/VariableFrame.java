@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.context;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.sapl.api.interpreter.Val;
+
+/**
+ * An immutable frame of variables indexed by slots assigned by
+ * {@link VariableSlots}.
+ * <p>
+ * The frame is a persistent array, i.e., a trie with 32 slots per node. Setting
+ * a variable copies only the nodes on the path to its slot and shares all other
+ * nodes with the previous frame. Thus, defining a variable does not copy the
+ * other variables, and looking up a variable takes one array access per level
+ * of the trie, i.e., one access for the first 32 slots, two for the first 1024
+ * slots.
+ * <p>
+ * Each slot holds the name of its variable, so that a lookup only finds a
+ * variable of the same name. Variables of the environment, i.e., the variables
+ * of the PDP configuration, are kept by name. They do not occupy slots and are
+ * only looked up if no variable of the name is set in the slot.
+ */
+public final class VariableFrame {
+
+    private static final int BITS  = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK  = WIDTH - 1;
+
+    public static final VariableFrame EMPTY = new VariableFrame(new Object[WIDTH], 0, 0, Map.of());
+
+    private record Variable(String name, Val value) {
+    }
+
+    private final Object[]         root;
+    private final int              shift;
+    private final int              size;
+    private final Map<String, Val> environment;
+
+    private volatile Map<String, Val> variables;
+
+    private VariableFrame(Object[] root, int shift, int size, Map<String, Val> environment) {
+        this.root        = root;
+        this.shift       = shift;
+        this.size        = size;
+        this.environment = environment;
+    }
+
+    /**
+     * @param slot the slot of the variable
+     * @param name the name of the variable
+     * @return the value of the variable, or null if the variable is not defined.
+     */
+    public Val get(int slot, String name) {
+        var variable = variableIn(slot);
+        if (variable != null && variable.name().equals(name))
+            return variable.value();
+        return environment.get(name);
+    }
+
+    /**
+     * Looks up a variable by its name.
+     *
+     * @param name a variable name
+     * @return the value of the variable, or null if the variable is not defined.
+     */
+    public Val get(String name) {
+        return asMap().get(name);
+    }
+
+    private Variable variableIn(int slot) {
+        if (slot >>> (shift + BITS) != 0)
+            return null;
+        var node = root;
+        for (var level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(slot >>> level) & MASK];
+            if (node == null)
+                return null;
+        }
+        return (Variable) node[slot & MASK];
+    }
+
+    /**
+     * @param slot  the slot of the variable
+     * @param name  the name of the variable
+     * @param value the new value of the variable, null removes the variable. An
+     *              environment variable of the same name is hidden as well.
+     * @return a frame with the variable set and all other variables unchanged.
+     */
+    public VariableFrame with(int slot, String name, Val value) {
+        if (value == null && environment.containsKey(name))
+            value = Val.UNDEFINED;
+
+        var previous = variableIn(slot);
+        if (previous == null && value == null)
+            return this;
+
+        var newRoot  = root;
+        var newShift = shift;
+        while (slot >>> (newShift + BITS) != 0) {
+            var grownRoot = new Object[WIDTH];
+            grownRoot[0]  = newRoot;
+            newRoot       = grownRoot;
+            newShift     += BITS;
+        }
+
+        var newSize = size;
+        if (previous == null)
+            newSize++;
+        if (value == null)
+            newSize--;
+        var variable = value == null ? null : new Variable(name, value);
+        return new VariableFrame(set(newRoot, newShift, slot, variable), newShift, newSize, environment);
+    }
+
+    /**
+     * @param slot the slot of the variable
+     * @param name the name of the variable
+     * @return a frame without the variable. An environment variable of the same
+     *         name is hidden as well.
+     */
+    public VariableFrame without(int slot, String name) {
+        return with(slot, name, null);
+    }
+
+    /**
+     * @param environmentVariables variables of the environment by name
+     * @return a frame with the environment variables added. The variables set in
+     *         slots take precedence over environment variables of the same name.
+     */
+    public VariableFrame withEnvironment(Map<String, Val> environmentVariables) {
+        if (environmentVariables.isEmpty())
+            return this;
+        var merged = new HashMap<String, Val>(environment);
+        merged.putAll(environmentVariables);
+        return new VariableFrame(root, shift, size, Collections.unmodifiableMap(merged));
+    }
+
+    /**
+     * @return the number of variables set in slots.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the variables of the frame by their names. The map is unmodifiable
+     *         and built on first access.
+     */
+    public Map<String, Val> asMap() {
+        var result = variables;
+        if (result == null) {
+            var map = new HashMap<String, Val>(environment);
+            collect(root, shift, map);
+            map.values().removeIf(Val::isUndefined);
+            result    = Collections.unmodifiableMap(map);
+            variables = result;
+        }
+        return result;
+    }
+
+    private static Object[] set(Object[] node, int level, int slot, Variable variable) {
+        var copy = node == null ? new Object[WIDTH] : node.clone();
+        if (level == 0) {
+            copy[slot & MASK] = variable;
+        } else {
+            var index = (slot >>> level) & MASK;
+            copy[index] = set((Object[]) copy[index], level - BITS, slot, variable);
+        }
+        return copy;
+    }
+
+    private static void collect(Object[] node, int level, Map<String, Val> map) {
+        for (var child : node) {
+            if (child == null)
+                continue;
+            if (level == 0) {
+                var variable = (Variable) child;
+                map.put(variable.name(), variable.value());
+            } else {
+                collect((Object[]) child, level - BITS, map);
+            }
+        }
+    }
+
+}
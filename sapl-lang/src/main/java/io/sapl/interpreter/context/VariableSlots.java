@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.context;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * Assigns slot indices to the variable names of a document.
+ * <p>
+ * Each document has its own slots, which are attached to the root of its
+ * abstract syntax tree. Thus, the slots of a document are released together
+ * with the document, and independent PDPs do not share any slots. The slots of
+ * the variables of the authorization subscription are the same in all
+ * documents.
+ * <p>
+ * Identifiers and value definitions resolve their slot once, when the document
+ * is compiled or first evaluated. During evaluation, variables are then looked
+ * up in a {@link VariableFrame} by their slot instead of their name.
+ */
+public final class VariableSlots extends AdapterImpl {
+
+    public static final int SUBJECT     = 0;
+    public static final int ACTION      = 1;
+    public static final int RESOURCE    = 2;
+    public static final int ENVIRONMENT = 3;
+
+    private static final String[] SUBSCRIPTION_VARIABLES = { "subject", "action", "resource", "environment" };
+
+    private final Map<String, Integer> slots = new HashMap<>();
+
+    private VariableSlots() {
+        for (var name : SUBSCRIPTION_VARIABLES)
+            slotOf(name);
+    }
+
+    /**
+     * @param node a node of an abstract syntax tree
+     * @return the slots of the document containing the node
+     */
+    public static VariableSlots of(EObject node) {
+        var root = EcoreUtil.getRootContainer(node);
+        synchronized (root) {
+            for (var adapter : root.eAdapters()) {
+                if (adapter instanceof VariableSlots variableSlots)
+                    return variableSlots;
+            }
+            var variableSlots = new VariableSlots();
+            root.eAdapters().add(variableSlots);
+            return variableSlots;
+        }
+    }
+
+    /**
+     * @param name a variable name
+     * @return the slot of the variable in this document, assigning a new slot on
+     *         first use.
+     */
+    public synchronized int slotOf(String name) {
+        return slots.computeIfAbsent(name, n -> slots.size());
+    }
+
+    /**
+     * @param slot a slot
+     * @return true, if the slot holds one of the variables of the authorization
+     *         subscription, i.e., subject, action, resource, or environment.
+     */
+    public static boolean isSubscriptionVariable(int slot) {
+        return slot >= SUBJECT && slot <= ENVIRONMENT;
+    }
+
+    /**
+     * @param name a variable name
+     * @return true, if the name is the name of one of the variables of the
+     *         authorization subscription.
+     */
+    public static boolean isSubscriptionVariable(String name) {
+        for (var subscriptionVariable : SUBSCRIPTION_VARIABLES) {
+            if (subscriptionVariable.equals(name))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param slot the slot of a variable of the authorization subscription
+     * @return the name of the variable
+     */
+    public static String nameOfSubscriptionVariable(int slot) {
+        return SUBSCRIPTION_VARIABLES[slot];
+    }
+
+    @Override
+    public boolean isAdapterForType(Object type) {
+        return type == VariableSlots.class;
+    }
+
+}
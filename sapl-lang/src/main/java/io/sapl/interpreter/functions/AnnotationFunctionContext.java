@@ -17,9 +17,12 @@
  */
 package io.sapl.interpreter.functions;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -32,6 +35,9 @@
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 
 import io.sapl.api.functions.Function;
 import io.sapl.api.functions.FunctionLibrary;
@@ -42,11 +48,15 @@
 import io.sapl.interpreter.InitializationException;
 import io.sapl.interpreter.SchemaLoadingUtil;
 import io.sapl.interpreter.pip.LibraryEntryMetadata;
+import io.sapl.interpreter.pip.LibraryMethodInvokers;
 import io.sapl.interpreter.validation.IllegalParameterType;
+import io.sapl.interpreter.validation.JsonSchemaValidators;
 import io.sapl.interpreter.validation.ParameterTypeValidator;
-import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.Value;
 
 /**
  * Context to hold functions libraries during policy evaluation.
@@ -62,10 +72,18 @@ public class AnnotationFunctionContext implements FunctionContext {
     private static final String ILLEGAL_RETURN_TYPE_FOR_IMPORT_ERROR           = "Function does not return a Val. Cannot be loaded. Type was: %s.";
     private static final String MULTIPLE_SCHEMA_ANNOTATIONS_NOT_ALLOWED        = "Function has both a schema and a schemaPath annotation. Multiple schema annotations are not allowed.";
 
+    /**
+     * Default maximum number of memoized results of pure functions.
+     */
+    public static final long DEFAULT_MEMOIZATION_CACHE_MAXIMUM_SIZE = 10_000L;
+
     private final Collection<LibraryDocumentation> documentation = new ConcurrentLinkedQueue<>();
     private final Map<String, FunctionMetadata>    functions     = new ConcurrentHashMap<>();
     private final Map<String, Collection<String>>  libraries     = new ConcurrentHashMap<>();
 
+    private volatile Cache<MemoizationKey, Val> memoizedResults = newMemoizationCache(
+            DEFAULT_MEMOIZATION_CACHE_MAXIMUM_SIZE);
+
     private List<String> codeTemplateCache;
 
     /**
@@ -110,13 +128,24 @@ public final void loadLibraries(FunctionLibrarySupplier librariesSupplier) throw
 
     @Override
     public Val evaluate(String function, Val... parameters) {
+        return evaluate(function, functions.get(function), parameters);
+    }
+
+    @Override
+    public FunctionHandle bind(String function) {
+        var metadata = functions.get(function);
+        if (metadata == null)
+            return FunctionContext.super.bind(function);
+        return parameters -> evaluate(function, metadata, parameters);
+    }
+
+    private Val evaluate(String function, FunctionMetadata metadata, Val... parameters) {
         var functionTrace = new ExpressionArgument[parameters.length + 1];
         functionTrace[0] = new ExpressionArgument("functionName", Val.of(function));
         for (var parameter = 0; parameter < parameters.length; parameter++) {
             functionTrace[parameter + 1] = new ExpressionArgument("parameter[" + parameter + "]",
                     parameters[parameter]);
         }
-        var metadata = functions.get(function);
         if (metadata == null)
             return Val.error(UNKNOWN_FUNCTION_ERROR, function).withTrace(FunctionContext.class, false, functionTrace);
 
@@ -142,7 +171,7 @@ private Val evaluateFixedParametersFunction(FunctionMetadata metadata, Parameter
                 return Val.error(e);
             }
         }
-        return invokeFunction(metadata, (Object[]) parameters);
+        return invokeFunction(metadata, parameters);
     }
 
     private Val evaluateVarArgsFunction(FunctionMetadata metadata, Parameter[] funParams, Val... parameters) {
@@ -153,14 +182,44 @@ private Val evaluateVarArgsFunction(FunctionMetadata metadata, Parameter[] funPa
                 return Val.error(e);
             }
         }
-        return invokeFunction(metadata, (Object[]) new Object[] { parameters });
+        return invokeFunction(metadata, parameters);
     }
 
-    private Val invokeFunction(FunctionMetadata metadata, Object... parameters) {
+    private Val invokeFunction(FunctionMetadata metadata, Val... parameters) {
+        if (!metadata.isPure())
+            return invokeFunctionMethod(metadata, parameters);
+
+        var key = MemoizationKey.of(metadata.fullyQualifiedName(), parameters);
+        if (key == null)
+            return invokeFunctionMethod(metadata, parameters);
+
+        var cache  = memoizedResults;
+        var result = cache.getIfPresent(key);
+        if (result != null)
+            return copyOf(result);
+
+        result = invokeFunctionMethod(metadata, parameters);
+        if (!result.isError())
+            cache.put(key.copy(), copyOf(result));
+        return result;
+    }
+
+    /*
+     * Objects and arrays are mutable. Memoized results must not share them with
+     * callers, as callers may modify them.
+     */
+    private static Val copyOf(Val value) {
+        if (!value.isDefined() || !value.get().isContainerNode())
+            return value;
+        var copy = Val.of(value.get().deepCopy());
+        return value.isSecret() ? copy.asSecret() : copy;
+    }
+
+    private Val invokeFunctionMethod(FunctionMetadata metadata, Val... parameters) {
         try {
-            return (Val) metadata.getFunction().invoke(metadata.getLibrary(), parameters);
+            return (Val) metadata.getInvoker().invokeExact(parameters);
         } catch (Throwable e) {
-            return invocationExceptionToError(e, metadata, parameters);
+            return invocationExceptionToError(e, metadata, (Object[]) parameters);
         }
     }
 
@@ -172,7 +231,40 @@ private Val invocationExceptionToError(Throwable e, LibraryEntryMetadata metadat
                 params.append(',');
         }
         return Val.error("Error during evaluation of function %s(%s): %s", metadata.getFunctionName(),
-                params.toString(), e.getMessage());
+                params.toString(), Val.error(e).getMessage());
+    }
+
+    /**
+     * Limits the number of results of pure functions memoized by this context.
+     * Replaces the current cache and thereby discards all memoized results and
+     * statistics.
+     *
+     * @param maximumSize the maximum number of memoized results. Zero disables
+     *                    memoization.
+     */
+    public void setMemoizationCacheMaximumSize(long maximumSize) {
+        if (maximumSize < 0)
+            throw new IllegalArgumentException("The maximum size of the memoization cache must not be negative.");
+        memoizedResults = newMemoizationCache(maximumSize);
+    }
+
+    /**
+     * @return hit, miss, and eviction statistics of the memoized results of pure
+     *         functions.
+     */
+    public CacheStats getMemoizationStatistics() {
+        return memoizedResults.stats();
+    }
+
+    /**
+     * @return the number of currently memoized results of pure functions.
+     */
+    public long getMemoizedResultsCount() {
+        return memoizedResults.size();
+    }
+
+    private static Cache<MemoizationKey, Val> newMemoizationCache(long maximumSize) {
+        return CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
     }
 
     /**
@@ -211,6 +303,7 @@ public final void loadLibrary(Object library, Class<?> libraryType) throws Initi
         }
 
         documentation.add(libDocs);
+        memoizedResults.invalidateAll();
     }
 
     private void importFunction(Object library, String libName, LibraryDocumentation libMeta, Method method)
@@ -250,7 +343,9 @@ private void importFunction(Object library, String libName, LibraryDocumentation
             }
         }
 
-        var funMeta = new FunctionMetadata(libName, funName, processedSchemaDefinition, library, parameters, method);
+        JsonSchemaValidators.compileParameterSchemas(method);
+        var funMeta = new FunctionMetadata(libName, funName, processedSchemaDefinition, library, parameters, method,
+                funAnnotation.pure());
         functions.put(funMeta.fullyQualifiedName(), funMeta);
         libMeta.documentation.put(funMeta.getDocumentationCodeTemplate(), funAnnotation.docs());
 
@@ -271,6 +366,12 @@ public Boolean isProvidedFunction(String function) {
         return functions.containsKey(function);
     }
 
+    @Override
+    public boolean isPure(String function) {
+        var metadata = functions.get(function);
+        return metadata != null && metadata.isPure();
+    }
+
     @Override
     public Collection<LibraryDocumentation> getDocumentation() {
         return Collections.unmodifiableCollection(documentation);
@@ -289,7 +390,6 @@ public Collection<String> providedFunctionsOfLibrary(String libraryName) {
      * Metadata for individual functions.
      */
     @Data
-    @AllArgsConstructor
     public static class FunctionMetadata implements LibraryEntryMetadata {
 
         String libraryName;
@@ -304,6 +404,29 @@ public static class FunctionMetadata implements LibraryEntryMetadata {
 
         Method function;
 
+        boolean pure;
+
+        /**
+         * Invokes the function with its parameters, see
+         * {@link LibraryMethodInvokers#functionInvoker}.
+         */
+        @ToString.Exclude
+        @EqualsAndHashCode.Exclude
+        MethodHandle invoker;
+
+        public FunctionMetadata(String libraryName, String functionName, JsonNode functionSchema, Object library,
+                int numberOfParameters, Method function, boolean pure) {
+            this.libraryName        = libraryName;
+            this.functionName       = functionName;
+            this.functionSchema     = functionSchema;
+            this.library            = library;
+            this.numberOfParameters = numberOfParameters;
+            this.function           = function;
+            this.pure               = pure;
+            this.invoker            = LibraryMethodInvokers.functionInvoker(MethodHandles.lookup(), library, function,
+                    numberOfParameters == VAR_ARGS);
+        }
+
         @Override
         public boolean isVarArgsParameters() {
             return numberOfParameters == VAR_ARGS;
@@ -377,4 +500,44 @@ public Map<String, String> getDocumentedCodeTemplates() {
         }
         return documentedCodeTemplates;
     }
+
+    /**
+     * Key of a memoized function result. Parameters are compared by their JSON
+     * values without numeric coercion, as functions may distinguish, e.g., 1 from
+     * 1.0.
+     */
+    @Value
+    static class MemoizationKey {
+
+        String         function;
+        List<JsonNode> parameters;
+
+        /**
+         * @param function   fully qualified function name
+         * @param parameters function parameters
+         * @return a key, or null if the parameters are not memoizable, i.e., are
+         *         undefined, errors, or secrets.
+         */
+        static MemoizationKey of(String function, Val... parameters) {
+            var values = new ArrayList<JsonNode>(parameters.length);
+            for (var parameter : parameters) {
+                if (parameter.isError() || parameter.isUndefined() || parameter.isSecret())
+                    return null;
+                values.add(parameter.get());
+            }
+            return new MemoizationKey(function, values);
+        }
+
+        /**
+         * @return a key with copies of the parameters, which cannot be modified by
+         *         the caller
+         */
+        MemoizationKey copy() {
+            var values = new ArrayList<JsonNode>(parameters.size());
+            for (var parameter : parameters)
+                values.add(parameter.deepCopy());
+            return new MemoizationKey(function, values);
+        }
+    }
+
 }
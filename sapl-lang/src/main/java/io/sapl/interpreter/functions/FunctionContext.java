@@ -30,6 +30,27 @@ public interface FunctionContext extends LibraryFunctionProvider {
 
     Val evaluate(String function, Val... parameters);
 
+    /**
+     * Looks up a function once, so that it can be evaluated repeatedly without
+     * resolving its name.
+     *
+     * @param function the fully qualified name of the function
+     * @return a handle evaluating the function
+     */
+    default FunctionHandle bind(String function) {
+        return parameters -> evaluate(function, parameters);
+    }
+
+    /**
+     * @param function the fully qualified name of the function
+     * @return true, if the function is known to be pure, i.e., its result only
+     *         depends on its parameters. False, if the function is not pure or
+     *         unknown.
+     */
+    default boolean isPure(String function) {
+        return false;
+    }
+
     Collection<LibraryDocumentation> getDocumentation();
 
     List<String> getCodeTemplates();
@@ -38,4 +59,14 @@ public interface FunctionContext extends LibraryFunctionProvider {
 
     Map<String, JsonNode> getFunctionSchemas();
 
+    /**
+     * A function bound to its implementation.
+     */
+    @FunctionalInterface
+    interface FunctionHandle {
+
+        Val evaluate(Val... parameters);
+
+    }
+
 }
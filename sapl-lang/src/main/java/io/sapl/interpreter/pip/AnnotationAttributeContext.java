@@ -17,11 +17,11 @@
  */
 package io.sapl.interpreter.pip;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.ParameterizedType;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -33,6 +33,7 @@
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import org.reactivestreams.Publisher;
@@ -48,6 +49,7 @@
 import io.sapl.grammar.sapl.Arguments;
 import io.sapl.interpreter.InitializationException;
 import io.sapl.interpreter.SchemaLoadingUtil;
+import io.sapl.interpreter.validation.JsonSchemaValidators;
 import io.sapl.interpreter.validation.ParameterTypeValidator;
 import lombok.NoArgsConstructor;
 import reactor.core.publisher.Flux;
@@ -80,6 +82,10 @@ public class AnnotationAttributeContext implements AttributeContext {
 
     private List<String> templatesCache;
 
+    private final Map<String, PolicyInformationPointGuard> guardsByPipName = new ConcurrentHashMap<>();
+
+    private volatile AttributeStreamBroker attributeStreamBroker;
+
     /**
      * Create context from a supplied PIPs.
      *
@@ -139,12 +145,27 @@ public Flux<Val> evaluateEnvironmentAttribute(String attributeName, Arguments ar
         return evaluateEnvironmentAttribute(attributeName, attributeMetadata, arguments, variables);
     }
 
+    @Override
+    public AttributeHandle bindAttribute(String attributeName, Arguments arguments) {
+        var attributeMetadata = lookupAttribute(attributeName, numberOfArguments(arguments), false);
+        if (attributeMetadata == null)
+            return AttributeContext.super.bindAttribute(attributeName, arguments);
+        return (leftHandValue, variables) -> evaluateAttribute(attributeName, attributeMetadata, leftHandValue,
+                arguments, variables);
+    }
+
+    @Override
+    public EnvironmentAttributeHandle bindEnvironmentAttribute(String attributeName, Arguments arguments) {
+        var attributeMetadata = lookupAttribute(attributeName, numberOfArguments(arguments), true);
+        if (attributeMetadata == null)
+            return AttributeContext.super.bindEnvironmentAttribute(attributeName, arguments);
+        return variables -> evaluateEnvironmentAttribute(attributeName, attributeMetadata, arguments, variables);
+    }
+
     private Flux<Val> evaluateEnvironmentAttribute(String attributeName, AttributeFinderMetadata attributeMetadata,
             Arguments arguments, Map<String, Val> variables) {
-        var pip    = attributeMetadata.getPolicyInformationPoint();
-        var method = attributeMetadata.getFunction();
         return attributeFinderArguments(attributeMetadata, arguments, variables)
-                .switchMap(invokeAttributeFinderMethod(attributeName, pip, method));
+                .switchMap(invokeAttributeFinderMethod(attributeName, attributeMetadata));
     }
 
     private AttributeFinderMetadata lookupAttribute(String attributeName, int numberOfParameters,
@@ -166,36 +187,106 @@ else if (candidate.numberOfParameters == numberOfParameters)
 
     private Flux<Val> evaluateAttribute(String attributeName, AttributeFinderMetadata attributeMetadata,
             Val leftHandValue, Arguments arguments, Map<String, Val> variables) {
+        return attributeFinderArguments(attributeMetadata, leftHandValue, arguments, variables)
+                .switchMap(invokeAttributeFinderMethod(attributeName, attributeMetadata));
+    }
+
+    private Function<Object[], Publisher<? extends Val>> invokeAttributeFinderMethod(String attributeName,
+            AttributeFinderMetadata attributeMetadata) {
+        return invocationParameters -> attributeStream(attributeMetadata, invocationParameters).map(val -> {
+            var trace = new HashMap<String, Val>();
+            trace.put("attribute", Val.of(attributeName));
+            for (int i = 0; i < invocationParameters.length; i++) {
+                if (invocationParameters[i] instanceof Val)
+                    trace.put("argument[" + i + "]", (Val) (invocationParameters[i]));
+                if (invocationParameters[i] instanceof Map) {
+                    trace.put("argument[" + i + "]", Val.of("VARIABLES OMITTED"));
+                }
+            }
+            trace.put("timestamp", Val.of(Instant.now().toString()));
+            return val.withTrace(AttributeContext.class, false, trace);
+        });
+    }
 
-        var pip    = attributeMetadata.getPolicyInformationPoint();
-        var method = attributeMetadata.getFunction();
+    private Flux<Val> attributeStream(AttributeFinderMetadata attributeMetadata, Object[] invocationParameters) {
+        var cache = attributeMetadata.getCache();
+        if (cache == null)
+            return sharedAttributeStream(attributeMetadata, invocationParameters);
+        return cache.attributeStream(attributeMetadata, invocationParameters,
+                () -> sharedAttributeStream(attributeMetadata, invocationParameters));
+    }
 
-        return attributeFinderArguments(attributeMetadata, leftHandValue, arguments, variables)
-                .switchMap(invokeAttributeFinderMethod(attributeName, pip, method));
+    private Flux<Val> sharedAttributeStream(AttributeFinderMetadata attributeMetadata, Object[] invocationParameters) {
+        var broker = attributeStreamBroker;
+        if (broker == null)
+            return guardedAttributeStream(attributeMetadata, invocationParameters);
+        return broker.attributeStream(attributeMetadata, invocationParameters,
+                () -> guardedAttributeStream(attributeMetadata, invocationParameters));
+    }
+
+    private Flux<Val> guardedAttributeStream(AttributeFinderMetadata attributeMetadata, Object[] invocationParameters) {
+        var guard = guardsByPipName.get(attributeMetadata.getLibraryName());
+        if (guard == null)
+            return findAttribute(attributeMetadata, invocationParameters);
+        return guard.guardedAttributeStream(attributeMetadata.fullyQualifiedName(),
+                () -> findAttribute(attributeMetadata, invocationParameters));
+    }
+
+    private static Flux<Val> findAttribute(AttributeFinderMetadata attributeMetadata, Object[] invocationParameters) {
+        var batcher = attributeMetadata.getBatcher();
+        if (batcher == null || !AttributeBatcher.isBatchable(attributeMetadata, invocationParameters))
+            return invokeAttributeFinder(attributeMetadata, invocationParameters);
+        return batcher.attributeStream(invocationParameters);
     }
 
     @SuppressWarnings("unchecked")
-    private Function<Object[], Publisher<? extends Val>> invokeAttributeFinderMethod(String attributeName, Object pip,
-            Method method) {
-        return invocationParameters -> {
-            try {
-                return ((Flux<Val>) method.invoke(pip, invocationParameters)).map(val -> {
-                    var trace = new HashMap<String, Val>();
-                    trace.put("attribute", Val.of(attributeName));
-                    for (int i = 0; i < invocationParameters.length; i++) {
-                        if (invocationParameters[i] instanceof Val)
-                            trace.put("argument[" + i + "]", (Val) (invocationParameters[i]));
-                        if (invocationParameters[i] instanceof Map) {
-                            trace.put("argument[" + i + "]", Val.of("VARIABLES OMITTED"));
-                        }
-                    }
-                    trace.put("timestamp", Val.of(Instant.now().toString()));
-                    return val.withTrace(AttributeContext.class, false, trace);
-                });
-            } catch (InvocationTargetException | IllegalAccessException | IllegalArgumentException e) {
-                return Flux.just(ErrorUtil.causeOrMessage(e));
-            }
-        };
+    private static Flux<Val> invokeAttributeFinder(AttributeFinderMetadata attributeMetadata,
+            Object[] invocationParameters) {
+        try {
+            return (Flux<Val>) attributeMetadata.getInvoker().invokeExact(invocationParameters);
+        } catch (Throwable e) {
+            return Flux.just(Val.error(e));
+        }
+    }
+
+    /**
+     * Shares attribute streams of identical invocations between evaluations.
+     *
+     * @param attributeStreamBroker the broker sharing the streams, or null to
+     *                              invoke the attribute finder for each evaluation.
+     */
+    public void setAttributeStreamBroker(AttributeStreamBroker attributeStreamBroker) {
+        this.attributeStreamBroker = attributeStreamBroker;
+    }
+
+    /**
+     * Limits the time to first value, the concurrent attribute streams, and the
+     * failure rate of a PIP.
+     *
+     * @param pipName the name of the PIP
+     * @param guard   the guard of the PIP, or null to remove the guard
+     */
+    public void setPolicyInformationPointGuard(String pipName, PolicyInformationPointGuard guard) {
+        if (guard == null)
+            guardsByPipName.remove(pipName);
+        else
+            guardsByPipName.put(pipName, guard);
+    }
+
+    /**
+     * @param pipName the name of the PIP
+     * @return the guard of the PIP, or null if the PIP is not guarded
+     */
+    public PolicyInformationPointGuard getPolicyInformationPointGuard(String pipName) {
+        return guardsByPipName.get(pipName);
+    }
+
+    /**
+     * @return the broker sharing attribute streams, or null if streams are not
+     *         shared.
+     */
+    public AttributeStreamBroker getAttributeStreamBroker() {
+        return attributeStreamBroker;
     }
 
     private List<Flux<Val>> validatedArguments(AttributeFinderMetadata attributeMetadata, Arguments arguments) {
@@ -344,6 +435,39 @@ public final void loadPolicyInformationPoint(Class<?> pipClass) throws Initializ
         loadPolicyInformationPoint(null, pipClass);
     }
 
+    /**
+     * Loads a batch attribute finder. Batchable invocations of the attribute with
+     * the name of the batch attribute finder are then coalesced and looked up in
+     * batches.
+     *
+     * @param batchAttributeFinder a batch attribute finder for an attribute of a
+     *                             loaded PIP
+     * @throws InitializationException if no attribute with the name is loaded, a
+     *                                 batch attribute finder for the attribute has
+     *                                 already been loaded, or its settings are
+     *                                 invalid.
+     */
+    public final void loadBatchAttributeFinder(BatchAttributeFinder batchAttributeFinder)
+            throws InitializationException {
+        var attributeName = batchAttributeFinder.attributeName();
+        var attributes    = attributeMetadataByAttributeName.getOrDefault(attributeName, List.of()).stream()
+                .filter(attribute -> !attribute.isEnvironmentAttribute()).toList();
+        if (attributes.isEmpty())
+            throw new InitializationException(
+                    "Cannot load batch attribute finder. No attribute " + attributeName + " has been loaded.");
+        if (attributes.stream().anyMatch(attribute -> attribute.getBatcher() != null))
+            throw new InitializationException(
+                    "A batch attribute finder for " + attributeName + " has already been loaded.");
+        AttributeBatcher batcher;
+        try {
+            batcher = new AttributeBatcher(batchAttributeFinder);
+        } catch (IllegalArgumentException e) {
+            throw new InitializationException(e.getMessage());
+        }
+        for (var attribute : attributes)
+            attribute.setBatcher(batcher);
+    }
+
     private void loadPolicyInformationPoint(Object pip, Class<?> pipClass) throws InitializationException {
         var pipAnnotation = pipClass.getAnnotation(PolicyInformationPoint.class);
 
@@ -368,14 +492,18 @@ private void loadPolicyInformationPoint(Object pip, Class<?> pipClass) throws In
             if (method.isAnnotationPresent(Attribute.class)) {
                 foundAtLeastOneSuppliedAttributeInPip = true;
                 var annotation = method.getAnnotation(Attribute.class);
+                var cache      = attributeCache(method, annotation.cacheTimeToLiveMillis(),
+                        annotation.cacheStaleWhileRevalidateMillis(), annotation.cacheMaximumSize());
                 importAttribute(pip, pipName, pipDocumentation, method, false, annotation.name(), annotation.schema(),
-                        annotation.pathToSchema(), annotation.docs());
+                        annotation.pathToSchema(), annotation.docs(), cache);
             }
             if (method.isAnnotationPresent(EnvironmentAttribute.class)) {
                 foundAtLeastOneSuppliedAttributeInPip = true;
                 var annotation = method.getAnnotation(EnvironmentAttribute.class);
+                var cache      = attributeCache(method, annotation.cacheTimeToLiveMillis(),
+                        annotation.cacheStaleWhileRevalidateMillis(), annotation.cacheMaximumSize());
                 importAttribute(pip, pipName, pipDocumentation, method, true, annotation.name(), annotation.schema(),
-                        annotation.pathToSchema(), annotation.docs());
+                        annotation.pathToSchema(), annotation.docs(), cache);
             }
         }
 
@@ -387,8 +515,8 @@ private void loadPolicyInformationPoint(Object pip, Class<?> pipClass) throws In
 
     private void importAttribute(Object policyInformationPoint, String pipName,
             PolicyInformationPointDocumentation pipDocumentation, Method method, boolean isEnvironmentAttribute,
-            String attributeName, String attributeSchema, String attributePathToSchema, String documentation)
-            throws InitializationException {
+            String attributeName, String attributeSchema, String attributePathToSchema, String documentation,
+            AttributeCache cache) throws InitializationException {
 
         if (policyInformationPoint == null)
             assertMethodIsStatic(method);
@@ -407,8 +535,9 @@ private void importAttribute(Object policyInformationPoint, String pipName,
         if (!attributeSchema.isEmpty()) {
             processedSchemaDefinition = SchemaLoadingUtil.loadSchemaFromString(attributeSchema);
         }
-        var metadata        = metadataOf(policyInformationPoint, method, pipName, attributeName,
-                processedSchemaDefinition, isEnvironmentAttribute);
+        var metadata = metadataOf(policyInformationPoint, method, pipName, attributeName, processedSchemaDefinition,
+                isEnvironmentAttribute);
+        metadata.setCache(cache);
         var name            = metadata.fullyQualifiedName();
         var namedAttributes = attributeMetadataByAttributeName.computeIfAbsent(name, k -> new ArrayList<>());
         assertNoNameCollision(namedAttributes, metadata);
@@ -417,6 +546,17 @@ private void importAttribute(Object policyInformationPoint, String pipName,
         pipDocumentation.documentation.put(metadata.getDocumentationCodeTemplate(), documentation);
     }
 
+    private AttributeCache attributeCache(Method method, long timeToLiveMillis, long staleWhileRevalidateMillis,
+            long maximumSize) throws InitializationException {
+        if (timeToLiveMillis < 0L || staleWhileRevalidateMillis < 0L || maximumSize <= 0L)
+            throw new InitializationException("The method " + method.getName()
+                    + " declares an invalid cache. Times must not be negative and the maximum size must be positive.");
+        if (timeToLiveMillis == 0L)
+            return null;
+        return new AttributeCache(Duration.ofMillis(timeToLiveMillis), Duration.ofMillis(staleWhileRevalidateMillis),
+                maximumSize);
+    }
+
     private void assertMethodIsStatic(Method method) throws InitializationException {
         if (!Modifier.isStatic(method.getModifiers())) {
             throw new InitializationException(
@@ -446,6 +586,7 @@ private AttributeFinderMetadata metadataOf(Object policyInformationPoint, Method
             throws InitializationException {
 
         assertValidReturnType(method);
+        JsonSchemaValidators.compileParameterSchemas(method);
 
         var parameterCount           = method.getParameterCount();
         var parameterUnderInspection = 0;
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.pip;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.sapl.api.interpreter.Val;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Coalesces invocations of an attribute into batches for a
+ * {@link BatchAttributeFinder}.
+ * <p>
+ * Invocations are grouped by their arguments. The first invocation of a group
+ * opens a batch, which is looked up when the batch window has elapsed or the
+ * batch is full. Later invocations open a new batch.
+ */
+class AttributeBatcher {
+
+    private final Map<List<Val>, Batch> openBatches = new ConcurrentHashMap<>();
+
+    private final BatchAttributeFinder batchAttributeFinder;
+
+    AttributeBatcher(BatchAttributeFinder batchAttributeFinder) {
+        if (batchAttributeFinder.batchWindow().isNegative())
+            throw new IllegalArgumentException("The batch window of batch attribute finders must not be negative.");
+        if (batchAttributeFinder.maximumBatchSize() <= 0)
+            throw new IllegalArgumentException("The maximum batch size of batch attribute finders must be positive.");
+        this.batchAttributeFinder = batchAttributeFinder;
+    }
+
+    /**
+     * @param attributeMetadata    the attribute finder
+     * @param invocationParameters the parameters of an invocation of the attribute
+     * @return true, if the invocation can be batched
+     */
+    static boolean isBatchable(AttributeFinderMetadata attributeMetadata, Object[] invocationParameters) {
+        return !attributeMetadata.isEnvironmentAttribute()
+                && AttributeStreamBroker.AttributeStreamKey.of(attributeMetadata, invocationParameters) != null;
+    }
+
+    /**
+     * @param invocationParameters the parameters of a batchable invocation, i.e.,
+     *                             the left-hand value followed by the arguments
+     * @return the value of the attribute for the left-hand value
+     */
+    Flux<Val> attributeStream(Object[] invocationParameters) {
+        var leftHandValue = (Val) invocationParameters[0];
+        var arguments     = new ArrayList<Val>(invocationParameters.length - 1);
+        // the batches are keyed by the arguments, which must not change if the
+        // evaluation modifies its parameters
+        for (var i = 1; i < invocationParameters.length; i++)
+            arguments.add(((Val) invocationParameters[i]).deepCopy());
+        return Flux.defer(() -> {
+            var batch = openBatches.computeIfAbsent(arguments, Batch::new);
+            while (!batch.add(leftHandValue)) {
+                openBatches.remove(arguments, batch);
+                batch = openBatches.computeIfAbsent(arguments, Batch::new);
+            }
+            return batch.result.map(values -> values.getOrDefault(leftHandValue, Val.UNDEFINED))
+                    .onErrorResume(error -> Mono.just(Val.error(error))).flux();
+        });
+    }
+
+    private class Batch {
+
+        private final List<Val>           arguments;
+        private final Set<Val>            leftHandValues = new LinkedHashSet<>();
+        private final Sinks.Empty<Void>   full           = Sinks.empty();
+        private final Mono<Map<Val, Val>> result;
+        private boolean                   closed;
+
+        Batch(List<Val> arguments) {
+            this.arguments = arguments;
+            this.result    = Mono.firstWithSignal(Mono.delay(batchAttributeFinder.batchWindow()).then(), full.asMono())
+                    .then(Mono.defer(() -> batchAttributeFinder.findAttributes(close(), this.arguments))).cache();
+        }
+
+        synchronized boolean add(Val leftHandValue) {
+            if (closed)
+                return false;
+            if (!leftHandValues.contains(leftHandValue))
+                leftHandValues.add(leftHandValue.deepCopy());
+            if (leftHandValues.size() >= batchAttributeFinder.maximumBatchSize()) {
+                closed = true;
+                openBatches.remove(arguments, this);
+                full.tryEmitEmpty();
+            }
+            return true;
+        }
+
+        synchronized Set<Val> close() {
+            closed = true;
+            openBatches.remove(arguments, this);
+            return Collections.unmodifiableSet(new LinkedHashSet<>(leftHandValues));
+        }
+
+    }
+
+}
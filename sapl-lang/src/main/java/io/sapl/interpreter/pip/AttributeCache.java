@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.pip;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.interpreter.pip.AttributeStreamBroker.AttributeStreamKey;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * Caches the latest value of an attribute for each combination of left-hand
+ * value and arguments.
+ * <p>
+ * New subscriptions immediately receive a cached value, followed by the values
+ * of the attribute finder. All subscriptions for the same key share a single
+ * invocation of the attribute finder, which is only made once a subscription
+ * requests more than the cached value. Thus, the cache only avoids invocations
+ * for subscriptions which need no more than the cached value, e.g., of head
+ * attributes, while streaming subscriptions still share one invocation.
+ * <p>
+ * Within the time to live, the cached value is considered fresh. During the
+ * stale-while-revalidate period after the time to live, the cached value is
+ * still answered. If a subscription is cancelled before the attribute finder
+ * refreshed the value, the shared invocation is continued in the background
+ * until it refreshed the cache, at most until the value expires. Afterwards,
+ * the value is evicted.
+ * <p>
+ * Error values and secret values are never cached. Invocations which are not
+ * shareable, see {@link AttributeStreamBroker}, are not cached either.
+ */
+@Slf4j
+public class AttributeCache {
+
+    private final Cache<AttributeStreamKey, CachedValue> cachedValues;
+
+    private final Map<AttributeStreamKey, Flux<Val>> sharedUpstreams = new ConcurrentHashMap<>();
+
+    private final long     timeToLive;
+    private final Duration refreshTimeout;
+    private final Ticker   ticker;
+
+    /**
+     * @param timeToLive           time a cached value is fresh
+     * @param staleWhileRevalidate time after the time to live during which a stale
+     *                             value is answered while it is refreshed
+     * @param maximumSize          maximum number of cached values
+     */
+    public AttributeCache(@NonNull Duration timeToLive, @NonNull Duration staleWhileRevalidate, long maximumSize) {
+        this(timeToLive, staleWhileRevalidate, maximumSize, Ticker.systemTicker());
+    }
+
+    AttributeCache(@NonNull Duration timeToLive, @NonNull Duration staleWhileRevalidate, long maximumSize,
+            Ticker ticker) {
+        if (timeToLive.isNegative() || timeToLive.isZero())
+            throw new IllegalArgumentException("The time to live of cached attributes must be positive.");
+        if (staleWhileRevalidate.isNegative())
+            throw new IllegalArgumentException("The stale-while-revalidate period must not be negative.");
+        if (maximumSize <= 0L)
+            throw new IllegalArgumentException("The maximum size of attribute caches must be positive.");
+        this.timeToLive     = timeToLive.toNanos();
+        this.refreshTimeout = timeToLive.plus(staleWhileRevalidate);
+        this.ticker         = ticker;
+        this.cachedValues   = CacheBuilder.newBuilder().maximumSize(maximumSize).expireAfterWrite(refreshTimeout)
+                .ticker(ticker).build();
+    }
+
+    @Value
+    private static class CachedValue {
+        Val  value;
+        long writtenAt;
+    }
+
+    /**
+     * @param attributeMetadata    the attribute finder
+     * @param invocationParameters the parameters of the invocation
+     * @param attributeFinder      invokes the attribute finder
+     * @return the cached value, if any, followed by the values of the attribute
+     *         finder
+     */
+    public Flux<Val> attributeStream(AttributeFinderMetadata attributeMetadata, Object[] invocationParameters,
+            Supplier<Flux<Val>> attributeFinder) {
+        var key = AttributeStreamKey.of(attributeMetadata, invocationParameters);
+        if (key == null)
+            return attributeFinder.get();
+        return Flux.defer(() -> {
+            var upstream = sharedUpstream(key, attributeFinder);
+            var cached   = cachedValues.getIfPresent(key);
+            if (cached == null)
+                return upstream;
+            var cachedValue = cached.getValue();
+            var newValues   = upstream.index()
+                    .filter(indexed -> indexed.getT1() > 0L || !indexed.getT2().equals(cachedValue))
+                    .map(indexed -> indexed.getT2());
+            if (ticker.read() - cached.getWrittenAt() <= timeToLive)
+                return Flux.just(cachedValue).concatWith(newValues);
+
+            var refreshed = new AtomicBoolean();
+            return Flux.just(cachedValue).concatWith(newValues.doOnNext(value -> refreshed.set(true)))
+                    .doOnCancel(() -> {
+                        // joins the shared invocation before this subscription leaves it
+                        if (!refreshed.get())
+                            refreshInBackground(key, upstream);
+                    });
+        });
+    }
+
+    private Flux<Val> sharedUpstream(AttributeStreamKey key, Supplier<Flux<Val>> attributeFinder) {
+        var upstream = sharedUpstreams.get(key);
+        if (upstream != null)
+            return upstream;
+        // the stored key must not change if the evaluation modifies its parameters
+        return sharedUpstreams.computeIfAbsent(key.deepCopy(), k -> createSharedUpstream(k, attributeFinder));
+    }
+
+    private Flux<Val> createSharedUpstream(AttributeStreamKey key, Supplier<Flux<Val>> attributeFinder) {
+        var sharedUpstream = new AtomicReference<Flux<Val>>();
+        sharedUpstream.set(Flux.defer(attributeFinder).doOnNext(value -> store(key, value))
+                .doFinally(signal -> sharedUpstreams.remove(key, sharedUpstream.get())).replay(1).refCount(1));
+        return sharedUpstream.get();
+    }
+
+    private void store(AttributeStreamKey key, Val value) {
+        if (!value.isError() && !value.isSecret())
+            cachedValues.put(key, new CachedValue(value, ticker.read()));
+    }
+
+    private void refreshInBackground(AttributeStreamKey key, Flux<Val> upstream) {
+        upstream.next().timeout(refreshTimeout).subscribe(value -> {
+        }, error -> log.warn("Background refresh of cached attribute {} failed: {}",
+                key.getAttributeName(), error.getMessage()));
+    }
+
+    /**
+     * @return the number of cached values
+     */
+    public long size() {
+        return cachedValues.size();
+    }
+
+}
@@ -34,6 +34,30 @@ Flux<Val> evaluateAttribute(String attributeName, Val leftHandValue, Arguments a
 
     Flux<Val> evaluateEnvironmentAttribute(String attributeName, Arguments arguments, Map<String, Val> variables);
 
+    /**
+     * Looks up an attribute finder once, so that it can be evaluated repeatedly
+     * without resolving its name.
+     *
+     * @param attributeName the fully qualified name of the attribute
+     * @param arguments     the arguments of the attribute finder
+     * @return a handle evaluating the attribute
+     */
+    default AttributeHandle bindAttribute(String attributeName, Arguments arguments) {
+        return (leftHandValue, variables) -> evaluateAttribute(attributeName, leftHandValue, arguments, variables);
+    }
+
+    /**
+     * Looks up an environment attribute finder once, so that it can be evaluated
+     * repeatedly without resolving its name.
+     *
+     * @param attributeName the fully qualified name of the attribute
+     * @param arguments     the arguments of the attribute finder
+     * @return a handle evaluating the environment attribute
+     */
+    default EnvironmentAttributeHandle bindEnvironmentAttribute(String attributeName, Arguments arguments) {
+        return variables -> evaluateEnvironmentAttribute(attributeName, arguments, variables);
+    }
+
     Collection<PolicyInformationPointDocumentation> getDocumentation();
 
     List<String> getEnvironmentAttributeCodeTemplates();
@@ -44,4 +68,24 @@ Flux<Val> evaluateAttribute(String attributeName, Val leftHandValue, Arguments a
 
     Map<String, JsonNode> getAttributeSchemas();
 
+    /**
+     * An attribute bound to its attribute finder.
+     */
+    @FunctionalInterface
+    interface AttributeHandle {
+
+        Flux<Val> evaluate(Val leftHandValue, Map<String, Val> variables);
+
+    }
+
+    /**
+     * An environment attribute bound to its attribute finder.
+     */
+    @FunctionalInterface
+    interface EnvironmentAttributeHandle {
+
+        Flux<Val> evaluate(Map<String, Val> variables);
+
+    }
+
 }
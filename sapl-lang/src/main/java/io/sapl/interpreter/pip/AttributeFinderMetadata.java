@@ -17,18 +17,20 @@
  */
 package io.sapl.interpreter.pip;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 /**
  * Metadata for attribute finders.
  */
 @Data
-@AllArgsConstructor
 public class AttributeFinderMetadata implements LibraryEntryMetadata {
 
     Object   policyInformationPoint;
@@ -41,6 +43,45 @@ public class AttributeFinderMetadata implements LibraryEntryMetadata {
     boolean  varArgsParameters;
     int      numberOfParameters;
 
+    /**
+     * Invokes the attribute finder with its invocation parameters, see
+     * {@link LibraryMethodInvokers#attributeFinderInvoker}.
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    MethodHandle invoker;
+
+    /**
+     * Caches the values of the attribute, or null if the attribute is not cached.
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    AttributeCache cache;
+
+    /**
+     * Coalesces invocations into batches, or null if the attribute is not looked up
+     * in batches.
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    AttributeBatcher batcher;
+
+    public AttributeFinderMetadata(Object policyInformationPoint, Method function, String libraryName,
+            String functionName, JsonNode functionSchema, boolean environmentAttribute,
+            boolean attributeWithVariableParameter, boolean varArgsParameters, int numberOfParameters) {
+        this.policyInformationPoint         = policyInformationPoint;
+        this.function                       = function;
+        this.libraryName                    = libraryName;
+        this.functionName                   = functionName;
+        this.functionSchema                 = functionSchema;
+        this.environmentAttribute           = environmentAttribute;
+        this.attributeWithVariableParameter = attributeWithVariableParameter;
+        this.varArgsParameters              = varArgsParameters;
+        this.numberOfParameters             = numberOfParameters;
+        this.invoker                        = LibraryMethodInvokers.attributeFinderInvoker(MethodHandles.lookup(),
+                policyInformationPoint, function);
+    }
+
     @Override
     public String getDocumentationCodeTemplate() {
         var sb                             = new StringBuilder();
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.pip;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.sapl.api.interpreter.Val;
+import lombok.NonNull;
+import lombok.Value;
+import reactor.core.publisher.Flux;
+
+/**
+ * Shares attribute streams between all evaluations requesting the same
+ * attribute with the same parameters.
+ * <p>
+ * Streams are keyed by the fully qualified attribute name and the values of the
+ * left-hand value and the arguments. The first subscriber for a key invokes the
+ * attribute finder. All further subscribers share its stream and immediately
+ * receive the latest value. When the last subscriber cancels, the upstream
+ * stays connected for the linger period, so that bursts of re-subscriptions do
+ * not invoke the attribute finder again. After the time to live, new
+ * subscribers no longer join a shared stream but start a new one, while
+ * existing subscribers keep their stream.
+ * <p>
+ * Invocations with undefined, error, or secret parameters, or with access to
+ * the variables of the evaluation, are not shared.
+ */
+public class AttributeStreamBroker {
+
+    private final Map<AttributeStreamKey, SharedStream> sharedStreams = new ConcurrentHashMap<>();
+
+    private final Duration     linger;
+    private final Duration     timeToLive;
+    private final LongSupplier nanoTime;
+
+    /**
+     * @param linger     time an upstream stays connected after its last subscriber
+     *                   cancelled
+     * @param timeToLive time new subscribers may join a shared stream. Zero for no
+     *                   limit.
+     */
+    public AttributeStreamBroker(@NonNull Duration linger, @NonNull Duration timeToLive) {
+        this(linger, timeToLive, System::nanoTime);
+    }
+
+    AttributeStreamBroker(@NonNull Duration linger, @NonNull Duration timeToLive, LongSupplier nanoTime) {
+        if (linger.isNegative())
+            throw new IllegalArgumentException("The linger period of shared attribute streams must not be negative.");
+        if (timeToLive.isNegative())
+            throw new IllegalArgumentException("The time to live of shared attribute streams must not be negative.");
+        this.linger     = linger;
+        this.timeToLive = timeToLive;
+        this.nanoTime   = nanoTime;
+    }
+
+    @Value
+    static class AttributeStreamKey {
+
+        String         attributeName;
+        boolean        environmentAttribute;
+        List<JsonNode> parameters;
+
+        /**
+         * @return a key, or null if the invocation is not shareable.
+         */
+        static AttributeStreamKey of(AttributeFinderMetadata attributeMetadata, Object[] invocationParameters) {
+            if (attributeMetadata.isAttributeWithVariableParameter())
+                return null;
+            var parameters = new ArrayList<JsonNode>(invocationParameters.length);
+            for (var parameter : invocationParameters) {
+                if (!(parameter instanceof Val value) || value.isError() || value.isUndefined() || value.isSecret())
+                    return null;
+                parameters.add(value.get());
+            }
+            return new AttributeStreamKey(attributeMetadata.fullyQualifiedName(),
+                    attributeMetadata.isEnvironmentAttribute(), parameters);
+        }
+
+        /**
+         * Keys stored in shared maps or caches must not change if an evaluation
+         * later modifies its parameter values.
+         *
+         * @return a key with copies of the parameters
+         */
+        AttributeStreamKey deepCopy() {
+            var copiedParameters = new ArrayList<JsonNode>(parameters.size());
+            for (var parameter : parameters)
+                copiedParameters.add(parameter.deepCopy());
+            return new AttributeStreamKey(attributeName, environmentAttribute, copiedParameters);
+        }
+    }
+
+    @Value
+    private static class SharedStream {
+        Flux<Val> stream;
+        long      expiresAt;
+    }
+
+    /**
+     * @param attributeMetadata    the attribute finder
+     * @param invocationParameters the parameters of the invocation
+     * @param attributeFinder      invokes the attribute finder, if no shared stream
+     *                             exists
+     * @return an attribute stream shared with all identical invocations
+     */
+    public Flux<Val> attributeStream(AttributeFinderMetadata attributeMetadata, Object[] invocationParameters,
+            Supplier<Flux<Val>> attributeFinder) {
+        var key = AttributeStreamKey.of(attributeMetadata, invocationParameters);
+        if (key == null)
+            return attributeFinder.get();
+        return Flux.defer(() -> {
+            var now     = nanoTime.getAsLong();
+            var current = sharedStreams.get(key);
+            if (current != null && !isExpired(current, now))
+                return current.getStream();
+            return sharedStreams.compute(key.deepCopy(), (k, existing) -> {
+                if (existing != null && !isExpired(existing, now))
+                    return existing;
+                return createSharedStream(k, attributeFinder, now);
+            }).getStream();
+        });
+    }
+
+    private boolean isExpired(SharedStream sharedStream, long now) {
+        return !timeToLive.isZero() && now - sharedStream.getExpiresAt() >= 0;
+    }
+
+    private SharedStream createSharedStream(AttributeStreamKey key, Supplier<Flux<Val>> attributeFinder, long now) {
+        var sharedStream = new AtomicReference<SharedStream>();
+        var upstream     = Flux.defer(attributeFinder)
+                .doFinally(signal -> sharedStreams.remove(key, sharedStream.get())).replay(1);
+        var stream       = linger.isZero() ? upstream.refCount(1) : upstream.refCount(1, linger);
+        sharedStream.set(new SharedStream(stream, now + timeToLive.toNanos()));
+        return sharedStream.get();
+    }
+
+    /**
+     * @return the number of currently shared attribute streams
+     */
+    public int numberOfSharedStreams() {
+        return sharedStreams.size();
+    }
+
+}
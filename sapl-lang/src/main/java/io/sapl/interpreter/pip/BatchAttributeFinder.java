@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.pip;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.sapl.api.interpreter.Val;
+import reactor.core.publisher.Mono;
+
+/**
+ * An attribute finder looking up an attribute for many left-hand values in a
+ * single request, e.g., a bulk query to a directory service.
+ * <p>
+ * A batch attribute finder complements an attribute declared by a loaded policy
+ * information point with the same name. Invocations of the attribute with the
+ * same arguments, which are requested within the batch window, are coalesced
+ * into a single call of {@link #findAttributes(Set, List)}, and the results are
+ * fanned out to the individual invocations. Each invocation receives a single
+ * value. Invocations which cannot be batched, e.g., because they access the
+ * variables or have an undefined, error or secret parameter, are answered by
+ * the attribute finder of the policy information point.
+ */
+public interface BatchAttributeFinder {
+
+    /**
+     * @return the fully qualified name of the attribute, e.g.,
+     *         {@code directory.owner}
+     */
+    String attributeName();
+
+    /**
+     * @return the time invocations are collected before the batch is looked up
+     */
+    default Duration batchWindow() {
+        return Duration.ofMillis(10L);
+    }
+
+    /**
+     * @return the maximum number of distinct left-hand values looked up in a single
+     *         batch. A full batch is looked up immediately.
+     */
+    default int maximumBatchSize() {
+        return 500;
+    }
+
+    /**
+     * @param leftHandValues the distinct left-hand values of the batched
+     *                       invocations
+     * @param arguments      the arguments shared by all batched invocations
+     * @return the value of the attribute for each left-hand value. Left-hand values
+     *         without an entry evaluate to undefined.
+     */
+    Mono<Map<Val, Val>> findAttributes(Set<Val> leftHandValues, List<Val> arguments);
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.pip;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import io.sapl.api.interpreter.Val;
+import lombok.experimental.UtilityClass;
+import reactor.core.publisher.Flux;
+
+/**
+ * Creates method handles for invoking the methods of function libraries and
+ * policy information points.
+ * <p>
+ * The handles are created once, when a library is loaded, and are adapted to a
+ * uniform type, so that the call sites do not have to box arguments or look up
+ * the method again. If the lookup has no access to a method, the handle falls
+ * back to reflective invocation, which then reports the access error on
+ * invocation, as before. Exceptions thrown by the methods themselves reach the
+ * call sites unwrapped in both cases.
+ */
+@UtilityClass
+public class LibraryMethodInvokers {
+
+    private static final MethodType FUNCTION_INVOKER_TYPE         = MethodType.methodType(Val.class, Val[].class);
+    private static final MethodType ATTRIBUTE_FINDER_INVOKER_TYPE = MethodType.methodType(Flux.class, Object[].class);
+
+    /**
+     * @param lookup  a lookup with the access rights of the caller
+     * @param library the library instance, or null for static methods
+     * @param method  the method of a function
+     * @param varArgs true, if the method takes a single array of parameters
+     * @return a handle of type {@code (Val[])Val} taking the parameters of the
+     *         function
+     */
+    public static MethodHandle functionInvoker(Lookup lookup, Object library, Method method, boolean varArgs) {
+        var handle = boundHandle(lookup, library, method);
+        if (!varArgs)
+            handle = handle.asSpreader(Object[].class, method.getParameterCount());
+        return handle.asType(FUNCTION_INVOKER_TYPE);
+    }
+
+    /**
+     * @param lookup                 a lookup with the access rights of the caller
+     * @param policyInformationPoint the PIP instance, or null for static methods
+     * @param method                 the method of an attribute finder
+     * @return a handle of type {@code (Object[])Flux} taking the invocation
+     *         parameters of the attribute finder
+     */
+    public static MethodHandle attributeFinderInvoker(Lookup lookup, Object policyInformationPoint, Method method) {
+        return boundHandle(lookup, policyInformationPoint, method)
+                .asSpreader(Object[].class, method.getParameterCount()).asType(ATTRIBUTE_FINDER_INVOKER_TYPE);
+    }
+
+    private static MethodHandle boundHandle(Lookup lookup, Object target, Method method) {
+        try {
+            var handle = lookup.unreflect(method).asFixedArity();
+            if (Modifier.isStatic(method.getModifiers()))
+                return handle;
+            return handle.bindTo(target);
+        } catch (IllegalAccessException e) {
+            return reflectiveHandle(target, method);
+        }
+    }
+
+    private static MethodHandle reflectiveHandle(Object target, Method method) {
+        try {
+            // Method.invoke is caller sensitive and cannot be looked up by restricted
+            // lookups
+            var lookup = MethodHandles.lookup();
+            var invoke = MethodHandles.catchException(
+                    lookup.findVirtual(Method.class, "invoke",
+                            MethodType.methodType(Object.class, Object.class, Object[].class)),
+                    InvocationTargetException.class, lookup.findStatic(LibraryMethodInvokers.class, "rethrowCause",
+                            MethodType.methodType(Object.class, InvocationTargetException.class)));
+            var types  = method.getParameterTypes();
+            return MethodHandles.insertArguments(invoke, 0, method, target).asCollector(Object[].class, types.length)
+                    .asType(MethodType.methodType(method.getReturnType(), types));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object rethrowCause(InvocationTargetException e) throws Throwable {
+        throw e.getCause();
+    }
+
+}
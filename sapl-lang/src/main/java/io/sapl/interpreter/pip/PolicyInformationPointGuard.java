@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.pip;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import io.sapl.api.interpreter.Val;
+import lombok.NonNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Bounds the impact of a slow or failing policy information point on decisions.
+ * <p>
+ * The guard of a PIP enforces three independent limits, each of which is
+ * disabled when set to zero:
+ * <ul>
+ * <li>The time to first value. If an attribute stream does not emit a value in
+ * time, it is cancelled and evaluates to an error.</li>
+ * <li>The maximum number of concurrent attribute streams. Invocations beyond
+ * the limit evaluate to an error immediately.</li>
+ * <li>A circuit breaker. If the rate of invocations whose first value is an
+ * error reaches the threshold within the failure rate window, the circuit opens
+ * and all invocations evaluate to an error immediately. After the open
+ * duration, exactly one trial invocation is let through, and its first value
+ * decides whether the circuit closes again. While the trial is pending, all
+ * other invocations are rejected. A trial completing without a value counts as
+ * a failure, a trial cancelled before its first value lets the next invocation
+ * become the trial.</li>
+ * </ul>
+ */
+public class PolicyInformationPointGuard {
+
+    static final String TIMEOUT_ERROR      = "Attribute %s did not provide a value within %s.";
+    static final String BULKHEAD_ERROR     = "Attribute %s rejected. The PIP exceeded its maximum of %d concurrent attribute streams.";
+    static final String CIRCUIT_OPEN_ERROR = "Attribute %s rejected. The circuit breaker of the PIP is open.";
+
+    private enum CircuitState {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final Duration     timeToFirstValue;
+    private final int          maximumConcurrentStreams;
+    private final Semaphore    streams;
+    private final double       failureRateThreshold;
+    private final Duration     openDuration;
+    private final LongSupplier nanoTime;
+
+    private final boolean[] failureWindow;
+    private int             windowPosition;
+    private int             recordedOutcomes;
+    private int             recordedFailures;
+    private CircuitState    circuitState = CircuitState.CLOSED;
+    private long            openUntil;
+    private boolean         trialPending;
+
+    /**
+     * @param timeToFirstValue         maximum time until an attribute stream emits
+     *                                 its first value. Zero for no limit.
+     * @param maximumConcurrentStreams maximum number of concurrently subscribed
+     *                                 attribute streams. Zero for no limit.
+     * @param failureRateWindowSize    number of most recent outcomes the failure
+     *                                 rate is calculated from. Zero disables the
+     *                                 circuit breaker.
+     * @param failureRateThreshold     failure rate between 0 and 1 opening the
+     *                                 circuit
+     * @param openDuration             time the circuit stays open
+     */
+    public PolicyInformationPointGuard(@NonNull Duration timeToFirstValue, int maximumConcurrentStreams,
+            int failureRateWindowSize, double failureRateThreshold, @NonNull Duration openDuration) {
+        this(timeToFirstValue, maximumConcurrentStreams, failureRateWindowSize, failureRateThreshold, openDuration,
+                System::nanoTime);
+    }
+
+    PolicyInformationPointGuard(@NonNull Duration timeToFirstValue, int maximumConcurrentStreams,
+            int failureRateWindowSize, double failureRateThreshold, @NonNull Duration openDuration,
+            LongSupplier nanoTime) {
+        if (timeToFirstValue.isNegative() || openDuration.isNegative())
+            throw new IllegalArgumentException("The time limits of PIP guards must not be negative.");
+        if (maximumConcurrentStreams < 0 || failureRateWindowSize < 0)
+            throw new IllegalArgumentException("The size limits of PIP guards must not be negative.");
+        if (failureRateWindowSize > 0 && (failureRateThreshold <= 0D || failureRateThreshold > 1D))
+            throw new IllegalArgumentException("The failure rate threshold of PIP guards must be in (0, 1].");
+        this.timeToFirstValue         = timeToFirstValue;
+        this.maximumConcurrentStreams = maximumConcurrentStreams;
+        this.streams                  = maximumConcurrentStreams > 0 ? new Semaphore(maximumConcurrentStreams) : null;
+        this.failureWindow            = new boolean[failureRateWindowSize];
+        this.failureRateThreshold     = failureRateThreshold;
+        this.openDuration             = openDuration;
+        this.nanoTime                 = nanoTime;
+    }
+
+    /**
+     * @param attributeName   the fully qualified name of the attribute
+     * @param attributeFinder invokes the attribute finder
+     * @return the attribute stream, subject to the limits of the guard
+     */
+    public Flux<Val> guardedAttributeStream(String attributeName, Supplier<Flux<Val>> attributeFinder) {
+        return Flux.defer(() -> {
+            var permission = permitInvocation();
+            if (permission == Permission.REJECTED)
+                return Flux.just(Val.error(CIRCUIT_OPEN_ERROR, attributeName));
+            if (streams != null && !streams.tryAcquire()) {
+                if (permission == Permission.TRIAL)
+                    releaseTrial();
+                return Flux.just(Val.error(BULKHEAD_ERROR, attributeName, maximumConcurrentStreams));
+            }
+
+            var stream = Flux.defer(attributeFinder);
+            if (!timeToFirstValue.isZero())
+                stream = stream.timeout(Mono.delay(timeToFirstValue), value -> Flux.never(),
+                        Flux.just(Val.error(TIMEOUT_ERROR, attributeName, timeToFirstValue)));
+            var isFirstValue = new AtomicBoolean(true);
+            var isTrial      = permission == Permission.TRIAL;
+            stream = stream.doOnNext(value -> {
+                if (isFirstValue.getAndSet(false))
+                    recordOutcome(value.isError(), isTrial);
+            });
+            if (isTrial)
+                stream = stream.doFinally(signal -> {
+                    if (!isFirstValue.getAndSet(false))
+                        return;
+                    if (signal == SignalType.CANCEL)
+                        releaseTrial();
+                    else
+                        recordOutcome(true, true);
+                });
+            if (streams != null)
+                stream = stream.doFinally(signal -> streams.release());
+            return stream;
+        });
+    }
+
+    private enum Permission {
+        PERMITTED, TRIAL, REJECTED
+    }
+
+    private synchronized Permission permitInvocation() {
+        if (circuitState == CircuitState.CLOSED)
+            return Permission.PERMITTED;
+        if (trialPending || nanoTime.getAsLong() - openUntil < 0L)
+            return Permission.REJECTED;
+        circuitState = CircuitState.HALF_OPEN;
+        trialPending = true;
+        return Permission.TRIAL;
+    }
+
+    private synchronized void releaseTrial() {
+        if (circuitState == CircuitState.HALF_OPEN)
+            trialPending = false;
+    }
+
+    private synchronized void recordOutcome(boolean failure, boolean trial) {
+        if (failureWindow.length == 0)
+            return;
+        if (circuitState == CircuitState.HALF_OPEN) {
+            // only the trial decides, outcomes of streams opened before are ignored
+            if (!trial || !trialPending)
+                return;
+            trialPending = false;
+            if (failure)
+                open();
+            else
+                close();
+            return;
+        }
+        if (circuitState == CircuitState.OPEN)
+            return;
+        if (recordedOutcomes == failureWindow.length && failureWindow[windowPosition])
+            recordedFailures--;
+        else if (recordedOutcomes < failureWindow.length)
+            recordedOutcomes++;
+        failureWindow[windowPosition] = failure;
+        if (failure)
+            recordedFailures++;
+        windowPosition = (windowPosition + 1) % failureWindow.length;
+        if (recordedOutcomes == failureWindow.length && recordedFailures >= failureRateThreshold * failureWindow.length)
+            open();
+    }
+
+    private void open() {
+        circuitState = CircuitState.OPEN;
+        openUntil    = nanoTime.getAsLong() + openDuration.toNanos();
+    }
+
+    private void close() {
+        circuitState     = CircuitState.CLOSED;
+        windowPosition   = 0;
+        recordedOutcomes = 0;
+        recordedFailures = 0;
+    }
+
+    /**
+     * @return true, if the circuit breaker currently rejects invocations
+     */
+    public synchronized boolean isCircuitOpen() {
+        return circuitState == CircuitState.OPEN && nanoTime.getAsLong() - openUntil < 0L;
+    }
+
+}
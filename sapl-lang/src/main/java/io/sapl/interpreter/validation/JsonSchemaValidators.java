@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.validation;
+
+import java.lang.reflect.Executable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.networknt.schema.JsonMetaSchema;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaException;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.resource.MapSchemaLoader;
+
+import io.sapl.api.validation.Schema;
+import lombok.Value;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Compiles JSON schemas into validators and keeps them for reuse.
+ * <p>
+ * Schemas of {@link Schema} annotated parameters are static. They are compiled
+ * once, when their library is loaded, and kept for the lifetime of the
+ * application. Schemas handed to functions at runtime are compiled on first use
+ * and kept in a bounded cache keyed by the schema and the external schemas it
+ * may reference.
+ */
+@UtilityClass
+public class JsonSchemaValidators {
+
+    /**
+     * Maximum number of compiled runtime schemas kept in the cache.
+     */
+    public static final long SCHEMA_CACHE_MAXIMUM_SIZE = 1_000L;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final JsonSchemaFactory SCHEMA_FACTORY = schemaFactory(Map.of());
+
+    private static final Map<String, JsonSchema> STATIC_SCHEMAS = new ConcurrentHashMap<>();
+
+    private static final Cache<SchemaKey, JsonSchema> SCHEMA_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(SCHEMA_CACHE_MAXIMUM_SIZE).build();
+
+    @Value
+    private static class SchemaKey {
+        JsonNode            schema;
+        Map<String, String> externalSchemas;
+    }
+
+    /**
+     * Compiles the schemas of all {@link Schema} annotated parameters of a library
+     * method. Invalid schemas are skipped, and fail on validation.
+     *
+     * @param method a function or attribute finder method
+     */
+    public static void compileParameterSchemas(Executable method) {
+        for (var parameter : method.getParameters()) {
+            var schemaAnnotation = parameter.getAnnotation(Schema.class);
+            if (schemaAnnotation != null && !schemaAnnotation.value().isEmpty()) {
+                try {
+                    staticSchema(schemaAnnotation.value());
+                } catch (JsonProcessingException | JsonSchemaException e) {
+                    // reported on validation
+                }
+            }
+        }
+    }
+
+    /**
+     * Looks up the validator of a static schema, compiling it on the first use.
+     *
+     * @param schema a JSON schema in its textual representation
+     * @return the compiled schema
+     * @throws JsonProcessingException if the schema is no valid JSON
+     * @throws JsonSchemaException     if the schema is invalid
+     */
+    public static JsonSchema staticSchema(String schema) throws JsonProcessingException {
+        var validator = STATIC_SCHEMAS.get(schema);
+        if (validator == null) {
+            validator = compile(MAPPER.readTree(schema), Map.of());
+            STATIC_SCHEMAS.put(schema, validator);
+        }
+        return validator;
+    }
+
+    /**
+     * Looks up the validator of a schema, compiling it on the first use.
+     *
+     * @param schema          a JSON schema
+     * @param externalSchemas external schemas referenced by the schema, by their
+     *                        $id
+     * @return the compiled schema
+     * @throws JsonSchemaException if the schema is invalid
+     */
+    public static JsonSchema schema(JsonNode schema, Map<String, String> externalSchemas) {
+        var key       = new SchemaKey(schema, externalSchemas);
+        var validator = SCHEMA_CACHE.getIfPresent(key);
+        if (validator == null) {
+            // the cached key must not change when the caller modifies its schema
+            var schemaCopy = schema.deepCopy();
+            validator = compile(schemaCopy, externalSchemas);
+            SCHEMA_CACHE.put(new SchemaKey(schemaCopy, Map.copyOf(externalSchemas)), validator);
+        }
+        return validator;
+    }
+
+    private static JsonSchema compile(JsonNode schema, Map<String, String> externalSchemas) {
+        var factory   = externalSchemas.isEmpty() ? SCHEMA_FACTORY : schemaFactory(externalSchemas);
+        var validator = factory.getSchema(schema);
+        // resolve references eagerly, as compiled schemas are shared across threads
+        validator.initializeValidators();
+        return validator;
+    }
+
+    private static JsonSchemaFactory schemaFactory(Map<String, String> externalSchemas) {
+        var schemaLoader = new MapSchemaLoader(externalSchemas);
+        return JsonSchemaFactory.builder().schemaLoaders(schemaLoaders -> schemaLoaders.add(schemaLoader))
+                .addMetaSchema(JsonMetaSchema.getV202012()).defaultMetaSchemaURI(JsonMetaSchema.getV202012().getUri())
+                .build();
+    }
+
+    static void clearCache() {
+        SCHEMA_CACHE.invalidateAll();
+        STATIC_SCHEMAS.clear();
+    }
+
+    static long cacheSize() {
+        return SCHEMA_CACHE.size();
+    }
+
+}
@@ -26,6 +26,7 @@
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.networknt.schema.JsonSchemaException;
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.api.validation.Array;
@@ -36,7 +37,6 @@
 import io.sapl.api.validation.Number;
 import io.sapl.api.validation.Schema;
 import io.sapl.api.validation.Text;
-import io.sapl.functions.SchemaValidationLibrary;
 import lombok.experimental.UtilityClass;
 import reactor.core.publisher.Flux;
 
@@ -121,8 +121,8 @@ private static boolean nodeCompliantWithSchema(JsonNode node, Schema schemaAnnot
         if ("".equals(schema))
             return true;
         try {
-            return SchemaValidationLibrary.isCompliant(Val.of(node), Val.ofJson(schema)).getBoolean();
-        } catch (JsonProcessingException e) {
+            return JsonSchemaValidators.staticSchema(schema).validate(node).isEmpty();
+        } catch (JsonProcessingException | JsonSchemaException e) {
             return false;
         }
     }
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pip;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Timers shared by all subscriptions to time based attributes.
+ * <p>
+ * All subscriptions polling the time with the same update interval share a
+ * single ticking stream, and all subscriptions waiting for the same instant
+ * share a single deadline timer. The number of scheduled timer tasks thus
+ * depends on the number of distinct intervals and deadlines, not on the number
+ * of subscriptions. Timers are cancelled when their last subscriber cancels.
+ */
+class SharedTimers {
+
+    private final Map<Duration, Flux<Long>> ticksByInterval    = new ConcurrentHashMap<>();
+    private final Map<Instant, Flux<Long>>  deadlinesByInstant = new ConcurrentHashMap<>();
+
+    /**
+     * @param interval the update interval
+     * @return a stream emitting once per interval, shared with all subscribers with
+     *         the same interval. New subscribers join the running stream and
+     *         receive its next tick.
+     */
+    Flux<Long> ticks(Duration interval) {
+        return Flux.defer(() -> ticksByInterval.computeIfAbsent(interval, this::createTicks));
+    }
+
+    private Flux<Long> createTicks(Duration interval) {
+        var sharedTicks = new AtomicReference<Flux<Long>>();
+        sharedTicks.set(Flux.interval(interval, interval).onBackpressureDrop()
+                .doFinally(signal -> ticksByInterval.remove(interval, sharedTicks.get())).publish().refCount());
+        return sharedTicks.get();
+    }
+
+    /**
+     * @param deadline the instant to wait for
+     * @param now      the current time
+     * @return a stream emitting once, when the deadline has been reached, shared
+     *         with all subscribers waiting for the same deadline
+     */
+    Flux<Long> deadline(Instant deadline, Instant now) {
+        return Flux.defer(() -> deadlinesByInstant.computeIfAbsent(deadline, d -> createDeadline(d, now)));
+    }
+
+    /*
+     * The timer replays its tick, so that subscribers joining after it fired
+     * complete immediately instead of starting a new delay.
+     */
+    Flux<Long> createDeadline(Instant deadline, Instant now) {
+        var delay          = Duration.between(now, deadline);
+        var sharedDeadline = new AtomicReference<Flux<Long>>();
+        // removed before emitting, so that later subscribers do not join an expired
+        // timer
+        sharedDeadline.set(Mono.delay(delay.isNegative() ? Duration.ZERO : delay)
+                .doOnNext(tick -> deadlinesByInstant.remove(deadline, sharedDeadline.get()))
+                .doFinally(signal -> deadlinesByInstant.remove(deadline, sharedDeadline.get())).flux().replay(1)
+                .refCount());
+        return sharedDeadline.get();
+    }
+
+}
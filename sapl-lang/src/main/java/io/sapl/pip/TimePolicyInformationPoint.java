@@ -52,6 +52,8 @@ public class TimePolicyInformationPoint {
 
     private final Clock clock;
 
+    private final SharedTimers timers = new SharedTimers();
+
     @EnvironmentAttribute(docs = "Emits the current date and time as an ISO8601 String in UTC. The first time is emitted instantly. After that the time is updated once every second.")
     public Flux<Val> now() {
         return now(DEFAULT_UPDATE_INTERVAL_IN_MS);
@@ -76,7 +78,7 @@ private Duration valMsToNonZeroDuration(Val val) {
 
     private Flux<Instant> instantNow(Duration pollIntervalInMillis) {
         var first     = Flux.just(clock.instant());
-        var following = Flux.just(0).repeat().delayElements(pollIntervalInMillis).map(tick -> clock.instant());
+        var following = timers.ticks(pollIntervalInMillis).map(tick -> clock.instant());
         return Flux.concat(first, following);
     }
 
@@ -223,7 +225,7 @@ private Flux<Boolean> isAfter(Instant instantA, Instant instantB) {
         if (instantB.isAfter(instantA))
             return Flux.just(Boolean.TRUE);
         var initial  = Flux.just(Boolean.FALSE);
-        var eventual = Flux.just(Boolean.TRUE).delayElements(Duration.between(instantB, instantA));
+        var eventual = timers.deadline(instantA, instantB).map(tick -> Boolean.TRUE);
         return Flux.concat(initial, eventual);
     }
 
@@ -241,15 +243,15 @@ public Flux<Boolean> nowIsBetween(Instant start, Instant end) {
 
         if (now.isAfter(start)) {
             var initial  = Flux.just(Boolean.TRUE);
-            var eventual = Flux.just(Boolean.FALSE).delayElements(Duration.between(now, end));
+            var eventual = timers.deadline(end, now).map(tick -> Boolean.FALSE);
             return Flux.concat(initial, eventual);
         }
 
         var initial         = Flux.just(Boolean.FALSE);
-        var duringIsBetween = Flux.just(Boolean.TRUE).delayElements(Duration.between(now, start));
-        var eventual        = Flux.just(Boolean.FALSE).delayElements(Duration.between(start, end));
+        var duringIsBetween = timers.deadline(start, now).map(tick -> Boolean.TRUE);
+        var eventual        = timers.deadline(end, now).map(tick -> Boolean.FALSE);
 
-        return Flux.concat(initial, duringIsBetween, eventual);
+        return Flux.concat(initial, Flux.mergeSequential(duringIsBetween, eventual));
     }
 
     @EnvironmentAttribute(docs = "A periodically toggling signal. Will be true for the first duration (ms) and then false for the second duration (ms). This will repeat periodically. Note, that the cycle will completely reset if the durations are updated. The attribute will forget its stat ein this case.")
@@ -17,6 +17,8 @@
  */
 package io.sapl.prp;
 
+import java.util.Optional;
+
 import io.sapl.prp.index.ImmutableParsedDocumentIndex;
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
@@ -43,6 +45,11 @@ public Flux<PolicyRetrievalResult> retrievePolicies() {
         return Flux.from(index).flatMap(ImmutableParsedDocumentIndex::retrievePolicies);
     }
 
+    @Override
+    public Optional<Flux<ImmutableParsedDocumentIndex>> indexUpdates() {
+        return Optional.of(Flux.from(index));
+    }
+
     @Override
     public void dispose() {
         indexSubscription.dispose();
@@ -17,6 +17,9 @@
  */
 package io.sapl.prp;
 
+import java.util.Optional;
+
+import io.sapl.prp.index.ImmutableParsedDocumentIndex;
 import reactor.core.publisher.Flux;
 
 /**
@@ -37,6 +40,18 @@ public interface PolicyRetrievalPoint {
      */
     Flux<PolicyRetrievalResult> retrievePolicies();
 
+    /**
+     * Returns a {@link Flux} emitting the document index each time the documents
+     * held by the PRP change. Components caching data derived from retrieval
+     * results use this to invalidate their caches.
+     *
+     * @return a {@link Flux} of index updates, or an empty Optional if the PRP is
+     *         unable to signal updates. Caches must not be used with such PRPs.
+     */
+    default Optional<Flux<ImmutableParsedDocumentIndex>> indexUpdates() {
+        return Optional.empty();
+    }
+
     /**
      * Release all claimed resources
      */
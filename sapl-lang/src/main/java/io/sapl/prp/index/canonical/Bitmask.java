@@ -17,76 +17,238 @@
  */
 package io.sapl.prp.index.canonical;
 
-import java.util.BitSet;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Consumer;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
 
 import com.google.common.base.Preconditions;
 
+/**
+ * A growable set of bits backed by an array of words. In contrast to
+ * {@link java.util.BitSet}, all operations needed during index matching can be
+ * applied in place on pre-allocated buffers, and iterating over the set bits
+ * does not box the indexes.
+ */
 public class Bitmask {
 
-    private final BitSet impl;
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    private static final long WORD_MASK = 0xFFFFFFFFFFFFFFFFL;
+
+    private long[] words;
 
-    // force initial capacity?
     public Bitmask() {
-        impl = new BitSet();
+        this(Long.SIZE);
+    }
+
+    /**
+     * @param numberOfBits the initial capacity of the mask in bits
+     */
+    public Bitmask(int numberOfBits) {
+        if (numberOfBits < 0)
+            throw new NegativeArraySizeException("numberOfBits < 0: " + numberOfBits);
+        words = new long[wordIndex(Math.max(numberOfBits, 1) - 1) + 1];
     }
 
     public Bitmask(final Bitmask mask) {
-        impl = (BitSet) mask.impl.clone();
+        words = mask.words.clone();
     }
 
     public void and(Bitmask mask) {
-        impl.and(mask.impl);
+        var commonWords = Math.min(words.length, mask.words.length);
+        for (var i = 0; i < commonWords; i++)
+            words[i] &= mask.words[i];
+        Arrays.fill(words, commonWords, words.length, 0L);
     }
 
     public void andNot(Bitmask mask) {
-        impl.andNot(mask.impl);
+        var commonWords = Math.min(words.length, mask.words.length);
+        for (var i = 0; i < commonWords; i++)
+            words[i] &= ~mask.words[i];
+    }
+
+    public void or(Bitmask mask) {
+        ensureCapacity(mask.words.length);
+        for (var i = 0; i < mask.words.length; i++)
+            words[i] |= mask.words[i];
+    }
+
+    /**
+     * Replaces the content of this mask with the intersection of the two masks
+     * without allocating a new mask. This mask may be one of the operands.
+     *
+     * @param first  a mask
+     * @param second another mask
+     */
+    public void setToIntersection(Bitmask first, Bitmask second) {
+        var commonWords = Math.min(first.words.length, second.words.length);
+        ensureCapacity(commonWords);
+        for (var i = 0; i < commonWords; i++)
+            words[i] = first.words[i] & second.words[i];
+        Arrays.fill(words, commonWords, words.length, 0L);
+    }
+
+    /**
+     * Replaces the content of this mask with the content of another mask without
+     * allocating a new mask.
+     *
+     * @param mask the mask to copy
+     */
+    public void copyFrom(Bitmask mask) {
+        ensureCapacity(mask.words.length);
+        System.arraycopy(mask.words, 0, words, 0, mask.words.length);
+        Arrays.fill(words, mask.words.length, words.length, 0L);
+    }
+
+    public void clear() {
+        Arrays.fill(words, 0L);
     }
 
     public void clear(int bitIndex) {
-        impl.clear(bitIndex);
+        checkIndex(bitIndex);
+        var wordIndex = wordIndex(bitIndex);
+        if (wordIndex < words.length)
+            words[wordIndex] &= ~(1L << bitIndex);
     }
 
     public void flip(int fromIndex, int toIndex) {
-        impl.flip(fromIndex, toIndex);
+        checkRange(fromIndex, toIndex);
+        if (fromIndex == toIndex)
+            return;
+
+        var startWordIndex = wordIndex(fromIndex);
+        var endWordIndex   = wordIndex(toIndex - 1);
+        ensureCapacity(endWordIndex + 1);
+
+        var firstWordMask = WORD_MASK << fromIndex;
+        var lastWordMask  = WORD_MASK >>> -toIndex;
+        if (startWordIndex == endWordIndex) {
+            words[startWordIndex] ^= firstWordMask & lastWordMask;
+        } else {
+            words[startWordIndex] ^= firstWordMask;
+            for (var i = startWordIndex + 1; i < endWordIndex; i++)
+                words[i] ^= WORD_MASK;
+            words[endWordIndex] ^= lastWordMask;
+        }
     }
 
     public boolean intersects(Bitmask mask) {
-        return impl.intersects(mask.impl);
+        var commonWords = Math.min(words.length, mask.words.length);
+        for (var i = 0; i < commonWords; i++)
+            if ((words[i] & mask.words[i]) != 0L)
+                return true;
+        return false;
     }
 
-    public void or(Bitmask mask) {
-        impl.or(mask.impl);
+    public boolean isEmpty() {
+        for (var word : words)
+            if (word != 0L)
+                return false;
+        return true;
     }
 
     public void set(int bitIndex) {
-        impl.set(bitIndex);
+        checkIndex(bitIndex);
+        var wordIndex = wordIndex(bitIndex);
+        ensureCapacity(wordIndex + 1);
+        words[wordIndex] |= 1L << bitIndex;
     }
 
     public void set(int fromIndex, int toIndex) {
-        impl.set(fromIndex, toIndex);
+        checkRange(fromIndex, toIndex);
+        if (fromIndex == toIndex)
+            return;
+
+        var startWordIndex = wordIndex(fromIndex);
+        var endWordIndex   = wordIndex(toIndex - 1);
+        ensureCapacity(endWordIndex + 1);
+
+        var firstWordMask = WORD_MASK << fromIndex;
+        var lastWordMask  = WORD_MASK >>> -toIndex;
+        if (startWordIndex == endWordIndex) {
+            words[startWordIndex] |= firstWordMask & lastWordMask;
+        } else {
+            words[startWordIndex] |= firstWordMask;
+            for (var i = startWordIndex + 1; i < endWordIndex; i++)
+                words[i] = WORD_MASK;
+            words[endWordIndex] |= lastWordMask;
+        }
     }
 
     public int numberOfBitsSet() {
-        AtomicInteger numberOfBitsSets = new AtomicInteger();
-        forEachSetBit(index -> numberOfBitsSets.getAndIncrement());
+        var numberOfBitsSet = 0;
+        for (var word : words)
+            numberOfBitsSet += Long.bitCount(word);
+        return numberOfBitsSet;
+    }
 
-        return numberOfBitsSets.get();
+    /**
+     * @param fromIndex the index to start the search from (inclusive)
+     * @return the index of the first set bit at or after fromIndex, or -1 if there
+     *         is no such bit.
+     */
+    public int nextSetBit(int fromIndex) {
+        checkIndex(fromIndex);
+        var wordIndex = wordIndex(fromIndex);
+        if (wordIndex >= words.length)
+            return -1;
+
+        var word = words[wordIndex] & (WORD_MASK << fromIndex);
+        while (true) {
+            if (word != 0L)
+                return (wordIndex * Long.SIZE) + Long.numberOfTrailingZeros(word);
+            if (++wordIndex == words.length)
+                return -1;
+            word = words[wordIndex];
+        }
     }
 
-    public void forEachSetBit(final Consumer<Integer> action) {
+    public void forEachSetBit(final IntConsumer action) {
         Preconditions.checkNotNull(action);
-        impl.stream().forEach(action::accept);
+        for (var i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            action.accept(i);
+            if (i == Integer.MAX_VALUE)
+                break;
+        }
     }
 
     public boolean isSet(int bitIndex) {
-        return impl.get(bitIndex);
+        checkIndex(bitIndex);
+        var wordIndex = wordIndex(bitIndex);
+        return wordIndex < words.length && (words[wordIndex] & (1L << bitIndex)) != 0L;
+    }
+
+    private void ensureCapacity(int wordsRequired) {
+        if (words.length < wordsRequired)
+            words = Arrays.copyOf(words, Math.max(2 * words.length, wordsRequired));
+    }
+
+    private static int wordIndex(int bitIndex) {
+        return bitIndex >> ADDRESS_BITS_PER_WORD;
+    }
+
+    private static void checkIndex(int bitIndex) {
+        if (bitIndex < 0)
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+    }
+
+    private static void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0)
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        if (toIndex < 0)
+            throw new IndexOutOfBoundsException("toIndex < 0: " + toIndex);
+        if (fromIndex > toIndex)
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + " > toIndex: " + toIndex);
     }
 
     @Override
     public String toString() {
-        return String.valueOf(impl.toString());
+        var result = new StringBuilder("{");
+        forEachSetBit(index -> {
+            if (result.length() > 1)
+                result.append(", ");
+            result.append(index);
+        });
+        return result.append('}').toString();
     }
 
 }
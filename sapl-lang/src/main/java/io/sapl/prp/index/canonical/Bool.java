@@ -20,18 +20,32 @@
 import java.util.Map;
 import java.util.Objects;
 
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
+import org.reactivestreams.Subscription;
+
 import com.google.common.base.Preconditions;
 
 import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.BasicValue;
+import io.sapl.grammar.sapl.Equals;
 import io.sapl.grammar.sapl.Expression;
+import io.sapl.grammar.sapl.StringLiteral;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler;
 import io.sapl.interpreter.context.AuthorizationContext;
+import reactor.core.CoreSubscriber;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
 
 public class Bool {
 
     static final String BOOL_NOT_IMMUTABLE = "Unable to evaluate volatile Bool in static context.";
 
+    static final String NOT_BOOLEAN_ERROR = "expression not boolean";
+
+    static final String NOT_SYNCHRONOUS_ERROR = "expression did not evaluate synchronously";
+
     private boolean constant;
 
     private Expression expression;
@@ -64,9 +78,79 @@ public boolean evaluate() {
     public Mono<Val> evaluateExpression() {
         Flux<Val> resultFlux = isConstantExpression ? Flux.just(Val.of(constant))
                 : expression.evaluate().contextWrite(ctx -> AuthorizationContext.setImports(ctx, imports));
-        return resultFlux
-                .map(result -> result.isError() || result.isBoolean() ? result : Val.error("expression not boolean"))
-                .next();
+        return resultFlux.map(Bool::requireBooleanResult).next();
+    }
+
+    /**
+     * Evaluates the expression on the calling thread without assembling a reactive
+     * pipeline around the result. This is possible for target expressions, as they
+     * cannot contain attribute finders and thus emit their first value immediately
+     * upon subscription.
+     *
+     * @param ctx the subscription scoped context, i.e., variables, functions and
+     *            attributes.
+     * @return the first value of the expression. An error, if the value is not
+     *         Boolean, or if the expression did not emit a value synchronously.
+     */
+    public Val evaluateExpressionSync(ContextView ctx) {
+        return requireBooleanResult(evaluateValueSync(ctx));
+    }
+
+    /**
+     * Like {@link #evaluateExpressionSync(ContextView)}, but the value is not
+     * required to be Boolean.
+     */
+    Val evaluateValueSync(ContextView ctx) {
+        if (isConstantExpression)
+            return Val.of(constant);
+
+        var compiled = ExpressionCompiler.compiledFormOf(expression);
+        if (compiled != null)
+            return compiled.evaluate(AuthorizationContext.setImports(Context.of(ctx), imports));
+
+        var subscriber = new FirstValueSubscriber(AuthorizationContext.setImports(Context.of(ctx), imports));
+        expression.evaluate().subscribe(subscriber);
+        return subscriber.getResult();
+    }
+
+    /**
+     * @return the compared expression and the constant, if the expression is an
+     *         equality comparison of an expression with a string constant, e.g.,
+     *         {@code resource.type == "order"}. Otherwise, null.
+     */
+    EqualityPredicateIndex.StringEquality asStringEquality() {
+        if (isConstantExpression || !(expression instanceof Equals equals))
+            return null;
+
+        var rightConstant = stringConstant(equals.getRight());
+        if (rightConstant != null && stringConstant(equals.getLeft()) == null)
+            return new EqualityPredicateIndex.StringEquality(new Bool(equals.getLeft(), imports), rightConstant);
+
+        var leftConstant = stringConstant(equals.getLeft());
+        if (leftConstant != null && rightConstant == null)
+            return new EqualityPredicateIndex.StringEquality(new Bool(equals.getRight(), imports), leftConstant);
+
+        return null;
+    }
+
+    private static String stringConstant(Expression expression) {
+        if (expression instanceof BasicValue basicValue && basicValue.getValue() instanceof StringLiteral literal
+                && basicValue.getSteps().isEmpty() && basicValue.getFilter() == null
+                && basicValue.getSubtemplate() == null)
+            return literal.getString();
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        if (isConstantExpression)
+            return String.valueOf(constant);
+        var node = NodeModelUtils.findActualNodeFor(expression);
+        return node == null ? expression.toString() : NodeModelUtils.getTokenText(node);
+    }
+
+    private static Val requireBooleanResult(Val result) {
+        return result.isError() || result.isBoolean() ? result : Val.error(NOT_BOOLEAN_ERROR);
     }
 
     public boolean isImmutable() {
@@ -114,4 +198,61 @@ public boolean equals(Object obj) {
         }
     }
 
+    /**
+     * Takes the first value of a publisher that emits on subscription and cancels
+     * the subscription right away.
+     */
+    private static class FirstValueSubscriber implements CoreSubscriber<Val> {
+
+        private final Context context;
+
+        private Subscription subscription;
+
+        private Val result;
+
+        FirstValueSubscriber(Context context) {
+            this.context = context;
+        }
+
+        Val getResult() {
+            if (result != null)
+                return result;
+
+            if (subscription != null)
+                subscription.cancel();
+            return Val.error(NOT_SYNCHRONOUS_ERROR);
+        }
+
+        @Override
+        public Context currentContext() {
+            return context;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1L);
+        }
+
+        @Override
+        public void onNext(Val value) {
+            if (result != null)
+                return;
+            result = value;
+            subscription.cancel();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (result == null)
+                result = Val.error(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            // the result is determined by the first value
+        }
+
+    }
+
 }
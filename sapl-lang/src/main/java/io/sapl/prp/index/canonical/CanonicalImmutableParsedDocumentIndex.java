@@ -44,6 +44,8 @@ public class CanonicalImmutableParsedDocumentIndex implements ImmutableParsedDoc
 
     private final Map<String, SAPL> documents;
 
+    private final Map<String, DisjunctiveFormula> targets;
+
     private final PredicateOrderStrategy predicateOrderStrategy;
 
     private final boolean consistent;
@@ -54,32 +56,67 @@ public class CanonicalImmutableParsedDocumentIndex implements ImmutableParsedDoc
 
     public CanonicalImmutableParsedDocumentIndex(PredicateOrderStrategy predicateOrderStrategy,
             AttributeContext attributeCtx, FunctionContext functionCtx) {
-        this(Collections.emptyMap(), predicateOrderStrategy, true, attributeCtx, functionCtx);
+        this(Collections.emptyMap(), Collections.emptyMap(),
+                new CanonicalIndexDataCreationStrategy(predicateOrderStrategy).constructNew(Collections.emptyMap(),
+                        Collections.emptyMap()),
+                predicateOrderStrategy, true, attributeCtx, functionCtx);
     }
 
     public CanonicalImmutableParsedDocumentIndex(AttributeContext attributeCtx, FunctionContext functionCtx) {
-        this(Collections.emptyMap(), new DefaultPredicateOrderStrategy(), true, attributeCtx, functionCtx);
+        this(new DefaultPredicateOrderStrategy(), attributeCtx, functionCtx);
     }
 
-    private CanonicalImmutableParsedDocumentIndex(Map<String, SAPL> updatedDocuments,
-            PredicateOrderStrategy predicateOrderStrategy, boolean consistent, AttributeContext attributeCtx,
-            FunctionContext functionCtx) {
-        this.documents              = updatedDocuments;
+    private CanonicalImmutableParsedDocumentIndex(Map<String, SAPL> documents, Map<String, DisjunctiveFormula> targets,
+            CanonicalIndexDataContainer indexDataContainer, PredicateOrderStrategy predicateOrderStrategy,
+            boolean consistent, AttributeContext attributeCtx, FunctionContext functionCtx) {
+        this.documents              = documents;
+        this.targets                = targets;
+        this.indexDataContainer     = indexDataContainer;
         this.predicateOrderStrategy = predicateOrderStrategy;
         this.consistent             = consistent;
         this.attributeCtx           = attributeCtx;
         this.functionCtx            = functionCtx;
-
-        Map<String, DisjunctiveFormula> targets = this.documents.entrySet().stream()
-                .collect(Collectors.toMap(Entry::getKey, entry -> retainTarget(entry.getValue())));
-
-        this.indexDataContainer = new CanonicalIndexDataCreationStrategy(predicateOrderStrategy).constructNew(documents,
-                targets);
     }
 
+    /**
+     * Creates the index for the updated documents. Only the targets of published
+     * documents are analyzed, and the index data is derived from the data of this
+     * index by removing and adding the changed targets. If the update replaces more
+     * documents than this index contains, the index data is created from scratch
+     * instead.
+     */
     CanonicalImmutableParsedDocumentIndex recreateIndex(Map<String, SAPL> updatedDocuments, boolean consistent) {
-        return new CanonicalImmutableParsedDocumentIndex(updatedDocuments, predicateOrderStrategy, consistent,
-                attributeCtx, functionCtx);
+        Map<String, DisjunctiveFormula> updatedTargets = new HashMap<>(targets);
+        Map<SAPL, DisjunctiveFormula>   removedTargets = new HashMap<>();
+        Map<SAPL, DisjunctiveFormula>   addedTargets   = new HashMap<>();
+        for (var entry : documents.entrySet()) {
+            if (updatedDocuments.get(entry.getKey()) != entry.getValue())
+                removedTargets.put(entry.getValue(), updatedTargets.remove(entry.getKey()));
+        }
+        Map<String, SAPL> publishedDocuments = new HashMap<>();
+        for (var entry : updatedDocuments.entrySet()) {
+            if (documents.get(entry.getKey()) != entry.getValue())
+                publishedDocuments.put(entry.getKey(), entry.getValue());
+        }
+        retainTargets(publishedDocuments).forEach((name, target) -> {
+            updatedTargets.put(name, target);
+            addedTargets.put(publishedDocuments.get(name), target);
+        });
+
+        if (removedTargets.isEmpty() && addedTargets.isEmpty()) {
+            return new CanonicalImmutableParsedDocumentIndex(documents, targets, indexDataContainer,
+                    predicateOrderStrategy, consistent, attributeCtx, functionCtx);
+        }
+
+        var                         creationStrategy = new CanonicalIndexDataCreationStrategy(predicateOrderStrategy);
+        CanonicalIndexDataContainer updatedIndexDataContainer;
+        if (documents.size() < removedTargets.size() + addedTargets.size()) {
+            updatedIndexDataContainer = creationStrategy.constructNew(updatedDocuments, updatedTargets);
+        } else {
+            updatedIndexDataContainer = creationStrategy.update(indexDataContainer, removedTargets, addedTargets);
+        }
+        return new CanonicalImmutableParsedDocumentIndex(updatedDocuments, updatedTargets, updatedIndexDataContainer,
+                predicateOrderStrategy, consistent, attributeCtx, functionCtx);
     }
 
     @Override
@@ -124,6 +161,17 @@ void applyUpdate(Map<String, SAPL> newDocuments, PrpUpdateEvent.Update update) {
         }
     }
 
+    /**
+     * Normalizes and reduces the targets of the documents in parallel on the
+     * {@link IndexConstructionPool}. Each target is analyzed independently of all
+     * other documents, and the results are merged by document name, so that the
+     * result does not depend on the order of execution.
+     */
+    private Map<String, DisjunctiveFormula> retainTargets(Map<String, SAPL> documentsToAnalyze) {
+        return IndexConstructionPool.compute(() -> documentsToAnalyze.entrySet().parallelStream()
+                .collect(Collectors.toMap(Entry::getKey, entry -> retainTarget(entry.getValue()))));
+    }
+
     private DisjunctiveFormula retainTarget(SAPL sapl) {
         var                targetExpression = sapl.getImplicitTargetExpression();
         DisjunctiveFormula targetFormula;
@@ -22,57 +22,90 @@
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.function.Function;
 
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.SAPL;
 import io.sapl.prp.PolicyRetrievalResult;
+import io.sapl.prp.index.canonical.ordering.PredicateEvaluationObserver;
 import lombok.NonNull;
 import lombok.experimental.UtilityClass;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
 
 @UtilityClass
 public class CanonicalIndexAlgorithm {
 
     public Mono<PolicyRetrievalResult> match(CanonicalIndexDataContainer dataContainer) {
-        return matchCollectorNewest(dataContainer);
+        return Mono.deferContextual(ctx -> Mono.just(matchSynchronously(dataContainer, ctx)));
     }
 
-    public Mono<PolicyRetrievalResult> matchCollectorNewest(CanonicalIndexDataContainer dataContainer) {
-        var matchingCtxMono = Flux.fromIterable(dataContainer.getPredicateOrder())
-                .reduce(Mono.just(new CanonicalIndexMatchingContext(dataContainer.getNumberOfConjunctions())),
-                        (previousCtxMono, predicate) -> previousCtxMono
-                                .flatMap(previousCtx -> previousCtx.isPredicateReferencedInCandidates(predicate)
-                                        // if referenced by an active candidate ->
-                                        // evaluate predicate
-                                        ? evaluatePredicate(dataContainer, predicate, previousCtx)
-                                        // else -> just return context
-                                        : skipPredicate(previousCtx)) // result is updated
-                                                                      // ctx (candidates
-                                                                      // removed based
-                                                                      // on predicate
-                                                                      // evaluation
-                                                                      // result)
-                ).flatMap(Function.identity()); // mono of mono is flattened
+    /**
+     * Runs the matching loop on the calling thread. Target expressions cannot
+     * contain attribute finders, so every predicate evaluates to a single value
+     * immediately and no reactive operators are needed per predicate.
+     *
+     * @param dataContainer the index
+     * @param ctx           the subscription scoped context
+     * @return the documents with matching targets
+     */
+    PolicyRetrievalResult matchSynchronously(CanonicalIndexDataContainer dataContainer, ContextView ctx) {
+        var matchingContextPool = dataContainer.getMatchingContextPool();
+        var matchingCtx         = matchingContextPool.acquire();
+        var observer            = dataContainer.getPredicateEvaluationObserver();
+        try {
+            if (observer != null && observer.sampleNextMatching())
+                matchAndObservePredicates(dataContainer, ctx, matchingCtx, observer);
+            else
+                matchPredicates(dataContainer, ctx, matchingCtx);
+            return retrievalResult(matchingCtx, dataContainer);
+        } catch (RuntimeException e) {
+            return new PolicyRetrievalResult(Collections.emptyList(), true, true);
+        } finally {
+            matchingContextPool.release(matchingCtx);
+        }
+    }
 
-        return matchingCtxMono.map(matchingCtx -> {
-            var matching = matchingCtx.getMatchingCandidatesMask();
-            var formulas = fetchFormulas(matching, dataContainer);
-            var policies = fetchPolicies(formulas, dataContainer);
+    private void matchPredicates(CanonicalIndexDataContainer dataContainer, ContextView ctx,
+            CanonicalIndexMatchingContext matchingCtx) {
+        var equalityIndex = dataContainer.getEqualityPredicateIndex();
+        for (var predicate : dataContainer.getPredicateOrder()) {
+            if (matchingCtx.isPredicateReferencedInCandidates(predicate))
+                handleEvaluationResult(dataContainer, predicate, matchingCtx,
+                        evaluate(predicate, equalityIndex, ctx, matchingCtx));
+        }
+    }
 
-            return new PolicyRetrievalResult(policies, matchingCtx.isErrorsInTargets(), true);
-        }).onErrorReturn(new PolicyRetrievalResult(Collections.emptyList(), true, true));
+    private void matchAndObservePredicates(CanonicalIndexDataContainer dataContainer, ContextView ctx,
+            CanonicalIndexMatchingContext matchingCtx, PredicateEvaluationObserver observer) {
+        var equalityIndex = dataContainer.getEqualityPredicateIndex();
+        for (var predicate : dataContainer.getPredicateOrder()) {
+            if (matchingCtx.isPredicateReferencedInCandidates(predicate)) {
+                // evaluating the first predicate of an equality group already removes candidates
+                var candidatesBefore = matchingCtx.numberOfRemainingCandidates();
+                var start            = System.nanoTime();
+                var evaluationResult = evaluate(predicate, equalityIndex, ctx, matchingCtx);
+                var cost             = System.nanoTime() - start;
+                handleEvaluationResult(dataContainer, predicate, matchingCtx, evaluationResult);
+                observer.predicateEvaluated(predicate, cost, evaluationResult,
+                        candidatesBefore - matchingCtx.numberOfRemainingCandidates());
+            }
+        }
     }
 
-    Mono<CanonicalIndexMatchingContext> skipPredicate(CanonicalIndexMatchingContext previousCtx) {
-        return Mono.just(previousCtx);
+    private Val evaluate(Predicate predicate, EqualityPredicateIndex equalityIndex, ContextView ctx,
+            CanonicalIndexMatchingContext matchingCtx) {
+        if (equalityIndex == null)
+            return predicate.evaluateSync(ctx);
+        return equalityIndex.evaluate(predicate, ctx, matchingCtx);
     }
 
-    Mono<CanonicalIndexMatchingContext> evaluatePredicate(CanonicalIndexDataContainer dataContainer,
-            Predicate predicate, CanonicalIndexMatchingContext ctx) {
-        return predicate.evaluate()
-                .map(evaluationResult -> handleEvaluationResult(dataContainer, predicate, ctx, evaluationResult));
+    private PolicyRetrievalResult retrievalResult(CanonicalIndexMatchingContext matchingCtx,
+            CanonicalIndexDataContainer dataContainer) {
+        var matching = matchingCtx.getMatchingCandidatesMask();
+        var formulas = fetchFormulas(matching, dataContainer);
+        var policies = fetchPolicies(formulas, dataContainer);
+
+        return new PolicyRetrievalResult(policies, matchingCtx.isErrorsInTargets(), true);
     }
 
     CanonicalIndexMatchingContext handleEvaluationResult(CanonicalIndexDataContainer dataContainer, Predicate predicate,
@@ -113,9 +146,11 @@ void handleErrorEvaluationResult(final Predicate predicate, CanonicalIndexMatchi
 
     Bitmask findOrphanedCandidates(final Bitmask satisfiableCandidates, CanonicalIndexMatchingContext matchingCtx,
             CanonicalIndexDataContainer dataContainer) {
-        var result = new Bitmask();
+        var result = matchingCtx.orphanedCandidatesBuffer();
+        result.clear();
 
-        satisfiableCandidates.forEachSetBit(index -> {
+        for (var index = satisfiableCandidates.nextSetBit(0); index >= 0; index = satisfiableCandidates
+                .nextSetBit(index + 1)) {
             var cTuples = dataContainer.getConjunctionsInFormulasReferencingConjunction(index);
             for (CTuple cTuple : cTuples) {
                 if (!matchingCtx.isRemainingCandidate(cTuple.getCI()))
@@ -130,7 +165,7 @@ Bitmask findOrphanedCandidates(final Bitmask satisfiableCandidates, CanonicalInd
                 }
 
             }
-        });
+        }
 
         return result;
     }
@@ -151,38 +186,44 @@ Set<DisjunctiveFormula> fetchFormulas(final Bitmask satisfiableCandidates,
 
     Bitmask findSatisfiableCandidates(final Predicate predicate, final boolean evaluationResult,
             CanonicalIndexMatchingContext matchingCtx, CanonicalIndexDataContainer dataContainer) {
-        var result = new Bitmask();
+        var result = matchingCtx.satisfiedCandidatesBuffer();
+        result.clear();
         // calling method with negated evaluation result will return satisfied clauses
-        var satisfiableCandidates = findUnsatisfiableCandidates(matchingCtx, predicate, !evaluationResult);
+        var satisfiableCandidates = matchingCtx.candidatesBuffer();
+        findUnsatisfiableCandidates(matchingCtx, predicate, !evaluationResult, satisfiableCandidates);
 
-        satisfiableCandidates.forEachSetBit(index -> {
+        for (var index = satisfiableCandidates.nextSetBit(0); index >= 0; index = satisfiableCandidates
+                .nextSetBit(index + 1)) {
             // increment number of true literals
             matchingCtx.incrementTrueLiteralsForConjunction(index);
 
             // if all literals in conjunction are true, add conjunction to result
             if (matchingCtx.isConjunctionSatisfied(index, dataContainer.getNumberOfLiteralsInConjunction(index)))
                 result.set(index);
-        });
+        }
 
         return result;
     }
 
     private List<SAPL> fetchPolicies(final Set<DisjunctiveFormula> formulas,
             CanonicalIndexDataContainer dataContainer) {
-        return formulas.parallelStream().map(dataContainer::getPoliciesIncludingFormula)
-                .flatMap(Collection::parallelStream).distinct().toList();
+        return formulas.stream().map(dataContainer::getPoliciesIncludingFormula).flatMap(Collection::stream).distinct()
+                .toList();
     }
 
     Bitmask findUnsatisfiableCandidates(final CanonicalIndexMatchingContext matchingCtx, final Predicate predicate,
             final boolean predicateEvaluationResult) {
-        var result = matchingCtx.getCopyOfCandidates();
+        var result = matchingCtx.unsatisfiedCandidatesBuffer();
+        findUnsatisfiableCandidates(matchingCtx, predicate, predicateEvaluationResult, result);
+        return result;
+    }
 
+    private void findUnsatisfiableCandidates(final CanonicalIndexMatchingContext matchingCtx, final Predicate predicate,
+            final boolean predicateEvaluationResult, Bitmask result) {
         if (predicateEvaluationResult)
-            result.and(predicate.getFalseForTruePredicate());
+            matchingCtx.copyCandidatesIntersectingWith(predicate.getFalseForTruePredicate(), result);
         else
-            result.and(predicate.getFalseForFalsePredicate());
-
-        return result;
+            matchingCtx.copyCandidatesIntersectingWith(predicate.getFalseForFalsePredicate(), result);
     }
 
 }
@@ -18,6 +18,8 @@
 package io.sapl.prp.index.canonical;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -25,10 +27,12 @@
 import com.google.common.collect.ImmutableList;
 
 import io.sapl.grammar.sapl.SAPL;
+import io.sapl.prp.index.canonical.ordering.PredicateEvaluationObserver;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 
 @EqualsAndHashCode
 @FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
@@ -39,7 +43,9 @@ public class CanonicalIndexDataContainer {
     private final Map<ConjunctiveClause, Set<DisjunctiveFormula>> clauseToFormulas;
 
     @Getter
-    private final ImmutableList<Predicate> predicateOrder;
+    @NonFinal
+    @EqualsAndHashCode.Exclude
+    private volatile ImmutableList<Predicate> predicateOrder;
 
     private final List<Set<DisjunctiveFormula>> relatedFormulas;
 
@@ -54,6 +60,23 @@ public class CanonicalIndexDataContainer {
     @Getter
     private final int numberOfConjunctions;
 
+    @EqualsAndHashCode.Exclude
+    private final EqualityPredicateIndex equalityPredicateIndex;
+
+    @EqualsAndHashCode.Exclude
+    private final CanonicalIndexMatchingContextPool matchingContextPool;
+
+    @EqualsAndHashCode.Exclude
+    @NonFinal
+    private volatile PredicateEvaluationObserver predicateEvaluationObserver;
+
+    /* state retained for incremental updates, null if not available */
+    @EqualsAndHashCode.Exclude
+    private final Map<ConjunctiveClause, Integer> clauseToIndex;
+
+    @EqualsAndHashCode.Exclude
+    private final Map<Bool, PredicateInfo> boolToPredicateInfo;
+
     public CanonicalIndexDataContainer(Map<DisjunctiveFormula, Set<SAPL>> formulaToDocuments,
             Map<ConjunctiveClause, Set<DisjunctiveFormula>> clauseToFormulas, Collection<Predicate> predicateOrder,
             List<Set<DisjunctiveFormula>> relatedFormulas, Map<DisjunctiveFormula, Bitmask> relatedCandidates,
@@ -70,6 +93,17 @@ public CanonicalIndexDataContainer(Map<DisjunctiveFormula, Set<SAPL>> formulaToD
             List<Set<DisjunctiveFormula>> relatedFormulas, Map<DisjunctiveFormula, Bitmask> relatedCandidates,
             Map<Integer, Set<CTuple>> conjunctionsInFormulasReferencingConjunction, int[] numberOfLiteralsInConjunction,
             int[] numberOfFormulasWithConjunction, int numberOfConjunctions) {
+        this(formulaToDocuments, clauseToFormulas, predicateOrder, relatedFormulas, relatedCandidates,
+                conjunctionsInFormulasReferencingConjunction, numberOfLiteralsInConjunction,
+                numberOfFormulasWithConjunction, numberOfConjunctions, null, null);
+    }
+
+    CanonicalIndexDataContainer(Map<DisjunctiveFormula, Set<SAPL>> formulaToDocuments,
+            Map<ConjunctiveClause, Set<DisjunctiveFormula>> clauseToFormulas, ImmutableList<Predicate> predicateOrder,
+            List<Set<DisjunctiveFormula>> relatedFormulas, Map<DisjunctiveFormula, Bitmask> relatedCandidates,
+            Map<Integer, Set<CTuple>> conjunctionsInFormulasReferencingConjunction, int[] numberOfLiteralsInConjunction,
+            int[] numberOfFormulasWithConjunction, int numberOfConjunctions,
+            Map<ConjunctiveClause, Integer> clauseToIndex, Map<Bool, PredicateInfo> boolToPredicateInfo) {
         this.formulaToDocuments                           = formulaToDocuments;
         this.clauseToFormulas                             = clauseToFormulas;
         this.predicateOrder                               = predicateOrder;
@@ -79,6 +113,94 @@ public CanonicalIndexDataContainer(Map<DisjunctiveFormula, Set<SAPL>> formulaToD
         this.numberOfLiteralsInConjunction                = numberOfLiteralsInConjunction.clone();
         this.numberOfFormulasWithConjunction              = numberOfFormulasWithConjunction.clone();
         this.numberOfConjunctions                         = numberOfConjunctions;
+        this.equalityPredicateIndex                       = new EqualityPredicateIndex(predicateOrder);
+        this.matchingContextPool                          = new CanonicalIndexMatchingContextPool(numberOfConjunctions,
+                equalityPredicateIndex.getNumberOfGroups(), CanonicalIndexMatchingContextPool.DEFAULT_CAPACITY);
+        this.clauseToIndex                                = clauseToIndex;
+        this.boolToPredicateInfo                          = boolToPredicateInfo;
+    }
+
+    /**
+     * @param updatedFormulaToDocuments the new mapping of formulas to documents
+     *                                  which must contain exactly the formulas of
+     *                                  this container.
+     * @return a container sharing all index structures with this container, but
+     *         mapping the formulas to the given documents.
+     */
+    CanonicalIndexDataContainer withFormulaToDocuments(Map<DisjunctiveFormula, Set<SAPL>> updatedFormulaToDocuments) {
+        return new CanonicalIndexDataContainer(updatedFormulaToDocuments, clauseToFormulas, predicateOrder,
+                relatedFormulas, relatedCandidates, conjunctionsInFormulasReferencingConjunction,
+                numberOfLiteralsInConjunction, numberOfFormulasWithConjunction, numberOfConjunctions, clauseToIndex,
+                boolToPredicateInfo);
+    }
+
+    /**
+     * Replaces the order in which predicates are evaluated. Matching runs which are
+     * already in progress complete with the previous order.
+     *
+     * @param reorderedPredicates a permutation of the current predicate order
+     */
+    public void reorderPredicates(List<Predicate> reorderedPredicates) {
+        var currentOrder = predicateOrder;
+        var reordered    = ImmutableList.copyOf(reorderedPredicates);
+        var current      = Collections.newSetFromMap(new IdentityHashMap<Predicate, Boolean>());
+        current.addAll(currentOrder);
+        if (reordered.size() != currentOrder.size() || !current.containsAll(reordered))
+            throw new IllegalArgumentException(
+                    "The reordered predicates must be a permutation of the index predicates.");
+        predicateOrder = reordered;
+    }
+
+    /**
+     * @param observer receives the sampled predicate evaluations of subsequent
+     *                 matching runs
+     */
+    public void observePredicateEvaluations(PredicateEvaluationObserver observer) {
+        predicateEvaluationObserver = observer;
+    }
+
+    PredicateEvaluationObserver getPredicateEvaluationObserver() {
+        return predicateEvaluationObserver;
+    }
+
+    boolean isIncrementallyUpdatable() {
+        return clauseToIndex != null && boolToPredicateInfo != null;
+    }
+
+    Map<DisjunctiveFormula, Set<SAPL>> getFormulaToDocuments() {
+        return formulaToDocuments;
+    }
+
+    Map<ConjunctiveClause, Set<DisjunctiveFormula>> getClauseToFormulas() {
+        return clauseToFormulas;
+    }
+
+    List<Set<DisjunctiveFormula>> getRelatedFormulas() {
+        return relatedFormulas;
+    }
+
+    Map<DisjunctiveFormula, Bitmask> getRelatedCandidates() {
+        return relatedCandidates;
+    }
+
+    Map<Integer, Set<CTuple>> getConjunctionsInFormulasReferencingConjunction() {
+        return conjunctionsInFormulasReferencingConjunction;
+    }
+
+    int[] getNumberOfLiteralsInConjunction() {
+        return numberOfLiteralsInConjunction.clone();
+    }
+
+    int[] getNumberOfFormulasWithConjunction() {
+        return numberOfFormulasWithConjunction.clone();
+    }
+
+    Map<ConjunctiveClause, Integer> getClauseToIndex() {
+        return clauseToIndex;
+    }
+
+    Map<Bool, PredicateInfo> getBoolToPredicateInfo() {
+        return boolToPredicateInfo;
     }
 
     public int getNumberOfLiteralsInConjunction(int conjunctionIndex) {
@@ -97,6 +219,14 @@ Set<DisjunctiveFormula> getRelatedFormulas(int conjunctionIndex) {
         return relatedFormulas.get(conjunctionIndex);
     }
 
+    EqualityPredicateIndex getEqualityPredicateIndex() {
+        return equalityPredicateIndex;
+    }
+
+    CanonicalIndexMatchingContextPool getMatchingContextPool() {
+        return matchingContextPool;
+    }
+
     Set<SAPL> getPoliciesIncludingFormula(DisjunctiveFormula formula) {
         return formulaToDocuments.get(formula);
     }
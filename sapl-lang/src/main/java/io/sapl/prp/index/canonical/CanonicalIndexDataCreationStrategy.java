@@ -18,6 +18,7 @@
 package io.sapl.prp.index.canonical;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -26,12 +27,15 @@
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
+import com.google.common.collect.ImmutableList;
 
 import io.sapl.grammar.sapl.SAPL;
+import io.sapl.prp.index.canonical.ordering.AdaptivePredicateOrderStrategy;
 import io.sapl.prp.index.canonical.ordering.DefaultPredicateOrderStrategy;
 import io.sapl.prp.index.canonical.ordering.PredicateOrderStrategy;
 import lombok.RequiredArgsConstructor;
@@ -58,11 +62,193 @@ public CanonicalIndexDataContainer constructNew(final Map<String, SAPL> document
         return constructContainerWithOrder(formulaToDocuments, clauseToFormulas);
     }
 
+    /**
+     * Derives the index for an updated set of documents from an existing index.
+     * Only the clauses of added or removed formulas and the predicates occurring in
+     * these clauses are re-indexed. All other index structures are shared with the
+     * previous index, which remains unchanged and can still be used for matching.
+     * The resulting index matches the same documents as an index created by
+     * {@link #constructNew(Map, Map)} from scratch.
+     *
+     * @param previous       the index before the update
+     * @param removedTargets the withdrawn documents and their target formulas
+     * @param addedTargets   the published documents and their target formulas
+     * @return the updated index
+     */
+    public CanonicalIndexDataContainer update(final CanonicalIndexDataContainer previous,
+            final Map<SAPL, DisjunctiveFormula> removedTargets, final Map<SAPL, DisjunctiveFormula> addedTargets) {
+        var previousFormulaToDocuments = previous.getFormulaToDocuments();
+
+        Map<DisjunctiveFormula, Set<SAPL>> formulaToDocuments = new HashMap<>(previousFormulaToDocuments);
+        removedTargets.forEach((document, formula) -> formulaToDocuments.computeIfPresent(formula, (k, documents) -> {
+            Set<SAPL> remainingDocuments = new HashSet<>(documents);
+            remainingDocuments.remove(document);
+            return remainingDocuments.isEmpty() ? null : remainingDocuments;
+        }));
+        addedTargets.forEach((document, formula) -> formulaToDocuments.compute(formula, (k, documents) -> {
+            Set<SAPL> extendedDocuments = documents == null ? new HashSet<>() : new HashSet<>(documents);
+            extendedDocuments.add(document);
+            return extendedDocuments;
+        }));
+
+        Set<DisjunctiveFormula> removedFormulas = removedTargets.values().stream()
+                .filter(formula -> !formulaToDocuments.containsKey(formula)).collect(Collectors.toSet());
+        Set<DisjunctiveFormula> addedFormulas   = addedTargets.values().stream()
+                .filter(formula -> !previousFormulaToDocuments.containsKey(formula)).collect(Collectors.toSet());
+
+        if (removedFormulas.isEmpty() && addedFormulas.isEmpty())
+            return observed(previous.withFormulaToDocuments(formulaToDocuments));
+
+        if (!previous.isIncrementallyUpdatable()) {
+            Map<ConjunctiveClause, Set<DisjunctiveFormula>> clauseToFormulas = new HashMap<>();
+            addNewFormulasToClauseMapping(formulaToDocuments.keySet(), clauseToFormulas);
+            return constructContainerWithOrder(formulaToDocuments, clauseToFormulas);
+        }
+
+        return updateContainer(previous, formulaToDocuments, removedFormulas, addedFormulas);
+    }
+
+    private CanonicalIndexDataContainer updateContainer(final CanonicalIndexDataContainer previous,
+            Map<DisjunctiveFormula, Set<SAPL>> formulaToDocuments, final Set<DisjunctiveFormula> removedFormulas,
+            final Set<DisjunctiveFormula> addedFormulas) {
+
+        Map<ConjunctiveClause, Set<DisjunctiveFormula>> clausesOfRemovedFormulas = new HashMap<>();
+        addNewFormulasToClauseMapping(removedFormulas, clausesOfRemovedFormulas);
+        Map<ConjunctiveClause, Set<DisjunctiveFormula>> clausesOfAddedFormulas = new HashMap<>();
+        addNewFormulasToClauseMapping(addedFormulas, clausesOfAddedFormulas);
+
+        Set<ConjunctiveClause> touchedClauses = new HashSet<>(clausesOfRemovedFormulas.keySet());
+        touchedClauses.addAll(clausesOfAddedFormulas.keySet());
+
+        Map<ConjunctiveClause, Set<DisjunctiveFormula>> clauseToFormulas = new HashMap<>(
+                previous.getClauseToFormulas());
+        for (ConjunctiveClause clause : touchedClauses) {
+            Set<DisjunctiveFormula> formulas = new HashSet<>(
+                    clauseToFormulas.getOrDefault(clause, Collections.emptySet()));
+            formulas.removeAll(clausesOfRemovedFormulas.getOrDefault(clause, Collections.emptySet()));
+            formulas.addAll(clausesOfAddedFormulas.getOrDefault(clause, Collections.emptySet()));
+            if (formulas.isEmpty())
+                clauseToFormulas.remove(clause);
+            else
+                clauseToFormulas.put(clause, formulas);
+        }
+
+        // clause indexes of remaining clauses are stable, so that the bitmasks of
+        // unaffected predicates stay valid. Indexes of removed clauses are reused.
+        Map<ConjunctiveClause, Integer> clauseToIndex   = new HashMap<>(previous.getClauseToIndex());
+        List<Set<DisjunctiveFormula>>   relatedFormulas = new ArrayList<>(previous.getRelatedFormulas());
+        Bitmask                         freeIndexes     = new Bitmask(relatedFormulas.size());
+        for (int i = 0; i < relatedFormulas.size(); i++) {
+            if (relatedFormulas.get(i).isEmpty())
+                freeIndexes.set(i);
+        }
+        Set<Integer> removedIndexes = new HashSet<>();
+        for (ConjunctiveClause clause : touchedClauses) {
+            if (!clauseToFormulas.containsKey(clause)) {
+                int index = clauseToIndex.remove(clause);
+                relatedFormulas.set(index, Collections.emptySet());
+                freeIndexes.set(index);
+                removedIndexes.add(index);
+            }
+        }
+        for (ConjunctiveClause clause : touchedClauses) {
+            if (clauseToFormulas.containsKey(clause) && !clauseToIndex.containsKey(clause)) {
+                int index = freeIndexes.nextSetBit(0);
+                if (index < 0) {
+                    index = relatedFormulas.size();
+                    relatedFormulas.add(Collections.emptySet());
+                } else {
+                    freeIndexes.clear(index);
+                }
+                clauseToIndex.put(clause, index);
+            }
+        }
+
+        int   numberOfConjunctions            = relatedFormulas.size();
+        int[] numberOfLiteralsInConjunction   = Arrays.copyOf(previous.getNumberOfLiteralsInConjunction(),
+                numberOfConjunctions);
+        int[] numberOfFormulasWithConjunction = Arrays.copyOf(previous.getNumberOfFormulasWithConjunction(),
+                numberOfConjunctions);
+        removedIndexes.forEach(index -> {
+            numberOfLiteralsInConjunction[index]   = 0;
+            numberOfFormulasWithConjunction[index] = 0;
+        });
+
+        Map<DisjunctiveFormula, Bitmask> relatedCandidates = new HashMap<>(previous.getRelatedCandidates());
+        relatedCandidates.keySet().removeAll(removedFormulas);
+        relatedCandidates.putAll(mapFormulaToClauses(addedFormulas, clauseToIndex));
+
+        Map<Integer, Set<CTuple>> conjunctionsInFormulasReferencingConjunction = new HashMap<>(
+                previous.getConjunctionsInFormulasReferencingConjunction());
+        conjunctionsInFormulasReferencingConjunction.keySet().removeAll(removedIndexes);
+
+        Set<Bool> affectedBools = new HashSet<>();
+        for (ConjunctiveClause clause : touchedClauses) {
+            clause.getLiterals().forEach(literal -> affectedBools.add(literal.getBool()));
+            Set<DisjunctiveFormula> formulas = clauseToFormulas.get(clause);
+            if (formulas != null) {
+                int index = clauseToIndex.get(clause);
+                relatedFormulas.set(index, formulas);
+                numberOfLiteralsInConjunction[index]   = clause.size();
+                numberOfFormulasWithConjunction[index] = formulas.size();
+                conjunctionsInFormulasReferencingConjunction.put(index,
+                        getReferencedConjunctions(index, formulas, relatedCandidates));
+            }
+        }
+
+        // predicates no longer occurring in any formula are dropped
+        Map<Bool, PredicateInfo> boolToPredicateInfo = new HashMap<>(previous.getBoolToPredicateInfo());
+        boolToPredicateInfo.keySet().removeAll(affectedBools);
+        boolToPredicateInfo.putAll(collectPredicateInfos(
+                formulasContainingBools(affectedBools, touchedClauses, previous, clauseToFormulas), affectedBools));
+        for (Bool bool : affectedBools) {
+            PredicateInfo predicateInfo = boolToPredicateInfo.get(bool);
+            if (predicateInfo != null)
+                markConjunctionsOfPredicate(predicateInfo, clauseToIndex);
+        }
+
+        List<Predicate> predicateOrder = predicateOrderStrategy.createPredicateOrder(boolToPredicateInfo.values());
+
+        return observed(new CanonicalIndexDataContainer(formulaToDocuments, clauseToFormulas,
+                ImmutableList.copyOf(predicateOrder), relatedFormulas, relatedCandidates,
+                conjunctionsInFormulasReferencingConjunction, numberOfLiteralsInConjunction,
+                numberOfFormulasWithConjunction, numberOfConjunctions, clauseToIndex, boolToPredicateInfo));
+    }
+
+    private CanonicalIndexDataContainer observed(CanonicalIndexDataContainer container) {
+        if (predicateOrderStrategy instanceof AdaptivePredicateOrderStrategy adaptiveStrategy)
+            adaptiveStrategy.adapt(container);
+        return container;
+    }
+
+    private Set<DisjunctiveFormula> formulasContainingBools(final Set<Bool> bools,
+            final Set<ConjunctiveClause> touchedClauses, final CanonicalIndexDataContainer previous,
+            final Map<ConjunctiveClause, Set<DisjunctiveFormula>> clauseToFormulas) {
+        Set<ConjunctiveClause> clausesContainingBools = new HashSet<>();
+        for (Bool bool : bools) {
+            PredicateInfo previousPredicateInfo = previous.getBoolToPredicateInfo().get(bool);
+            if (previousPredicateInfo != null) {
+                clausesContainingBools.addAll(previousPredicateInfo.getUnsatisfiableConjunctionsIfTrue());
+                clausesContainingBools.addAll(previousPredicateInfo.getUnsatisfiableConjunctionsIfFalse());
+            }
+        }
+        clausesContainingBools.addAll(touchedClauses);
+
+        Set<DisjunctiveFormula> formulas = new HashSet<>();
+        for (ConjunctiveClause clause : clausesContainingBools) {
+            Set<DisjunctiveFormula> formulasWithClause = clauseToFormulas.get(clause);
+            if (formulasWithClause != null)
+                formulas.addAll(formulasWithClause);
+        }
+        return formulas;
+    }
+
     private CanonicalIndexDataContainer constructContainerWithOrder(
             Map<DisjunctiveFormula, Set<SAPL>> formulaToDocuments,
             Map<ConjunctiveClause, Set<DisjunctiveFormula>> clauseToFormulas) {
 
-        Collection<PredicateInfo> predicateInfos = collectPredicateInfos(formulaToDocuments.keySet());
+        Map<Bool, PredicateInfo>  boolToPredicateInfo = collectPredicateInfos(formulaToDocuments.keySet(), null);
+        Collection<PredicateInfo> predicateInfos      = boolToPredicateInfo.values();
 
         // manipulates Bitmask of Predicates stored in PredicateInfo as a side effect
         BiMap<ConjunctiveClause, Integer> clauseToIndex = createCandidateIndex(predicateInfos);
@@ -84,9 +270,11 @@ private CanonicalIndexDataContainer constructContainerWithOrder(
 
         List<Set<DisjunctiveFormula>> relatedFormulas = flattenIndexMap(indexToTargets);
 
-        return new CanonicalIndexDataContainer(formulaToDocuments, clauseToFormulas, predicateOrder, relatedFormulas,
-                relatedCandidates, conjunctionsInFormulasReferencingConjunction, numberOfLiteralsInConjunction,
-                numberOfFormulasWithConjunction);
+        return observed(new CanonicalIndexDataContainer(formulaToDocuments, clauseToFormulas,
+                ImmutableList.copyOf(predicateOrder), relatedFormulas, relatedCandidates,
+                conjunctionsInFormulasReferencingConjunction, numberOfLiteralsInConjunction,
+                numberOfFormulasWithConjunction, numberOfLiteralsInConjunction.length, new HashMap<>(clauseToIndex),
+                boolToPredicateInfo));
     }
 
     private void addNewFormulasToClauseMapping(final Collection<DisjunctiveFormula> formulas,
@@ -114,33 +302,38 @@ private Map<Integer, Set<CTuple>> getConjunctionReferenceMap(
             Map<ConjunctiveClause, Set<DisjunctiveFormula>> clauseToFormulas,
             BiMap<ConjunctiveClause, Integer> clauseToIndex, Map<DisjunctiveFormula, Bitmask> formulaToClauses) {
 
-        Map<Integer, Set<CTuple>> conjunctionsInFormulasReferencingConjunction = new HashMap<>(clauseToFormulas.size(),
-                1.0F);
-
-        for (Entry<ConjunctiveClause, Set<DisjunctiveFormula>> clauseToFormulaEntry : clauseToFormulas.entrySet()) {
-
-            Integer                 clauseIndex              = clauseToIndex.get(clauseToFormulaEntry.getKey());
-            Set<DisjunctiveFormula> formulasContainingClause = clauseToFormulaEntry.getValue();
-            Bitmask                 clausesInSameFormulas    = new Bitmask();
+        // entries are independent of each other, the resulting map does not depend on
+        // the order in which the entries are computed
+        return IndexConstructionPool.compute(() -> clauseToFormulas.entrySet().parallelStream()
+                .collect(Collectors.toMap(entry -> clauseToIndex.get(entry.getKey()),
+                        entry -> getReferencedConjunctions(clauseToIndex.get(entry.getKey()), entry.getValue(),
+                                formulaToClauses))));
+    }
 
-            formulasContainingClause.forEach(
-                    formulaContainingClause -> clausesInSameFormulas.or(formulaToClauses.get(formulaContainingClause)));
-            clausesInSameFormulas.clear(clauseIndex);
+    private Set<CTuple> getReferencedConjunctions(int clauseIndex, Set<DisjunctiveFormula> formulasContainingClause,
+            Map<DisjunctiveFormula, Bitmask> formulaToClauses) {
+        Bitmask clausesInSameFormulas = new Bitmask();
 
-            Set<CTuple> cTupleSet = new HashSet<>(clausesInSameFormulas.numberOfBitsSet());
-            clausesInSameFormulas.forEachSetBit(relatedClauseIndex -> {
-                long numberOfSharedFormulas = formulasContainingClause.stream().map(formulaToClauses::get)
-                        .filter(bitmask -> bitmask.isSet(relatedClauseIndex)).count();
+        formulasContainingClause.forEach(
+                formulaContainingClause -> clausesInSameFormulas.or(formulaToClauses.get(formulaContainingClause)));
+        clausesInSameFormulas.clear(clauseIndex);
 
-                cTupleSet.add(new CTuple(relatedClauseIndex, numberOfSharedFormulas));
-            });
+        Set<CTuple> cTupleSet = new HashSet<>(clausesInSameFormulas.numberOfBitsSet());
+        clausesInSameFormulas.forEachSetBit(relatedClauseIndex -> {
+            long numberOfSharedFormulas = formulasContainingClause.stream().map(formulaToClauses::get)
+                    .filter(bitmask -> bitmask.isSet(relatedClauseIndex)).count();
 
-            conjunctionsInFormulasReferencingConjunction.put(clauseIndex, cTupleSet);
-        }
-        return conjunctionsInFormulasReferencingConjunction;
+            cTupleSet.add(new CTuple(relatedClauseIndex, numberOfSharedFormulas));
+        });
+        return cTupleSet;
     }
 
-    private Collection<PredicateInfo> collectPredicateInfos(Set<DisjunctiveFormula> formulas) {
+    /**
+     * @param formulas the formulas to collect the predicates of
+     * @param bools    if not null, only predicates of these bools are collected
+     * @return the collected predicates
+     */
+    private Map<Bool, PredicateInfo> collectPredicateInfos(Set<DisjunctiveFormula> formulas, Set<Bool> bools) {
         Map<Bool, PredicateInfo> boolToPredicateInfo       = new HashMap<>();
         Set<Bool>                negativesGroupedByFormula = new HashSet<>();
         Set<Bool>                positivesGroupedByFormula = new HashSet<>();
@@ -152,6 +345,8 @@ private Collection<PredicateInfo> collectPredicateInfos(Set<DisjunctiveFormula>
                 List<Literal> literals     = clause.getLiterals();
                 final int     sizeOfClause = literals.size();
                 for (Literal literal : clause.getLiterals()) {
+                    if (bools != null && !bools.contains(literal.getBool()))
+                        continue;
                     createPredicateInfo(literal, clause, boolToPredicateInfo, negativesGroupedByFormula,
                             positivesGroupedByFormula, sizeOfClause);
                 }
@@ -164,7 +359,7 @@ private Collection<PredicateInfo> collectPredicateInfos(Set<DisjunctiveFormula>
             predicateInfo.setRelevance(sum);
         }
 
-        return boolToPredicateInfo.values();
+        return boolToPredicateInfo;
     }
 
     void createPredicateInfo(final Literal literal, final ConjunctiveClause clause,
@@ -222,6 +417,21 @@ private BiMap<ConjunctiveClause, Integer> createCandidateIndex(final Collection<
         return result;
     }
 
+    private void markConjunctionsOfPredicate(final PredicateInfo predicateInfo,
+            final Map<ConjunctiveClause, Integer> clauseToIndex) {
+        Predicate predicate = predicateInfo.getPredicate();
+        for (ConjunctiveClause clause : predicateInfo.getUnsatisfiableConjunctionsIfTrue()) {
+            int index = clauseToIndex.get(clause);
+            predicate.getFalseForTruePredicate().set(index);
+            predicate.getConjunctions().set(index);
+        }
+        for (ConjunctiveClause clause : predicateInfo.getUnsatisfiableConjunctionsIfFalse()) {
+            int index = clauseToIndex.get(clause);
+            predicate.getFalseForFalsePredicate().set(index);
+            predicate.getConjunctions().set(index);
+        }
+    }
+
     private static <T> List<T> flattenIndexMap(final Map<Integer, T> data) {
         final List<T> result = new ArrayList<>(Collections.nCopies(data.size(), null));
         data.forEach(result::set);
@@ -230,15 +440,14 @@ private static <T> List<T> flattenIndexMap(final Map<Integer, T> data) {
 
     private Map<DisjunctiveFormula, Bitmask> mapFormulaToClauses(final Collection<DisjunctiveFormula> formulas,
             final Map<ConjunctiveClause, Integer> clauseToIndex) {
-        final Map<DisjunctiveFormula, Bitmask> result = new HashMap<>(formulas.size(), 1.0F);
-        for (DisjunctiveFormula formula : formulas) {
-            for (ConjunctiveClause clause : formula.getClauses()) {
-                Bitmask associatedIndexes = result.computeIfAbsent(formula, k -> new Bitmask());
-                Integer clauseIndex       = clauseToIndex.get(clause);
-                associatedIndexes.set(clauseIndex);
-            }
-        }
-        return result;
+        return IndexConstructionPool
+                .compute(() -> formulas.parallelStream().collect(Collectors.toMap(Function.identity(), formula -> {
+                    Bitmask associatedIndexes = new Bitmask();
+                    for (ConjunctiveClause clause : formula.getClauses()) {
+                        associatedIndexes.set(clauseToIndex.get(clause));
+                    }
+                    return associatedIndexes;
+                })));
     }
 
     private int[] mapIndexToNumberOfLiteralsInConjunction(final Map<Integer, ConjunctiveClause> indexToClause) {
@@ -17,11 +17,22 @@
  */
 package io.sapl.prp.index.canonical;
 
+import java.util.Arrays;
+
+import io.sapl.api.interpreter.Val;
 import lombok.Getter;
 import lombok.Setter;
 
+/**
+ * The mutable state of a single matching run of the canonical index. The
+ * context owns scratch buffers for the intermediate candidate sets of a
+ * predicate evaluation, so a run does not allocate new bitmasks per predicate.
+ * A context can be reused for another run after calling {@link #reset()}.
+ */
 public class CanonicalIndexMatchingContext {
 
+    private final int numberOfConjunctions;
+
     private final Bitmask candidatesMask;
 
     @Getter
@@ -31,24 +42,110 @@ public class CanonicalIndexMatchingContext {
 
     private final int[] eliminatedFormulasWithConjunction;
 
+    private final Bitmask satisfiedCandidatesBuffer;
+
+    private final Bitmask unsatisfiedCandidatesBuffer;
+
+    private final Bitmask orphanedCandidatesBuffer;
+
+    private final Bitmask candidatesBuffer;
+
+    private final Val[] equalityOperandValues;
+
+    private final Predicate[] matchingEqualityPredicates;
+
     @Getter
     @Setter
     private boolean errorsInTargets = false;
 
     public CanonicalIndexMatchingContext(int numberOfConjunctions) {
-        candidatesMask = new Bitmask();
+        this(numberOfConjunctions, 0);
+    }
+
+    public CanonicalIndexMatchingContext(int numberOfConjunctions, int numberOfEqualityGroups) {
+        this.numberOfConjunctions = numberOfConjunctions;
+
+        candidatesMask = new Bitmask(numberOfConjunctions);
         candidatesMask.set(0, numberOfConjunctions);
 
-        matchingCandidatesMask = new Bitmask();
+        matchingCandidatesMask = new Bitmask(numberOfConjunctions);
 
         trueLiteralsOfConjunction         = new int[numberOfConjunctions];
         eliminatedFormulasWithConjunction = new int[numberOfConjunctions];
+
+        satisfiedCandidatesBuffer   = new Bitmask(numberOfConjunctions);
+        unsatisfiedCandidatesBuffer = new Bitmask(numberOfConjunctions);
+        orphanedCandidatesBuffer    = new Bitmask(numberOfConjunctions);
+        candidatesBuffer            = new Bitmask(numberOfConjunctions);
+
+        equalityOperandValues      = new Val[numberOfEqualityGroups];
+        matchingEqualityPredicates = new Predicate[numberOfEqualityGroups];
+    }
+
+    /**
+     * Restores the state of a freshly created context, i.e., all conjunctions are
+     * candidates again and no conjunction is matching.
+     */
+    void reset() {
+        candidatesMask.clear();
+        candidatesMask.set(0, numberOfConjunctions);
+        matchingCandidatesMask.clear();
+        Arrays.fill(trueLiteralsOfConjunction, 0);
+        Arrays.fill(eliminatedFormulasWithConjunction, 0);
+        Arrays.fill(equalityOperandValues, null);
+        Arrays.fill(matchingEqualityPredicates, null);
+        errorsInTargets = false;
     }
 
     Bitmask getCopyOfCandidates() {
         return new Bitmask(candidatesMask);
     }
 
+    /**
+     * Overwrites the given buffer with the remaining candidates that are also
+     * contained in the given mask.
+     */
+    void copyCandidatesIntersectingWith(Bitmask mask, Bitmask buffer) {
+        buffer.setToIntersection(candidatesMask, mask);
+    }
+
+    Bitmask satisfiedCandidatesBuffer() {
+        return satisfiedCandidatesBuffer;
+    }
+
+    Bitmask unsatisfiedCandidatesBuffer() {
+        return unsatisfiedCandidatesBuffer;
+    }
+
+    Bitmask orphanedCandidatesBuffer() {
+        return orphanedCandidatesBuffer;
+    }
+
+    Bitmask candidatesBuffer() {
+        return candidatesBuffer;
+    }
+
+    /**
+     * @return the value of the compared expression of an equality group, or null if
+     *         the group has not been resolved in this run yet.
+     */
+    Val getEqualityOperandValue(int groupIndex) {
+        return equalityOperandValues[groupIndex];
+    }
+
+    Predicate getMatchingEqualityPredicate(int groupIndex) {
+        return matchingEqualityPredicates[groupIndex];
+    }
+
+    void resolveEqualityGroup(int groupIndex, Val operandValue, Predicate matchingPredicate) {
+        equalityOperandValues[groupIndex]      = operandValue;
+        matchingEqualityPredicates[groupIndex] = matchingPredicate;
+    }
+
+    int numberOfRemainingCandidates() {
+        return candidatesMask.numberOfBitsSet();
+    }
+
     boolean isRemainingCandidate(int candidateIndex) {
         return candidatesMask.isSet(candidateIndex);
     }
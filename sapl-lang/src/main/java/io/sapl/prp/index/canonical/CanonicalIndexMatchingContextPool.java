@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.prp.index.canonical;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Keeps matching contexts of a canonical index for reuse, so that concurrent
+ * policy retrievals do not allocate the candidate bitmasks and counters for
+ * every authorization subscription. A context is used by exactly one matching
+ * run at a time. Contexts exceeding the capacity of the pool are left to the
+ * garbage collector.
+ */
+class CanonicalIndexMatchingContextPool {
+
+    static final int DEFAULT_CAPACITY = 2 * Runtime.getRuntime().availableProcessors();
+
+    private final int numberOfConjunctions;
+
+    private final int numberOfEqualityGroups;
+
+    private final BlockingQueue<CanonicalIndexMatchingContext> idleContexts;
+
+    CanonicalIndexMatchingContextPool(int numberOfConjunctions) {
+        this(numberOfConjunctions, DEFAULT_CAPACITY);
+    }
+
+    CanonicalIndexMatchingContextPool(int numberOfConjunctions, int capacity) {
+        this(numberOfConjunctions, 0, capacity);
+    }
+
+    CanonicalIndexMatchingContextPool(int numberOfConjunctions, int numberOfEqualityGroups, int capacity) {
+        this.numberOfConjunctions   = numberOfConjunctions;
+        this.numberOfEqualityGroups = numberOfEqualityGroups;
+        this.idleContexts           = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * @return a context in its initial state, which is not used by any other
+     *         matching run.
+     */
+    CanonicalIndexMatchingContext acquire() {
+        var matchingCtx = idleContexts.poll();
+        if (matchingCtx == null)
+            return new CanonicalIndexMatchingContext(numberOfConjunctions, numberOfEqualityGroups);
+
+        matchingCtx.reset();
+        return matchingCtx;
+    }
+
+    /**
+     * Returns a context to the pool. The context must not be used afterwards.
+     *
+     * @param matchingCtx a context acquired from this pool
+     */
+    void release(CanonicalIndexMatchingContext matchingCtx) {
+        idleContexts.offer(matchingCtx);
+    }
+
+    int numberOfIdleContexts() {
+        return idleContexts.size();
+    }
+
+}
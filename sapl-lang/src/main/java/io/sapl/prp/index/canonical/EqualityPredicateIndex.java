@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.prp.index.canonical;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import io.sapl.api.interpreter.Val;
+import lombok.Value;
+import reactor.util.context.ContextView;
+
+/**
+ * Groups predicates of the form {@code expression == "constant"}, which compare
+ * the same expression with different string constants, e.g.,
+ * {@code resource.type == "order"} and {@code resource.type == "invoice"}.
+ * <p>
+ * During matching, the shared expression of a group is evaluated only once. A
+ * single hash lookup of its value yields the only predicate of the group which
+ * can be true, together with a precomputed mask of all conjunctions this
+ * outcome falsifies: the conjunctions containing the matched predicate negated
+ * and the conjunctions containing any other predicate of the group. These
+ * candidates are removed in one step. All other predicates of the group are
+ * false without being evaluated.
+ */
+class EqualityPredicateIndex {
+
+    private final Map<Predicate, Group> groupOfPredicate = new IdentityHashMap<>();
+
+    private final int numberOfGroups;
+
+    /**
+     * @param predicates the predicates of an index
+     */
+    EqualityPredicateIndex(Collection<Predicate> predicates) {
+        Map<Bool, Map<String, Predicate>> predicatesByOperand = new HashMap<>();
+        for (Predicate predicate : predicates) {
+            var comparison = predicate.getBool().asStringEquality();
+            if (comparison != null)
+                predicatesByOperand.computeIfAbsent(comparison.getOperand(), operand -> new HashMap<>())
+                        .put(comparison.getConstant(), predicate);
+        }
+
+        var groupIndex = 0;
+        for (var entry : predicatesByOperand.entrySet()) {
+            // a single comparison does not benefit from grouping
+            if (entry.getValue().size() < 2)
+                continue;
+            var group = new Group(groupIndex++, entry.getKey(), entry.getValue());
+            entry.getValue().values().forEach(predicate -> groupOfPredicate.put(predicate, group));
+        }
+        numberOfGroups = groupIndex;
+    }
+
+    int getNumberOfGroups() {
+        return numberOfGroups;
+    }
+
+    boolean isGrouped(Predicate predicate) {
+        return groupOfPredicate.containsKey(predicate);
+    }
+
+    /**
+     * Evaluates a predicate. For grouped predicates, the shared expression is only
+     * evaluated for the first predicate of the group within a matching run.
+     *
+     * @param predicate   a predicate of the index
+     * @param ctx         the subscription scoped context
+     * @param matchingCtx the state of the current matching run
+     * @return the result of the predicate
+     */
+    Val evaluate(Predicate predicate, ContextView ctx, CanonicalIndexMatchingContext matchingCtx) {
+        var group = groupOfPredicate.get(predicate);
+        if (group == null)
+            return predicate.evaluateSync(ctx);
+
+        var operandValue = matchingCtx.getEqualityOperandValue(group.index);
+        if (operandValue == null) {
+            operandValue = group.operand.evaluateValueSync(ctx);
+            matchingCtx.resolveEqualityGroup(group.index, operandValue, group.predicateFor(operandValue));
+            if (!operandValue.isError())
+                matchingCtx.removeCandidates(group.falsifiedCandidates(operandValue));
+        }
+
+        if (operandValue.isError())
+            return operandValue;
+
+        return Val.of(matchingCtx.getMatchingEqualityPredicate(group.index) == predicate);
+    }
+
+    /**
+     * An equality comparison of an expression with a string constant.
+     */
+    @Value
+    static class StringEquality {
+
+        Bool operand;
+
+        String constant;
+
+    }
+
+    private static class Group {
+
+        private final int index;
+
+        private final Bool operand;
+
+        private final Map<String, Predicate> predicateByConstant;
+
+        private final Map<String, Bitmask> falsifiedCandidatesByConstant = new HashMap<>();
+
+        private final Bitmask falsifiedCandidatesWithoutMatch = new Bitmask();
+
+        Group(int index, Bool operand, Map<String, Predicate> predicateByConstant) {
+            this.index               = index;
+            this.operand             = operand;
+            this.predicateByConstant = predicateByConstant;
+            for (var predicate : predicateByConstant.values())
+                falsifiedCandidatesWithoutMatch.or(predicate.getFalseForFalsePredicate());
+            for (var entry : predicateByConstant.entrySet()) {
+                var matched   = entry.getValue();
+                var falsified = new Bitmask(matched.getFalseForTruePredicate());
+                for (var predicate : predicateByConstant.values()) {
+                    if (predicate != matched)
+                        falsified.or(predicate.getFalseForFalsePredicate());
+                }
+                falsifiedCandidatesByConstant.put(entry.getKey(), falsified);
+            }
+        }
+
+        /*
+         * Same semantics as the == operator: only a text value equal to the constant is
+         * equal to a string constant.
+         */
+        Predicate predicateFor(Val operandValue) {
+            if (!operandValue.isTextual())
+                return null;
+            return predicateByConstant.get(operandValue.getText());
+        }
+
+        /*
+         * The conjunctions which cannot be satisfied anymore, if the shared expression
+         * evaluates to the given value.
+         */
+        Bitmask falsifiedCandidates(Val operandValue) {
+            if (!operandValue.isTextual())
+                return falsifiedCandidatesWithoutMatch;
+            return falsifiedCandidatesByConstant.getOrDefault(operandValue.getText(),
+                    falsifiedCandidatesWithoutMatch);
+        }
+
+    }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.prp.index.canonical;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Runs the parallel streams of the index construction. The streams are
+ * executed on a dedicated pool bounded by the number of available processors
+ * instead of the common pool, so that constructing a large index neither
+ * starves nor is starved by other users of the common pool.
+ */
+@UtilityClass
+class IndexConstructionPool {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+        var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("sapl-index-construction-" + thread.getPoolIndex());
+        return thread;
+    }, null, false);
+
+    /**
+     * @param task a task using parallel streams
+     * @param <T>  the type of the result
+     * @return the result of the task, computed in the index construction pool
+     */
+    static <T> T compute(Supplier<T> task) {
+        return POOL.invoke(ForkJoinTask.adapt(task::get));
+    }
+
+}
@@ -22,6 +22,7 @@
 import io.sapl.api.interpreter.Val;
 import lombok.Getter;
 import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
 
 @Getter
 public class Predicate {
@@ -42,4 +43,8 @@ public Mono<Val> evaluate() {
         return getBool().evaluateExpression();
     }
 
+    public Val evaluateSync(ContextView ctx) {
+        return getBool().evaluateExpressionSync(ctx);
+    }
+
 }
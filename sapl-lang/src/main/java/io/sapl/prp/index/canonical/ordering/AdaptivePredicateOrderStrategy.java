@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.prp.index.canonical.ordering;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.prp.index.canonical.Bool;
+import io.sapl.prp.index.canonical.CanonicalIndexDataContainer;
+import io.sapl.prp.index.canonical.Predicate;
+import io.sapl.prp.index.canonical.PredicateInfo;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Orders predicates by their observed runtime behavior. The strategy samples a
+ * fraction of all matching runs of the index and records evaluation time,
+ * results and the number of resolved candidates per predicate. Periodically,
+ * the predicates of the most recently created index are reordered in the
+ * background, so that predicates resolving the most candidates per unit of
+ * evaluation time for the actual traffic are evaluated first.
+ * <p>
+ * Predicates without sufficient samples keep their position relative to each
+ * other as determined by the {@link DefaultPredicateOrderStrategy}. Statistics
+ * are kept per {@link Bool} and therefore survive index updates.
+ */
+@Slf4j
+public class AdaptivePredicateOrderStrategy implements PredicateOrderStrategy, PredicateEvaluationObserver, Disposable {
+
+    public static final Duration DEFAULT_REORDER_INTERVAL = Duration.ofSeconds(30L);
+
+    public static final int DEFAULT_SAMPLING_INTERVAL = 16;
+
+    static final long MINIMUM_EVALUATIONS_FOR_SCORE = 10L;
+
+    static final double SMOOTHING = 0.5D;
+
+    private final PredicateOrderStrategy initialOrderStrategy = new DefaultPredicateOrderStrategy();
+
+    private final Map<Bool, PredicateStatistics> statistics = new ConcurrentHashMap<>();
+
+    private final int samplingInterval;
+
+    private final Disposable reordering;
+
+    private volatile WeakReference<CanonicalIndexDataContainer> adaptedIndex = new WeakReference<>(null);
+
+    public AdaptivePredicateOrderStrategy() {
+        this(DEFAULT_REORDER_INTERVAL, DEFAULT_SAMPLING_INTERVAL);
+    }
+
+    /**
+     * @param reorderInterval  time between two reorderings of the predicates
+     * @param samplingInterval on average, every samplingInterval-th matching run is
+     *                         measured
+     */
+    public AdaptivePredicateOrderStrategy(@NonNull Duration reorderInterval, int samplingInterval) {
+        if (reorderInterval.isNegative() || reorderInterval.isZero())
+            throw new IllegalArgumentException("The reorder interval must be positive.");
+        if (samplingInterval < 1)
+            throw new IllegalArgumentException("The sampling interval must be positive.");
+        this.samplingInterval = samplingInterval;
+        this.reordering       = Flux.interval(reorderInterval, reorderInterval).subscribe(tick -> reorderPredicates());
+    }
+
+    @Override
+    public List<Predicate> createPredicateOrder(Collection<PredicateInfo> data) {
+        updateScores();
+        return adaptiveOrder(initialOrderStrategy.createPredicateOrder(data));
+    }
+
+    /**
+     * Starts observing the given index and adapting its predicate order. Only the
+     * most recently created index is adapted.
+     *
+     * @param index a newly created index ordered by this strategy
+     */
+    public void adapt(@NonNull CanonicalIndexDataContainer index) {
+        index.observePredicateEvaluations(this);
+        adaptedIndex = new WeakReference<>(index);
+    }
+
+    @Override
+    public boolean sampleNextMatching() {
+        return samplingInterval == 1 || ThreadLocalRandom.current().nextInt(samplingInterval) == 0;
+    }
+
+    @Override
+    public void predicateEvaluated(Predicate predicate, long costInNanos, Val result, int eliminatedCandidates) {
+        statistics.computeIfAbsent(predicate.getBool(), bool -> new PredicateStatistics()).record(costInNanos, result,
+                eliminatedCandidates);
+    }
+
+    /**
+     * @return a read-only view of the statistics collected per predicate.
+     */
+    public Map<Bool, PredicateStatistics> getStatistics() {
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    /**
+     * Reorders the predicates of the most recently created index based on the
+     * statistics collected so far. Statistics of predicates which are no longer
+     * part of the index are dropped.
+     */
+    public synchronized void reorderPredicates() {
+        var index = adaptedIndex.get();
+        if (index == null)
+            return;
+
+        try {
+            var       currentOrder = index.getPredicateOrder();
+            Set<Bool> bools        = currentOrder.stream().map(Predicate::getBool).collect(Collectors.toSet());
+            statistics.keySet().retainAll(bools);
+            updateScores();
+            index.reorderPredicates(adaptiveOrder(currentOrder));
+        } catch (RuntimeException e) {
+            log.warn("Failed to reorder the predicates of the index: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void updateScores() {
+        statistics.values().forEach(
+                predicateStatistics -> predicateStatistics.updateScore(MINIMUM_EVALUATIONS_FOR_SCORE, SMOOTHING));
+    }
+
+    private List<Predicate> adaptiveOrder(List<Predicate> order) {
+        Map<Predicate, Double> scores = new IdentityHashMap<>();
+        for (Predicate predicate : order) {
+            var predicateStatistics = statistics.get(predicate.getBool());
+            if (predicateStatistics != null && !Double.isNaN(predicateStatistics.getScore()))
+                scores.put(predicate, predicateStatistics.getScore());
+        }
+        if (scores.isEmpty())
+            return order;
+
+        // predicates without score are placed among the scored ones with the median
+        // score. The sort is stable, so ties keep their previous relative order.
+        var sortedScores = scores.values().stream().sorted().toList();
+        var medianScore  = sortedScores.get(sortedScores.size() / 2);
+
+        List<Predicate> result = new ArrayList<>(order);
+        result.sort(Comparator.comparingDouble((Predicate predicate) -> scores.getOrDefault(predicate, medianScore))
+                .reversed());
+        return result;
+    }
+
+    @Override
+    public void dispose() {
+        reordering.dispose();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return reordering.isDisposed();
+    }
+
+}
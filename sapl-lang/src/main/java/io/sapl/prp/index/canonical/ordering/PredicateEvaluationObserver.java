@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.prp.index.canonical.ordering;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.prp.index.canonical.Predicate;
+
+/**
+ * Receives the runtime behavior of predicates during the matching of the
+ * canonical index.
+ */
+public interface PredicateEvaluationObserver {
+
+    /**
+     * Decides whether the predicate evaluations of the next matching run are
+     * measured. Measuring is not free, so observers should only sample a fraction
+     * of all runs.
+     *
+     * @return true, if the evaluations of the next run are to be reported.
+     */
+    boolean sampleNextMatching();
+
+    /**
+     * @param predicate            the evaluated predicate
+     * @param costInNanos          the time spent evaluating the predicate
+     * @param result               the result of the evaluation
+     * @param eliminatedCandidates the number of candidate conjunctions resolved by
+     *                             the result
+     */
+    void predicateEvaluated(Predicate predicate, long costInNanos, Val result, int eliminatedCandidates);
+
+}
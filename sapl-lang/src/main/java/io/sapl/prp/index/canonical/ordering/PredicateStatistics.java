@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.prp.index.canonical.ordering;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import io.sapl.api.interpreter.Val;
+import lombok.ToString;
+
+/**
+ * Runtime statistics of the sampled evaluations of a single predicate. All
+ * counters are cumulative and can be updated concurrently without locking.
+ */
+@ToString
+public class PredicateStatistics {
+
+    private final LongAdder evaluations = new LongAdder();
+
+    private final LongAdder costInNanos = new LongAdder();
+
+    private final LongAdder trueResults = new LongAdder();
+
+    private final LongAdder falseResults = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    private final LongAdder eliminatedCandidatesIfTrue = new LongAdder();
+
+    private final LongAdder eliminatedCandidatesIfFalse = new LongAdder();
+
+    /* smoothed score, only written by the thread calculating the order */
+    @ToString.Exclude
+    private volatile double score = Double.NaN;
+
+    @ToString.Exclude
+    private long evaluationsAtLastScore;
+
+    @ToString.Exclude
+    private long costAtLastScore;
+
+    @ToString.Exclude
+    private long eliminatedCandidatesAtLastScore;
+
+    /**
+     * Records a sampled evaluation.
+     *
+     * @param costInNanos          the time spent evaluating the predicate
+     * @param result               the result of the evaluation
+     * @param eliminatedCandidates the number of candidate conjunctions resolved by
+     *                             the result
+     */
+    public void record(long costInNanos, Val result, int eliminatedCandidates) {
+        evaluations.increment();
+        this.costInNanos.add(costInNanos);
+        if (result.isError()) {
+            errors.increment();
+        } else if (result.getBoolean()) {
+            trueResults.increment();
+            eliminatedCandidatesIfTrue.add(eliminatedCandidates);
+        } else {
+            falseResults.increment();
+            eliminatedCandidatesIfFalse.add(eliminatedCandidates);
+        }
+    }
+
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    public long getCostInNanos() {
+        return costInNanos.sum();
+    }
+
+    public long getTrueResults() {
+        return trueResults.sum();
+    }
+
+    public long getFalseResults() {
+        return falseResults.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getEliminatedCandidatesIfTrue() {
+        return eliminatedCandidatesIfTrue.sum();
+    }
+
+    public long getEliminatedCandidatesIfFalse() {
+        return eliminatedCandidatesIfFalse.sum();
+    }
+
+    /**
+     * @return the average evaluation time in nanoseconds, or 0 if the predicate has
+     *         not been sampled yet.
+     */
+    public double getAverageCostInNanos() {
+        var numberOfEvaluations = getEvaluations();
+        return numberOfEvaluations == 0 ? 0.0D : (double) getCostInNanos() / numberOfEvaluations;
+    }
+
+    /**
+     * @return the fraction of sampled evaluations returning true, or 0 if the
+     *         predicate has not been sampled yet.
+     */
+    public double getTrueRatio() {
+        var numberOfEvaluations = getEvaluations();
+        return numberOfEvaluations == 0 ? 0.0D : (double) getTrueResults() / numberOfEvaluations;
+    }
+
+    /**
+     * @return the smoothed number of eliminated candidates per nanosecond of
+     *         evaluation time, or NaN if no score has been calculated yet.
+     */
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * Blends the eliminated candidates per nanosecond of the evaluations sampled
+     * since the last update into the score. Must not be called concurrently.
+     *
+     * @param minimumEvaluations the minimum number of new evaluations required to
+     *                           update the score
+     * @param smoothing          weight of the new observations, between 0 and 1
+     */
+    void updateScore(long minimumEvaluations, double smoothing) {
+        var currentEvaluations          = getEvaluations();
+        var currentCost                 = getCostInNanos();
+        var currentEliminatedCandidates = getEliminatedCandidatesIfTrue() + getEliminatedCandidatesIfFalse();
+
+        if (currentEvaluations - evaluationsAtLastScore < minimumEvaluations)
+            return;
+
+        var windowScore = (double) (currentEliminatedCandidates - eliminatedCandidatesAtLastScore)
+                / Math.max(1L, currentCost - costAtLastScore);
+        score                           = Double.isNaN(score) ? windowScore
+                : smoothing * windowScore + (1.0D - smoothing) * score;
+        evaluationsAtLastScore          = currentEvaluations;
+        costAtLastScore                 = currentCost;
+        eliminatedCandidatesAtLastScore = currentEliminatedCandidates;
+    }
+
+}
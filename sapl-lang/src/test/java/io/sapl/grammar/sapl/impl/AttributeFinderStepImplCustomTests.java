@@ -103,6 +103,8 @@ void applyWithSomeStreamData() {
     private static AttributeContext mockAttributeContext(Flux<Val> stream) {
         var attributeCtx = mock(AttributeContext.class);
         when(attributeCtx.evaluateAttribute(eq(FULLY_QUALIFIED_ATTRIBUTE), any(), any(), any())).thenReturn(stream);
+        when(attributeCtx.bindAttribute(any(), any())).thenCallRealMethod();
+        when(attributeCtx.bindEnvironmentAttribute(any(), any())).thenCallRealMethod();
         return attributeCtx;
     }
 
@@ -87,6 +87,8 @@ void applyWithSomeStreamData() {
     private static AttributeContext mockAttributeContextWithStream(Flux<Val> stream) {
         var attributeCtx = mock(AttributeContext.class);
         when(attributeCtx.evaluateAttribute(eq(FULLY_QUALIFIED_ATTRIBUTE), any(), any(), any())).thenReturn(stream);
+        when(attributeCtx.bindAttribute(any(), any())).thenCallRealMethod();
+        when(attributeCtx.bindEnvironmentAttribute(any(), any())).thenCallRealMethod();
         when(attributeCtx.evaluateEnvironmentAttribute(eq(FULLY_QUALIFIED_ATTRIBUTE), any(), any())).thenReturn(stream);
         return attributeCtx;
     }
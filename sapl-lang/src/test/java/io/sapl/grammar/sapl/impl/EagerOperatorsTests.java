@@ -19,9 +19,30 @@
 
 import static io.sapl.testutil.TestUtil.assertExpressionEvaluatesTo;
 import static io.sapl.testutil.TestUtil.assertExpressionReturnsErrors;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 
+import io.sapl.api.interpreter.Val;
+import io.sapl.api.pip.EnvironmentAttribute;
+import io.sapl.api.pip.PolicyInformationPoint;
+import io.sapl.grammar.sapl.impl.util.ExpressionCompiler;
+import io.sapl.grammar.sapl.impl.util.RegexUtil.MatchLimits;
+import io.sapl.interpreter.InitializationException;
+import io.sapl.interpreter.context.AuthorizationContext;
+import io.sapl.interpreter.pip.AnnotationAttributeContext;
+import io.sapl.testutil.MockUtil;
+import io.sapl.testutil.ParserUtil;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
 class EagerOperatorsTests {
 
     @Test
@@ -76,7 +97,7 @@ void evaluateEagerAndLeftTrueWrongDatatypeRight() {
 
     @Test
     void evaluateEagerAndLeftFalseWrongDatatypeRight() {
-        assertExpressionReturnsErrors("false & 5");
+        assertExpressionEvaluatesTo("false & 5", "false");
     }
 
     @Test
@@ -116,7 +137,7 @@ void evaluateEagerOrWrongDatatypeRightLeftFalse() {
 
     @Test
     void evaluateEagerOrWrongDatatypeRightLeftTrue() {
-        assertExpressionReturnsErrors("true | 7");
+        assertExpressionEvaluatesTo("true | 7", "true");
     }
 
     @Test
@@ -694,4 +715,118 @@ void evaluateRegExRightError() {
         assertExpressionReturnsErrors("\"aaa\" =~ (10/0)");
     }
 
+    @Test
+    void evaluateRegExAppliesMatchLimitsOfContext() throws IOException {
+        var limits = new MatchLimits(Duration.ZERO, 3);
+        for (var sapl : new String[] { "\"aaaa\" =~ \"a*\"", "\"aaaa\" =~ (\"a\" + \"*\")" }) {
+            var interpreted = ParserUtil.expression(sapl);
+            var compiled    = ParserUtil.expression(sapl);
+            ExpressionCompiler.compile(compiled);
+            for (var expression : List.of(interpreted, compiled)) {
+                StepVerifier
+                        .create(expression.evaluate()
+                                .contextWrite(ctx -> AuthorizationContext
+                                        .setRegexMatchLimits(MockUtil.setUpAuthorizationContext(ctx), limits)))
+                        .expectNextMatches(Val::isError).verifyComplete();
+                StepVerifier.create(expression.evaluate().contextWrite(MockUtil::setUpAuthorizationContext))
+                        .expectNext(Val.TRUE).verifyComplete();
+            }
+        }
+    }
+
+    @Test
+    void evaluateRegExInvalidConstantPatternInCompiledExpression() throws IOException {
+        var textual    = ParserUtil.expression("\"test\" =~ \"***\"");
+        var notTextual = ParserUtil.expression("666 =~ \"***\"");
+        ExpressionCompiler.compile(textual);
+        ExpressionCompiler.compile(notTextual);
+        for (var i = 0; i < 2; i++) {
+            StepVerifier.create(textual.evaluate().contextWrite(MockUtil::setUpAuthorizationContext))
+                    .expectNextMatches(Val::isError).verifyComplete();
+            StepVerifier.create(notTextual.evaluate().contextWrite(MockUtil::setUpAuthorizationContext))
+                    .expectNext(Val.FALSE).verifyComplete();
+        }
+    }
+
+    @Test
+    void evaluateEagerAndLeftFalseDoesNotSubscribeRightAttribute() {
+        assertExpressionEvaluatesTo("false & (1 == <test.numbersWithError>)", "false");
+    }
+
+    @Test
+    void evaluateEagerOrLeftTrueDoesNotSubscribeRightAttribute() {
+        assertExpressionEvaluatesTo("true | (1 == <test.numbersWithError>)", "true");
+    }
+
+    @Test
+    void evaluateEagerAndLeftTrueEvaluatesRightAttribute() {
+        assertExpressionEvaluatesTo("true & (1 == <test.numbers>)", "false", "true", "false", "false", "false",
+                "false");
+    }
+
+    @Test
+    void evaluateEagerOperatorsShortCircuitInCompiledExpressions() throws IOException {
+        for (var sapl : new String[] { "false & 5", "false & (10/0)", "true | 7", "true | (10/0)" }) {
+            var expression = ParserUtil.expression(sapl);
+            ExpressionCompiler.compile(expression);
+            StepVerifier.create(expression.evaluate().contextWrite(MockUtil::setUpAuthorizationContext))
+                    .expectNext(Val.of(sapl.startsWith("true"))).verifyComplete();
+        }
+    }
+
+    @Test
+    void evaluateEagerAndDecidedBySecretLeftOperandIsSecret() throws Exception {
+        var pip              = new GatePolicyInformationPoint();
+        var attributeContext = new AnnotationAttributeContext();
+        attributeContext.loadPolicyInformationPoint(pip);
+        var expression = ParserUtil.expression("<gate.left> & <gate.right>");
+
+        StepVerifier
+                .create(expression.evaluate()
+                        .contextWrite(ctx -> AuthorizationContext
+                                .setAttributeContext(MockUtil.setUpAuthorizationContext(ctx), attributeContext)))
+                .then(() -> pip.left.tryEmitNext(Val.FALSE.asSecret()))
+                .expectNextMatches(result -> Val.FALSE.equals(result) && result.isSecret()).thenCancel().verify();
+    }
+
+    @Test
+    void evaluateEagerAndSubscribesRightOperandOnlyWhileLeftIsTrue() throws Exception {
+        var pip              = new GatePolicyInformationPoint();
+        var attributeContext = new AnnotationAttributeContext();
+        attributeContext.loadPolicyInformationPoint(pip);
+        var expression = ParserUtil.expression("<gate.left> & <gate.right>");
+
+        StepVerifier
+                .create(expression.evaluate()
+                        .contextWrite(ctx -> AuthorizationContext
+                                .setAttributeContext(MockUtil.setUpAuthorizationContext(ctx), attributeContext)))
+                .then(() -> pip.left.tryEmitNext(Val.FALSE)).expectNext(Val.FALSE)
+                .then(() -> assertThat(pip.rightSubscriptions).hasValue(0)).then(() -> pip.right.tryEmitNext(Val.TRUE))
+                .then(() -> pip.left.tryEmitNext(Val.TRUE)).expectNext(Val.TRUE)
+                .then(() -> assertThat(pip.rightSubscriptions).hasValue(1)).then(() -> pip.left.tryEmitNext(Val.FALSE))
+                .expectNext(Val.FALSE).then(() -> assertThat(pip.rightCancellations).hasValue(1)).thenCancel().verify();
+    }
+
+    @PolicyInformationPoint(name = "gate")
+    public static class GatePolicyInformationPoint {
+
+        final Sinks.Many<Val> left  = Sinks.many().replay().latest();
+        final Sinks.Many<Val> right = Sinks.many().replay().latest();
+
+        final AtomicInteger rightSubscriptions = new AtomicInteger();
+        final AtomicInteger rightCancellations = new AtomicInteger();
+
+        @EnvironmentAttribute
+        public Flux<Val> left(Map<String, Val> variables) {
+            return left.asFlux();
+        }
+
+        @EnvironmentAttribute
+        public Flux<Val> right(Map<String, Val> variables) {
+            return right.asFlux().doOnSubscribe(subscription -> rightSubscriptions.incrementAndGet())
+                    .doOnCancel(rightCancellations::incrementAndGet);
+        }
+
+    }
+
 }
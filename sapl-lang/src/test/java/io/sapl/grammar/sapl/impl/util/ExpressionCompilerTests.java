@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.grammar.sapl.Equals;
+import io.sapl.grammar.sapl.Expression;
+import io.sapl.interpreter.DefaultSAPLInterpreter;
+import io.sapl.testutil.MockUtil;
+import io.sapl.testutil.ParserUtil;
+import reactor.core.publisher.Flux;
+
+class ExpressionCompilerTests {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String SUBSCRIPTION = """
+            {
+                "subject"  : { "name" : "alice", "age" : 42, "roles" : [ "admin", "user" ] },
+                "action"   : "read",
+                "resource" : { "type" : "order", "items" : [ { "price" : 10 }, { "price" : 20 } ] }
+            }
+            """;
+
+    @ParameterizedTest
+    @ValueSource(strings = { "1 + 2 * 3", "[1, 2, 3]", "{ \"a\" : [ 1, { \"b\" : true } ] }.a", "!(1 > 2)",
+            "(\"a\" == \"a\") && true", "\"a\" in [ \"b\", \"a\" ]", "1 / 0", "-(3 % 2)", "undefined == undefined" })
+    void constantExpressionsAreFolded(String expression) throws IOException {
+        var compiled = compiledExpression(expression);
+
+        assertThat(ExpressionCompiler.isConstant(compiled)).isTrue();
+        assertEvaluatesLikeInterpretedExpression(compiled, expression);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "subject.name == \"alice\"", "subject.age >= 18 & action != \"write\"",
+            "(subject.age + 1) * 2", "resource.items.price", "subject.\"name\"", "\"admin\" in subject.roles",
+            "resource.type == \"order\" | resource.type == \"invoice\"", "!(subject.age < 18)", "-subject.age",
+            "subject.missing.field == undefined", "subject.name > 1", "action", "subject.name =~ \"al.*\"",
+            "action =~ subject.name", "subject.age =~ \"4.\"", "subject.name =~ \"***\"" })
+    void pureExpressionsAreCompiledIntoClosures(String expression) throws IOException {
+        var compiled = compiledExpression(expression);
+
+        assertThat(ExpressionCompiler.compiledFormOf(compiled)).isNotNull();
+        assertThat(ExpressionCompiler.isConstant(compiled)).isFalse();
+        assertEvaluatesLikeInterpretedExpression(compiled, expression);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "subject.<test.numbers>", "|<test.numbers> == 1", "mock.parameters(subject)",
+            "subject.roles[0]", "subject |- { @.name : filter.remove }", "subject.roles[?(@ == \"admin\")]",
+            "subject.age > 1 && subject.age < 100" })
+    void expressionsWithStreamsFunctionsOrOtherStepsAreNotCompiled(String expression) throws IOException {
+        var compiled = compiledExpression(expression);
+
+        assertThat(ExpressionCompiler.compiledFormOf(compiled)).isNull();
+    }
+
+    @Test
+    void operandsAreCompiledIndependentlyOfTheirParent() throws IOException {
+        var compiled = compiledExpression("subject.<test.numbers> == (subject.age + 1)");
+        var operator = (Equals) compiled;
+
+        assertThat(ExpressionCompiler.compiledFormOf(operator)).isNull();
+        assertThat(ExpressionCompiler.compiledFormOf(operator.getRight())).isNotNull();
+    }
+
+    @Test
+    void parsedDocumentsAreCompiled() {
+        var document = new DefaultSAPLInterpreter().parse("policy \"p\" permit subject.age > 1 + 2");
+        var target   = document.getPolicyElement().getTargetExpression();
+
+        assertThat(ExpressionCompiler.compiledFormOf(target)).isNotNull();
+    }
+
+    @Test
+    void foldedObjectsAreNotSharedBetweenEvaluations() throws IOException {
+        var compiled = compiledExpression("{ \"a\" : [ 1, 2 ] }");
+
+        var first = evaluate(compiled.evaluate()).get(0);
+        ((ArrayNode) first.get().get("a")).add(3);
+        var second = evaluate(compiled.evaluate()).get(0);
+
+        assertThat(second.get().get("a")).hasSize(2);
+    }
+
+    @Test
+    void compilingTwiceKeepsTheCompiledForm() throws IOException {
+        var compiled         = compiledExpression("subject.name == \"alice\"");
+        var compiledForm     = ExpressionCompiler.compiledFormOf(compiled);
+        var numberOfAdapters = compiled.eAdapters().size();
+
+        ExpressionCompiler.compile(compiled);
+
+        assertThat(ExpressionCompiler.compiledFormOf(compiled)).isSameAs(compiledForm);
+        assertThat(compiled.eAdapters()).hasSize(numberOfAdapters);
+    }
+
+    private static Expression compiledExpression(String expression) throws IOException {
+        var parsed = ParserUtil.expression(expression);
+        ExpressionCompiler.compile(parsed);
+        return parsed;
+    }
+
+    private static void assertEvaluatesLikeInterpretedExpression(Expression compiled, String expression)
+            throws IOException {
+        var expected = evaluate(ParserUtil.expression(expression).evaluate());
+        var actual   = evaluate(compiled.evaluate());
+
+        assertThat(actual).hasSameSizeAs(expected);
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(actual.get(i)).isEqualTo(expected.get(i));
+            assertThat(actual.get(i).getTrace()).isEqualTo(expected.get(i).getTrace());
+        }
+    }
+
+    private static List<Val> evaluate(Flux<Val> values) throws IOException {
+        var subscription = MAPPER.readValue(SUBSCRIPTION, AuthorizationSubscription.class);
+        return values.contextWrite(ctx -> MockUtil.setUpAuthorizationContext(ctx, subscription)).collectList().block();
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.sapl.interpreter.context.AuthorizationContext;
+import reactor.util.context.Context;
+
+class HandleBindingTests {
+
+    private static final List<String> STEPS = List.of("lib", "fun");
+
+    @Test
+    void bindingIsReusedForTheSameContext() {
+        var lookups = new AtomicInteger();
+        var sut     = new HandleBinding<Object, String>((context, name) -> name + lookups.incrementAndGet());
+        var context = new Object();
+        var ctx     = Context.empty();
+
+        var first  = sut.bind(context, STEPS, ctx);
+        var second = sut.bind(context, STEPS, ctx);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getName()).isEqualTo("lib.fun");
+        assertThat(first.getHandle()).isEqualTo("lib.fun1");
+        assertThat(lookups).hasValue(1);
+    }
+
+    @Test
+    void bindingIsRenewedWhenTheContextChanges() {
+        var lookups = new AtomicInteger();
+        var sut     = new HandleBinding<Object, String>((context, name) -> name + lookups.incrementAndGet());
+        var ctx     = Context.empty();
+
+        sut.bind(new Object(), STEPS, ctx);
+        var rebound = sut.bind(new Object(), STEPS, ctx);
+
+        assertThat(rebound.getHandle()).isEqualTo("lib.fun2");
+        assertThat(lookups).hasValue(2);
+    }
+
+    @Test
+    void namesAreResolvedAgainstImports() {
+        var sut = new HandleBinding<Object, String>((context, name) -> name);
+        var ctx = AuthorizationContext.setImports(Context.empty(), Map.of("fun", "some.library.fun"));
+
+        var binding = sut.bind(new Object(), List.of("fun"), ctx);
+
+        assertThat(binding.getName()).isEqualTo("some.library.fun");
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.grammar.sapl.impl.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.jupiter.api.Test;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.impl.util.RegexUtil.MatchLimits;
+
+class RegexUtilTests {
+
+    @Test
+    void compiledPatternsAreCached() {
+        RegexUtil.clearCache();
+
+        var first  = RegexUtil.compile("a+b");
+        var second = RegexUtil.compile("a+b");
+
+        assertThat(second).isSameAs(first);
+        assertThat(RegexUtil.cacheSize()).isEqualTo(1L);
+    }
+
+    @Test
+    void cacheIsBounded() {
+        RegexUtil.clearCache();
+
+        for (var i = 0; i < RegexUtil.PATTERN_CACHE_MAXIMUM_SIZE + 100; i++)
+            RegexUtil.compile("a{" + i + "}");
+
+        assertThat(RegexUtil.cacheSize()).isLessThanOrEqualTo(RegexUtil.PATTERN_CACHE_MAXIMUM_SIZE);
+    }
+
+    @Test
+    void invalidPatternsThrow() {
+        assertThatThrownBy(() -> RegexUtil.compile("***")).isInstanceOf(PatternSyntaxException.class);
+    }
+
+    @Test
+    void matchesEntireInput() {
+        var pattern = RegexUtil.compile("a+b");
+
+        assertThat(RegexUtil.matches(pattern, "aab", MatchLimits.DEFAULT)).isEqualTo(Val.TRUE);
+        assertThat(RegexUtil.matches(pattern, "aabc", MatchLimits.DEFAULT)).isEqualTo(Val.FALSE);
+    }
+
+    @Test
+    void matchesWithoutTimeout() {
+        var limits = new MatchLimits(Duration.ZERO, Integer.MAX_VALUE);
+
+        assertThat(RegexUtil.matches(RegexUtil.compile("a+b"), "aab", limits)).isEqualTo(Val.TRUE);
+    }
+
+    @Test
+    void tooLongInputIsAnError() {
+        var limits = new MatchLimits(Duration.ZERO, 3);
+
+        assertThat(RegexUtil.matches(RegexUtil.compile("a*"), "aaa", limits)).isEqualTo(Val.TRUE);
+        assertThat(RegexUtil.matches(RegexUtil.compile("a*"), "aaaa", limits).isError()).isTrue();
+    }
+
+    @Test
+    void catastrophicBacktrackingTimesOut() {
+        var limits = new MatchLimits(Duration.ofMillis(50L), Integer.MAX_VALUE);
+
+        var result = RegexUtil.matches(RegexUtil.compile("(a*)*\\1b"), "a".repeat(30), limits);
+
+        assertThat(result.isError()).isTrue();
+        assertThat(result.getMessage()).contains("timed out");
+    }
+
+    @Test
+    void negativeLimitsAreRejected() {
+        var negativeTimeout = Duration.ofMillis(-1L);
+        var timeout         = Duration.ZERO;
+        assertThatThrownBy(() -> new MatchLimits(timeout, -1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new MatchLimits(negativeTimeout, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.functions.FilterFunctionLibrary;
+import io.sapl.grammar.sapl.SAPL;
+import io.sapl.interpreter.context.AuthorizationContext;
+import io.sapl.interpreter.functions.AnnotationFunctionContext;
+import io.sapl.interpreter.pip.AnnotationAttributeContext;
+
+class SnapshotSAPLInterpreterTests {
+
+    private static final DefaultSAPLInterpreter INTERPRETER = new DefaultSAPLInterpreter();
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final List<String> DOCUMENTS = List.of(
+            "policy \"read\" permit action == \"read\" where resource.owner == subject; "
+                    + "obligation { \"type\" : \"log\" } transform resource |- { @.secret : filter.blacken }",
+            "set \"set\" deny-overrides for resource.type =~ \"^ord.*\" var limit = 10; "
+                    + "policy \"p1\" deny where resource.amount > limit; policy \"p2\" permit",
+            "policy \"never\" deny subject == \"nobody\"");
+
+    @Test
+    void documentsFromSnapshotAreNotParsedAgainAndEvaluateLikeParsedDocuments(@TempDir Path directory)
+            throws IOException, InitializationException {
+        var snapshotFile = directory.resolve("documents.snapshot");
+        var parsed       = parseAll(DOCUMENTS);
+        SnapshotSAPLInterpreter.writeSnapshot(snapshotFile, parsed);
+
+        var delegate    = mock(SAPLInterpreter.class);
+        var interpreter = new SnapshotSAPLInterpreter(delegate, snapshotFile);
+        assertThat(interpreter.getNumberOfSnapshotDocuments()).isEqualTo(DOCUMENTS.size());
+
+        var subscriptions = List.of(subscription(
+                "{\"subject\":\"alice\",\"action\":\"read\",\"resource\":{\"owner\":\"alice\",\"secret\":\"x\"}}"),
+                subscription("{\"subject\":\"bob\",\"action\":\"read\",\"resource\":{\"owner\":\"alice\"}}"),
+                subscription(
+                        "{\"subject\":\"bob\",\"action\":\"write\",\"resource\":{\"type\":\"order\",\"amount\":20}}"),
+                subscription(
+                        "{\"subject\":\"bob\",\"action\":\"write\",\"resource\":{\"type\":\"order\",\"amount\":5}}"),
+                subscription("{\"subject\":\"nobody\",\"action\":\"write\",\"resource\":{}}"));
+        var decisions     = new HashSet<AuthorizationDecision>();
+        for (var source : DOCUMENTS) {
+            var fromSnapshot = interpreter.parse(source);
+            assertThat(fromSnapshot).isNotSameAs(parsed.get(source));
+            assertThat(fromSnapshot.getPolicyElement().getSaplName())
+                    .isEqualTo(parsed.get(source).getPolicyElement().getSaplName());
+            for (var subscription : subscriptions) {
+                var expected = decision(parsed.get(source), subscription);
+                assertThat(decision(fromSnapshot, subscription)).isEqualTo(expected);
+                decisions.add(expected);
+            }
+        }
+        assertThat(decisions).hasSizeGreaterThan(2);
+        verify(delegate, never()).parse(anyString());
+    }
+
+    @Test
+    void eachParseOfASnapshotDocumentReturnsANewCopy(@TempDir Path directory) {
+        var snapshotFile = directory.resolve("documents.snapshot");
+        SnapshotSAPLInterpreter.writeSnapshot(snapshotFile, parseAll(DOCUMENTS));
+        var interpreter = new SnapshotSAPLInterpreter(INTERPRETER, snapshotFile);
+
+        var first  = interpreter.parse(DOCUMENTS.get(1));
+        var second = interpreter.parse(DOCUMENTS.get(1));
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPolicyElement()).isNotSameAs(first.getPolicyElement());
+    }
+
+    @Test
+    void documentsNotInSnapshotAreParsedByDelegate(@TempDir Path directory) {
+        var snapshotFile = directory.resolve("documents.snapshot");
+        SnapshotSAPLInterpreter.writeSnapshot(snapshotFile, parseAll(DOCUMENTS.subList(0, 1)));
+
+        var delegate    = mock(SAPLInterpreter.class);
+        var changed     = DOCUMENTS.get(0) + " ";
+        var parsed      = INTERPRETER.parse(changed);
+        var interpreter = new SnapshotSAPLInterpreter(delegate, snapshotFile);
+        when(delegate.parse(changed)).thenReturn(parsed);
+
+        assertThat(interpreter.parse(changed)).isSameAs(parsed);
+    }
+
+    @Test
+    void missingSnapshotIsEmpty(@TempDir Path directory) {
+        var interpreter = new SnapshotSAPLInterpreter(INTERPRETER, directory.resolve("missing.snapshot"));
+
+        assertThat(interpreter.getNumberOfSnapshotDocuments()).isZero();
+        assertThat(interpreter.parse(DOCUMENTS.get(2)).getPolicyElement().getSaplName()).isEqualTo("never");
+    }
+
+    @Test
+    void corruptedSnapshotIsIgnored(@TempDir Path directory) throws IOException {
+        var snapshotFile = directory.resolve("documents.snapshot");
+        SnapshotSAPLInterpreter.writeSnapshot(snapshotFile, parseAll(DOCUMENTS));
+        var content = Files.readAllBytes(snapshotFile);
+        Files.write(snapshotFile, Arrays.copyOf(content, content.length / 2));
+
+        var interpreter = new SnapshotSAPLInterpreter(INTERPRETER, snapshotFile);
+
+        assertThat(interpreter.getNumberOfSnapshotDocuments()).isZero();
+    }
+
+    @Test
+    void writingSnapshotDoesNotModifyDocuments(@TempDir Path directory) {
+        var parsed = parseAll(DOCUMENTS);
+        SnapshotSAPLInterpreter.writeSnapshot(directory.resolve("documents.snapshot"), parsed);
+
+        parsed.values().forEach(document -> assertThat(document.eResource()).isNotNull());
+        assertThat(parsed.values()).allSatisfy(
+                document -> assertThat(document.eResource().getURI().toString()).doesNotStartWith("snapshot:"));
+    }
+
+    @Test
+    void snapshotInUnwritableLocationThrows(@TempDir Path directory) throws IOException {
+        var file = directory.resolve("file");
+        Files.writeString(file, "");
+        var documents = parseAll(DOCUMENTS);
+
+        assertThatThrownBy(() -> SnapshotSAPLInterpreter.writeSnapshot(file.resolve("documents.snapshot"), documents))
+                .isInstanceOf(UncheckedIOException.class);
+    }
+
+    private static Map<String, SAPL> parseAll(List<String> sources) {
+        var documents = new LinkedHashMap<String, SAPL>();
+        for (var source : sources)
+            documents.put(source, INTERPRETER.parse(source));
+        return documents;
+    }
+
+    private static AuthorizationSubscription subscription(String json) throws IOException {
+        return MAPPER.readValue(json, AuthorizationSubscription.class);
+    }
+
+    private static AuthorizationDecision decision(SAPL document, AuthorizationSubscription subscription)
+            throws InitializationException {
+        var functionCtx = new AnnotationFunctionContext();
+        functionCtx.loadLibrary(FilterFunctionLibrary.class);
+        return document.matches().filter(match -> match.isBoolean() && match.getBoolean())
+                .flatMap(match -> document.evaluate().next().map(DocumentEvaluationResult::getAuthorizationDecision))
+                .defaultIfEmpty(AuthorizationDecision.NOT_APPLICABLE)
+                .contextWrite(ctx -> AuthorizationContext.setVariables(ctx, Map.of()))
+                .contextWrite(ctx -> AuthorizationContext.setSubscriptionVariables(ctx, subscription))
+                .contextWrite(ctx -> AuthorizationContext.setAttributeContext(ctx, new AnnotationAttributeContext()))
+                .contextWrite(ctx -> AuthorizationContext.setFunctionContext(ctx, functionCtx)).block();
+    }
+
+}
@@ -17,15 +17,22 @@
  */
 package io.sapl.interpreter.context;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.Map;
+
 import org.junit.jupiter.api.Test;
 
+import io.sapl.api.interpreter.PolicyEvaluationException;
 import io.sapl.api.interpreter.Val;
+import io.sapl.api.pdp.AuthorizationSubscription;
 import reactor.util.context.Context;
 
 class AuthorizationContextTests {
 
+    private static final int SLOT = VariableSlots.ENVIRONMENT + 1;
+
     @Test
     void when_setReservedVariableName_then_throw() {
         var ctx = Context.empty();
@@ -38,4 +45,104 @@ void when_setReservedVariableName_then_throw() {
         assertThatThrownBy(() -> AuthorizationContext.setVariable(ctx, "environment", Val.NULL)).hasMessage(
                 String.format(AuthorizationContext.CANNOT_OVERWRITE_REQUEST_VARIABLE_S_ERROR, "environment"));
     }
+
+    @Test
+    void when_setVariable_then_enclosingContextIsUnchanged() {
+        var outer = AuthorizationContext.setVariables(Context.empty(), Map.of("a", Val.of(1), "b", Val.of(2)));
+        var inner = AuthorizationContext.setVariable(outer, "a", Val.of(3));
+
+        assertThat(AuthorizationContext.getVariable(outer, "a")).isEqualTo(Val.of(1));
+        assertThat(AuthorizationContext.getVariable(inner, "a")).isEqualTo(Val.of(3));
+        assertThat(AuthorizationContext.getVariable(inner, SLOT, "b")).isEqualTo(Val.of(2));
+        assertThat(AuthorizationContext.getVariables(inner)).containsOnlyKeys("a", "b");
+    }
+
+    @Test
+    void when_setUndefinedVariable_then_variableIsRemoved() {
+        var ctx = AuthorizationContext.setVariable(Context.empty(), "a", Val.of(1));
+        ctx = AuthorizationContext.setVariable(ctx, "a", Val.UNDEFINED);
+
+        assertThat(AuthorizationContext.getVariable(ctx, "a")).isEqualTo(Val.UNDEFINED);
+        assertThat(AuthorizationContext.getVariables(ctx)).isEmpty();
+    }
+
+    @Test
+    void when_setErrorVariable_then_throw() {
+        var ctx   = Context.empty();
+        var error = Val.error("error");
+        assertThatThrownBy(() -> AuthorizationContext.setVariable(ctx, "a", error))
+                .isInstanceOf(PolicyEvaluationException.class);
+    }
+
+    @Test
+    void when_setSubscriptionVariables_then_variablesAreInReservedSlots() {
+        var subscription = AuthorizationSubscription.of("willi", "read", "something");
+        var ctx          = AuthorizationContext.setSubscriptionVariables(Context.empty(), subscription);
+
+        assertThat(AuthorizationContext.getVariable(ctx, VariableSlots.SUBJECT, "subject")).isEqualTo(Val.of("willi"));
+        assertThat(AuthorizationContext.getVariable(ctx, "action")).isEqualTo(Val.of("read"));
+        assertThat(AuthorizationContext.getVariable(ctx, VariableSlots.RESOURCE, "resource"))
+                .isEqualTo(Val.of("something"));
+    }
+
+    @Test
+    void when_tracingDisabled_then_variablesAreUntraced() {
+        var subscription = AuthorizationSubscription.of("willi", "read", "something");
+        var ctx          = AuthorizationContext.setTracingEnabled(Context.empty(), false);
+        ctx = AuthorizationContext.setVariables(ctx, Map.of("a", Val.of(1)));
+        ctx = AuthorizationContext.setSubscriptionVariables(ctx, subscription);
+
+        assertThat(AuthorizationContext.isTracingConfigured(ctx)).isTrue();
+        assertThat(AuthorizationContext.isTracingEnabled(ctx)).isFalse();
+        assertThat(AuthorizationContext.getVariable(ctx, "a").isTraced()).isFalse();
+        assertThat(AuthorizationContext.getVariable(ctx, "subject").isTraced()).isFalse();
+    }
+
+    @Test
+    void when_tracingNotConfigured_then_variablesAreTraced() {
+        var ctx = AuthorizationContext.setSubscriptionVariables(Context.empty(),
+                AuthorizationSubscription.of("willi", "read", "something"));
+
+        assertThat(AuthorizationContext.isTracingConfigured(ctx)).isFalse();
+        assertThat(AuthorizationContext.isTracingEnabled(ctx)).isTrue();
+        assertThat(AuthorizationContext.getVariable(ctx, "subject").isTraced()).isTrue();
+    }
+
+    @Test
+    void when_environmentVariableIsSet_then_slotOfSameNameResolvesIt() {
+        var ctx = AuthorizationContext.setVariables(Context.empty(), Map.of("configuredVariable", Val.of(1)));
+
+        assertThat(AuthorizationContext.getVariable(ctx, "configuredVariable")).isEqualTo(Val.of(1));
+        assertThat(AuthorizationContext.getVariable(ctx, SLOT, "configuredVariable")).isEqualTo(Val.of(1));
+        assertThat(AuthorizationContext.getVariables(ctx)).containsEntry("configuredVariable", Val.of(1));
+    }
+
+    @Test
+    void when_slotHoldsOtherVariable_then_itIsNotFound() {
+        var ctx = AuthorizationContext.setVariable(Context.empty(), SLOT, "a", Val.of(1));
+
+        assertThat(AuthorizationContext.getVariable(ctx, SLOT, "a")).isEqualTo(Val.of(1));
+        assertThat(AuthorizationContext.getVariable(ctx, SLOT, "b")).isEqualTo(Val.UNDEFINED);
+    }
+
+    @Test
+    void when_environmentVariableIsShadowedAndRemoved_then_itIsUndefined() {
+        var ctx = AuthorizationContext.setVariables(Context.empty(), Map.of("shadowedVariable", Val.of(1)));
+
+        var shadowed = AuthorizationContext.setVariable(ctx, SLOT, "shadowedVariable", Val.of(2));
+        var removed  = AuthorizationContext.setVariable(shadowed, SLOT, "shadowedVariable", Val.UNDEFINED);
+
+        assertThat(AuthorizationContext.getVariable(shadowed, SLOT, "shadowedVariable")).isEqualTo(Val.of(2));
+        assertThat(AuthorizationContext.getVariable(removed, SLOT, "shadowedVariable")).isEqualTo(Val.UNDEFINED);
+        assertThat(AuthorizationContext.getVariables(removed)).doesNotContainKey("shadowedVariable");
+        assertThat(AuthorizationContext.getVariable(ctx, "shadowedVariable")).isEqualTo(Val.of(1));
+    }
+
+    @Test
+    void when_setReservedSlot_then_throw() {
+        var ctx = Context.empty();
+        assertThatThrownBy(() -> AuthorizationContext.setVariable(ctx, VariableSlots.SUBJECT, "subject", Val.NULL))
+                .hasMessage(String.format(AuthorizationContext.CANNOT_OVERWRITE_REQUEST_VARIABLE_S_ERROR, "subject"));
+    }
+
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.sapl.api.interpreter.Val;
+
+class VariableFrameTests {
+
+    private static final int    SLOT = VariableSlots.ENVIRONMENT + 1;
+    private static final String NAME = "frameTestVariable";
+
+    @Test
+    void emptyFrameHasNoVariables() {
+        assertThat(VariableFrame.EMPTY.get(VariableSlots.SUBJECT, "subject")).isNull();
+        assertThat(VariableFrame.EMPTY.get(100_000, NAME)).isNull();
+        assertThat(VariableFrame.EMPTY.size()).isZero();
+        assertThat(VariableFrame.EMPTY.asMap()).isEmpty();
+    }
+
+    @Test
+    void settingVariableLeavesPreviousFrameUnchanged() {
+        var first  = VariableFrame.EMPTY.with(SLOT, NAME, Val.of(1));
+        var second = first.with(SLOT, NAME, Val.of(2));
+
+        assertThat(first.get(SLOT, NAME)).isEqualTo(Val.of(1));
+        assertThat(second.get(SLOT, NAME)).isEqualTo(Val.of(2));
+        assertThat(second.size()).isEqualTo(1);
+    }
+
+    @Test
+    void framesGrowBeyondTheFirstNode() {
+        var frame = VariableFrame.EMPTY;
+        for (var slot = 0; slot < 2_000; slot += 7)
+            frame = frame.with(slot, "v" + slot, Val.of(slot));
+
+        for (var slot = 0; slot < 2_000; slot++) {
+            if (slot % 7 == 0)
+                assertThat(frame.get(slot, "v" + slot)).isEqualTo(Val.of(slot));
+            else
+                assertThat(frame.get(slot, "v" + slot)).isNull();
+        }
+        assertThat(frame.size()).isEqualTo(286);
+    }
+
+    @Test
+    void removingVariablesUpdatesSize() {
+        var frame = VariableFrame.EMPTY.with(VariableSlots.SUBJECT, "subject", Val.TRUE).with(SLOT, NAME, Val.TRUE);
+
+        var removed = frame.without(SLOT, NAME);
+
+        assertThat(removed.get(SLOT, NAME)).isNull();
+        assertThat(removed.size()).isEqualTo(1);
+        assertThat(removed.without(SLOT, NAME)).isSameAs(removed);
+        assertThat(removed.without(100_000, NAME)).isSameAs(removed);
+    }
+
+    @Test
+    void mapViewContainsVariablesByName() {
+        var frame = VariableFrame.EMPTY.with(VariableSlots.ACTION, "action", Val.of("read")).with(SLOT, NAME, Val.NULL);
+
+        var map = frame.asMap();
+
+        assertThat(map).hasSize(2).containsEntry("action", Val.of("read")).containsEntry(NAME, Val.NULL);
+        assertThat(frame.asMap()).isSameAs(map);
+    }
+
+    @Test
+    void environmentVariablesAreFoundByNameAndSlot() {
+        var frame = VariableFrame.EMPTY.withEnvironment(Map.of(NAME, Val.of(1)));
+
+        assertThat(frame.get(NAME)).isEqualTo(Val.of(1));
+        assertThat(frame.get("frameUnknownVariable")).isNull();
+        assertThat(frame.size()).isZero();
+        assertThat(frame.get(SLOT, NAME)).isEqualTo(Val.of(1));
+        assertThat(frame.with(SLOT, NAME, Val.of(2)).get(NAME)).isEqualTo(Val.of(2));
+        assertThat(frame.asMap()).containsEntry(NAME, Val.of(1));
+    }
+
+}
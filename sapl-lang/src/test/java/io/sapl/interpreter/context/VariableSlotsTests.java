@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import io.sapl.interpreter.DefaultSAPLInterpreter;
+
+class VariableSlotsTests {
+
+    private static final DefaultSAPLInterpreter INTERPRETER = new DefaultSAPLInterpreter();
+
+    @Test
+    void slotsAreAssignedPerDocument() {
+        var first  = INTERPRETER.parse("policy \"first\" permit where var a = 1; var b = 2;");
+        var second = INTERPRETER.parse("policy \"second\" permit where var b = 1;");
+
+        var firstSlots = VariableSlots.of(first);
+        assertThat(firstSlots).isSameAs(VariableSlots.of(first.getPolicyElement()));
+        assertThat(firstSlots.slotOf("b")).isEqualTo(firstSlots.slotOf("b"));
+        assertThat(VariableSlots.of(second)).isNotSameAs(firstSlots);
+        assertThat(VariableSlots.of(second).slotOf("b")).isEqualTo(VariableSlots.ENVIRONMENT + 1);
+    }
+
+    @Test
+    void subscriptionVariablesHaveTheSameSlotsInAllDocuments() {
+        var slots = VariableSlots.of(INTERPRETER.parse("policy \"p\" permit"));
+
+        assertThat(slots.slotOf("subject")).isEqualTo(VariableSlots.SUBJECT);
+        assertThat(slots.slotOf("action")).isEqualTo(VariableSlots.ACTION);
+        assertThat(slots.slotOf("resource")).isEqualTo(VariableSlots.RESOURCE);
+        assertThat(slots.slotOf("environment")).isEqualTo(VariableSlots.ENVIRONMENT);
+        assertThat(VariableSlots.isSubscriptionVariable("environment")).isTrue();
+        assertThat(VariableSlots.isSubscriptionVariable("other")).isFalse();
+    }
+
+}
@@ -27,6 +27,7 @@
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
@@ -42,6 +43,8 @@
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import io.sapl.api.functions.Function;
 import io.sapl.api.functions.FunctionLibrary;
@@ -97,6 +100,20 @@ void simpleFunctionCallNoParameters() throws InitializationException {
                 is(MockLibrary.RETURN_VALUE));
     }
 
+    @Test
+    void boundFunctionCallWithParameters() throws InitializationException {
+        var context = new AnnotationFunctionContext(() -> List.of(new MockLibrary()), List::of);
+        var handle  = context.bind(MockLibrary.LIBRARY_NAME + ".helloTwoArgs");
+        assertThat(handle.evaluate(Val.TRUE, Val.FALSE), is(MockLibrary.RETURN_VALUE));
+        assertThat(handle.evaluate(Val.TRUE), valError());
+    }
+
+    @Test
+    void boundUnknownFunctionEvaluatesToError() {
+        var handle = new AnnotationFunctionContext().bind("unknown.function");
+        assertThat(handle.evaluate(), valError());
+    }
+
     @Test
     void simpleFunctionCallWithParameters() throws InitializationException {
         var context = new AnnotationFunctionContext(() -> List.of(new MockLibrary()), List::of);
@@ -130,6 +147,13 @@ void callingFunctionReturningExceptionReturnsError() throws InitializationExcept
                 valError());
     }
 
+    @Test
+    void callingFunctionThrowingExceptionWithoutMessageNamesTheException() throws InitializationException {
+        var context = new AnnotationFunctionContext(() -> List.of(new MockLibrary()), List::of);
+        var result  = context.evaluate(MockLibrary.LIBRARY_NAME + ".helloFailure", Val.TRUE, Val.TRUE, Val.TRUE);
+        assertThat(result.getMessage(), endsWith(": PolicyEvaluationException"));
+    }
+
     @Test
     void simpleFunctionCallNoParametersBadParameterNumberReturnsError() throws InitializationException {
         var context = new AnnotationFunctionContext(() -> List.of(new MockLibrary()), List::of);
@@ -544,6 +568,117 @@ public static Val customErrorForSchemaInParameterAnnotation(
 
     }
 
+    @Test
+    void when_pureFunctionIsEvaluatedTwiceWithEqualParameters_then_resultIsMemoized() throws InitializationException {
+        var library = new PureLibrary();
+        var context = new AnnotationFunctionContext();
+        context.loadLibrary(library);
+
+        assertThat(context.evaluate("pure.count", Val.of("a")), is(Val.of(1)));
+        assertThat(context.evaluate("pure.count", Val.of("a")), is(Val.of(1)));
+        assertThat(context.evaluate("pure.count", Val.of("b")), is(Val.of(2)));
+
+        assertThat(library.invocations, is(2));
+        assertThat(context.getMemoizationStatistics().hitCount(), is(1L));
+        assertThat(context.getMemoizedResultsCount(), is(2L));
+    }
+
+    @Test
+    void when_pureFunctionIsEvaluatedWithNumericallyEqualParametersOfDifferentType_then_resultsAreNotShared()
+            throws InitializationException {
+        var library = new PureLibrary();
+        var context = new AnnotationFunctionContext();
+        context.loadLibrary(library);
+
+        context.evaluate("pure.count", Val.of(1));
+        context.evaluate("pure.count", Val.of(1.0D));
+
+        assertThat(library.invocations, is(2));
+    }
+
+    @Test
+    void when_memoizedResultOrParameterIsModified_then_laterEvaluationsAreNotAffected()
+            throws InitializationException {
+        var library = new PureLibrary();
+        var context = new AnnotationFunctionContext();
+        context.loadLibrary(library);
+        var parameter = MAPPER.createObjectNode().put("key", "a");
+
+        var first = context.evaluate("pure.wrap", Val.of(parameter));
+        ((ObjectNode) first.get()).put("modified", true);
+        parameter.put("key", "b");
+        var second = context.evaluate("pure.wrap", Val.of(MAPPER.createObjectNode().put("key", "a")));
+        ((ObjectNode) second.get()).put("modified", true);
+        var third = context.evaluate("pure.wrap", Val.of(MAPPER.createObjectNode().put("key", "a")));
+
+        JsonNode expected = MAPPER.createObjectNode().set("value", MAPPER.createObjectNode().put("key", "a"));
+        assertThat(library.invocations, is(1));
+        assertThat(third.get(), is(expected));
+    }
+
+    @Test
+    void when_functionIsNotPureOrParametersAreSecret_then_resultIsNotMemoized() throws InitializationException {
+        var library = new PureLibrary();
+        var context = new AnnotationFunctionContext();
+        context.loadLibrary(library);
+
+        context.evaluate("pure.impureCount", Val.of("a"));
+        context.evaluate("pure.impureCount", Val.of("a"));
+        context.evaluate("pure.count", Val.of("a").asSecret());
+        context.evaluate("pure.count", Val.of("a").asSecret());
+
+        assertThat(library.invocations, is(4));
+        assertThat(context.getMemoizedResultsCount(), is(0L));
+    }
+
+    @Test
+    void when_purityIsQueried_then_onlyLoadedPureFunctionsArePure() throws InitializationException {
+        var context = new AnnotationFunctionContext();
+        context.loadLibrary(new PureLibrary());
+
+        assertThat(context.isPure("pure.count"), is(true));
+        assertThat(context.isPure("pure.impureCount"), is(false));
+        assertThat(context.isPure("pure.unknown"), is(false));
+    }
+
+    @Test
+    void when_memoizationCacheMaximumSizeIsZero_then_memoizationIsDisabled() throws InitializationException {
+        var library = new PureLibrary();
+        var context = new AnnotationFunctionContext();
+        context.loadLibrary(library);
+        context.setMemoizationCacheMaximumSize(0L);
+
+        context.evaluate("pure.count", Val.of("a"));
+        context.evaluate("pure.count", Val.of("a"));
+
+        assertThat(library.invocations, is(2));
+        assertThrows(IllegalArgumentException.class, () -> context.setMemoizationCacheMaximumSize(-1L));
+    }
+
+    @FunctionLibrary(name = "pure")
+    public static class PureLibrary {
+
+        int invocations;
+
+        @Function(pure = true)
+        public Val count(Val parameter) {
+            return Val.of(++invocations);
+        }
+
+        @Function(pure = true)
+        public Val wrap(Val parameter) {
+            ++invocations;
+            JsonNode wrapped = JsonNodeFactory.instance.objectNode().set("value", parameter.get());
+            return Val.of(wrapped);
+        }
+
+        @Function
+        public Val impureCount(Val parameter) {
+            return Val.of(++invocations);
+        }
+
+    }
+
     @FunctionLibrary(name = "InvalidAnnotationLibrary")
     public static class InvalidAnnotationLibrary {
 
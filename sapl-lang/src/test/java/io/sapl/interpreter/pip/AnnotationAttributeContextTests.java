@@ -26,9 +26,12 @@
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -51,6 +54,7 @@
 import io.sapl.testutil.ParserUtil;
 import jakarta.validation.constraints.NotNull;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 import reactor.util.context.Context;
 
@@ -639,6 +643,15 @@ public Flux<Val> attribute(Val leftHand, @Text Val... params) {
                 .expectNext(Val.of("")).verifyComplete();
     }
 
+    @Test
+    void when_unknownAttributeIsBound_then_handleEvaluatesToError() {
+        var attributeCtx = new AnnotationAttributeContext();
+        StepVerifier.create(attributeCtx.bindAttribute("unknown.attribute", null).evaluate(Val.NULL, Map.of()))
+                .expectNextMatches(Val::isError).verifyComplete();
+        StepVerifier.create(attributeCtx.bindEnvironmentAttribute("unknown.attribute", null).evaluate(Map.of()))
+                .expectNextMatches(Val::isError).verifyComplete();
+    }
+
     @Test
     void when_varArgsNoVariablesEnvironmentAttribute_evaluates() throws InitializationException, IOException {
         @PolicyInformationPoint(name = "test")
@@ -786,6 +799,45 @@ public Flux<Val> attribute(Val leftHand) {
                 .expectNextMatches(valErrorText("INTENDED ERROR FROM TEST")).verifyComplete();
     }
 
+    @Test
+    void when_attributeFailsWithoutMessage_then_evaluatesToErrorNamingTheException()
+            throws InitializationException, IOException {
+        @PolicyInformationPoint(name = "test")
+        class PIP {
+
+            @EnvironmentAttribute
+            public Flux<Val> envAttribute() {
+                throw new IllegalStateException();
+            }
+
+        }
+
+        var pip          = new PIP();
+        var attributeCtx = new AnnotationAttributeContext(() -> List.of(pip), List::of);
+        var expression   = ParserUtil.expression("<test.envAttribute>");
+        StepVerifier.create(expression.evaluate().contextWrite(this.constructContext(attributeCtx, Map.of())))
+                .expectNextMatches(valErrorText("IllegalStateException")).verifyComplete();
+    }
+
+    @Test
+    void when_attributeThrowsError_then_evaluatesToError() throws InitializationException, IOException {
+        @PolicyInformationPoint(name = "test")
+        class PIP {
+
+            @EnvironmentAttribute
+            public Flux<Val> envAttribute() {
+                throw new AssertionError("INTENDED ERROR FROM TEST");
+            }
+
+        }
+
+        var pip          = new PIP();
+        var attributeCtx = new AnnotationAttributeContext(() -> List.of(pip), List::of);
+        var expression   = ParserUtil.expression("<test.envAttribute>");
+        StepVerifier.create(expression.evaluate().contextWrite(this.constructContext(attributeCtx, Map.of())))
+                .expectNextMatches(valErrorText("INTENDED ERROR FROM TEST")).verifyComplete();
+    }
+
     private Predicate<Val> valErrorText(String errorMessage) {
         return val -> val.isError() && errorMessage.equals(val.getMessage());
     }
@@ -810,6 +862,150 @@ public Flux<Val> attribute(Val leftHand) {
                 .expectNext(Val.of("")).verifyComplete();
     }
 
+    @Test
+    void when_attributeStreamBrokerIsSet_then_identicalAttributesAreInvokedOnce()
+            throws InitializationException, IOException {
+        var invocations = new AtomicInteger();
+        @PolicyInformationPoint(name = "test")
+        class PIP {
+
+            @Attribute
+            public Flux<Val> attribute(Val leftHand) {
+                invocations.incrementAndGet();
+                return Flux.just(leftHand).concatWith(Flux.never());
+            }
+
+        }
+
+        var pip          = new PIP();
+        var attributeCtx = new AnnotationAttributeContext(() -> List.of(pip), List::of);
+        attributeCtx.setAttributeStreamBroker(new AttributeStreamBroker(Duration.ofSeconds(10L), Duration.ZERO));
+        var variables  = Map.of("key1", Val.of("valueOfKey"));
+        var expression = ParserUtil.expression("[\"a\".<test.attribute>, \"a\".<test.attribute>]");
+        StepVerifier.create(expression.evaluate().contextWrite(this.constructContext(attributeCtx, variables)).take(1))
+                .expectNext(Val.ofJson("[\"a\",\"a\"]")).verifyComplete();
+        assertThat(invocations.get(), is(1));
+    }
+
+    @Test
+    void when_cachedAttribute_then_headAttributeIsAnsweredFromCache() throws InitializationException, IOException {
+        var invocations = new AtomicInteger();
+        @PolicyInformationPoint(name = "test")
+        class PIP {
+
+            @Attribute(cacheTimeToLiveMillis = 60_000L)
+            public Flux<Val> attribute(Val leftHand) {
+                invocations.incrementAndGet();
+                return Flux.just(leftHand);
+            }
+
+        }
+
+        var pip          = new PIP();
+        var attributeCtx = new AnnotationAttributeContext(() -> List.of(pip), List::of);
+        var variables    = Map.of("key1", Val.of("valueOfKey"));
+        var expression   = ParserUtil.expression("\"a\".|<test.attribute>");
+        for (var i = 0; i < 2; i++)
+            StepVerifier.create(expression.evaluate().contextWrite(this.constructContext(attributeCtx, variables)))
+                    .expectNext(Val.of("a")).verifyComplete();
+        assertThat(invocations.get(), is(1));
+    }
+
+    @Test
+    void when_invalidCacheDeclared_then_fail() {
+        @PolicyInformationPoint(name = "test")
+        class PIP {
+
+            @Attribute(cacheTimeToLiveMillis = -1L)
+            public Flux<Val> attribute(Val leftHand) {
+                return Flux.just(leftHand);
+            }
+
+        }
+
+        var pip = new PIP();
+        assertThrows(InitializationException.class, () -> new AnnotationAttributeContext(() -> List.of(pip), List::of));
+    }
+
+    @Test
+    void when_batchAttributeFinderLoaded_then_invocationsAreLookedUpInBatches()
+            throws InitializationException, IOException {
+        var invocations = new AtomicInteger();
+        @PolicyInformationPoint(name = "test")
+        class PIP {
+
+            @Attribute
+            public Flux<Val> attribute(Val leftHand) {
+                return Flux.just(Val.of("single"));
+            }
+
+        }
+
+        var pip          = new PIP();
+        var attributeCtx = new AnnotationAttributeContext(() -> List.of(pip), List::of);
+        attributeCtx.loadBatchAttributeFinder(new BatchAttributeFinder() {
+
+            @Override
+            public String attributeName() {
+                return "test.attribute";
+            }
+
+            @Override
+            public Mono<Map<Val, Val>> findAttributes(Set<Val> leftHandValues, List<Val> arguments) {
+                invocations.incrementAndGet();
+                return Mono.just(Map.of(Val.of("a"), Val.of("batched")));
+            }
+
+        });
+        var variables  = Map.of("key1", Val.of("valueOfKey"));
+        var expression = ParserUtil.expression("[\"a\".<test.attribute>, \"b\".<test.attribute>]");
+        StepVerifier.create(expression.evaluate().contextWrite(this.constructContext(attributeCtx, variables)))
+                .expectNext(Val.ofJson("[\"batched\"]")).verifyComplete();
+        assertThat(invocations.get(), is(1));
+    }
+
+    @Test
+    void when_batchAttributeFinderForUnknownAttributeLoaded_then_fail() {
+        var attributeCtx = new AnnotationAttributeContext();
+        assertThrows(InitializationException.class,
+                () -> attributeCtx.loadBatchAttributeFinder(new BatchAttributeFinder() {
+
+                    @Override
+                    public String attributeName() {
+                        return "test.attribute";
+                    }
+
+                    @Override
+                    public Mono<Map<Val, Val>> findAttributes(Set<Val> leftHandValues, List<Val> arguments) {
+                        return Mono.just(Map.of());
+                    }
+
+                }));
+    }
+
+    @Test
+    void when_guardedPipDoesNotAnswerInTime_then_evaluatesToError() throws InitializationException, IOException {
+        @PolicyInformationPoint(name = "test")
+        class PIP {
+
+            @Attribute
+            public Flux<Val> attribute(Val leftHand) {
+                return Flux.never();
+            }
+
+        }
+
+        var pip          = new PIP();
+        var attributeCtx = new AnnotationAttributeContext(() -> List.of(pip), List::of);
+        attributeCtx.setPolicyInformationPointGuard("test",
+                new PolicyInformationPointGuard(Duration.ofMillis(50L), 0, 0, 0D, Duration.ZERO));
+        var variables  = Map.of("key1", Val.of("valueOfKey"));
+        var expression = ParserUtil.expression("\"a\".<test.attribute>");
+        StepVerifier.create(expression.evaluate().contextWrite(this.constructContext(attributeCtx, variables)))
+                .expectNextMatches(valErrorText("Attribute test.attribute did not provide a value within PT0.05S."))
+                .verifyComplete();
+    }
+
     @Test
     void when_unknownAttribute_called_evaluatesToError() throws IOException {
         var attributeCtx = new AnnotationAttributeContext();
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.pip;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiFunction;
+
+import org.junit.jupiter.api.Test;
+
+import io.sapl.api.interpreter.Val;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class AttributeBatcherTests {
+
+    private final List<Set<Val>> batches = new CopyOnWriteArrayList<>();
+
+    private BatchAttributeFinder finder(Duration window, int maximumBatchSize,
+            BiFunction<Set<Val>, List<Val>, Mono<Map<Val, Val>>> lookup) {
+        return new BatchAttributeFinder() {
+
+            @Override
+            public String attributeName() {
+                return "test.attribute";
+            }
+
+            @Override
+            public Duration batchWindow() {
+                return window;
+            }
+
+            @Override
+            public int maximumBatchSize() {
+                return maximumBatchSize;
+            }
+
+            @Override
+            public Mono<Map<Val, Val>> findAttributes(Set<Val> leftHandValues, List<Val> arguments) {
+                batches.add(leftHandValues);
+                return lookup.apply(leftHandValues, arguments);
+            }
+
+        };
+    }
+
+    private static Mono<Map<Val, Val>> owners(Set<Val> leftHandValues, List<Val> arguments) {
+        return Mono.just(Map.of(Val.of("a"), Val.of("alice"), Val.of("b"), Val.of("bob")));
+    }
+
+    @Test
+    void when_invalidSettings_then_throws() {
+        var negativeWindow = finder(Duration.ofMillis(-1L), 1, AttributeBatcherTests::owners);
+        var emptyBatches   = finder(Duration.ZERO, 0, AttributeBatcherTests::owners);
+        assertThatThrownBy(() -> new AttributeBatcher(negativeWindow)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AttributeBatcher(emptyBatches)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void when_invocationsWithinWindow_then_lookedUpInOneBatch() {
+        var batcher = new AttributeBatcher(finder(Duration.ofMillis(50L), 10, AttributeBatcherTests::owners));
+        var results = Flux.merge(batcher.attributeStream(new Object[] { Val.of("a") }),
+                batcher.attributeStream(new Object[] { Val.of("b") }),
+                batcher.attributeStream(new Object[] { Val.of("a") }),
+                batcher.attributeStream(new Object[] { Val.of("c") })).collectList();
+
+        StepVerifier.create(results).assertNext(values -> assertThat(values).containsExactlyInAnyOrder(Val.of("alice"),
+                Val.of("bob"), Val.of("alice"), Val.UNDEFINED)).verifyComplete();
+        assertThat(batches).containsExactly(Set.of(Val.of("a"), Val.of("b"), Val.of("c")));
+    }
+
+    @Test
+    void when_differentArguments_then_lookedUpInSeparateBatches() {
+        var batcher = new AttributeBatcher(finder(Duration.ofMillis(50L), 10, AttributeBatcherTests::owners));
+        var results = Flux.merge(batcher.attributeStream(new Object[] { Val.of("a"), Val.of(1) }),
+                batcher.attributeStream(new Object[] { Val.of("b"), Val.of(2) }));
+
+        StepVerifier.create(results).expectNextCount(2).verifyComplete();
+        assertThat(batches).hasSize(2);
+    }
+
+    @Test
+    void when_batchIsFull_then_lookedUpWithoutWaitingForWindow() {
+        var batcher = new AttributeBatcher(finder(Duration.ofHours(1L), 2, AttributeBatcherTests::owners));
+        var results = Flux.merge(batcher.attributeStream(new Object[] { Val.of("a") }),
+                batcher.attributeStream(new Object[] { Val.of("b") }));
+
+        StepVerifier.create(results).expectNextCount(2).expectComplete().verify(Duration.ofSeconds(10L));
+        assertThat(batches).containsExactly(Set.of(Val.of("a"), Val.of("b")));
+    }
+
+    @Test
+    void when_lookupFails_then_eachInvocationEvaluatesToError() {
+        var batcher = new AttributeBatcher(
+                finder(Duration.ZERO, 10, (leftHandValues, arguments) -> Mono.error(new RuntimeException("down"))));
+
+        StepVerifier.create(batcher.attributeStream(new Object[] { Val.of("a") })).expectNext(Val.error("down"))
+                .verifyComplete();
+    }
+
+    @Test
+    void when_lookupFailsWithPercentInMessage_then_messageIsNotUsedAsFormat() {
+        var batcher = new AttributeBatcher(finder(Duration.ZERO, 10,
+                (leftHandValues, arguments) -> Mono.error(new RuntimeException("100% of quota used"))));
+
+        StepVerifier.create(batcher.attributeStream(new Object[] { Val.of("a") }))
+                .expectNextMatches(value -> value.isError() && "100% of quota used".equals(value.getMessage()))
+                .verifyComplete();
+    }
+
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.pip;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.base.Ticker;
+
+import io.sapl.api.interpreter.Val;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+class AttributeCacheTests {
+
+    private static final Duration TIME_TO_LIVE           = Duration.ofSeconds(10L);
+    private static final Duration STALE_WHILE_REVALIDATE = Duration.ofSeconds(20L);
+
+    private static final AttributeFinderMetadata ATTRIBUTE = metadata();
+
+    private static final Object[] PARAMETERS = new Object[] { Val.of("subject") };
+
+    private final AtomicLong    now         = new AtomicLong();
+    private final AtomicInteger invocations = new AtomicInteger();
+    private final Ticker        ticker      = new Ticker() {
+                                                @Override
+                                                public long read() {
+                                                    return now.get();
+                                                }
+                                            };
+
+    public static Flux<Val> attribute(Val leftHandValue) {
+        return Flux.empty();
+    }
+
+    private static AttributeFinderMetadata metadata() {
+        try {
+            var method = AttributeCacheTests.class.getMethod("attribute", Val.class);
+            return new AttributeFinderMetadata(null, method, "test", "attribute", null, false, false, false, 0);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private AttributeCache cache() {
+        return new AttributeCache(TIME_TO_LIVE, STALE_WHILE_REVALIDATE, 100L, ticker);
+    }
+
+    private Flux<Val> attributeStream(AttributeCache cache, Val... values) {
+        return cache.attributeStream(ATTRIBUTE, PARAMETERS, () -> {
+            invocations.incrementAndGet();
+            return Flux.just(values);
+        });
+    }
+
+    @Test
+    void when_invalidSettings_then_throws() {
+        var negative = Duration.ofSeconds(-1L);
+        assertThatThrownBy(() -> new AttributeCache(Duration.ZERO, Duration.ZERO, 1L))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AttributeCache(TIME_TO_LIVE, negative, 1L))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AttributeCache(TIME_TO_LIVE, Duration.ZERO, 0L))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void when_nothingCached_then_valuesOfAttributeFinderAreCached() {
+        var cache = cache();
+        StepVerifier.create(attributeStream(cache, Val.of(1), Val.of(2))).expectNext(Val.of(1), Val.of(2))
+                .verifyComplete();
+        assertThat(cache.size()).isOne();
+        StepVerifier.create(attributeStream(cache).take(1)).expectNext(Val.of(2)).verifyComplete();
+        assertThat(invocations).hasValue(1);
+    }
+
+    @Test
+    void when_freshValueCached_then_answeredImmediatelyFollowedByNewValues() {
+        var cache = cache();
+        StepVerifier.create(attributeStream(cache, Val.of(1))).expectNext(Val.of(1)).verifyComplete();
+        now.set(TIME_TO_LIVE.toNanos());
+        StepVerifier.create(attributeStream(cache, Val.of(1), Val.of(2))).expectNext(Val.of(1), Val.of(2))
+                .verifyComplete();
+        assertThat(invocations).hasValue(2);
+    }
+
+    @Test
+    void when_staleValueCached_then_answeredAndRefreshedInBackground() {
+        var cache = cache();
+        StepVerifier.create(attributeStream(cache, Val.of(1))).expectNext(Val.of(1)).verifyComplete();
+        now.set(TIME_TO_LIVE.plusSeconds(1L).toNanos());
+        StepVerifier.create(attributeStream(cache, Val.of(2)).take(1)).expectNext(Val.of(1)).verifyComplete();
+        assertThat(invocations).hasValue(2);
+        StepVerifier.create(attributeStream(cache).take(1)).expectNext(Val.of(2)).verifyComplete();
+    }
+
+    @Test
+    void when_freshValueCached_then_subscriptionsShareOneInvocation() {
+        var cache = cache();
+        StepVerifier.create(attributeStream(cache, Val.of(1))).expectNext(Val.of(1)).verifyComplete();
+        var infinite = cache.attributeStream(ATTRIBUTE, PARAMETERS, () -> {
+            invocations.incrementAndGet();
+            return Flux.just(Val.of(2)).concatWith(Flux.never());
+        });
+
+        var first              = new ArrayList<Val>();
+        var second             = new ArrayList<Val>();
+        var firstSubscription  = infinite.subscribe(first::add);
+        var secondSubscription = infinite.subscribe(second::add);
+        firstSubscription.dispose();
+        secondSubscription.dispose();
+
+        assertThat(first).containsExactly(Val.of(1), Val.of(2));
+        assertThat(second).containsExactly(Val.of(2));
+        assertThat(invocations).hasValue(2);
+    }
+
+    @Test
+    void when_staleValueCached_then_refreshAndStreamShareOneInvocation() {
+        var cache = cache();
+        StepVerifier.create(attributeStream(cache, Val.of(1))).expectNext(Val.of(1)).verifyComplete();
+        now.set(TIME_TO_LIVE.plusSeconds(1L).toNanos());
+        StepVerifier.create(attributeStream(cache, Val.of(2), Val.of(3))).expectNext(Val.of(1), Val.of(2), Val.of(3))
+                .verifyComplete();
+        assertThat(invocations).hasValue(2);
+        StepVerifier.create(attributeStream(cache).take(1)).expectNext(Val.of(3)).verifyComplete();
+        assertThat(invocations).hasValue(2);
+    }
+
+    @Test
+    void when_backgroundRefreshHangs_then_invocationIsCancelledWhenValueExpires() {
+        var cache = cache();
+        StepVerifier.create(attributeStream(cache, Val.of(1))).expectNext(Val.of(1)).verifyComplete();
+        now.set(TIME_TO_LIVE.plusSeconds(1L).toNanos());
+        var cancelled = new AtomicBoolean();
+        var scheduler = VirtualTimeScheduler.getOrSet();
+        try {
+            var hanging = cache.attributeStream(ATTRIBUTE, PARAMETERS,
+                    () -> Flux.<Val>never().doOnCancel(() -> cancelled.set(true)));
+            StepVerifier.create(hanging.take(1)).expectNext(Val.of(1)).verifyComplete();
+            assertThat(cancelled).isFalse();
+            scheduler.advanceTimeBy(TIME_TO_LIVE.plus(STALE_WHILE_REVALIDATE));
+            assertThat(cancelled).isTrue();
+        } finally {
+            VirtualTimeScheduler.reset();
+        }
+    }
+
+    @Test
+    void when_valueExpired_then_notAnswered() {
+        var cache = cache();
+        StepVerifier.create(attributeStream(cache, Val.of(1))).expectNext(Val.of(1)).verifyComplete();
+        now.set(TIME_TO_LIVE.plus(STALE_WHILE_REVALIDATE).toNanos());
+        StepVerifier.create(attributeStream(cache, Val.of(2))).expectNext(Val.of(2)).verifyComplete();
+    }
+
+    @Test
+    void when_errorOrSecret_then_notCached() {
+        var cache = cache();
+        StepVerifier.create(attributeStream(cache, Val.error("failed"), Val.of(1).asSecret())).expectNextCount(2)
+                .verifyComplete();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void when_invocationNotShareable_then_notCached() {
+        var cache = cache();
+        StepVerifier
+                .create(cache.attributeStream(ATTRIBUTE, new Object[] { Val.UNDEFINED }, () -> Flux.just(Val.of(1))))
+                .expectNext(Val.of(1)).verifyComplete();
+        assertThat(cache.size()).isZero();
+    }
+
+}
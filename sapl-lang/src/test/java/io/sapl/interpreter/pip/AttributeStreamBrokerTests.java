@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.pip;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import io.sapl.api.interpreter.Val;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class AttributeStreamBrokerTests {
+
+    private static final AttributeFinderMetadata ATTRIBUTE = metadata("attribute", false);
+
+    private static final AttributeFinderMetadata ATTRIBUTE_WITH_VARIABLES = metadata("attributeWithVariables", true);
+
+    public static Flux<Val> attribute(Val leftHandValue) {
+        return Flux.empty();
+    }
+
+    public static Flux<Val> attributeWithVariables(Val leftHandValue, Map<String, Val> variables) {
+        return Flux.empty();
+    }
+
+    private static AttributeFinderMetadata metadata(String name, boolean withVariables) {
+        try {
+            var method = withVariables ? AttributeStreamBrokerTests.class.getMethod(name, Val.class, Map.class)
+                    : AttributeStreamBrokerTests.class.getMethod(name, Val.class);
+            return new AttributeFinderMetadata(null, method, "test", name, null, false, withVariables, false, 0);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void when_negativeDurations_then_throws() {
+        var negative = Duration.ofSeconds(-1L);
+        assertThatThrownBy(() -> new AttributeStreamBroker(negative, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AttributeStreamBroker(Duration.ZERO, negative))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void when_identicalInvocations_then_attributeFinderIsInvokedOnce() {
+        var broker      = new AttributeStreamBroker(Duration.ZERO, Duration.ZERO);
+        var invocations = new AtomicInteger();
+        var upstream    = Sinks.many().replay().<Val>latest();
+        var params      = new Object[] { Val.of("subject") };
+
+        var first  = broker.attributeStream(ATTRIBUTE, params, () -> countingFlux(invocations, upstream));
+        var second = broker.attributeStream(ATTRIBUTE, new Object[] { Val.of("subject") },
+                () -> countingFlux(invocations, upstream));
+
+        StepVerifier.create(Flux.merge(first, second).take(4)).then(() -> upstream.tryEmitNext(Val.of(1)))
+                .then(() -> upstream.tryEmitNext(Val.of(2))).expectNextCount(4).verifyComplete();
+        assertThat(invocations).hasValue(1);
+        assertThat(broker.numberOfSharedStreams()).isZero();
+    }
+
+    @Test
+    void when_lateSubscriber_then_receivesLatestValue() {
+        var broker   = new AttributeStreamBroker(Duration.ZERO, Duration.ZERO);
+        var upstream = Sinks.many().multicast().<Val>directBestEffort();
+        var params   = new Object[] { Val.of("subject") };
+        var first    = broker.attributeStream(ATTRIBUTE, params, upstream::asFlux);
+
+        StepVerifier.create(first).then(() -> upstream.tryEmitNext(Val.of(1))).expectNext(Val.of(1))
+                .then(() -> StepVerifier.create(broker.attributeStream(ATTRIBUTE, params, Flux::never).take(1))
+                        .expectNext(Val.of(1)).verifyComplete())
+                .thenCancel().verify();
+    }
+
+    @Test
+    void when_differentParameters_then_streamsAreNotShared() {
+        var broker      = new AttributeStreamBroker(Duration.ZERO, Duration.ZERO);
+        var invocations = new AtomicInteger();
+        var first       = broker.attributeStream(ATTRIBUTE, new Object[] { Val.of("a") },
+                () -> Flux.just(Val.of(invocations.incrementAndGet())));
+        var second      = broker.attributeStream(ATTRIBUTE, new Object[] { Val.of("b") },
+                () -> Flux.just(Val.of(invocations.incrementAndGet())));
+
+        StepVerifier.create(Flux.concat(first, second)).expectNext(Val.of(1), Val.of(2)).verifyComplete();
+    }
+
+    @Test
+    void when_secretOrVariablesParameter_then_streamsAreNotShared() {
+        var broker      = new AttributeStreamBroker(Duration.ZERO, Duration.ZERO);
+        var invocations = new AtomicInteger();
+        var secret      = new Object[] { Val.of("a").asSecret() };
+        var variables   = new Object[] { Val.of("a"), Map.of() };
+
+        Flux.merge(broker.attributeStream(ATTRIBUTE, secret, () -> countingNever(invocations)),
+                broker.attributeStream(ATTRIBUTE, secret, () -> countingNever(invocations)),
+                broker.attributeStream(ATTRIBUTE_WITH_VARIABLES, variables, () -> countingNever(invocations)),
+                broker.attributeStream(ATTRIBUTE_WITH_VARIABLES, variables, () -> countingNever(invocations)))
+                .subscribe().dispose();
+        assertThat(invocations).hasValue(4);
+        assertThat(broker.numberOfSharedStreams()).isZero();
+    }
+
+    @Test
+    void when_linger_then_upstreamStaysConnectedAfterLastCancel() {
+        var broker      = new AttributeStreamBroker(Duration.ofSeconds(10L), Duration.ZERO);
+        var invocations = new AtomicInteger();
+        var params      = new Object[] { Val.of("subject") };
+
+        StepVerifier.create(broker
+                .attributeStream(ATTRIBUTE, params, () -> countingNever(invocations).startWith(Val.of(1))).take(1))
+                .expectNext(Val.of(1)).verifyComplete();
+        assertThat(broker.numberOfSharedStreams()).isOne();
+
+        StepVerifier.create(broker.attributeStream(ATTRIBUTE, params, () -> countingNever(invocations)).take(1))
+                .expectNext(Val.of(1)).verifyComplete();
+        assertThat(invocations).hasValue(1);
+    }
+
+    @Test
+    void when_parameterIsModifiedAfterInvocation_then_sharedStreamIsStillFound() {
+        var broker      = new AttributeStreamBroker(Duration.ofSeconds(10L), Duration.ZERO);
+        var invocations = new AtomicInteger();
+        var parameter   = JsonNodeFactory.instance.objectNode().put("id", 1);
+
+        StepVerifier.create(broker.attributeStream(ATTRIBUTE, new Object[] { Val.of(parameter) },
+                () -> countingNever(invocations).startWith(Val.of(1))).take(1)).expectNext(Val.of(1)).verifyComplete();
+        parameter.put("id", 2);
+
+        var sameParameter = JsonNodeFactory.instance.objectNode().put("id", 1);
+        StepVerifier.create(broker
+                .attributeStream(ATTRIBUTE, new Object[] { Val.of(sameParameter) }, () -> countingNever(invocations))
+                .take(1)).expectNext(Val.of(1)).verifyComplete();
+        assertThat(invocations).hasValue(1);
+    }
+
+    @Test
+    void when_timeToLiveExpired_then_newSubscribersGetNewUpstream() {
+        var now         = new AtomicLong();
+        var broker      = new AttributeStreamBroker(Duration.ZERO, Duration.ofSeconds(1L), now::get);
+        var invocations = new AtomicInteger();
+        var params      = new Object[] { Val.of("subject") };
+        var upstream    = Sinks.many().replay().<Val>latest();
+        var renewed     = Sinks.many().replay().<Val>latest();
+
+        StepVerifier.create(broker.attributeStream(ATTRIBUTE, params, () -> countingFlux(invocations, upstream)))
+                .then(() -> upstream.tryEmitNext(Val.of(1))).expectNext(Val.of(1))
+                .then(() -> now.set(Duration.ofSeconds(2L).toNanos()))
+                .then(() -> StepVerifier
+                        .create(broker.attributeStream(ATTRIBUTE, params, () -> countingFlux(invocations, renewed)))
+                        .then(() -> renewed.tryEmitNext(Val.of(2))).expectNext(Val.of(2)).thenCancel().verify())
+                .then(() -> upstream.tryEmitNext(Val.of(3))).expectNext(Val.of(3)).thenCancel().verify();
+        assertThat(invocations).hasValue(2);
+    }
+
+    private static Flux<Val> countingFlux(AtomicInteger invocations, Sinks.Many<Val> upstream) {
+        invocations.incrementAndGet();
+        return upstream.asFlux();
+    }
+
+    private static Flux<Val> countingNever(AtomicInteger invocations) {
+        return Flux.defer(() -> {
+            invocations.incrementAndGet();
+            return Flux.never();
+        });
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.pip;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.sapl.api.interpreter.Val;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class LibraryMethodInvokersTests {
+
+    public static class Library {
+
+        private final String prefix;
+
+        public Library(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public Val concat(Val a, Val b) {
+            return Val.of(prefix + a.getText() + b.getText());
+        }
+
+        public static Val count(Val... parameters) {
+            return Val.of(parameters.length);
+        }
+
+        public static Val fail() {
+            throw new IllegalStateException("failed");
+        }
+
+        public Flux<Val> attribute(Val leftHand, Map<String, Val> variables, Val argument) {
+            return Flux.just(Val.of(prefix + leftHand.getText() + argument.getText() + variables.size()));
+        }
+
+        private Val hidden() {
+            return Val.TRUE;
+        }
+    }
+
+    static class PackagePrivateLibrary {
+
+        public static Val echo(Val value) {
+            return value;
+        }
+
+        public static Val fail() {
+            throw new IllegalStateException("failed reflectively");
+        }
+    }
+
+    @Test
+    void when_instanceFunction_then_invokesBoundMethod() throws Throwable {
+        var library = new Library(">");
+        var invoker = LibraryMethodInvokers.functionInvoker(MethodHandles.lookup(), library,
+                Library.class.getMethod("concat", Val.class, Val.class), false);
+        assertThat((Val) invoker.invokeExact(new Val[] { Val.of("a"), Val.of("b") })).isEqualTo(Val.of(">ab"));
+    }
+
+    @Test
+    void when_varArgsFunction_then_passesParameterArray() throws Throwable {
+        var invoker = LibraryMethodInvokers.functionInvoker(MethodHandles.lookup(), null,
+                Library.class.getMethod("count", Val[].class), true);
+        assertThat((Val) invoker.invokeExact(new Val[] { Val.TRUE, Val.FALSE, Val.NULL })).isEqualTo(Val.of(3));
+        assertThat((Val) invoker.invokeExact(new Val[0])).isEqualTo(Val.of(0));
+    }
+
+    @Test
+    void when_functionThrows_then_exceptionIsNotWrapped() throws Exception {
+        var invoker = LibraryMethodInvokers.functionInvoker(MethodHandles.lookup(), null,
+                Library.class.getMethod("fail"), false);
+        assertThatThrownBy(() -> {
+            var unused = (Val) invoker.invokeExact(new Val[0]);
+        }).isInstanceOf(IllegalStateException.class).hasMessage("failed");
+    }
+
+    @Test
+    void when_attributeFinder_then_invokesWithInvocationParameters() throws Throwable {
+        var library   = new Library(">");
+        var invoker   = LibraryMethodInvokers.attributeFinderInvoker(MethodHandles.lookup(), library,
+                Library.class.getMethod("attribute", Val.class, Map.class, Val.class));
+        @SuppressWarnings("unchecked")
+        var attribute = (Flux<Val>) invoker
+                .invokeExact(new Object[] { Val.of("a"), Map.of("x", Val.TRUE), Val.of("b") });
+        StepVerifier.create(attribute).expectNext(Val.of(">ab1")).verifyComplete();
+    }
+
+    @Test
+    void when_noAccess_then_fallsBackToReflectiveInvocationReportingAccessError() throws Exception {
+        var invoker = LibraryMethodInvokers.functionInvoker(MethodHandles.publicLookup(), new Library(""),
+                Library.class.getDeclaredMethod("hidden"), false);
+        assertThatThrownBy(() -> {
+            var unused = (Val) invoker.invokeExact(new Val[0]);
+        }).isInstanceOf(IllegalAccessException.class);
+    }
+
+    @Test
+    void when_reflectiveFallback_then_invokesMethod() throws Throwable {
+        var invoker = LibraryMethodInvokers.functionInvoker(MethodHandles.publicLookup(), null,
+                PackagePrivateLibrary.class.getMethod("echo", Val.class), false);
+        assertThat((Val) invoker.invokeExact(new Val[] { Val.of("a") })).isEqualTo(Val.of("a"));
+    }
+
+    @Test
+    void when_reflectiveFallbackThrows_then_exceptionIsNotWrapped() throws Exception {
+        var invoker = LibraryMethodInvokers.functionInvoker(MethodHandles.publicLookup(), null,
+                PackagePrivateLibrary.class.getMethod("fail"), false);
+        assertThatThrownBy(() -> {
+            var unused = (Val) invoker.invokeExact(new Val[0]);
+        }).isInstanceOf(IllegalStateException.class).hasMessage("failed reflectively");
+    }
+
+}
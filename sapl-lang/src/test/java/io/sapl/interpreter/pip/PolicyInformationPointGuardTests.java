@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.pip;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import io.sapl.api.interpreter.Val;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class PolicyInformationPointGuardTests {
+
+    private static final String   ATTRIBUTE     = "test.attribute";
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30L);
+
+    private final AtomicLong    now         = new AtomicLong();
+    private final AtomicInteger invocations = new AtomicInteger();
+
+    private Flux<Val> counted(Flux<Val> attributeStream) {
+        invocations.incrementAndGet();
+        return attributeStream;
+    }
+
+    @Test
+    void when_invalidSettings_then_throws() {
+        var negative = Duration.ofSeconds(-1L);
+        assertThatThrownBy(() -> new PolicyInformationPointGuard(negative, 0, 0, 0D, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PolicyInformationPointGuard(Duration.ZERO, -1, 0, 0D, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PolicyInformationPointGuard(Duration.ZERO, 0, 10, 1.5D, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void when_noValueWithinTimeToFirstValue_then_evaluatesToError() {
+        var guard = new PolicyInformationPointGuard(Duration.ofSeconds(1L), 0, 0, 0D, Duration.ZERO);
+        StepVerifier.withVirtualTime(() -> guard.guardedAttributeStream(ATTRIBUTE, Flux::never)).expectSubscription()
+                .expectNoEvent(Duration.ofMillis(999L)).thenAwait(Duration.ofMillis(1L))
+                .expectNext(Val.error(PolicyInformationPointGuard.TIMEOUT_ERROR, ATTRIBUTE, Duration.ofSeconds(1L)))
+                .verifyComplete();
+    }
+
+    @Test
+    void when_firstValueInTime_then_laterValuesAreNotLimited() {
+        var guard = new PolicyInformationPointGuard(Duration.ofSeconds(1L), 0, 0, 0D, Duration.ZERO);
+        StepVerifier
+                .withVirtualTime(() -> guard.guardedAttributeStream(ATTRIBUTE,
+                        () -> Flux.just(Val.of(1)).concatWith(Flux.never())))
+                .expectNext(Val.of(1)).expectNoEvent(Duration.ofSeconds(10L)).thenCancel().verify();
+    }
+
+    @Test
+    void when_maximumConcurrentStreamsReached_then_furtherInvocationsEvaluateToError() {
+        var guard = new PolicyInformationPointGuard(Duration.ZERO, 1, 0, 0D, Duration.ZERO);
+        var first = guard.guardedAttributeStream(ATTRIBUTE, () -> counted(Flux.never())).subscribe();
+        StepVerifier.create(guard.guardedAttributeStream(ATTRIBUTE, () -> counted(Flux.just(Val.of(1)))))
+                .expectNext(Val.error(PolicyInformationPointGuard.BULKHEAD_ERROR, ATTRIBUTE, 1)).verifyComplete();
+        first.dispose();
+        StepVerifier.create(guard.guardedAttributeStream(ATTRIBUTE, () -> counted(Flux.just(Val.of(1)))))
+                .expectNext(Val.of(1)).verifyComplete();
+        assertThat(invocations).hasValue(2);
+    }
+
+    @Test
+    void when_failureRateReached_then_circuitOpensAndClosesAfterSuccessfulRetry() {
+        var guard = new PolicyInformationPointGuard(Duration.ZERO, 0, 2, 0.5D, OPEN_DURATION, now::get);
+        StepVerifier.create(guard.guardedAttributeStream(ATTRIBUTE, () -> counted(Flux.just(Val.of(1)))))
+                .expectNext(Val.of(1)).verifyComplete();
+        assertThat(guard.isCircuitOpen()).isFalse();
+        StepVerifier.create(guard.guardedAttributeStream(ATTRIBUTE, () -> counted(Flux.just(Val.error("down")))))
+                .expectNext(Val.error("down")).verifyComplete();
+        assertThat(guard.isCircuitOpen()).isTrue();
+
+        StepVerifier.create(guard.guardedAttributeStream(ATTRIBUTE, () -> counted(Flux.just(Val.of(1)))))
+                .expectNext(Val.error(PolicyInformationPointGuard.CIRCUIT_OPEN_ERROR, ATTRIBUTE)).verifyComplete();
+        assertThat(invocations).hasValue(2);
+
+        now.set(OPEN_DURATION.toNanos());
+        StepVerifier.create(guard.guardedAttributeStream(ATTRIBUTE, () -> counted(Flux.just(Val.of(1)))))
+                .expectNext(Val.of(1)).verifyComplete();
+        assertThat(guard.isCircuitOpen()).isFalse();
+        assertThat(invocations).hasValue(3);
+    }
+
+    @Test
+    void when_retryFailsWhileHalfOpen_then_circuitOpensAgain() {
+        var guard = new PolicyInformationPointGuard(Duration.ZERO, 0, 1, 1D, OPEN_DURATION, now::get);
+        StepVerifier.create(guard.guardedAttributeStream(ATTRIBUTE, () -> Flux.just(Val.error("down"))))
+                .expectNextCount(1).verifyComplete();
+        assertThat(guard.isCircuitOpen()).isTrue();
+
+        now.set(OPEN_DURATION.toNanos());
+        assertThat(guard.isCircuitOpen()).isFalse();
+        StepVerifier.create(guard.guardedAttributeStream(ATTRIBUTE, () -> Flux.just(Val.error("down"))))
+                .expectNext(Val.error("down")).verifyComplete();
+        assertThat(guard.isCircuitOpen()).isTrue();
+    }
+
+    @Test
+    void when_trialIsPending_then_furtherInvocationsAreRejected() {
+        var guard = openCircuit();
+        now.set(OPEN_DURATION.toNanos());
+        var trial = guard.guardedAttributeStream(ATTRIBUTE, () -> counted(Flux.never())).subscribe();
+
+        StepVerifier.create(guard.guardedAttributeStream(ATTRIBUTE, () -> counted(Flux.just(Val.of(1)))))
+                .expectNext(Val.error(PolicyInformationPointGuard.CIRCUIT_OPEN_ERROR, ATTRIBUTE)).verifyComplete();
+        assertThat(invocations).hasValue(1);
+        trial.dispose();
+    }
+
+    @Test
+    void when_trialIsCancelledBeforeFirstValue_then_nextInvocationIsTrial() {
+        var guard = openCircuit();
+        now.set(OPEN_DURATION.toNanos());
+        guard.guardedAttributeStream(ATTRIBUTE, () -> counted(Flux.never())).subscribe().dispose();
+
+        StepVerifier.create(guard.guardedAttributeStream(ATTRIBUTE, () -> counted(Flux.just(Val.of(1)))))
+                .expectNext(Val.of(1)).verifyComplete();
+        assertThat(invocations).hasValue(2);
+        assertThat(guard.isCircuitOpen()).isFalse();
+        StepVerifier.create(guard.guardedAttributeStream(ATTRIBUTE, () -> counted(Flux.just(Val.of(2)))))
+                .expectNext(Val.of(2)).verifyComplete();
+    }
+
+    @Test
+    void when_trialCompletesWithoutValue_then_circuitOpensAgain() {
+        var guard = openCircuit();
+        now.set(OPEN_DURATION.toNanos());
+        StepVerifier.create(guard.guardedAttributeStream(ATTRIBUTE, () -> counted(Flux.empty()))).verifyComplete();
+
+        assertThat(guard.isCircuitOpen()).isTrue();
+        StepVerifier.create(guard.guardedAttributeStream(ATTRIBUTE, () -> counted(Flux.just(Val.of(1)))))
+                .expectNext(Val.error(PolicyInformationPointGuard.CIRCUIT_OPEN_ERROR, ATTRIBUTE)).verifyComplete();
+        assertThat(invocations).hasValue(1);
+    }
+
+    private PolicyInformationPointGuard openCircuit() {
+        var guard = new PolicyInformationPointGuard(Duration.ZERO, 0, 1, 1D, OPEN_DURATION, now::get);
+        StepVerifier.create(guard.guardedAttributeStream(ATTRIBUTE, () -> Flux.just(Val.error("down"))))
+                .expectNextCount(1).verifyComplete();
+        assertThat(guard.isCircuitOpen()).isTrue();
+        return guard;
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.interpreter.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.networknt.schema.JsonSchemaException;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.api.validation.Schema;
+
+class JsonSchemaValidatorsTests {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String NUMBER_SCHEMA = "{ \"type\": \"number\" }";
+
+    @BeforeEach
+    void clearCache() {
+        JsonSchemaValidators.clearCache();
+    }
+
+    @Test
+    void when_schemaIsCompiledTwice_then_compiledSchemaIsReused() throws JsonProcessingException {
+        var schema = MAPPER.readTree(NUMBER_SCHEMA);
+        var first  = JsonSchemaValidators.schema(schema, Map.of());
+        var second = JsonSchemaValidators.schema(MAPPER.readTree(NUMBER_SCHEMA), Map.of());
+        assertThat(second).isSameAs(first);
+        assertThat(JsonSchemaValidators.cacheSize()).isOne();
+        assertThat(first.validate(MAPPER.readTree("1"))).isEmpty();
+        assertThat(first.validate(MAPPER.readTree("\"a\""))).isNotEmpty();
+    }
+
+    @Test
+    void when_schemaIsModifiedAfterCompilation_then_cachedSchemaIsUnaffected() throws JsonProcessingException {
+        var schema   = (ObjectNode) MAPPER.readTree(NUMBER_SCHEMA);
+        var compiled = JsonSchemaValidators.schema(schema, Map.of());
+        schema.put("type", "string");
+        var recompiled = JsonSchemaValidators.schema(MAPPER.readTree(NUMBER_SCHEMA), Map.of());
+        assertThat(recompiled).isSameAs(compiled);
+        assertThat(recompiled.validate(MAPPER.readTree("1"))).isEmpty();
+        assertThat(JsonSchemaValidators.schema(schema, Map.of()).validate(MAPPER.readTree("1"))).isNotEmpty();
+    }
+
+    @Test
+    void when_externalSchemasDiffer_then_schemasAreCompiledSeparately() throws JsonProcessingException {
+        var schema   = MAPPER.readTree("{ \"$ref\": \"https://example.com/number\" }");
+        var number   = "{ \"$id\": \"https://example.com/number\", \"type\": \"number\" }";
+        var text     = "{ \"$id\": \"https://example.com/number\", \"type\": \"string\" }";
+        var asNumber = JsonSchemaValidators.schema(schema, Map.of("https://example.com/number", number));
+        var asText   = JsonSchemaValidators.schema(schema, Map.of("https://example.com/number", text));
+        assertThat(asNumber.validate(MAPPER.readTree("1"))).isEmpty();
+        assertThat(asText.validate(MAPPER.readTree("1"))).isNotEmpty();
+        assertThat(JsonSchemaValidators.cacheSize()).isEqualTo(2L);
+    }
+
+    @Test
+    void when_staticSchemaIsNoJson_then_throws() {
+        assertThatThrownBy(() -> JsonSchemaValidators.staticSchema("{ not json"))
+                .isInstanceOf(JsonProcessingException.class);
+    }
+
+    @Test
+    void when_parameterSchemasAreCompiledAtLoadTime_then_staticSchemaIsReused() throws Exception {
+        JsonSchemaValidators.compileParameterSchemas(
+                JsonSchemaValidatorsTests.class.getDeclaredMethod("annotated", Val.class, Val.class));
+        var compiled = JsonSchemaValidators.staticSchema(NUMBER_SCHEMA);
+        assertThat(JsonSchemaValidators.staticSchema(NUMBER_SCHEMA)).isSameAs(compiled);
+    }
+
+    @Test
+    void when_schemaReferenceCannotBeResolved_then_throws() throws JsonProcessingException {
+        var schema = MAPPER.readTree("{ \"$ref\": \"https://example.com/missing\" }");
+        var empty  = Map.<String, String>of();
+        assertThatThrownBy(() -> JsonSchemaValidators.schema(schema, empty)).isInstanceOf(JsonSchemaException.class);
+    }
+
+    @SuppressWarnings("unused")
+    private static void annotated(@Schema(NUMBER_SCHEMA) Val number, @Schema("{ invalid") Val invalid) {
+        // only the annotations are inspected
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pip;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class SharedTimersTests {
+
+    private static final Duration INTERVAL = Duration.ofSeconds(1L);
+    private static final Instant  NOW      = Instant.parse("2021-11-08T13:00:00Z");
+    private static final Instant  DEADLINE = NOW.plusSeconds(10L);
+
+    @Test
+    void when_subscribingToTicksWithSameInterval_then_ticksAreShared() {
+        var timers = new SharedTimers();
+        StepVerifier.withVirtualTime(() -> {
+            var first  = timers.ticks(INTERVAL).map(tick -> "first");
+            var second = Mono.delay(Duration.ofMillis(500L)).thenMany(timers.ticks(INTERVAL)).map(tick -> "second");
+            return Flux.merge(first, second).take(4);
+        }).expectSubscription().expectNoEvent(INTERVAL).expectNext("first", "second").thenAwait(INTERVAL)
+                .expectNext("first", "second").verifyComplete();
+    }
+
+    @Test
+    void when_resubscribingAfterCancel_then_ticksRestart() {
+        var timers = new SharedTimers();
+        StepVerifier.withVirtualTime(() -> timers.ticks(INTERVAL).take(1)).thenAwait(INTERVAL).expectNext(0L)
+                .verifyComplete();
+        StepVerifier.withVirtualTime(() -> timers.ticks(INTERVAL).take(1)).thenAwait(INTERVAL).expectNext(0L)
+                .verifyComplete();
+    }
+
+    @Test
+    void when_waitingForSameDeadline_then_timerIsShared() {
+        var timers = new SharedTimers();
+        StepVerifier.withVirtualTime(() -> {
+            var first  = timers.deadline(DEADLINE, NOW).map(tick -> "first");
+            var second = Mono.delay(Duration.ofSeconds(5L)).thenMany(timers.deadline(DEADLINE, NOW))
+                    .map(tick -> "second");
+            return Flux.merge(first, second);
+        }).expectSubscription().expectNoEvent(Duration.ofSeconds(10L)).expectNext("first", "second").verifyComplete();
+    }
+
+    @Test
+    void when_deadlineHasPassed_then_emitsImmediately() {
+        var timers = new SharedTimers();
+        StepVerifier.withVirtualTime(() -> timers.deadline(NOW, DEADLINE)).expectNext(0L).verifyComplete();
+    }
+
+    @Test
+    void when_deadlineReached_then_laterSubscribersDoNotJoinExpiredTimer() {
+        var timers = new SharedTimers();
+        StepVerifier
+                .withVirtualTime(() -> timers.deadline(DEADLINE, NOW).concatWith(timers.deadline(DEADLINE, DEADLINE)))
+                .expectSubscription().expectNoEvent(Duration.ofSeconds(10L)).expectNext(0L, 0L).verifyComplete();
+    }
+
+    @Test
+    void when_joiningTimerAfterItFired_then_completesImmediately() {
+        var timers = new SharedTimers();
+        StepVerifier.withVirtualTime(() -> {
+            var timer = timers.createDeadline(DEADLINE, NOW);
+            return timer.concatWith(timer);
+        }).expectSubscription().expectNoEvent(Duration.ofSeconds(10L)).expectNext(0L, 0L).expectComplete()
+                .verify(Duration.ofSeconds(5L));
+    }
+
+}
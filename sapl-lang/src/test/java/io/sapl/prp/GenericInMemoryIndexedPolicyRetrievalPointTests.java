@@ -34,6 +34,7 @@
 import io.sapl.prp.index.ImmutableParsedDocumentIndex;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 class GenericInMemoryIndexedPolicyRetrievalPointTests {
 
@@ -131,4 +132,11 @@ void testConstructAndRetrieveWithNonSAPLResult() {
 
     }
 
+    @Test
+    void when_indexUpdates_then_returnsCurrentIndex() {
+        var prp = new GenericInMemoryIndexedPolicyRetrievalPoint(indexMock, sourceMock);
+        StepVerifier.create(prp.indexUpdates().orElseThrow()).expectNext(indexMock).thenCancel().verify();
+        prp.dispose();
+    }
+
 }
@@ -17,6 +17,7 @@
  */
 package io.sapl.prp;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 
 import org.junit.jupiter.api.Test;
@@ -39,4 +40,10 @@ void when_destroy_then_nothingThrown() {
         var sut = new TestPRP();
         assertDoesNotThrow(sut::destroy);
     }
+
+    @Test
+    void when_indexUpdatesNotImplemented_then_empty() {
+        var sut = new TestPRP();
+        assertThat(sut.indexUpdates()).isEmpty();
+    }
 }
@@ -18,12 +18,15 @@
 package io.sapl.prp.index.canonical;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -57,4 +60,95 @@ void forEachSetBitTest() {
         verify(listMock, times(2)).add(anyInt());
     }
 
+    @Test
+    void bitsBeyondTheFirstWordAreStored() {
+        var mask = new Bitmask();
+        mask.set(63, 66);
+        mask.set(200);
+
+        assertThat(mask.numberOfBitsSet(), is(4));
+        assertThat(mask.isSet(64), is(true));
+        assertThat(mask.isSet(199), is(false));
+        assertThat(mask.isSet(1000), is(false));
+        assertThat(mask.toString(), is("{63, 64, 65, 200}"));
+    }
+
+    @Test
+    void nextSetBitIteratesInAscendingOrder() {
+        var mask = new Bitmask(10);
+        mask.set(3);
+        mask.set(130);
+
+        assertThat(mask.nextSetBit(0), is(3));
+        assertThat(mask.nextSetBit(4), is(130));
+        assertThat(mask.nextSetBit(131), is(-1));
+        assertThat(mask.nextSetBit(5000), is(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> mask.nextSetBit(-1));
+    }
+
+    @Test
+    void forEachSetBitVisitsAllIndexes() {
+        var indexes = new ArrayList<Integer>();
+        bitmask.set(100);
+
+        bitmask.forEachSetBit(indexes::add);
+
+        assertThat(indexes, contains(2, 3, 100));
+    }
+
+    @Test
+    void inPlaceOperationsHandleMasksOfDifferentLength() {
+        var shortMask = new Bitmask();
+        shortMask.set(0, 4);
+        var longMask = new Bitmask();
+        longMask.set(2, 130);
+
+        var and = new Bitmask(longMask);
+        and.and(shortMask);
+        assertThat(and.toString(), is("{2, 3}"));
+
+        var andNot = new Bitmask(longMask);
+        andNot.andNot(shortMask);
+        assertThat(andNot.numberOfBitsSet(), is(126));
+        assertThat(andNot.isSet(3), is(false));
+
+        var or = new Bitmask(shortMask);
+        or.or(longMask);
+        assertThat(or.numberOfBitsSet(), is(130));
+
+        assertThat(shortMask.intersects(longMask), is(true));
+        assertThat(andNot.intersects(shortMask), is(false));
+    }
+
+    @Test
+    void setToIntersectionAndCopyFromOverwriteTheBuffer() {
+        var buffer = new Bitmask();
+        buffer.set(500);
+        var first = new Bitmask();
+        first.set(0, 70);
+        var second = new Bitmask();
+        second.set(65, 100);
+
+        buffer.setToIntersection(first, second);
+        assertThat(buffer.toString(), is("{65, 66, 67, 68, 69}"));
+
+        buffer.copyFrom(bitmask);
+        assertThat(buffer.toString(), is("{2, 3}"));
+
+        buffer.clear();
+        assertThat(buffer.isEmpty(), is(true));
+    }
+
+    @Test
+    void clearAndFlipSingleBits() {
+        bitmask.clear(2);
+        bitmask.clear(1000);
+        assertThat(bitmask.toString(), is("{3}"));
+
+        bitmask.flip(60, 70);
+        assertThat(bitmask.numberOfBitsSet(), is(11));
+        assertThrows(IndexOutOfBoundsException.class, () -> bitmask.set(5, 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> bitmask.set(-1));
+    }
+
 }
@@ -37,6 +37,7 @@
 import io.sapl.api.interpreter.Val;
 import io.sapl.grammar.sapl.Expression;
 import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
 
 class BoolTests {
 
@@ -151,4 +152,41 @@ void evaluating_bool_with_impossible_expression_should_return_impossible_value()
         assertThat(result.isBoolean(), is(true));
     }
 
+    @Test
+    void evaluating_bool_synchronously_should_return_first_value() {
+        var expressionMock = mock(Expression.class);
+        when(expressionMock.evaluate()).thenReturn(Flux.just(Val.FALSE, Val.TRUE));
+
+        var bool = new Bool(expressionMock, Collections.emptyMap());
+
+        assertThat(bool.evaluateExpressionSync(Context.empty()), is(Val.FALSE));
+        assertThat(constantBool.evaluateExpressionSync(Context.empty()), is(Val.FALSE));
+    }
+
+    @Test
+    void evaluating_bool_synchronously_with_non_boolean_or_failing_expression_should_return_error() {
+        var longExpression = mock(Expression.class);
+        when(longExpression.evaluate()).thenReturn(Flux.just(Val.of(0L)));
+        var failingExpression = mock(Expression.class);
+        when(failingExpression.evaluate()).thenReturn(Flux.error(new IllegalStateException("failed")));
+
+        var longResult    = new Bool(longExpression, Collections.emptyMap()).evaluateExpressionSync(Context.empty());
+        var failingResult = new Bool(failingExpression, Collections.emptyMap()).evaluateExpressionSync(Context.empty());
+
+        assertThat(longResult.isError(), is(true));
+        assertThat(failingResult.isError(), is(true));
+        assertThat(failingResult.getMessage(), is("failed"));
+    }
+
+    @Test
+    void evaluating_bool_synchronously_with_asynchronous_expression_should_return_error() {
+        var expressionMock = mock(Expression.class);
+        when(expressionMock.evaluate()).thenReturn(Flux.never());
+
+        var result = new Bool(expressionMock, Collections.emptyMap()).evaluateExpressionSync(Context.empty());
+
+        assertThat(result.isError(), is(true));
+        assertThat(result.getMessage(), is(Bool.NOT_SYNCHRONOUS_ERROR));
+    }
+
 }
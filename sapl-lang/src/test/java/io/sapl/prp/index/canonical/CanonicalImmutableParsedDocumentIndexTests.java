@@ -18,6 +18,7 @@
 package io.sapl.prp.index.canonical;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -430,6 +431,81 @@ void throw_exception_on_name_collision() {
         assertThrows(RuntimeException.class, () -> emptyIndex.applyUpdate(saplMap, updateMock));
     }
 
+    @Test
+    void incremental_updates_match_same_documents_as_recreated_index() {
+        var definitions = List.of("policy \"p_0\" permit resource.x0 & resource.x1",
+                "policy \"p_1\" permit resource.x0 & resource.x1", "policy \"p_2\" permit !resource.x1 | resource.x2",
+                "policy \"p_3\" permit (resource.x0 | resource.x2) & !resource.x3", "policy \"p_4\" permit resource.x3",
+                "policy \"p_5\" permit !(resource.x0 | resource.x1)", "policy \"p_6\" permit resource.x2 & resource.x3",
+                "policy \"p_7\" permit");
+        var documents   = definitions.stream().map(interpreter::parse).toList();
+
+        // initial publication of p_0 to p_5
+        ImmutableParsedDocumentIndex index = emptyIndex.apply(new PrpUpdateEvent(
+                documents.subList(0, 6).stream().map(document -> new Update(Type.PUBLISH, document, "")).toList()));
+        assertMatchesSameDocumentsAsRecreatedIndex(index, documents.subList(0, 6));
+
+        // p_1 shares its target with p_0
+        index = index.apply(new PrpUpdateEvent(new Update(Type.WITHDRAW, documents.get(1), "")));
+        assertMatchesSameDocumentsAsRecreatedIndex(index,
+                List.of(documents.get(0), documents.get(2), documents.get(3), documents.get(4), documents.get(5)));
+
+        index = index.apply(new PrpUpdateEvent(new Update(Type.WITHDRAW, documents.get(3), ""),
+                new Update(Type.PUBLISH, documents.get(6), "")));
+        assertMatchesSameDocumentsAsRecreatedIndex(index,
+                List.of(documents.get(0), documents.get(2), documents.get(4), documents.get(5), documents.get(6)));
+
+        index = index.apply(new PrpUpdateEvent(new Update(Type.WITHDRAW, documents.get(0), ""),
+                new Update(Type.WITHDRAW, documents.get(5), ""), new Update(Type.PUBLISH, documents.get(7), "")));
+        assertMatchesSameDocumentsAsRecreatedIndex(index,
+                List.of(documents.get(2), documents.get(4), documents.get(6), documents.get(7)));
+
+        // re-publication reuses the indexes of removed conjunctions
+        index = index.apply(new PrpUpdateEvent(new Update(Type.PUBLISH, documents.get(0), ""),
+                new Update(Type.PUBLISH, documents.get(3), "")));
+        assertMatchesSameDocumentsAsRecreatedIndex(index, List.of(documents.get(0), documents.get(2), documents.get(3),
+                documents.get(4), documents.get(6), documents.get(7)));
+    }
+
+    @Test
+    void incremental_update_leaves_previous_index_unchanged() {
+        var first  = interpreter.parse("policy \"p_0\" permit resource.x0 & resource.x1");
+        var second = interpreter.parse("policy \"p_1\" permit !resource.x1");
+        var third  = interpreter.parse("policy \"p_2\" permit resource.x1");
+
+        var previousIndex = emptyIndex
+                .apply(new PrpUpdateEvent(new Update(Type.PUBLISH, first, ""), new Update(Type.PUBLISH, second, "")));
+        previousIndex
+                .apply(new PrpUpdateEvent(new Update(Type.WITHDRAW, first, ""), new Update(Type.PUBLISH, third, "")));
+
+        assertMatchesSameDocumentsAsRecreatedIndex(previousIndex, List.of(first, second));
+    }
+
+    private void assertMatchesSameDocumentsAsRecreatedIndex(ImmutableParsedDocumentIndex index,
+            List<SAPL> expectedDocuments) {
+        var recreatedIndex = emptyIndex.apply(new PrpUpdateEvent(
+                expectedDocuments.stream().map(document -> new Update(Type.PUBLISH, document, "")).toList()));
+        for (int assignment = 0; assignment < 16; assignment++) {
+            for (int i = 0; i < 4; i++) {
+                bindings.put("x" + i, (assignment & (1 << i)) != 0);
+            }
+            var actual   = retrieveWithBindings(index);
+            var expected = retrieveWithBindings(recreatedIndex);
+            assertThat(Set.copyOf(actual.getMatchingDocuments()), is(Set.copyOf(expected.getMatchingDocuments())));
+            assertThat(actual.isErrorsInTarget(), is(expected.isErrorsInTarget()));
+        }
+    }
+
+    private PolicyRetrievalResult retrieveWithBindings(ImmutableParsedDocumentIndex index) {
+        return index.retrievePolicies().contextWrite(ctx -> {
+            ctx = AuthorizationContext.setAttributeContext(ctx, new AnnotationAttributeContext());
+            ctx = AuthorizationContext.setFunctionContext(ctx, new AnnotationFunctionContext());
+            ctx = AuthorizationContext.setVariables(ctx, variables);
+            ctx = AuthorizationContext.setSubscriptionVariables(ctx, createRequestObject());
+            return ctx;
+        }).block();
+    }
+
     private AuthorizationSubscription createRequestObject() {
 
         ObjectNode resource = json.objectNode();
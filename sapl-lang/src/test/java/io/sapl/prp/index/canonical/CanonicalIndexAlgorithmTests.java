@@ -34,6 +34,7 @@
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -63,6 +64,7 @@ void return_matching_context_when_predicate_is_referenced_in_candidates() {
 
         var dataContainer = mock(CanonicalIndexDataContainer.class);
         when(dataContainer.getPredicateOrder()).thenReturn(ImmutableList.copyOf(Collections.singletonList(predicate)));
+        when(dataContainer.getMatchingContextPool()).thenReturn(new CanonicalIndexMatchingContextPool(0));
 
         var result = CanonicalIndexAlgorithm.match(dataContainer).block();
 
@@ -80,6 +82,7 @@ void skip_predicates_without_candidate_references() {
 
         var dataContainer = mock(CanonicalIndexDataContainer.class);
         when(dataContainer.getPredicateOrder()).thenReturn(ImmutableList.copyOf(Arrays.asList(p1, p2)));
+        when(dataContainer.getMatchingContextPool()).thenReturn(new CanonicalIndexMatchingContextPool(0));
 
         try (MockedStatic<CanonicalIndexAlgorithm> mock = mockStatic(CanonicalIndexAlgorithm.class,
                 Mockito.CALLS_REAL_METHODS)) {
@@ -95,7 +98,8 @@ void skip_predicates_without_candidate_references() {
 
                 verify(mocked.constructed().get(0), times(2)).isPredicateReferencedInCandidates(any(Predicate.class));
 
-                mock.verify(() -> CanonicalIndexAlgorithm.skipPredicate(any()), times(1));
+                mock.verify(() -> CanonicalIndexAlgorithm.handleEvaluationResult(any(), eq(p1), any(), any()),
+                        times(0));
                 mock.verify(() -> CanonicalIndexAlgorithm.handleEvaluationResult(any(), eq(p2), any(), any()),
                         times(1));
 
@@ -103,6 +107,28 @@ void skip_predicates_without_candidate_references() {
         }
     }
 
+    @Test
+    void synchronous_matching_skips_predicates_without_candidate_references() {
+        var referenced   = spy(new Predicate(new Bool(false)));
+        var unreferenced = spy(new Predicate(new Bool(true)));
+        referenced.getConjunctions().set(0);
+        referenced.getFalseForTruePredicate().set(0);
+
+        var dataContainer = mock(CanonicalIndexDataContainer.class);
+        when(dataContainer.getPredicateOrder()).thenReturn(ImmutableList.of(referenced, unreferenced));
+        when(dataContainer.getMatchingContextPool()).thenReturn(new CanonicalIndexMatchingContextPool(1));
+        when(dataContainer.getConjunctionsInFormulasReferencingConjunction(anyInt())).thenReturn(Set.of());
+        when(dataContainer.getNumberOfLiteralsInConjunction(0)).thenReturn(1);
+
+        var result = CanonicalIndexAlgorithm.match(dataContainer).block();
+
+        assertThat(result, notNullValue());
+        assertThat(result.isErrorsInTarget(), is(false));
+        verify(referenced, times(1)).evaluateSync(any());
+        verify(unreferenced, times(0)).evaluateSync(any());
+        verify(dataContainer, times(1)).getRelatedFormulas(0);
+    }
+
     @Test
     void test_or_bitmask() {
         var b1 = new Bitmask();
@@ -327,6 +353,7 @@ void testOrphanedCandidates() {
         when(matchingCtx.isRemainingCandidate(1)).thenReturn(Boolean.TRUE);
         when(matchingCtx.isRemainingCandidate(2)).thenReturn(Boolean.FALSE);
         when(matchingCtx.areAllFunctionsEliminated(eq(1), anyInt())).thenReturn(Boolean.TRUE);
+        when(matchingCtx.orphanedCandidatesBuffer()).thenReturn(new Bitmask());
 
         var orphanedCandidates = CanonicalIndexAlgorithm.findOrphanedCandidates(satisfiableCandidates, matchingCtx,
                 dataContainer);
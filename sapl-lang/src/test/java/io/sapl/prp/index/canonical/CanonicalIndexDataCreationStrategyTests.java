@@ -29,6 +29,11 @@
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 
+import com.google.common.collect.Maps;
+
+import io.sapl.grammar.sapl.SAPL;
+import io.sapl.interpreter.DefaultSAPLInterpreter;
+
 class CanonicalIndexDataCreationStrategyTests {
 
     @Test
@@ -74,4 +79,32 @@ void testCreatePredicateInfo() {
         assertThat(boolToPredicateInfo.get(bool).getGroupedNumberOfNegatives(), is(1));
     }
 
+    @Test
+    void parallelConstructionIsDeterministic() {
+        var interpreter = new DefaultSAPLInterpreter();
+        var documents   = new HashMap<String, SAPL>();
+        var targets     = new HashMap<String, DisjunctiveFormula>();
+        for (int i = 0; i < 60; i++) {
+            var name     = "p_" + i;
+            var document = interpreter.parse("policy \"" + name + "\" permit (resource.a" + i % 7 + " & !resource.b"
+                    + i % 5 + ") | resource.c" + i % 3);
+            documents.put(name, document);
+            targets.put(name, TreeWalker.walk(document.getImplicitTargetExpression(), Map.of()));
+        }
+
+        var strategy = new CanonicalIndexDataCreationStrategy();
+        var first    = strategy.constructNew(documents, targets);
+        var second   = strategy.constructNew(documents, targets);
+
+        assertThat(second.getNumberOfConjunctions(), is(first.getNumberOfConjunctions()));
+        for (int i = 0; i < first.getNumberOfConjunctions(); i++) {
+            assertThat(second.getConjunctionsInFormulasReferencingConjunction(i),
+                    is(first.getConjunctionsInFormulasReferencingConjunction(i)));
+            assertThat(second.getNumberOfFormulasWithConjunction(i), is(first.getNumberOfFormulasWithConjunction(i)));
+            assertThat(second.getRelatedFormulas(i), is(first.getRelatedFormulas(i)));
+        }
+        assertThat(Maps.transformValues(second.getRelatedCandidates(), Bitmask::toString),
+                is(Maps.transformValues(first.getRelatedCandidates(), Bitmask::toString)));
+    }
+
 }
@@ -52,4 +52,42 @@ void testAreAllFunctionsEliminated() {
         assertThat(matchingCtx.areAllFunctionsEliminated(0, 41), is(false));
     }
 
+    @Test
+    void resetRestoresTheInitialState() {
+        var matchingCtx = new CanonicalIndexMatchingContext(70);
+        var satisfied   = new Bitmask();
+        satisfied.set(65);
+        matchingCtx.addSatisfiedCandidates(satisfied);
+        matchingCtx.removeCandidates(satisfied);
+        matchingCtx.incrementTrueLiteralsForConjunction(65);
+        matchingCtx.increaseNumberOfEliminatedFormulasForConjunction(65, 1);
+        matchingCtx.setErrorsInTargets(true);
+
+        matchingCtx.reset();
+
+        assertThat(matchingCtx.getMatchingCandidatesMask().isEmpty(), is(true));
+        assertThat(matchingCtx.getCopyOfCandidates().numberOfBitsSet(), is(70));
+        assertThat(matchingCtx.isConjunctionSatisfied(65, 0), is(true));
+        assertThat(matchingCtx.areAllFunctionsEliminated(65, 0), is(true));
+        assertThat(matchingCtx.isErrorsInTargets(), is(false));
+    }
+
+    @Test
+    void poolReusesReleasedContexts() {
+        var pool  = new CanonicalIndexMatchingContextPool(3, 1);
+        var first = pool.acquire();
+        first.setErrorsInTargets(true);
+        pool.release(first);
+
+        var second = pool.acquire();
+        var third  = pool.acquire();
+        pool.release(second);
+        pool.release(third);
+
+        assertThat(second == first, is(true));
+        assertThat(second.isErrorsInTargets(), is(false));
+        assertThat(third == first, is(false));
+        assertThat(pool.numberOfIdleContexts(), is(1));
+    }
+
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.prp.index.canonical;
+
+import static io.sapl.testutil.ParserUtil.expression;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.interpreter.context.AuthorizationContext;
+import io.sapl.interpreter.functions.AnnotationFunctionContext;
+import io.sapl.interpreter.pip.AnnotationAttributeContext;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+class EqualityPredicateIndexTests {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void detectsComparisonsWithStringConstants() throws IOException {
+        var rightConstant = bool("resource.type == \"order\"").asStringEquality();
+        assertThat(rightConstant.getConstant()).isEqualTo("order");
+        assertThat(rightConstant.getOperand()).isEqualTo(bool("resource.type"));
+
+        var leftConstant = bool("\"order\" == resource.type").asStringEquality();
+        assertThat(leftConstant.getConstant()).isEqualTo("order");
+        assertThat(leftConstant.getOperand()).isEqualTo(bool("resource.type"));
+    }
+
+    @Test
+    void ignoresOtherExpressions() throws IOException {
+        assertThat(bool("resource.type != \"order\"").asStringEquality()).isNull();
+        assertThat(bool("resource.type == 1").asStringEquality()).isNull();
+        assertThat(bool("resource.type == subject.type").asStringEquality()).isNull();
+        assertThat(bool("\"order\" == \"order\"").asStringEquality()).isNull();
+        assertThat(bool("resource.type == \"order\".length").asStringEquality()).isNull();
+        assertThat(bool("resource.type").asStringEquality()).isNull();
+        assertThat(new Bool(true).asStringEquality()).isNull();
+    }
+
+    @Test
+    void groupsOnlyComparisonsOfTheSameExpression() throws IOException {
+        var order   = predicate("resource.type == \"order\"");
+        var invoice = predicate("resource.type == \"invoice\"");
+        var read    = predicate("action == \"read\"");
+        var other   = predicate("resource.owner");
+
+        var index = new EqualityPredicateIndex(List.of(order, invoice, read, other));
+
+        assertThat(index.getNumberOfGroups()).isEqualTo(1);
+        assertThat(index.isGrouped(order)).isTrue();
+        assertThat(index.isGrouped(invoice)).isTrue();
+        assertThat(index.isGrouped(read)).isFalse();
+        assertThat(index.isGrouped(other)).isFalse();
+    }
+
+    @Test
+    void groupedPredicatesEvaluateLikeTheirExpressions() throws IOException {
+        var predicates = List.of(predicate("resource.type == \"order\""), predicate("resource.type == \"invoice\""),
+                predicate("\"offer\" == resource.type"), predicate("resource.type == \"1\""));
+        var index      = new EqualityPredicateIndex(predicates);
+        var resources  = List.of("{\"type\":\"order\"}", "{\"type\":\"offer\"}", "{\"type\":\"unknown\"}",
+                "{\"type\":1}", "{\"type\":null}", "{\"type\":[\"order\"]}", "{}", "\"order\"");
+
+        for (var resource : resources) {
+            var ctx         = subscriptionContext(resource);
+            var matchingCtx = new CanonicalIndexMatchingContext(0, index.getNumberOfGroups());
+            for (var predicate : predicates) {
+                assertThat(index.evaluate(predicate, ctx, matchingCtx)).as("%s for %s", predicate.getBool(), resource)
+                        .isEqualTo(predicate.evaluateSync(ctx));
+            }
+        }
+    }
+
+    @Test
+    void errorsOfTheSharedExpressionAreReturnedForAllPredicatesOfTheGroup() throws IOException {
+        var first       = predicate("resource.type[(1/0)] == \"order\"");
+        var second      = predicate("resource.type[(1/0)] == \"invoice\"");
+        var index       = new EqualityPredicateIndex(List.of(first, second));
+        var matchingCtx = new CanonicalIndexMatchingContext(0, index.getNumberOfGroups());
+        var ctx         = subscriptionContext("{\"type\":\"order\"}");
+
+        assertThat(index.evaluate(first, ctx, matchingCtx).isError()).isTrue();
+        assertThat(index.evaluate(second, ctx, matchingCtx).isError()).isTrue();
+    }
+
+    @Test
+    void resetMatchingContextResolvesGroupsAgain() throws IOException {
+        var order       = predicate("resource.type == \"order\"");
+        var invoice     = predicate("resource.type == \"invoice\"");
+        var index       = new EqualityPredicateIndex(List.of(order, invoice));
+        var matchingCtx = new CanonicalIndexMatchingContext(0, index.getNumberOfGroups());
+
+        assertThat(index.evaluate(order, subscriptionContext("{\"type\":\"order\"}"), matchingCtx)).isEqualTo(Val.TRUE);
+        matchingCtx.reset();
+        assertThat(index.evaluate(order, subscriptionContext("{\"type\":\"invoice\"}"), matchingCtx))
+                .isEqualTo(Val.FALSE);
+        assertThat(index.evaluate(invoice, subscriptionContext("{\"type\":\"invoice\"}"), matchingCtx))
+                .isEqualTo(Val.TRUE);
+    }
+
+    @Test
+    void resolvingAGroupRemovesAllConjunctionsFalsifiedByTheOutcomeAtOnce() throws IOException {
+        var order   = predicate("resource.type == \"order\"");
+        var invoice = predicate("resource.type == \"invoice\"");
+        // conjunction 0 contains order, 1 contains invoice, 2 contains !order, 3 contains !invoice
+        order.getFalseForFalsePredicate().set(0);
+        invoice.getFalseForFalsePredicate().set(1);
+        order.getFalseForTruePredicate().set(2);
+        invoice.getFalseForTruePredicate().set(3);
+        var index       = new EqualityPredicateIndex(List.of(order, invoice));
+        var matchingCtx = new CanonicalIndexMatchingContext(5, index.getNumberOfGroups());
+
+        index.evaluate(order, subscriptionContext("{\"type\":\"order\"}"), matchingCtx);
+
+        assertThat(matchingCtx.isRemainingCandidate(0)).isTrue();
+        assertThat(matchingCtx.isRemainingCandidate(1)).isFalse();
+        assertThat(matchingCtx.isRemainingCandidate(2)).isFalse();
+        assertThat(matchingCtx.isRemainingCandidate(3)).isTrue();
+        assertThat(matchingCtx.isRemainingCandidate(4)).isTrue();
+
+        matchingCtx.reset();
+        index.evaluate(invoice, subscriptionContext("{\"type\":\"offer\"}"), matchingCtx);
+
+        assertThat(matchingCtx.isRemainingCandidate(0)).isFalse();
+        assertThat(matchingCtx.isRemainingCandidate(1)).isFalse();
+        assertThat(matchingCtx.isRemainingCandidate(2)).isTrue();
+        assertThat(matchingCtx.isRemainingCandidate(3)).isTrue();
+    }
+
+    private static Bool bool(String expression) throws IOException {
+        return new Bool(expression(expression), Map.of());
+    }
+
+    private static Predicate predicate(String expression) throws IOException {
+        return new Predicate(bool(expression));
+    }
+
+    private static ContextView subscriptionContext(String resource) throws IOException {
+        JsonNode resourceNode = MAPPER.readTree(resource);
+        var      subscription = new AuthorizationSubscription(NullNode.getInstance(), NullNode.getInstance(),
+                resourceNode, NullNode.getInstance());
+        var      ctx          = AuthorizationContext.setAttributeContext(Context.empty(),
+                new AnnotationAttributeContext());
+        ctx = AuthorizationContext.setFunctionContext(ctx, new AnnotationFunctionContext());
+        ctx = AuthorizationContext.setVariables(ctx, Map.of());
+        return AuthorizationContext.setSubscriptionVariables(ctx, subscription);
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.prp.index.canonical;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class IndexConstructionPoolTests {
+
+    @Test
+    void parallelStreamsRunInTheDedicatedPool() {
+        var threadNames = IndexConstructionPool.compute(() -> IntStream.range(0, 10_000).parallel()
+                .mapToObj(i -> Thread.currentThread().getName()).collect(Collectors.toSet()));
+
+        assertThat(threadNames).isNotEmpty().allMatch(name -> name.startsWith("sapl-index-construction-"));
+    }
+
+    @Test
+    void resultOfTaskIsReturned() {
+        assertThat(IndexConstructionPool.compute(() -> IntStream.rangeClosed(1, 100).parallel().sum()))
+                .isEqualTo(5050);
+    }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.prp.index.canonical.ordering;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.sapl.api.interpreter.Val;
+import io.sapl.grammar.sapl.SAPL;
+import io.sapl.prp.index.canonical.Bool;
+import io.sapl.prp.index.canonical.CanonicalIndexAlgorithm;
+import io.sapl.prp.index.canonical.CanonicalIndexDataContainer;
+import io.sapl.prp.index.canonical.CanonicalIndexDataCreationStrategy;
+import io.sapl.prp.index.canonical.ConjunctiveClause;
+import io.sapl.prp.index.canonical.DisjunctiveFormula;
+import io.sapl.prp.index.canonical.Literal;
+import io.sapl.prp.index.canonical.Predicate;
+
+class AdaptivePredicateOrderStrategyTests {
+
+    private AdaptivePredicateOrderStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        strategy = new AdaptivePredicateOrderStrategy(Duration.ofHours(1L), 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        strategy.dispose();
+    }
+
+    @Test
+    void whenInvalidParameters_thenConstructionFails() {
+        var zero = Duration.ZERO;
+        assertThatThrownBy(() -> new AdaptivePredicateOrderStrategy(zero, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        var interval = Duration.ofSeconds(1L);
+        assertThatThrownBy(() -> new AdaptivePredicateOrderStrategy(interval, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void whenDisposed_thenIsDisposed() {
+        assertThat(strategy.isDisposed()).isFalse();
+        strategy.dispose();
+        assertThat(strategy.isDisposed()).isTrue();
+    }
+
+    @Test
+    void whenSamplingIntervalIsOne_thenEveryMatchingIsSampled() {
+        assertThat(strategy.sampleNextMatching()).isTrue();
+    }
+
+    @Test
+    void whenIndexIsCreated_thenItIsObservedAndEvaluationsAreRecorded() {
+        var index = createIndex();
+
+        CanonicalIndexAlgorithm.match(index).block();
+
+        assertThat(strategy.getStatistics()).isNotEmpty();
+        assertThat(strategy.getStatistics().values())
+                .allSatisfy(predicateStatistics -> assertThat(predicateStatistics.getEvaluations()).isPositive());
+    }
+
+    @Test
+    void whenNoStatistics_thenOrderIsUnchanged() {
+        var index         = createIndex();
+        var previousOrder = index.getPredicateOrder();
+
+        strategy.reorderPredicates();
+
+        assertThat(index.getPredicateOrder()).containsExactlyElementsOf(previousOrder);
+    }
+
+    @Test
+    void whenPredicateResolvesMoreCandidatesPerCost_thenItIsEvaluatedFirst() {
+        var index  = createIndex();
+        var first  = index.getPredicateOrder().get(0);
+        var second = index.getPredicateOrder().get(1);
+
+        for (int i = 0; i < AdaptivePredicateOrderStrategy.MINIMUM_EVALUATIONS_FOR_SCORE; i++) {
+            strategy.predicateEvaluated(first, 1_000L, Val.TRUE, 1);
+            strategy.predicateEvaluated(second, 10L, Val.FALSE, 2);
+        }
+        strategy.reorderPredicates();
+
+        assertThat(index.getPredicateOrder()).startsWith(second, first);
+    }
+
+    @Test
+    void whenPredicateIsNoLongerInIndex_thenItsStatisticsAreDropped() {
+        var index   = new CanonicalIndexDataCreationStrategy(strategy).constructNew(Map.of("p1", mock(SAPL.class)),
+                Map.of("p1", new DisjunctiveFormula(new ConjunctiveClause(new Literal(new Bool(true))))));
+        var removed = new Predicate(new Bool(false));
+
+        strategy.predicateEvaluated(removed, 10L, Val.TRUE, 1);
+        strategy.predicateEvaluated(index.getPredicateOrder().get(0), 10L, Val.TRUE, 1);
+        strategy.reorderPredicates();
+
+        assertThat(strategy.getStatistics()).hasSize(1).containsKey(index.getPredicateOrder().get(0).getBool());
+    }
+
+    @Test
+    void whenReorderedWithOtherPredicates_thenContainerRejectsOrder() {
+        var index           = createIndex();
+        var otherPredicates = List.of(new Predicate(new Bool(true)), new Predicate(new Bool(false)),
+                new Predicate(new Bool(true)));
+
+        assertThatThrownBy(() -> index.reorderPredicates(otherPredicates)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void whenRecordingEvaluations_thenCountersAreUpdated() {
+        var predicateStatistics = new PredicateStatistics();
+        assertThat(predicateStatistics.getAverageCostInNanos()).isZero();
+        assertThat(predicateStatistics.getTrueRatio()).isZero();
+        assertThat(predicateStatistics.getScore()).isNaN();
+
+        predicateStatistics.record(10L, Val.TRUE, 3);
+        predicateStatistics.record(20L, Val.FALSE, 1);
+        predicateStatistics.record(30L, Val.error("error"), 0);
+
+        assertThat(predicateStatistics.getEvaluations()).isEqualTo(3L);
+        assertThat(predicateStatistics.getCostInNanos()).isEqualTo(60L);
+        assertThat(predicateStatistics.getTrueResults()).isEqualTo(1L);
+        assertThat(predicateStatistics.getFalseResults()).isEqualTo(1L);
+        assertThat(predicateStatistics.getErrors()).isEqualTo(1L);
+        assertThat(predicateStatistics.getEliminatedCandidatesIfTrue()).isEqualTo(3L);
+        assertThat(predicateStatistics.getEliminatedCandidatesIfFalse()).isEqualTo(1L);
+        assertThat(predicateStatistics.getAverageCostInNanos()).isEqualTo(20.0D);
+        assertThat(predicateStatistics.getTrueRatio()).isEqualTo(1.0D / 3.0D);
+
+        predicateStatistics.updateScore(4L, 0.5D);
+        assertThat(predicateStatistics.getScore()).isNaN();
+        predicateStatistics.updateScore(3L, 0.5D);
+        assertThat(predicateStatistics.getScore()).isEqualTo(4.0D / 60.0D);
+
+        predicateStatistics.record(40L, Val.TRUE, 4);
+        predicateStatistics.updateScore(1L, 0.5D);
+        assertThat(predicateStatistics.getScore()).isEqualTo(0.5D * 4.0D / 40.0D + 0.5D * 4.0D / 60.0D);
+    }
+
+    private CanonicalIndexDataContainer createIndex() {
+        var a = new Literal(new Bool(true));
+        var b = new Literal(new Bool(false), true);
+
+        var targets   = Map.of("p1", new DisjunctiveFormula(new ConjunctiveClause(a, b)), "p2",
+                new DisjunctiveFormula(new ConjunctiveClause(b)));
+        var documents = Map.of("p1", mock(SAPL.class), "p2", mock(SAPL.class));
+
+        return new CanonicalIndexDataCreationStrategy(strategy).constructNew(documents, targets);
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.sapl.api.pdp.AuthorizationSubscription;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Creates keys for authorization subscriptions. The key is an immutable deep
+ * copy of the subscription. JSON equality is structural, i.e., the order of the
+ * fields in objects does not matter.
+ */
+@UtilityClass
+class CanonicalSubscriptionUtil {
+
+    static AuthorizationSubscription canonicalCopyOf(AuthorizationSubscription authorizationSubscription) {
+        return new AuthorizationSubscription(deepCopy(authorizationSubscription.getSubject()),
+                deepCopy(authorizationSubscription.getAction()), deepCopy(authorizationSubscription.getResource()),
+                deepCopy(authorizationSubscription.getEnvironment()));
+    }
+
+    private static JsonNode deepCopy(JsonNode node) {
+        return node == null ? null : node.deepCopy();
+    }
+
+}
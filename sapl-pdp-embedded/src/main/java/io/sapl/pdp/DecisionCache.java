@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import io.sapl.api.interpreter.PolicyEvaluationException;
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.TracedDecision;
+import io.sapl.grammar.sapl.AttributeFinderStep;
+import io.sapl.grammar.sapl.BasicEnvironmentAttribute;
+import io.sapl.grammar.sapl.BasicEnvironmentHeadAttribute;
+import io.sapl.grammar.sapl.BasicFunction;
+import io.sapl.grammar.sapl.FilterSimple;
+import io.sapl.grammar.sapl.FilterStatement;
+import io.sapl.grammar.sapl.HeadAttributeFinderStep;
+import io.sapl.grammar.sapl.SAPL;
+import io.sapl.grammar.sapl.impl.util.FunctionUtil;
+import io.sapl.grammar.sapl.impl.util.ImportsUtil;
+import io.sapl.interpreter.functions.FunctionContext;
+import io.sapl.pdp.config.PDPConfiguration;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A size-bounded cache for one-shot decisions of the embedded PDP.
+ * <p>
+ * Only decisions are cached, where none of the matching documents uses an
+ * attribute finder or a function which is not pure, see
+ * {@link io.sapl.api.functions.Function#pure()}. These decisions only depend on
+ * the subscription, the documents and the PDP configuration. Thus, the cache
+ * must be invalidated whenever the PRP emits a new index or the configuration
+ * provider emits a new configuration. Entries are evicted when the cache
+ * exceeds its maximum size, least recently used first, or when they exceed
+ * their time to live.
+ * <p>
+ * The cache stores decisions before the decision interceptors of the PDP
+ * configuration are applied. The interceptors are applied to each decision
+ * answered from the cache. Each answer carries its own copy of the obligations,
+ * advice and resource of the cached decision.
+ */
+@Slf4j
+public class DecisionCache {
+
+    private static final String ANSWERED_FROM_CACHE = "Answered from the decision cache.";
+
+    private final Cache<AuthorizationSubscription, CachedDecision> decisions;
+
+    private final Cache<SAPL, Boolean> cacheableDocuments = CacheBuilder.newBuilder().weakKeys().build();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicBoolean enabled = new AtomicBoolean(true);
+
+    /*
+     * The authorization decision is copied when it is stored, so that callers
+     * cannot modify the cached obligations, advice or resource.
+     */
+    private record CachedDecision(TracedDecision tracedDecision, AuthorizationDecision authorizationDecision) {
+    }
+
+    /**
+     * @param maximumSize maximum number of cached decisions
+     * @param timeToLive  maximum time a decision stays in the cache
+     */
+    public DecisionCache(long maximumSize, @NonNull Duration timeToLive) {
+        decisions = CacheBuilder.newBuilder().maximumSize(maximumSize).expireAfterWrite(timeToLive).build();
+    }
+
+    /**
+     * Invalidates the cache on each event of the triggers. If one of the triggers
+     * fails, the cache is cleared and disabled, as consistency can no longer be
+     * guaranteed.
+     *
+     * @param triggers sources of invalidation events
+     * @return the subscription to the triggers
+     */
+    Disposable invalidateOn(Flux<?> triggers) {
+        return triggers.subscribe(event -> invalidateAll(), this::disable);
+    }
+
+    /**
+     * Removes all cached decisions.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        decisions.invalidateAll();
+        cacheableDocuments.invalidateAll();
+    }
+
+    /**
+     * @return the number of cached decisions
+     */
+    public long size() {
+        return decisions.size();
+    }
+
+    /**
+     * Answers from the cache if possible. Else, the decision is made using the
+     * decision function and cached if none of the matching documents uses
+     * attribute finders or functions which are not pure. The decision interceptors
+     * of the configuration are applied to the cached as well as to the new
+     * decisions.
+     *
+     * @param authorizationSubscription the authorization subscription
+     * @param pdpConfiguration          the valid configuration the decision is
+     *                                  made with
+     * @param decisionFunction          makes the decision without applying the
+     *                                  decision interceptors, if it is not cached
+     * @return the authorization decision
+     */
+    Mono<AuthorizationDecision> decideOnce(AuthorizationSubscription authorizationSubscription,
+            PDPConfiguration pdpConfiguration,
+            Function<AuthorizationSubscription, Mono<? extends TracedDecision>> decisionFunction) {
+        var interceptors = pdpConfiguration.decisionInterceptorChain();
+        return Mono.defer(() -> {
+            var key    = CanonicalSubscriptionUtil.canonicalCopyOf(authorizationSubscription);
+            var cached = decisions.getIfPresent(key);
+            if (cached != null) {
+                var answer = cached.tracedDecision().modified(copyOf(cached.authorizationDecision()),
+                        ANSWERED_FROM_CACHE);
+                return Mono.just(interceptors.apply(answer).getAuthorizationDecision());
+            }
+
+            var generationAtStart = generation.get();
+            return decisionFunction.apply(key)
+                    .doOnNext(decision -> cacheIfCacheable(key, decision, pdpConfiguration, generationAtStart))
+                    .map(interceptors).map(TracedDecision::getAuthorizationDecision);
+        });
+    }
+
+    private void cacheIfCacheable(AuthorizationSubscription key, TracedDecision decision,
+            PDPConfiguration pdpConfiguration, long generationAtStart) {
+        if (!enabled.get() || !(decision instanceof PDPDecision pdpDecision))
+            return;
+
+        for (var document : pdpDecision.getMatchingDocuments()) {
+            if (!isCacheable(document, pdpConfiguration, generationAtStart))
+                return;
+        }
+
+        if (generation.get() != generationAtStart)
+            return;
+
+        decisions.put(key, new CachedDecision(decision, copyOf(decision.getAuthorizationDecision())));
+        // The cache may have been invalidated while storing the decision.
+        if (generation.get() != generationAtStart)
+            decisions.invalidate(key);
+    }
+
+    private boolean isCacheable(SAPL document, PDPConfiguration pdpConfiguration, long generationAtStart) {
+        var cacheable = cacheableDocuments.getIfPresent(document);
+        if (cacheable == null) {
+            cacheable = !containsAttributeFinder(document) && usesOnlyPureFunctions(document, pdpConfiguration);
+            // Purity depends on the configuration. Do not keep results of outdated ones.
+            if (generation.get() == generationAtStart)
+                cacheableDocuments.put(document, cacheable);
+        }
+        return cacheable;
+    }
+
+    private static boolean containsAttributeFinder(SAPL document) {
+        var contents = document.eAllContents();
+        while (contents.hasNext()) {
+            var element = contents.next();
+            if (element instanceof AttributeFinderStep || element instanceof HeadAttributeFinderStep
+                    || element instanceof BasicEnvironmentAttribute || element instanceof BasicEnvironmentHeadAttribute)
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean usesOnlyPureFunctions(SAPL document, PDPConfiguration pdpConfiguration) {
+        Map<String, String> imports;
+        try {
+            imports = ImportsUtil.fetchImports(document, pdpConfiguration.attributeContext(),
+                    pdpConfiguration.functionContext());
+        } catch (PolicyEvaluationException e) {
+            return false;
+        }
+        var contents = document.eAllContents();
+        while (contents.hasNext()) {
+            var element = contents.next();
+            if (element instanceof BasicFunction function
+                    && !isPure(function.getFsteps(), imports, pdpConfiguration.functionContext()))
+                return false;
+            if (element instanceof FilterSimple filter
+                    && !isPure(filter.getFsteps(), imports, pdpConfiguration.functionContext()))
+                return false;
+            if (element instanceof FilterStatement filter
+                    && !isPure(filter.getFsteps(), imports, pdpConfiguration.functionContext()))
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean isPure(Iterable<String> fsteps, Map<String, String> imports,
+            FunctionContext functionContext) {
+        return functionContext.isPure(FunctionUtil.resolveAbsoluteFunctionName(fsteps, imports));
+    }
+
+    private static AuthorizationDecision copyOf(AuthorizationDecision decision) {
+        return new AuthorizationDecision(decision.getDecision(), decision.getResource().map(JsonNode::deepCopy),
+                decision.getObligations().map(ArrayNode::deepCopy), decision.getAdvice().map(ArrayNode::deepCopy));
+    }
+
+    private void disable(Throwable error) {
+        log.warn("Disabling decision cache. The cache cannot be invalidated reliably: {}", error.getMessage());
+        enabled.set(false);
+        invalidateAll();
+    }
+
+}
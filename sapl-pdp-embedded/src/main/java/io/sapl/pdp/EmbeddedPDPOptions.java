@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp;
+
+import java.time.Duration;
+
+import lombok.NonNull;
+
+/**
+ * The options of an {@link EmbeddedPolicyDecisionPoint}. Start with
+ * {@link #DEFAULT} and enable the features you need, e.g.:
+ *
+ * <pre>
+ * EmbeddedPDPOptions.DEFAULT.withSharingGracePeriod(Duration.ofSeconds(5L))
+ *         .withDecisionCache(new DecisionCache(10_000L, Duration.ofMinutes(1L)));
+ * </pre>
+ *
+ * @param sharingGracePeriod time a shared decision stream stays connected after
+ *                           its last subscriber has cancelled, or null if
+ *                           decision streams are not shared.
+ * @param decisionCache      a cache for one-shot decisions or null if decisions
+ *                           are not cached. The cache is not used, if the PRP
+ *                           cannot signal index updates.
+ * @param evaluationSettings the settings for evaluating policies
+ */
+public record EmbeddedPDPOptions(Duration sharingGracePeriod, DecisionCache decisionCache,
+        @NonNull EvaluationSettings evaluationSettings) {
+
+    /**
+     * No sharing of decision streams, no decision cache and the default
+     * evaluation settings.
+     */
+    public static final EmbeddedPDPOptions DEFAULT = new EmbeddedPDPOptions(null, null, EvaluationSettings.DEFAULT);
+
+    public EmbeddedPDPOptions {
+        if (sharingGracePeriod != null && sharingGracePeriod.isNegative())
+            throw new IllegalArgumentException("The grace period of shared decision streams must not be negative.");
+    }
+
+    /**
+     * @param sharingGracePeriod time a shared decision stream stays connected
+     *                           after its last subscriber has cancelled, or null
+     *                           if decision streams are not shared.
+     * @return these options with the given grace period
+     */
+    public EmbeddedPDPOptions withSharingGracePeriod(Duration sharingGracePeriod) {
+        return new EmbeddedPDPOptions(sharingGracePeriod, decisionCache, evaluationSettings);
+    }
+
+    /**
+     * @param decisionCache a cache for one-shot decisions or null if decisions are
+     *                      not cached.
+     * @return these options with the given cache
+     */
+    public EmbeddedPDPOptions withDecisionCache(DecisionCache decisionCache) {
+        return new EmbeddedPDPOptions(sharingGracePeriod, decisionCache, evaluationSettings);
+    }
+
+    /**
+     * @param evaluationSettings the settings for evaluating policies
+     * @return these options with the given settings
+     */
+    public EmbeddedPDPOptions withEvaluationSettings(@NonNull EvaluationSettings evaluationSettings) {
+        return new EmbeddedPDPOptions(sharingGracePeriod, decisionCache, evaluationSettings);
+    }
+
+}
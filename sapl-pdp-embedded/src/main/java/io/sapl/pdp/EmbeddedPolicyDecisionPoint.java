@@ -33,21 +33,72 @@
 import io.sapl.api.pdp.TracedDecision;
 import io.sapl.grammar.sapl.CombiningAlgorithm;
 import io.sapl.grammar.sapl.SAPL;
+import io.sapl.grammar.sapl.impl.util.RegexUtil.MatchLimits;
 import io.sapl.interpreter.CombinedDecision;
 import io.sapl.interpreter.context.AuthorizationContext;
 import io.sapl.pdp.config.PDPConfiguration;
 import io.sapl.pdp.config.PDPConfigurationProvider;
 import io.sapl.prp.PolicyRetrievalPoint;
 import io.sapl.prp.PolicyRetrievalResult;
-import lombok.RequiredArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.util.context.Context;
 
-@RequiredArgsConstructor
+@Slf4j
 public class EmbeddedPolicyDecisionPoint implements PolicyDecisionPoint {
 
     private final PDPConfigurationProvider configurationProvider;
     private final PolicyRetrievalPoint     policyRetrievalPoint;
+    private final SharedDecisionStreams    sharedDecisionStreams;
+    private final DecisionCache            decisionCache;
+    private final Disposable               decisionCacheInvalidation;
+    @Getter
+    private final EvaluationSettings       evaluationSettings;
+
+    public EmbeddedPolicyDecisionPoint(PDPConfigurationProvider configurationProvider,
+            PolicyRetrievalPoint policyRetrievalPoint) {
+        this(configurationProvider, policyRetrievalPoint, EmbeddedPDPOptions.DEFAULT);
+    }
+
+    /**
+     * Creates a PDP with optional sharing of decision streams, an optional cache
+     * for {@link #decideOnce(AuthorizationSubscription)}, and settings for the
+     * evaluation of policies.
+     * <p>
+     * If a grace period is set, all subscribers with identical authorization
+     * subscriptions share one decision stream. The policy retrieval, policy
+     * evaluation and attribute streams are only set up once per distinct
+     * subscription. The decision cache is invalidated whenever the PRP emits a
+     * new index or the configuration provider emits a new configuration.
+     *
+     * @param configurationProvider the PDP configuration
+     * @param policyRetrievalPoint  the PRP
+     * @param options               the options of the PDP
+     */
+    public EmbeddedPolicyDecisionPoint(PDPConfigurationProvider configurationProvider,
+            PolicyRetrievalPoint policyRetrievalPoint, @NonNull EmbeddedPDPOptions options) {
+        var sharingGracePeriod = options.sharingGracePeriod();
+        var decisionCache      = options.decisionCache();
+        this.evaluationSettings    = options.evaluationSettings();
+        this.configurationProvider = configurationProvider;
+        this.policyRetrievalPoint  = policyRetrievalPoint;
+        this.sharedDecisionStreams = sharingGracePeriod == null ? null : new SharedDecisionStreams(sharingGracePeriod);
+        var indexUpdates = policyRetrievalPoint.indexUpdates();
+        if (decisionCache != null && indexUpdates.isEmpty())
+            log.warn("Decision cache disabled. The PRP cannot signal index updates.");
+        if (decisionCache == null || indexUpdates.isEmpty()) {
+            this.decisionCache             = null;
+            this.decisionCacheInvalidation = null;
+        } else {
+            this.decisionCache             = decisionCache;
+            this.decisionCacheInvalidation = decisionCache
+                    .invalidateOn(Flux.merge(configurationProvider.pdpConfiguration(), indexUpdates.get()));
+        }
+    }
 
     @Override
     public Flux<AuthorizationDecision> decide(AuthorizationSubscription authorizationSubscription) {
@@ -55,7 +106,31 @@ public Flux<AuthorizationDecision> decide(AuthorizationSubscription authorizatio
                 .distinctUntilChanged();
     }
 
+    /**
+     * Subscribes to the traced decisions for a subscription. If the PDP evaluates
+     * without traces, a subscriber can still obtain the traces by enabling tracing
+     * in its context with
+     * {@link AuthorizationContext#setTracingEnabled(Context, boolean)}. A
+     * subscriber whose context carries such evaluation settings, see
+     * {@link AuthorizationContext#hasEvaluationSettings}, does not share the
+     * decision stream with other subscribers.
+     *
+     * @param authorizationSubscription the authorization subscription
+     * @return the traced decisions
+     */
     public Flux<TracedDecision> decideTraced(AuthorizationSubscription authorizationSubscription) {
+        if (sharedDecisionStreams == null)
+            return decideTracedUnshared(authorizationSubscription);
+        return Flux.deferContextual(
+                ctx -> AuthorizationContext.hasEvaluationSettings(ctx) ? decideTracedUnshared(authorizationSubscription)
+                        : decideTracedShared(authorizationSubscription));
+    }
+
+    private Flux<TracedDecision> decideTracedShared(AuthorizationSubscription authorizationSubscription) {
+        return sharedDecisionStreams.sharedDecisionStream(authorizationSubscription, this::decideTracedUnshared);
+    }
+
+    private Flux<TracedDecision> decideTracedUnshared(AuthorizationSubscription authorizationSubscription) {
         return configurationProvider.pdpConfiguration().switchMap(decideSubscription(authorizationSubscription));
     }
 
@@ -64,10 +139,8 @@ private Function<? super PDPConfiguration, Publisher<? extends TracedDecision>>
         return pdpConfiguration -> {
             var combiningAlgorithm = pdpConfiguration.documentsCombinator();
             if (pdpConfiguration.isValid()) {
-                var subscription = pdpConfiguration.subscriptionInterceptorChain().apply(authorizationSubscription);
-                return retrieveAndCombineDocuments(pdpConfiguration.documentsCombinator(), subscription)
-                        .map(pdpConfiguration.decisionInterceptorChain())
-                        .contextWrite(buildSubscriptionScopedContext(pdpConfiguration, authorizationSubscription));
+                return decideWithoutInterceptors(pdpConfiguration, authorizationSubscription)
+                        .map(pdpConfiguration.decisionInterceptorChain());
             } else {
                 var decision = CombinedDecision.error(
                         combiningAlgorithm == null ? "Misconfigured PDP." : combiningAlgorithm.getName(),
@@ -77,9 +150,20 @@ private Function<? super PDPConfiguration, Publisher<? extends TracedDecision>>
         };
     }
 
+    private Flux<PDPDecision> decideWithoutInterceptors(PDPConfiguration pdpConfiguration,
+            AuthorizationSubscription authorizationSubscription) {
+        var subscription = pdpConfiguration.subscriptionInterceptorChain().apply(authorizationSubscription);
+        return retrieveAndCombineDocuments(pdpConfiguration.documentsCombinator(), subscription)
+                .contextWrite(buildSubscriptionScopedContext(pdpConfiguration, authorizationSubscription));
+    }
+
     private Function<Context, Context> buildSubscriptionScopedContext(PDPConfiguration pdpConfiguration,
             AuthorizationSubscription authorizationSubscription) {
         return ctx -> {
+            if (evaluationSettings.traceFreeEvaluation() && !AuthorizationContext.isTracingConfigured(ctx))
+                ctx = AuthorizationContext.setTracingEnabled(ctx, false);
+            if (!MatchLimits.DEFAULT.equals(evaluationSettings.regexMatchLimits()))
+                ctx = AuthorizationContext.setRegexMatchLimits(ctx, evaluationSettings.regexMatchLimits());
             ctx = AuthorizationContext.setAttributeContext(ctx, pdpConfiguration.attributeContext());
             ctx = AuthorizationContext.setFunctionContext(ctx, pdpConfiguration.functionContext());
             ctx = AuthorizationContext.setVariables(ctx, pdpConfiguration.variables());
@@ -110,6 +194,18 @@ private Function<? super PolicyRetrievalResult, Publisher<? extends PDPDecision>
         };
     }
 
+    @Override
+    public Mono<AuthorizationDecision> decideOnce(AuthorizationSubscription authorizationSubscription) {
+        if (decisionCache == null)
+            return decide(authorizationSubscription).next();
+        return configurationProvider.pdpConfiguration().next().flatMap(pdpConfiguration -> {
+            if (!pdpConfiguration.isValid())
+                return decide(authorizationSubscription).next();
+            return decisionCache.decideOnce(authorizationSubscription, pdpConfiguration,
+                    subscription -> decideWithoutInterceptors(pdpConfiguration, subscription).next());
+        });
+    }
+
     @Override
     public Flux<IdentifiableAuthorizationDecision> decide(
             MultiAuthorizationSubscription multiAuthorizationSubscription) {
@@ -159,6 +255,8 @@ private MultiAuthorizationDecision collectAuthorizationDecisions(Object[] values
     }
 
     public void destroy() {
+        if (decisionCacheInvalidation != null)
+            decisionCacheInvalidation.dispose();
         configurationProvider.destroy();
         policyRetrievalPoint.destroy();
     }
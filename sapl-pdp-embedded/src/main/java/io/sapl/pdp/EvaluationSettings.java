@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp;
+
+import io.sapl.grammar.sapl.impl.util.RegexUtil.MatchLimits;
+import lombok.NonNull;
+
+/**
+ * Settings applied to each policy evaluation of a PDP. They are handed to the
+ * evaluation through the subscription scoped context, i.e., they only affect
+ * the decisions of the PDP they are configured for.
+ *
+ * @param traceFreeEvaluation if true, no evaluation traces are recorded, unless
+ *                            a subscriber explicitly enables tracing in its
+ *                            context, see
+ *                            {@link io.sapl.interpreter.context.AuthorizationContext#setTracingEnabled}.
+ * @param regexMatchLimits    the input length limit and match timeout of the
+ *                            regex operator
+ */
+public record EvaluationSettings(boolean traceFreeEvaluation, @NonNull MatchLimits regexMatchLimits) {
+
+    /**
+     * The settings of a PDP if nothing is configured.
+     */
+    public static final EvaluationSettings DEFAULT = new EvaluationSettings(false, MatchLimits.DEFAULT);
+
+}
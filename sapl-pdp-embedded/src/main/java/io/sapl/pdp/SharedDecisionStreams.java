@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.TracedDecision;
+import lombok.NonNull;
+import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
+
+/**
+ * Multicasts the decision stream of an authorization subscription to all
+ * subscribers with an identical authorization subscription.
+ * <p>
+ * Subscriptions are keyed by an immutable deep copy of the subscription. The
+ * first subscriber for a key connects to the upstream decision stream. All
+ * further subscribers share this stream and immediately receive the latest
+ * decision. When the last subscriber cancels, the upstream stays connected for
+ * the grace period, so that re-subscribing clients do not trigger a full
+ * re-evaluation.
+ * <p>
+ * The upstream is evaluated in an empty context. It must not depend on the
+ * context of the subscriber that happens to connect it, as all other
+ * subscribers would observe the decisions made in this context.
+ */
+class SharedDecisionStreams {
+
+    private final Map<AuthorizationSubscription, SharedStream> sharedStreams = new ConcurrentHashMap<>();
+
+    private final Duration gracePeriod;
+
+    SharedDecisionStreams(@NonNull Duration gracePeriod) {
+        if (gracePeriod.isNegative())
+            throw new IllegalArgumentException("The grace period of shared decision streams must not be negative.");
+        this.gracePeriod = gracePeriod;
+    }
+
+    /**
+     * @param authorizationSubscription an authorization subscription
+     * @param decisionStreamFactory     creates the upstream decision stream for a
+     *                                  subscription, if no shared stream exists.
+     * @return a decision stream shared with all identical subscriptions.
+     */
+    Flux<TracedDecision> sharedDecisionStream(AuthorizationSubscription authorizationSubscription,
+            Function<AuthorizationSubscription, Flux<TracedDecision>> decisionStreamFactory) {
+        return Flux.defer(() -> {
+            var key = CanonicalSubscriptionUtil.canonicalCopyOf(authorizationSubscription);
+            return sharedStreams.compute(key,
+                    (k, existing) -> existing == null || existing.isDisconnected()
+                            ? new SharedStream(k, decisionStreamFactory)
+                            : existing).decisions;
+        });
+    }
+
+    /**
+     * @return the number of subscriptions with a shared decision stream
+     */
+    int size() {
+        return sharedStreams.size();
+    }
+
+    /**
+     * A shared stream is only handed out to new subscribers until its upstream
+     * disconnects. It is marked as disconnected before the terminal signal reaches
+     * the subscribers, so that a subscriber reconnecting on this signal creates a
+     * new shared stream. The stream is removed from the map afterwards, unless the
+     * map already holds the stream created by such a subscriber.
+     */
+    private class SharedStream {
+
+        private final AtomicBoolean        disconnected = new AtomicBoolean();
+        private final Flux<TracedDecision> decisions;
+
+        SharedStream(AuthorizationSubscription key,
+                Function<AuthorizationSubscription, Flux<TracedDecision>> decisionStreamFactory) {
+            var upstream = decisionStreamFactory.apply(key).contextWrite(ctx -> Context.empty())
+                    .doFinally(signal -> sharedStreams.remove(key, this))
+                    .doOnTerminate(() -> disconnected.set(true)).doOnCancel(() -> disconnected.set(true)).replay(1);
+            if (gracePeriod.isZero())
+                decisions = upstream.refCount(1);
+            else
+                decisions = upstream.refCount(1, gracePeriod);
+        }
+
+        boolean isDisconnected() {
+            return disconnected.get();
+        }
+
+    }
+
+}
@@ -19,9 +19,16 @@
 
 import static io.sapl.util.filemonitoring.FileMonitorUtil.resolveHomeFolderIfPresent;
 
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import io.sapl.interpreter.SAPLInterpreter;
+import io.sapl.interpreter.SnapshotSAPLInterpreter;
 import io.sapl.prp.PrpUpdateEvent;
 import io.sapl.prp.PrpUpdateEventSource;
 import io.sapl.util.filemonitoring.FileEvent;
@@ -29,6 +36,7 @@
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.util.function.Tuple2;
 import reactor.util.function.Tuples;
 
@@ -37,25 +45,56 @@ public class FileSystemPrpUpdateEventSource implements PrpUpdateEventSource {
 
     private static final String SAPL_SUFFIX = ".sapl";
 
+    private static final Duration SNAPSHOT_WRITE_DELAY = Duration.ofMillis(500L);
+
     private final SAPLInterpreter interpreter;
 
     private final String watchDir;
 
+    private final Path snapshotFile;
+
+    private final AtomicReference<ImmutableFileIndex> pendingSnapshot = new AtomicReference<>();
+
+    /* content hashes of the documents in the snapshot file, guarded by this */
+    private Set<String> snapshotHashes = Set.of();
+
     public FileSystemPrpUpdateEventSource(String policyPath, SAPLInterpreter interpreter) {
-        this.interpreter = interpreter;
-        watchDir         = resolveHomeFolderIfPresent(policyPath);
+        this(policyPath, interpreter, null);
+    }
+
+    /**
+     * @param policyPath   the folder containing the SAPL documents
+     * @param interpreter  the interpreter for parsing documents
+     * @param snapshotFile a file for storing the parsed documents. On startup,
+     *                     documents with unchanged content are loaded from this
+     *                     snapshot instead of being parsed. If null, no snapshot is
+     *                     used. The snapshot is rewritten in the background
+     *                     whenever the set of documents changes, and a pending
+     *                     write is completed on {@link #dispose()}.
+     */
+    public FileSystemPrpUpdateEventSource(String policyPath, SAPLInterpreter interpreter, Path snapshotFile) {
+        this.snapshotFile = snapshotFile;
+        if (snapshotFile == null) {
+            this.interpreter = interpreter;
+        } else {
+            var snapshotInterpreter = new SnapshotSAPLInterpreter(interpreter, snapshotFile);
+            this.interpreter    = snapshotInterpreter;
+            this.snapshotHashes = snapshotInterpreter.getSnapshotDocumentHashes();
+        }
+        watchDir = resolveHomeFolderIfPresent(policyPath);
         log.info("Monitoring for SAPL documents: {}", watchDir);
     }
 
     @Override
     public void dispose() {
-        // NOOP
+        writePendingSnapshot();
     }
 
     @Override
     public Flux<PrpUpdateEvent> getUpdates() {
         var seedIndex    = new ImmutableFileIndex(this.watchDir, interpreter);
         var initialEvent = seedIndex.getUpdateEvent();
+        requestSnapshot(seedIndex);
         // If the predicate filters inside the monitorDirectory by suffix, then no
         // sub-folders are monitored.
         // I do not know why. But putting a filter after the monitorDirectory solves the
@@ -80,8 +119,39 @@ private Tuple2<Optional<PrpUpdateEvent>, ImmutableFileIndex> processFileEvent(
             Tuple2<Optional<PrpUpdateEvent>, ImmutableFileIndex> tuple, FileEvent fileEvent) {
         var index    = tuple.getT2();
         var newIndex = index.afterFileEvent(fileEvent);
+        requestSnapshot(newIndex);
         log.debug("Update event: {}", newIndex.getUpdateEvent());
         return Tuples.of(Optional.of(newIndex.getUpdateEvent()), newIndex);
     }
 
+    /*
+     * Serializing all documents is expensive. Thus, the snapshot is written on a
+     * worker after a short delay, and a burst of file events results in a single
+     * write of the latest index.
+     */
+    private void requestSnapshot(ImmutableFileIndex index) {
+        if (snapshotFile != null && pendingSnapshot.getAndSet(index) == null)
+            Schedulers.boundedElastic().schedule(this::writePendingSnapshot, SNAPSHOT_WRITE_DELAY.toMillis(),
+                    TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void writePendingSnapshot() {
+        var index = pendingSnapshot.getAndSet(null);
+        if (index == null)
+            return;
+
+        var documents = index.getParsedDocumentsBySource();
+        var hashes    = SnapshotSAPLInterpreter.contentHashes(documents.keySet());
+        if (hashes.equals(snapshotHashes))
+            return;
+
+        try {
+            SnapshotSAPLInterpreter.writeSnapshot(snapshotFile, documents);
+            snapshotHashes = hashes;
+        } catch (UncheckedIOException e) {
+            log.warn("Unable to write the document snapshot. The next start will parse all documents: {}",
+                    e.getMessage());
+        }
+    }
+
 }
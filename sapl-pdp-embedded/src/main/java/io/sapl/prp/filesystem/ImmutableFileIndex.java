@@ -26,6 +26,7 @@
 
 import com.google.common.collect.Maps;
 
+import io.sapl.grammar.sapl.SAPL;
 import io.sapl.interpreter.SAPLInterpreter;
 import io.sapl.prp.PrpUpdateEvent;
 import io.sapl.prp.PrpUpdateEvent.Type;
@@ -109,6 +110,18 @@ boolean containsDocumentWithPath(String pathOfDocument) {
         return documentsByPath.containsKey(pathOfDocument);
     }
 
+    /**
+     * @return all valid documents of the index by their source
+     */
+    Map<String, SAPL> getParsedDocumentsBySource() {
+        var documents = Maps.<String, SAPL>newHashMapWithExpectedSize(documentsByPath.size());
+        for (var document : documentsByPath.values()) {
+            if (!document.isInvalid())
+                documents.put(document.getRawDocument(), document.getParsedDocument());
+        }
+        return documents;
+    }
+
     List<Document> getDocumentByName(String documentName) {
         return namesToDocuments.get(documentName);
     }
@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import io.sapl.api.functions.Function;
+import io.sapl.api.functions.FunctionLibrary;
+import io.sapl.api.interpreter.Val;
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.TracedDecisionInterceptor;
+import io.sapl.api.validation.Text;
+import io.sapl.interpreter.DefaultSAPLInterpreter;
+import io.sapl.interpreter.InitializationException;
+import io.sapl.interpreter.functions.AnnotationFunctionContext;
+import io.sapl.interpreter.pip.AnnotationAttributeContext;
+import io.sapl.pdp.config.PDPConfigurationProvider;
+import io.sapl.pdp.config.filesystem.FileSystemVariablesAndCombinatorSource;
+import io.sapl.pdp.config.fixed.FixedFunctionsAndAttributesPDPConfigurationProvider;
+import io.sapl.prp.PolicyRetrievalPoint;
+import io.sapl.prp.PolicyRetrievalResult;
+import io.sapl.prp.index.ImmutableParsedDocumentIndex;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class DecisionCacheTests {
+
+    private static final JsonNodeFactory           JSON         = JsonNodeFactory.instance;
+    private static final DefaultSAPLInterpreter    INTERPRETER  = new DefaultSAPLInterpreter();
+    private static final AuthorizationSubscription SUBSCRIPTION = new AuthorizationSubscription(JSON.textNode("willi"),
+            JSON.textNode("read"), JSON.textNode("something"), JSON.nullNode());
+
+    private PDPConfigurationProvider                 configurationProvider;
+    private PolicyRetrievalPoint                     prp;
+    private Sinks.Many<ImmutableParsedDocumentIndex> indexUpdates;
+    private AtomicInteger                            numberOfRetrievals;
+
+    @BeforeEach
+    void setUp() throws InitializationException {
+        setUpConfiguration(List.of());
+        prp                   = mock(PolicyRetrievalPoint.class);
+        indexUpdates          = Sinks.many().multicast().directBestEffort();
+        numberOfRetrievals    = new AtomicInteger();
+        when(prp.indexUpdates()).thenReturn(Optional.of(indexUpdates.asFlux()));
+    }
+
+    private void setUpConfiguration(List<TracedDecisionInterceptor> decisionInterceptors)
+            throws InitializationException {
+        var source          = new FileSystemVariablesAndCombinatorSource("src/test/resources/policies");
+        var functionContext = new AnnotationFunctionContext();
+        functionContext.loadLibrary(new TestFunctionLibrary());
+        configurationProvider = new FixedFunctionsAndAttributesPDPConfigurationProvider(
+                new AnnotationAttributeContext(), functionContext, source, List.of(), decisionInterceptors);
+    }
+
+    private void retrievePolicy(String policy) {
+        var document = INTERPRETER.parse(policy);
+        when(prp.retrievePolicies()).thenReturn(Flux.defer(() -> {
+            numberOfRetrievals.incrementAndGet();
+            return Flux.just(new PolicyRetrievalResult(List.of(document), false, true));
+        }));
+    }
+
+    @Test
+    void when_decisionWithoutAttributes_then_secondDecisionIsAnsweredFromCache() {
+        retrievePolicy("policy \"p\" permit action == \"read\"");
+        var cache = new DecisionCache(10L, Duration.ofMinutes(1L));
+        var sut   = new EmbeddedPolicyDecisionPoint(configurationProvider, prp,
+                EmbeddedPDPOptions.DEFAULT.withDecisionCache(cache));
+
+        StepVerifier.create(sut.decideOnce(SUBSCRIPTION)).expectNext(AuthorizationDecision.PERMIT).verifyComplete();
+        StepVerifier.create(sut.decideOnce(SUBSCRIPTION)).expectNext(AuthorizationDecision.PERMIT).verifyComplete();
+
+        assertThat(numberOfRetrievals.get()).isOne();
+        assertThat(cache.size()).isOne();
+        sut.destroy();
+    }
+
+    @Test
+    void when_decisionWithAttributes_then_decisionIsNotCached() {
+        retrievePolicy("policy \"p\" permit where subject.<test.upper> == \"WILLI\";");
+        var cache = new DecisionCache(10L, Duration.ofMinutes(1L));
+        var sut   = new EmbeddedPolicyDecisionPoint(configurationProvider, prp,
+                EmbeddedPDPOptions.DEFAULT.withDecisionCache(cache));
+
+        StepVerifier.create(sut.decideOnce(SUBSCRIPTION)).expectNextCount(1L).verifyComplete();
+        StepVerifier.create(sut.decideOnce(SUBSCRIPTION)).expectNextCount(1L).verifyComplete();
+
+        assertThat(numberOfRetrievals.get()).isEqualTo(2);
+        assertThat(cache.size()).isZero();
+        sut.destroy();
+    }
+
+    @Test
+    void when_decisionUsesOnlyPureFunctions_then_decisionIsCached() {
+        retrievePolicy("policy \"p\" permit where functions.pureUpper(subject) == \"WILLI\";");
+        var cache = new DecisionCache(10L, Duration.ofMinutes(1L));
+        var sut   = new EmbeddedPolicyDecisionPoint(configurationProvider, prp,
+                EmbeddedPDPOptions.DEFAULT.withDecisionCache(cache));
+
+        StepVerifier.create(sut.decideOnce(SUBSCRIPTION)).expectNext(AuthorizationDecision.PERMIT).verifyComplete();
+        StepVerifier.create(sut.decideOnce(SUBSCRIPTION)).expectNext(AuthorizationDecision.PERMIT).verifyComplete();
+
+        assertThat(numberOfRetrievals.get()).isOne();
+        sut.destroy();
+    }
+
+    @Test
+    void when_decisionUsesImpureFunction_then_decisionIsNotCached() {
+        retrievePolicy("policy \"p\" permit where functions.impureUpper(subject) == \"WILLI\";");
+        var cache = new DecisionCache(10L, Duration.ofMinutes(1L));
+        var sut   = new EmbeddedPolicyDecisionPoint(configurationProvider, prp,
+                EmbeddedPDPOptions.DEFAULT.withDecisionCache(cache));
+
+        StepVerifier.create(sut.decideOnce(SUBSCRIPTION)).expectNext(AuthorizationDecision.PERMIT).verifyComplete();
+        StepVerifier.create(sut.decideOnce(SUBSCRIPTION)).expectNext(AuthorizationDecision.PERMIT).verifyComplete();
+
+        assertThat(numberOfRetrievals.get()).isEqualTo(2);
+        assertThat(cache.size()).isZero();
+        sut.destroy();
+    }
+
+    @Test
+    void when_decisionIsAnsweredFromCache_then_decisionInterceptorsAreApplied() throws InitializationException {
+        var numberOfInterceptions = new AtomicInteger();
+        setUpConfiguration(List.of(decision -> {
+            numberOfInterceptions.incrementAndGet();
+            return decision.modified(AuthorizationDecision.DENY, "intercepted");
+        }));
+        retrievePolicy("policy \"p\" permit");
+        var cache = new DecisionCache(10L, Duration.ofMinutes(1L));
+        var sut   = new EmbeddedPolicyDecisionPoint(configurationProvider, prp,
+                EmbeddedPDPOptions.DEFAULT.withDecisionCache(cache));
+
+        StepVerifier.create(sut.decideOnce(SUBSCRIPTION)).expectNext(AuthorizationDecision.DENY).verifyComplete();
+        StepVerifier.create(sut.decideOnce(SUBSCRIPTION)).expectNext(AuthorizationDecision.DENY).verifyComplete();
+
+        assertThat(numberOfRetrievals.get()).isOne();
+        assertThat(numberOfInterceptions.get()).isEqualTo(2);
+        sut.destroy();
+    }
+
+    @Test
+    void when_cachedDecisionIsModifiedByCaller_then_laterAnswersAreNotAffected() {
+        retrievePolicy("policy \"p\" permit obligation \"log\"");
+        var cache = new DecisionCache(10L, Duration.ofMinutes(1L));
+        var sut   = new EmbeddedPolicyDecisionPoint(configurationProvider, prp,
+                EmbeddedPDPOptions.DEFAULT.withDecisionCache(cache));
+
+        var first = sut.decideOnce(SUBSCRIPTION).block();
+        first.getObligations().orElseThrow().add("modified");
+        var second = sut.decideOnce(SUBSCRIPTION).block();
+        second.getObligations().orElseThrow().add("modified");
+        var third = sut.decideOnce(SUBSCRIPTION).block();
+
+        assertThat(numberOfRetrievals.get()).isOne();
+        assertThat(third.getObligations().orElseThrow()).hasSize(1);
+        sut.destroy();
+    }
+
+    @Test
+    void when_indexUpdated_then_cacheIsInvalidated() {
+        retrievePolicy("policy \"p\" permit");
+        var cache = new DecisionCache(10L, Duration.ofMinutes(1L));
+        var sut   = new EmbeddedPolicyDecisionPoint(configurationProvider, prp,
+                EmbeddedPDPOptions.DEFAULT.withDecisionCache(cache));
+
+        StepVerifier.create(sut.decideOnce(SUBSCRIPTION)).expectNext(AuthorizationDecision.PERMIT).verifyComplete();
+        assertThat(cache.size()).isOne();
+
+        retrievePolicy("policy \"p\" deny");
+        indexUpdates.tryEmitNext(mock(ImmutableParsedDocumentIndex.class));
+        assertThat(cache.size()).isZero();
+
+        StepVerifier.create(sut.decideOnce(SUBSCRIPTION)).expectNext(AuthorizationDecision.DENY).verifyComplete();
+        sut.destroy();
+    }
+
+    @Test
+    void when_prpCannotSignalUpdates_then_cacheIsDisabled() {
+        retrievePolicy("policy \"p\" permit");
+        when(prp.indexUpdates()).thenReturn(Optional.empty());
+        var cache = new DecisionCache(10L, Duration.ofMinutes(1L));
+        var sut   = new EmbeddedPolicyDecisionPoint(configurationProvider, prp,
+                EmbeddedPDPOptions.DEFAULT.withDecisionCache(cache));
+
+        StepVerifier.create(sut.decideOnce(SUBSCRIPTION)).expectNext(AuthorizationDecision.PERMIT).verifyComplete();
+        StepVerifier.create(sut.decideOnce(SUBSCRIPTION)).expectNext(AuthorizationDecision.PERMIT).verifyComplete();
+
+        assertThat(numberOfRetrievals.get()).isEqualTo(2);
+        assertThat(cache.size()).isZero();
+        sut.destroy();
+    }
+
+    @Test
+    void when_noCache_then_decideOnceReturnsFirstDecision() {
+        retrievePolicy("policy \"p\" deny");
+        var sut = new EmbeddedPolicyDecisionPoint(configurationProvider, prp);
+        StepVerifier.create(sut.decideOnce(SUBSCRIPTION)).expectNext(AuthorizationDecision.DENY).verifyComplete();
+    }
+
+    @FunctionLibrary(name = "functions")
+    public static class TestFunctionLibrary {
+
+        @Function(pure = true)
+        public Val pureUpper(@Text Val value) {
+            return Val.of(value.getText().toUpperCase());
+        }
+
+        @Function
+        public Val impureUpper(@Text Val value) {
+            return Val.of(value.getText().toUpperCase());
+        }
+
+    }
+
+}
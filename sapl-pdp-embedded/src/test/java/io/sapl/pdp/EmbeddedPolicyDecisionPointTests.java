@@ -17,13 +17,19 @@
  */
 package io.sapl.pdp;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.UnaryOperator;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -40,6 +46,9 @@
 import io.sapl.api.pdp.MultiAuthorizationSubscription;
 import io.sapl.api.pdp.PolicyDecisionPoint;
 import io.sapl.grammar.sapl.CombiningAlgorithm;
+import io.sapl.grammar.sapl.impl.util.RegexUtil.MatchLimits;
+import io.sapl.interpreter.CombinedDecision;
+import io.sapl.interpreter.context.AuthorizationContext;
 import io.sapl.interpreter.functions.AnnotationFunctionContext;
 import io.sapl.interpreter.functions.FunctionContext;
 import io.sapl.interpreter.pip.AnnotationAttributeContext;
@@ -271,4 +280,126 @@ void when_errorsInTarget_then_returnError() {
                 .expectNextMatches(combinedDecision -> combinedDecision.getDecision() == Decision.INDETERMINATE)
                 .verifyComplete();
     }
+
+    @Test
+    void when_sharingEnabledAndIdenticalSubscriptions_then_upstreamIsOnlySubscribedOnce() {
+        var configProvider   = mock(PDPConfigurationProvider.class);
+        var prp              = mock(PolicyRetrievalPoint.class);
+        var validConfig      = new PDPConfiguration(mock(AttributeContext.class), mock(FunctionContext.class), Map.of(),
+                mock(CombiningAlgorithm.class), UnaryOperator.identity(), UnaryOperator.identity());
+        var numberOfUpstream = new AtomicInteger();
+        when(configProvider.pdpConfiguration())
+                .thenReturn(Flux.concat(Flux.just(validConfig), Flux.<PDPConfiguration>never())
+                        .doOnSubscribe(s -> numberOfUpstream.incrementAndGet()));
+        var retrievalResult = mock(PolicyRetrievalResult.class);
+        when(retrievalResult.isPrpValidState()).thenReturn(Boolean.FALSE);
+        when(prp.retrievePolicies()).thenReturn(Flux.just(retrievalResult));
+
+        var sut           = new EmbeddedPolicyDecisionPoint(configProvider, prp,
+                EmbeddedPDPOptions.DEFAULT.withSharingGracePeriod(Duration.ZERO));
+        var subscription1 = new AuthorizationSubscription(JSON.textNode("willi"), JSON.textNode("read"),
+                JSON.textNode("something"), JSON.nullNode());
+        var subscription2 = new AuthorizationSubscription(JSON.textNode("willi"), JSON.textNode("read"),
+                JSON.textNode("something"), JSON.nullNode());
+
+        var first  = sut.decide(subscription1).subscribe();
+        var second = sut.decide(subscription2).subscribe();
+        StepVerifier.create(sut.decide(subscription2))
+                .expectNextMatches(decision -> decision.getDecision() == Decision.INDETERMINATE).thenCancel().verify();
+        assertThat(numberOfUpstream.get()).isOne();
+
+        first.dispose();
+        second.dispose();
+        StepVerifier.create(sut.decide(subscription1))
+                .expectNextMatches(decision -> decision.getDecision() == Decision.INDETERMINATE).thenCancel().verify();
+        assertThat(numberOfUpstream.get()).isEqualTo(2);
+    }
+
+    @Test
+    void when_sharingEnabledAndSubscriberContextCarriesEvaluationSettings_then_upstreamIsNotShared() {
+        var configProvider   = mock(PDPConfigurationProvider.class);
+        var prp              = mock(PolicyRetrievalPoint.class);
+        var validConfig      = new PDPConfiguration(mock(AttributeContext.class), mock(FunctionContext.class), Map.of(),
+                mock(CombiningAlgorithm.class), UnaryOperator.identity(), UnaryOperator.identity());
+        var numberOfUpstream = new AtomicInteger();
+        when(configProvider.pdpConfiguration())
+                .thenReturn(Flux.concat(Flux.just(validConfig), Flux.<PDPConfiguration>never())
+                        .doOnSubscribe(s -> numberOfUpstream.incrementAndGet()));
+        var retrievalResult = mock(PolicyRetrievalResult.class);
+        when(retrievalResult.isPrpValidState()).thenReturn(Boolean.FALSE);
+        when(prp.retrievePolicies()).thenReturn(Flux.just(retrievalResult));
+
+        var sut          = new EmbeddedPolicyDecisionPoint(configProvider, prp,
+                EmbeddedPDPOptions.DEFAULT.withSharingGracePeriod(Duration.ZERO));
+        var subscription = new AuthorizationSubscription(JSON.textNode("willi"), JSON.textNode("read"),
+                JSON.textNode("something"), JSON.nullNode());
+        var limits       = new MatchLimits(Duration.ofMillis(10L), 100);
+
+        var shared = sut.decide(subscription).subscribe();
+        StepVerifier
+                .create(sut.decide(subscription)
+                        .contextWrite(ctx -> AuthorizationContext.setRegexMatchLimits(ctx, limits)))
+                .expectNextMatches(decision -> decision.getDecision() == Decision.INDETERMINATE).thenCancel().verify();
+        shared.dispose();
+
+        assertThat(numberOfUpstream.get()).isEqualTo(2);
+    }
+
+    @Test
+    void when_sharingEnabledAndDifferentSubscriptions_then_upstreamIsSubscribedForEach() {
+        var configProvider   = mock(PDPConfigurationProvider.class);
+        var prp              = mock(PolicyRetrievalPoint.class);
+        var numberOfUpstream = new AtomicInteger();
+        when(configProvider.pdpConfiguration())
+                .thenReturn(Flux.just(new PDPConfiguration(null, null, null, null, null, null))
+                        .doOnSubscribe(s -> numberOfUpstream.incrementAndGet()));
+
+        var sut           = new EmbeddedPolicyDecisionPoint(configProvider, prp,
+                EmbeddedPDPOptions.DEFAULT.withSharingGracePeriod(Duration.ofMillis(10L)));
+        var subscription1 = new AuthorizationSubscription(JSON.textNode("willi"), JSON.textNode("read"),
+                JSON.textNode("something"), JSON.nullNode());
+        var subscription2 = new AuthorizationSubscription(JSON.textNode("willi"), JSON.textNode("write"),
+                JSON.textNode("something"), JSON.nullNode());
+
+        StepVerifier.create(Flux.merge(sut.decide(subscription1), sut.decide(subscription2))).expectNextCount(2L)
+                .verifyComplete();
+        assertThat(numberOfUpstream.get()).isEqualTo(2);
+    }
+
+    @Test
+    void when_negativeGracePeriod_then_throws() {
+        var gracePeriod = Duration.ofSeconds(-1L);
+        assertThatThrownBy(() -> EmbeddedPDPOptions.DEFAULT.withSharingGracePeriod(gracePeriod))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void when_traceFreeEvaluation_then_valuesAreUntracedUnlessSubscriberRequestsTracing() {
+        var configProvider = mock(PDPConfigurationProvider.class);
+        var prp            = mock(PolicyRetrievalPoint.class);
+        var algorithm      = mock(CombiningAlgorithm.class);
+        var subjectTraced  = new ArrayList<Boolean>();
+        when(algorithm.combinePolicies(any())).thenReturn(Flux.deferContextual(ctx -> {
+            subjectTraced.add(AuthorizationContext.getVariable(ctx, "subject").isTraced());
+            return Flux.just(CombinedDecision.of(AuthorizationDecision.PERMIT, "test"));
+        }));
+        var validConfig = new PDPConfiguration(mock(AttributeContext.class), mock(FunctionContext.class), Map.of(),
+                algorithm, UnaryOperator.identity(), UnaryOperator.identity());
+        when(configProvider.pdpConfiguration()).thenReturn(Flux.just(validConfig));
+        var retrievalResult = mock(PolicyRetrievalResult.class);
+        when(retrievalResult.isPrpValidState()).thenReturn(Boolean.TRUE);
+        when(prp.retrievePolicies()).thenReturn(Flux.just(retrievalResult));
+
+        var sut          = new EmbeddedPolicyDecisionPoint(configProvider, prp, EmbeddedPDPOptions.DEFAULT
+                .withSharingGracePeriod(Duration.ZERO)
+                .withEvaluationSettings(new EvaluationSettings(true, MatchLimits.DEFAULT)));
+        var subscription = new AuthorizationSubscription(JSON.textNode("willi"), JSON.textNode("read"),
+                JSON.textNode("something"), JSON.nullNode());
+        sut.decide(subscription).blockFirst();
+        sut.decideTraced(subscription).contextWrite(ctx -> AuthorizationContext.setTracingEnabled(ctx, true))
+                .blockFirst();
+
+        assertThat(subjectTraced).containsExactly(false, true);
+    }
+
 }
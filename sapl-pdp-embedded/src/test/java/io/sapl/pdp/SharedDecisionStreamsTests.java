@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2017-2024 Dominic Heutelbeck (dominic@heutelbeck.com)
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.sapl.pdp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import io.sapl.api.pdp.AuthorizationDecision;
+import io.sapl.api.pdp.AuthorizationSubscription;
+import io.sapl.api.pdp.TracedDecision;
+import io.sapl.interpreter.CombinedDecision;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class SharedDecisionStreamsTests {
+
+    private static final JsonNodeFactory           JSON         = JsonNodeFactory.instance;
+    private static final AuthorizationSubscription SUBSCRIPTION = new AuthorizationSubscription(JSON.textNode("willi"),
+            JSON.textNode("read"), JSON.textNode("something"), JSON.nullNode());
+    private static final TracedDecision            DECISION     = PDPDecision.of(SUBSCRIPTION,
+            CombinedDecision.of(AuthorizationDecision.PERMIT, "test"));
+
+    @Test
+    void whenSubscriberReconnectsOnCompletion_thenItsNewStreamIsNotRemovedByTheCompletedStream() {
+        var numberOfUpstream = new AtomicInteger();
+        var sut              = new SharedDecisionStreams(Duration.ZERO);
+        var decisions        = sut.sharedDecisionStream(SUBSCRIPTION, subscription -> {
+                                 if (numberOfUpstream.incrementAndGet() == 1)
+                                     return Flux.just(DECISION);
+                                 return Flux.concat(Flux.just(DECISION), Flux.<TracedDecision>never());
+                             });
+
+        StepVerifier.create(decisions.repeat(1L)).expectNext(DECISION, DECISION).then(() -> {
+            assertThat(sut.size()).isOne();
+            StepVerifier.create(sut.sharedDecisionStream(SUBSCRIPTION, subscription -> Flux.never()))
+                    .expectNext(DECISION).thenCancel().verify();
+        }).thenCancel().verify();
+
+        assertThat(numberOfUpstream.get()).isEqualTo(2);
+        assertThat(sut.size()).isZero();
+    }
+
+    @Test
+    void whenSharedStreamIsConnected_thenSubscriberContextIsNotVisibleUpstream() {
+        var upstreamContextSizes = new ArrayList<Integer>();
+        var sut                  = new SharedDecisionStreams(Duration.ZERO);
+        var decisions            = sut.sharedDecisionStream(SUBSCRIPTION,
+                subscription -> Flux.deferContextual(ctx -> {
+                                         upstreamContextSizes.add(ctx.size());
+                                         return Flux.just(DECISION);
+                                     }));
+
+        StepVerifier.create(decisions.contextWrite(ctx -> ctx.put("subscriberKey", "value"))).expectNext(DECISION)
+                .verifyComplete();
+
+        assertThat(upstreamContextSizes).containsExactly(0);
+    }
+
+}
@@ -17,21 +17,34 @@
  */
 package io.sapl.prp.filesystem;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.MockedConstruction;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 
 import io.sapl.interpreter.DefaultSAPLInterpreter;
+import io.sapl.interpreter.SAPLInterpreter;
 import io.sapl.prp.PrpUpdateEvent;
 import io.sapl.util.filemonitoring.FileCreatedEvent;
 import io.sapl.util.filemonitoring.FileDeletedEvent;
@@ -70,4 +83,45 @@ void testProcessFileEvent() {
         source.dispose();
     }
 
+    @Test
+    void restartWithSnapshotDoesNotParseUnchangedDocuments(@TempDir Path directory) {
+        var snapshotFile = directory.resolve("policies.snapshot");
+        var firstSource  = new FileSystemPrpUpdateEventSource("src/test/resources/it/policies",
+                new DefaultSAPLInterpreter(), snapshotFile);
+        var firstEvent   = firstSource.getUpdates().blockFirst();
+        firstSource.dispose();
+        assertThat(snapshotFile).exists();
+
+        var interpreter  = mock(SAPLInterpreter.class);
+        var secondSource = new FileSystemPrpUpdateEventSource("src/test/resources/it/policies", interpreter,
+                snapshotFile);
+        var secondEvent  = secondSource.getUpdates().blockFirst();
+
+        verify(interpreter, never()).parse(anyString());
+        assertThat(documentNames(secondEvent)).isEqualTo(documentNames(firstEvent)).hasSize(2);
+    }
+
+    @Test
+    void snapshotIsOnlyRewrittenWhenDocumentsChanged(@TempDir Path directory) throws IOException {
+        var snapshotFile = directory.resolve("policies.snapshot");
+        var firstSource  = new FileSystemPrpUpdateEventSource("src/test/resources/it/policies",
+                new DefaultSAPLInterpreter(), snapshotFile);
+        firstSource.getUpdates().blockFirst();
+        firstSource.dispose();
+
+        var writtenAt = FileTime.fromMillis(0L);
+        Files.setLastModifiedTime(snapshotFile, writtenAt);
+        var secondSource = new FileSystemPrpUpdateEventSource("src/test/resources/it/policies",
+                new DefaultSAPLInterpreter(), snapshotFile);
+        secondSource.getUpdates().blockFirst();
+        secondSource.dispose();
+
+        assertThat(Files.getLastModifiedTime(snapshotFile)).isEqualTo(writtenAt);
+    }
+
+    private static Set<String> documentNames(PrpUpdateEvent event) {
+        return Arrays.stream(event.getUpdates()).map(update -> update.getDocument().getPolicyElement().getSaplName())
+                .collect(Collectors.toSet());
+    }
+
 }
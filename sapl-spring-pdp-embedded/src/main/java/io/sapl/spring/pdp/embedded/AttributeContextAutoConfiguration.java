@@ -23,6 +23,7 @@
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Role;
@@ -33,6 +34,9 @@
 import io.sapl.interpreter.InitializationException;
 import io.sapl.interpreter.pip.AnnotationAttributeContext;
 import io.sapl.interpreter.pip.AttributeContext;
+import io.sapl.interpreter.pip.AttributeStreamBroker;
+import io.sapl.interpreter.pip.BatchAttributeFinder;
+import io.sapl.interpreter.pip.PolicyInformationPointGuard;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -40,17 +44,31 @@
 @AutoConfiguration
 @RequiredArgsConstructor
 @AutoConfigureAfter(PolicyInformationPointsAutoConfiguration.class)
+@EnableConfigurationProperties(EmbeddedPDPProperties.class)
 public class AttributeContextAutoConfiguration {
 
     private final Collection<PolicyInformationPointSupplier>       pipSuppliers;
     private final Collection<StaticPolicyInformationPointSupplier> staticPipSuppliers;
+    private final Collection<BatchAttributeFinder>                 batchAttributeFinders;
     private final ConfigurableApplicationContext                   applicationContext;
+    private final EmbeddedPDPProperties                            properties;
 
     @Bean
     @ConditionalOnMissingBean
     @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
     AttributeContext attributeContext() throws InitializationException {
         var ctx = new AnnotationAttributeContext();
+        if (properties.isShareAttributeStreams()) {
+            ctx.setAttributeStreamBroker(new AttributeStreamBroker(properties.getAttributeStreamLinger(),
+                    properties.getAttributeStreamTimeToLive()));
+        }
+        for (var limits : properties.getPolicyInformationPointLimits().entrySet()) {
+            var pipLimits = limits.getValue();
+            ctx.setPolicyInformationPointGuard(limits.getKey(),
+                    new PolicyInformationPointGuard(pipLimits.getTimeToFirstValue(),
+                            pipLimits.getMaximumConcurrentStreams(), pipLimits.getFailureRateWindowSize(),
+                            pipLimits.getFailureRateThreshold(), pipLimits.getCircuitOpenDuration()));
+        }
         for (var supplier : pipSuppliers) {
             for (var pip : supplier.get()) {
                 log.trace("loading Policy Information Point: {}", pip.getClass().getSimpleName());
@@ -68,6 +86,10 @@ AttributeContext attributeContext() throws InitializationException {
             log.trace("loading Spring bean Policy Information Point: {}", pip.getClass().getSimpleName());
             ctx.loadPolicyInformationPoint(pip);
         }
+        for (var batchAttributeFinder : batchAttributeFinders) {
+            log.trace("loading batch attribute finder: {}", batchAttributeFinder.attributeName());
+            ctx.loadBatchAttributeFinder(batchAttributeFinder);
+        }
         return ctx;
     }
 
@@ -17,11 +17,21 @@
  */
 package io.sapl.spring.pdp.embedded;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import io.sapl.interpreter.functions.AnnotationFunctionContext;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Data;
 
 /**
@@ -64,6 +74,21 @@ public class EmbeddedPDPProperties {
     @NotNull
     private IndexType index = IndexType.NAIVE;
 
+    /**
+     * If this property is set to true, the CANONICAL index samples the runtime cost
+     * and selectivity of its predicates and periodically reorders them, so that the
+     * cheapest and most discriminating predicates are evaluated first. The
+     * statistics are available through the AdaptivePredicateOrderStrategy bean.
+     */
+    private boolean adaptivePredicateOrder = false;
+
+    /**
+     * Time between two reorderings of the predicates. Only used if
+     * adaptivePredicateOrder is set to true.
+     */
+    @NotNull
+    private Duration predicateReorderInterval = Duration.ofSeconds(30L);
+
     /**
      * This property sets the path to the folder where the pdp.json configuration
      * file is located.
@@ -84,6 +109,14 @@ public class EmbeddedPDPProperties {
     @NotEmpty
     private String policiesPath = "/policies";
 
+    /**
+     * If this property is set, the parsed documents are stored in a snapshot file
+     * at this path. On startup, documents whose content did not change are loaded
+     * from the snapshot instead of being parsed again. Only used if the
+     * pdpConfigType is set to FILESYSTEM.
+     */
+    private String policySnapshotPath;
+
     /**
      * Indicate whether to load policies from the resources or the file system.
      */
@@ -141,4 +174,147 @@ public enum IndexType {
      */
     private boolean printTextReport = false;
 
+    /**
+     * If this property is set to true, no evaluation traces are recorded while
+     * policies are evaluated. This reduces the number of objects allocated per
+     * decision. Decisions only carry the values of their evaluation, without the
+     * trace of intermediate results. Ignored if any of printTrace, printJsonReport,
+     * or printTextReport is set to true, as reports require traces.
+     */
+    private boolean traceFreeEvaluation = false;
+
+    /**
+     * Maximum duration of matching a value against a regular expression with the
+     * regex operator '=~'. Matches running longer, e.g., due to catastrophic
+     * backtracking, evaluate to an error. A zero duration, the default, disables
+     * the timeout.
+     */
+    @NotNull
+    private Duration regexMatchTimeout = Duration.ZERO;
+
+    /**
+     * Maximum number of characters of values matched against a regular expression
+     * with the regex operator '=~'. Longer values evaluate to an error.
+     */
+    @PositiveOrZero
+    private int regexMaximumInputLength = Integer.MAX_VALUE;
+
+    /**
+     * Maximum number of memoized results of functions marked as pure. Pure
+     * functions called again with the same parameters return the memoized result,
+     * within and across decisions. Zero disables memoization.
+     */
+    @PositiveOrZero
+    private long pureFunctionCacheMaximumSize = AnnotationFunctionContext.DEFAULT_MEMOIZATION_CACHE_MAXIMUM_SIZE;
+
+    /**
+     * If this property is set to true, all subscribers with identical authorization
+     * subscriptions share a single decision stream. Policy retrieval, policy
+     * evaluation and attribute streams are only set up once per distinct
+     * subscription.
+     */
+    private boolean shareIdenticalSubscriptions = false;
+
+    /**
+     * Time a shared decision stream stays connected after its last subscriber has
+     * cancelled. Only used if shareIdenticalSubscriptions is set to true.
+     */
+    @NotNull
+    private Duration sharedSubscriptionGracePeriod = Duration.ofSeconds(5L);
+
+    /**
+     * If this property is set to true, the results of one-shot decisions are
+     * cached, as long as none of the matching documents uses attribute finders. The
+     * cache is invalidated whenever policies or the PDP configuration change.
+     */
+    private boolean cacheOneShotDecisions = false;
+
+    /**
+     * Maximum number of cached one-shot decisions. Only used if
+     * cacheOneShotDecisions is set to true.
+     */
+    @Positive
+    private long decisionCacheMaximumSize = 10_000L;
+
+    /**
+     * Maximum time a one-shot decision stays in the cache. Only used if
+     * cacheOneShotDecisions is set to true.
+     */
+    @NotNull
+    private Duration decisionCacheTimeToLive = Duration.ofMinutes(5L);
+
+    /**
+     * If this property is set to true, all evaluations requesting the same
+     * attribute with the same parameters share a single attribute stream. The
+     * attribute finder is only invoked once per distinct invocation, and late
+     * subscribers immediately receive its latest value.
+     */
+    private boolean shareAttributeStreams = false;
+
+    /**
+     * Time a shared attribute stream stays connected after its last subscriber has
+     * cancelled. Only used if shareAttributeStreams is set to true.
+     */
+    @NotNull
+    private Duration attributeStreamLinger = Duration.ofSeconds(5L);
+
+    /**
+     * Maximum time new subscribers join an existing shared attribute stream. Zero
+     * for no limit. Only used if shareAttributeStreams is set to true.
+     */
+    @NotNull
+    private Duration attributeStreamTimeToLive = Duration.ZERO;
+
+    /**
+     * Limits for individual policy information points, keyed by the name of the
+     * PIP. The limits bound the impact of a slow or failing PIP on decisions. When
+     * a limit is hit, the attribute evaluates to an error.
+     */
+    @Valid
+    @NotNull
+    private Map<String, PolicyInformationPointLimits> policyInformationPointLimits = new HashMap<>();
+
+    /**
+     * Limits of a policy information point.
+     */
+    @Data
+    public static class PolicyInformationPointLimits {
+
+        /**
+         * Maximum time until an attribute stream emits its first value. Zero for no
+         * limit.
+         */
+        @NotNull
+        private Duration timeToFirstValue = Duration.ZERO;
+
+        /**
+         * Maximum number of concurrently subscribed attribute streams of the PIP. Zero
+         * for no limit.
+         */
+        @PositiveOrZero
+        private int maximumConcurrentStreams = 0;
+
+        /**
+         * Number of most recent attribute streams the failure rate of the circuit
+         * breaker is calculated from. An attribute stream fails if its first value is
+         * an error. Zero disables the circuit breaker.
+         */
+        @PositiveOrZero
+        private int failureRateWindowSize = 0;
+
+        /**
+         * Failure rate opening the circuit breaker.
+         */
+        @DecimalMin(value = "0.0", inclusive = false)
+        @DecimalMax("1.0")
+        private double failureRateThreshold = 0.5D;
+
+        /**
+         * Time the circuit breaker stays open before the PIP is tried again.
+         */
+        @NotNull
+        private Duration circuitOpenDuration = Duration.ofSeconds(30L);
+
+    }
+
 }
@@ -23,6 +23,7 @@
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Role;
@@ -40,17 +41,20 @@
 @AutoConfiguration
 @RequiredArgsConstructor
 @AutoConfigureAfter(FunctionLibrariesAutoConfiguration.class)
+@EnableConfigurationProperties(EmbeddedPDPProperties.class)
 public class FunctionContextAutoConfiguration {
 
     private final Collection<FunctionLibrarySupplier>       functionLibrarySuppliers;
     private final Collection<StaticFunctionLibrarySupplier> staticFunctionLibrarySuppliers;
     private final ConfigurableApplicationContext            applicationContext;
+    private final EmbeddedPDPProperties                     properties;
 
     @Bean
     @ConditionalOnMissingBean
     @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
     FunctionContext functionContext() throws InitializationException {
         var functionContext = new AnnotationFunctionContext();
+        functionContext.setMemoizationCacheMaximumSize(properties.getPureFunctionCacheMaximumSize());
         for (var supplier : functionLibrarySuppliers) {
             for (var library : supplier.get()) {
                 log.trace("loading function library: {}", library.getClass().getSimpleName());
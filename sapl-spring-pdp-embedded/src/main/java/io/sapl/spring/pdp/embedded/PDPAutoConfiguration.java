@@ -17,15 +17,22 @@
  */
 package io.sapl.spring.pdp.embedded;
 
+import java.time.Duration;
+
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Role;
 
 import io.sapl.api.pdp.PolicyDecisionPoint;
+import io.sapl.grammar.sapl.impl.util.RegexUtil.MatchLimits;
+import io.sapl.pdp.DecisionCache;
+import io.sapl.pdp.EmbeddedPDPOptions;
 import io.sapl.pdp.EmbeddedPolicyDecisionPoint;
+import io.sapl.pdp.EvaluationSettings;
 import io.sapl.pdp.config.PDPConfigurationProvider;
 import io.sapl.prp.PolicyRetrievalPoint;
 import lombok.RequiredArgsConstructor;
@@ -34,9 +41,12 @@
 @Slf4j
 @AutoConfiguration
 @RequiredArgsConstructor
+@EnableConfigurationProperties(EmbeddedPDPProperties.class)
 @AutoConfigureAfter({ FunctionLibrariesAutoConfiguration.class, PolicyInformationPointsAutoConfiguration.class })
 public class PDPAutoConfiguration {
 
+    private final EmbeddedPDPProperties pdpProperties;
+
     private final PolicyRetrievalPoint policyRetrievalPoint;
 
     private final PDPConfigurationProvider configurationProvider;
@@ -47,7 +57,34 @@ public class PDPAutoConfiguration {
     PolicyDecisionPoint policyDecisionPoint() {
         log.info("Deploying embedded Policy Decision Point. ConfigProvider: {} PRP: {}",
                 configurationProvider.getClass().getSimpleName(), policyRetrievalPoint.getClass().getSimpleName());
-        return new EmbeddedPolicyDecisionPoint(configurationProvider, policyRetrievalPoint);
+        Duration sharingGracePeriod = null;
+        if (pdpProperties.isShareIdenticalSubscriptions()) {
+            sharingGracePeriod = pdpProperties.getSharedSubscriptionGracePeriod();
+            log.info("Sharing decision streams of identical subscriptions. Grace period: {}", sharingGracePeriod);
+        }
+        DecisionCache decisionCache = null;
+        if (pdpProperties.isCacheOneShotDecisions()) {
+            log.info("Caching one-shot decisions. Maximum size: {} Time to live: {}",
+                    pdpProperties.getDecisionCacheMaximumSize(), pdpProperties.getDecisionCacheTimeToLive());
+            decisionCache = new DecisionCache(pdpProperties.getDecisionCacheMaximumSize(),
+                    pdpProperties.getDecisionCacheTimeToLive());
+        }
+        var regexMatchLimits = new MatchLimits(pdpProperties.getRegexMatchTimeout(),
+                pdpProperties.getRegexMaximumInputLength());
+        var evaluationSettings = new EvaluationSettings(traceFreeEvaluation(), regexMatchLimits);
+        return new EmbeddedPolicyDecisionPoint(configurationProvider, policyRetrievalPoint,
+                new EmbeddedPDPOptions(sharingGracePeriod, decisionCache, evaluationSettings));
+    }
+
+    private boolean traceFreeEvaluation() {
+        if (!pdpProperties.isTraceFreeEvaluation())
+            return false;
+        if (pdpProperties.isPrintTrace() || pdpProperties.isPrintJsonReport() || pdpProperties.isPrintTextReport()) {
+            log.warn("Trace-free evaluation is ignored, because decision reports require evaluation traces.");
+            return false;
+        }
+        log.info("Evaluating policies without recording evaluation traces.");
+        return true;
     }
 
 }
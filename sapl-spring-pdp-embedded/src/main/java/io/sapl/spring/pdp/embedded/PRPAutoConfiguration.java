@@ -17,9 +17,11 @@
  */
 package io.sapl.spring.pdp.embedded;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Role;
@@ -32,6 +34,9 @@
 import io.sapl.prp.PrpUpdateEventSource;
 import io.sapl.prp.index.ImmutableParsedDocumentIndex;
 import io.sapl.prp.index.canonical.CanonicalImmutableParsedDocumentIndex;
+import io.sapl.prp.index.canonical.ordering.AdaptivePredicateOrderStrategy;
+import io.sapl.prp.index.canonical.ordering.DefaultPredicateOrderStrategy;
+import io.sapl.prp.index.canonical.ordering.PredicateOrderStrategy;
 import io.sapl.prp.index.naive.NaiveImmutableParsedDocumentIndex;
 import io.sapl.spring.pdp.embedded.EmbeddedPDPProperties.IndexType;
 import lombok.RequiredArgsConstructor;
@@ -51,7 +56,8 @@ public class PRPAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean
     @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
-    PolicyRetrievalPoint policyRetrievalPoint() throws PolicyEvaluationException {
+    PolicyRetrievalPoint policyRetrievalPoint(ObjectProvider<AdaptivePredicateOrderStrategy> adaptiveOrderStrategy)
+            throws PolicyEvaluationException {
         log.info("Using index type: {}", pdpProperties.getIndex());
         ImmutableParsedDocumentIndex seedIndex;
         if (pdpProperties.getIndex() == IndexType.NAIVE) {
@@ -62,9 +68,22 @@ PolicyRetrievalPoint policyRetrievalPoint() throws PolicyEvaluationException {
             // scoped
             // evaluation context is sufficient. Variables will be bound later in the
             // subscription scoped EvaluationContext handed over for lookup.
-            seedIndex = new CanonicalImmutableParsedDocumentIndex(attributeContext, functionContext);
+            PredicateOrderStrategy predicateOrderStrategy = adaptiveOrderStrategy.getIfAvailable();
+            if (predicateOrderStrategy == null)
+                predicateOrderStrategy = new DefaultPredicateOrderStrategy();
+            seedIndex = new CanonicalImmutableParsedDocumentIndex(predicateOrderStrategy, attributeContext,
+                    functionContext);
         }
         return new GenericInMemoryIndexedPolicyRetrievalPoint(seedIndex, eventSource);
     }
 
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "io.sapl.pdp.embedded", name = "adaptive-predicate-order", havingValue = "true")
+    AdaptivePredicateOrderStrategy adaptivePredicateOrderStrategy() {
+        log.info("Using adaptive predicate order, reordering every {}", pdpProperties.getPredicateReorderInterval());
+        return new AdaptivePredicateOrderStrategy(pdpProperties.getPredicateReorderInterval(),
+                AdaptivePredicateOrderStrategy.DEFAULT_SAMPLING_INTERVAL);
+    }
+
 }
@@ -17,6 +17,10 @@
  */
 package io.sapl.spring.pdp.embedded;
 
+import static io.sapl.util.filemonitoring.FileMonitorUtil.resolveHomeFolderIfPresent;
+
+import java.nio.file.Path;
+
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -49,6 +53,10 @@ PrpUpdateEventSource prpUpdateSource() {
         if (pdpProperties.getPdpConfigType() == EmbeddedPDPProperties.PDPDataSource.FILESYSTEM) {
             log.info("creating embedded PDP sourcing and monitoring access policies from the filesystem: {}",
                     policiesFolder);
+            var snapshotPath = pdpProperties.getPolicySnapshotPath();
+            if (snapshotPath != null && !snapshotPath.isBlank())
+                return new FileSystemPrpUpdateEventSource(policiesFolder, interpreter,
+                        Path.of(resolveHomeFolderIfPresent(snapshotPath)));
             return new FileSystemPrpUpdateEventSource(policiesFolder, interpreter);
         }
         log.info("creating embedded PDP sourcing access policies from fixed bundled resources at: {}", policiesFolder);
@@ -21,16 +21,22 @@
 import static org.mockito.Mockito.mock;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 
+import io.sapl.api.interpreter.Val;
 import io.sapl.api.pip.Attribute;
 import io.sapl.api.pip.PolicyInformationPoint;
 import io.sapl.api.pip.PolicyInformationPointSupplier;
 import io.sapl.interpreter.pip.AnnotationAttributeContext;
 import io.sapl.interpreter.pip.AttributeContext;
+import io.sapl.interpreter.pip.BatchAttributeFinder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 class AttributeContextAutoConfigurationTests {
 
@@ -64,6 +70,80 @@ void whenDefaultLibrariesArePresent_thenAFunctionContextIsPresentAndLoadedThem()
                 });
     }
 
+    @Test
+    void whenContextLoaded_thenAttributeStreamsAreNotSharedByDefault() {
+        contextRunner.run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(
+                    ((AnnotationAttributeContext) context.getBean(AttributeContext.class)).getAttributeStreamBroker())
+                    .isNull();
+        });
+    }
+
+    @Test
+    void whenSharingAttributeStreamsIsEnabled_thenAttributeContextHasABroker() {
+        contextRunner.withPropertyValues("io.sapl.pdp.embedded.share-attribute-streams=true").run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(
+                    ((AnnotationAttributeContext) context.getBean(AttributeContext.class)).getAttributeStreamBroker())
+                    .isNotNull();
+        });
+    }
+
+    @Test
+    void whenPolicyInformationPointLimitsAreConfigured_thenAttributeContextGuardsThePip() {
+        contextRunner
+                .withPropertyValues("io.sapl.pdp.embedded.policy-information-point-limits.time.time-to-first-value=1s",
+                        "io.sapl.pdp.embedded.policy-information-point-limits.time.failure-rate-window-size=10")
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    var attributeContext = (AnnotationAttributeContext) context.getBean(AttributeContext.class);
+                    assertThat(attributeContext.getPolicyInformationPointGuard("time")).isNotNull();
+                    assertThat(attributeContext.getPolicyInformationPointGuard("http")).isNull();
+                });
+    }
+
+    @Test
+    void whenBatchAttributeFinderIsPresent_thenItIsLoaded() {
+        contextRunner.withBean(BatchPolicyInformationPoint.class, BatchPolicyInformationPoint::new)
+                .withBean(BatchAttributeFinder.class, () -> batchAttributeFinder("batch.attribute")).run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context).hasSingleBean(AttributeContext.class);
+                });
+    }
+
+    @Test
+    void whenBatchAttributeFinderForUnknownAttributeIsPresent_thenContextFailsToLoad() {
+        contextRunner.withBean(BatchAttributeFinder.class, () -> batchAttributeFinder("batch.unknown"))
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    private static BatchAttributeFinder batchAttributeFinder(String attributeName) {
+        return new BatchAttributeFinder() {
+
+            @Override
+            public String attributeName() {
+                return attributeName;
+            }
+
+            @Override
+            public Mono<Map<Val, Val>> findAttributes(Set<Val> leftHandValues, List<Val> arguments) {
+                return Mono.just(Map.of());
+            }
+
+        };
+    }
+
+    @PolicyInformationPoint(name = "batch")
+    protected static class BatchPolicyInformationPoint {
+
+        @Attribute
+        public Flux<Val> attribute(Val leftHandValue) {
+            return Flux.just(leftHandValue);
+        }
+
+    }
+
     @Test
     void whenBadLibraryIsPresent_thenContextFailsToLoad() {
         contextRunner
@@ -29,6 +29,7 @@
 import io.sapl.api.functions.Function;
 import io.sapl.api.functions.FunctionLibrary;
 import io.sapl.api.functions.FunctionLibrarySupplier;
+import io.sapl.api.interpreter.Val;
 import io.sapl.interpreter.functions.AnnotationFunctionContext;
 import io.sapl.interpreter.functions.FunctionContext;
 
@@ -57,6 +58,23 @@ void whenDefaultLibrariesArePresent_thenAFunctionContextIsPresentAndLoadedThem()
                 });
     }
 
+    @Test
+    void whenPureFunctionCacheSizeIsConfigured_thenFunctionContextUsesIt() {
+        contextRunner.withPropertyValues("io.sapl.pdp.embedded.pureFunctionCacheMaximumSize=0").run(context -> {
+            assertThat(context).hasNotFailed();
+            var functionContext = context.getBean(AnnotationFunctionContext.class);
+            functionContext.loadLibrary(new PureFunctionLibrary());
+            assertThat(functionContext.evaluate("pure.one", Val.TRUE)).isEqualTo(Val.of(1));
+            assertThat(functionContext.getMemoizedResultsCount()).isZero();
+        });
+    }
+
+    @Test
+    void whenPureFunctionCacheSizeIsNegative_thenContextFailsToLoad() {
+        contextRunner.withPropertyValues("io.sapl.pdp.embedded.pureFunctionCacheMaximumSize=-1")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
     @Test
     void whenFunctionContextIsPresent_thenDoNotLoadANewOne() {
         contextRunner.withBean(FunctionContext.class, () -> mock(FunctionContext.class)).run(context -> {
@@ -73,6 +91,16 @@ void whenBadLibraryIsPresent_thenContextFailsToLoad() {
                 .run(context -> assertThat(context).hasFailed());
     }
 
+    @FunctionLibrary(name = "pure")
+    public static class PureFunctionLibrary {
+
+        @Function(pure = true)
+        public Val one(Val parameter) {
+            return Val.of(1);
+        }
+
+    }
+
     @FunctionLibrary
     protected static class BadFunctionLibrary {
 
@@ -20,11 +20,14 @@
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 
+import java.time.Duration;
+
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 
 import io.sapl.api.pdp.PolicyDecisionPoint;
+import io.sapl.grammar.sapl.impl.util.RegexUtil.MatchLimits;
 import io.sapl.pdp.EmbeddedPolicyDecisionPoint;
 import io.sapl.pdp.config.PDPConfigurationProvider;
 import io.sapl.prp.PolicyRetrievalPoint;
@@ -54,4 +57,43 @@ void whenAnotherPDPIsAlreadyPresent_thenDoNotLoadANewOne() {
         });
     }
 
+    @Test
+    void whenTraceFreeEvaluationIsEnabled_thenTracingIsDisabled() {
+        contextRunner.withPropertyValues("io.sapl.pdp.embedded.trace-free-evaluation=true").run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context).hasSingleBean(EmbeddedPolicyDecisionPoint.class);
+            assertThat(context.getBean(EmbeddedPolicyDecisionPoint.class).getEvaluationSettings().traceFreeEvaluation())
+                    .isTrue();
+        });
+    }
+
+    @Test
+    void whenTraceFreeEvaluationIsEnabledWithReports_thenTracingStaysEnabled() {
+        contextRunner.withPropertyValues("io.sapl.pdp.embedded.trace-free-evaluation=true",
+                "io.sapl.pdp.embedded.print-json-report=true").run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context.getBean(EmbeddedPolicyDecisionPoint.class).getEvaluationSettings()
+                            .traceFreeEvaluation()).isFalse();
+                });
+    }
+
+    @Test
+    void whenRegexLimitsAreConfigured_thenTheyAreApplied() {
+        contextRunner.withPropertyValues("io.sapl.pdp.embedded.regex-match-timeout=250ms",
+                "io.sapl.pdp.embedded.regex-maximum-input-length=1000").run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context.getBean(EmbeddedPolicyDecisionPoint.class).getEvaluationSettings()
+                            .regexMatchLimits()).isEqualTo(new MatchLimits(Duration.ofMillis(250L), 1000));
+                });
+    }
+
+    @Test
+    void whenSharingOfIdenticalSubscriptionsIsEnabled_thenPdpIsCreated() {
+        contextRunner.withPropertyValues("io.sapl.pdp.embedded.share-identical-subscriptions=true",
+                "io.sapl.pdp.embedded.shared-subscription-grace-period=1s").run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context).hasSingleBean(EmbeddedPolicyDecisionPoint.class);
+                });
+    }
+
 }
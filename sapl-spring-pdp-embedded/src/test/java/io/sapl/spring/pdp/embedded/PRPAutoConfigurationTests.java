@@ -30,6 +30,7 @@
 import io.sapl.prp.GenericInMemoryIndexedPolicyRetrievalPoint;
 import io.sapl.prp.PolicyRetrievalPoint;
 import io.sapl.prp.PrpUpdateEventSource;
+import io.sapl.prp.index.canonical.ordering.AdaptivePredicateOrderStrategy;
 import reactor.core.publisher.Flux;
 
 class PRPAutoConfigurationTests {
@@ -61,6 +62,24 @@ void whenPrpWithCanonicalIndexIsConfigured_thenOneIsCreated() {
         });
     }
 
+    @Test
+    void whenAdaptivePredicateOrderIsConfigured_thenStrategyIsCreated() {
+        contextRunner.withPropertyValues("io.sapl.pdp.embedded.index=CANONICAL",
+                "io.sapl.pdp.embedded.adaptive-predicate-order=true").run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context).hasSingleBean(PolicyRetrievalPoint.class);
+                    assertThat(context).hasSingleBean(AdaptivePredicateOrderStrategy.class);
+                });
+    }
+
+    @Test
+    void whenAdaptivePredicateOrderIsNotConfigured_thenNoStrategyIsCreated() {
+        contextRunner.withPropertyValues("io.sapl.pdp.embedded.index=CANONICAL").run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context).doesNotHaveBean(AdaptivePredicateOrderStrategy.class);
+        });
+    }
+
     @Test
     void whenAnotherPRPIsAlreadyPresent_thenDoNotLoadANewOne() {
         contextRunner.withBean(PolicyRetrievalPoint.class, () -> mock(PolicyRetrievalPoint.class)).run(context -> {
@@ -53,6 +53,18 @@ void whenFilesystemPrpIsConfigured_thenOneIsCreated() {
                 });
     }
 
+    @Test
+    void whenFilesystemPrpWithSnapshotIsConfigured_thenOneIsCreated() {
+        contextRunner
+                .withPropertyValues("io.sapl.pdp.embedded.pdpConfigType=FILESYSTEM", "io.sapl.pdp.embedded.index=NAIVE",
+                        "io.sapl.pdp.embedded.configPath=" + tempDir, "io.sapl.pdp.embedded.policiesPath=" + tempDir,
+                        "io.sapl.pdp.embedded.policySnapshotPath=" + new File(tempDir, "policies.snapshot"))
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context).hasSingleBean(FileSystemPrpUpdateEventSource.class);
+                });
+    }
+
     @Test
     void whenResourcesPrpIsConfigured_thenOneIsCreated() {
         contextRunner
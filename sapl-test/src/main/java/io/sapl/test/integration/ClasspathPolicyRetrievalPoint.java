@@ -25,6 +25,7 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -33,6 +34,7 @@
 import io.sapl.interpreter.SAPLInterpreter;
 import io.sapl.prp.PolicyRetrievalPoint;
 import io.sapl.prp.PolicyRetrievalResult;
+import io.sapl.prp.index.ImmutableParsedDocumentIndex;
 import io.sapl.test.SaplTestException;
 import io.sapl.test.utils.ClasspathHelper;
 import io.sapl.test.utils.DocumentHelper;
@@ -119,4 +121,12 @@ private void logMatching(PolicyRetrievalResult result) {
         log.trace("|");
     }
 
+    /**
+     * The documents are loaded once and never change.
+     */
+    @Override
+    public Optional<Flux<ImmutableParsedDocumentIndex>> indexUpdates() {
+        return Optional.of(Flux.never());
+    }
+
 }
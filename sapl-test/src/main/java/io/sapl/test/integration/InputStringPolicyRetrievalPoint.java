@@ -20,6 +20,7 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -27,6 +28,7 @@
 import io.sapl.interpreter.SAPLInterpreter;
 import io.sapl.prp.PolicyRetrievalPoint;
 import io.sapl.prp.PolicyRetrievalResult;
+import io.sapl.prp.index.ImmutableParsedDocumentIndex;
 import io.sapl.test.SaplTestException;
 import io.sapl.test.utils.DocumentHelper;
 import lombok.extern.slf4j.Slf4j;
@@ -88,4 +90,13 @@ private void logMatching(PolicyRetrievalResult result) {
         }
         log.trace("|");
     }
+
+    /**
+     * The documents are loaded once and never change.
+     */
+    @Override
+    public Optional<Flux<ImmutableParsedDocumentIndex>> indexUpdates() {
+        return Optional.of(Flux.never());
+    }
+
 }